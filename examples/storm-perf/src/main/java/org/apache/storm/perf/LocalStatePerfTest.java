@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.apache.storm.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.storm.generated.ExecutorInfo;
+import org.apache.storm.generated.LSWorkerHeartbeat;
+import org.apache.storm.generated.LocalAssignment;
+import org.apache.storm.shade.org.apache.commons.io.FileUtils;
+import org.apache.storm.utils.LocalState;
+
+/**
+ * Measures how fast {@link LocalState} handles the traffic of a busy supervisor: a worker heartbeat written per slot every second and
+ * the local assignments and heartbeats read over and over.
+ *
+ * <p>Each case runs three ways: a new LocalState per call (how workers and supervisors used it before the state was cached), one
+ * LocalState that is reused, and one reused LocalState with the write ahead log. Besides the time, the read and write system calls
+ * and bytes per operation are printed from the I/O counters of the process, so this is best run on Linux.
+ */
+public class LocalStatePerfTest {
+
+    // Usage: LocalStatePerfTest [iterations] [slots]
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int slots = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        Map<Integer, LocalAssignment> assignments = new HashMap<>();
+        for (int port = 6700; port < 6700 + slots; port++) {
+            List<ExecutorInfo> executors = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                executors.add(new ExecutorInfo(i, i));
+            }
+            assignments.put(port, new LocalAssignment("topology-" + port, executors));
+        }
+
+        for (Mode mode : Mode.values()) {
+            File dir = Files.createTempDirectory("local-state-perf").toFile();
+            try {
+                StateSupplier states = mode.supplier(dir.getAbsolutePath());
+                states.get().setLocalAssignmentsMap(assignments);
+
+                IoCounters before = IoCounters.read();
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    LSWorkerHeartbeat hb = new LSWorkerHeartbeat(i, "topology", new ArrayList<>(), 6700);
+                    states.get().setWorkerHeartBeat(hb);
+                    states.get().cleanup(60);
+                }
+                report(mode, "heartbeat writes", iterations, start, before);
+
+                before = IoCounters.read();
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    states.get().getLocalAssignmentsMap();
+                    states.get().getWorkerHeartBeat();
+                }
+                report(mode, "assignment and heartbeat reads", iterations, start, before);
+            } finally {
+                FileUtils.deleteDirectory(dir);
+            }
+        }
+    }
+
+    private static void report(Mode mode, String name, int iterations, long startNs, IoCounters before) throws IOException {
+        double secs = (System.nanoTime() - startNs) / 1_000_000_000.0;
+        IoCounters after = IoCounters.read();
+        System.out.printf("%-8s %-30s %10.0f ops/s %8.1f read calls/op %8.1f write calls/op %10.0f bytes read/op %10.0f bytes written/op%n",
+                          mode, name, iterations / secs, (double) (after.syscr - before.syscr) / iterations,
+                          (double) (after.syscw - before.syscw) / iterations, (double) (after.rchar - before.rchar) / iterations,
+                          (double) (after.wchar - before.wchar) / iterations);
+    }
+
+    private enum Mode {
+        PER_CALL, CACHED, WAL;
+
+        StateSupplier supplier(String dir) throws IOException {
+            switch (this) {
+                case PER_CALL:
+                    return () -> new LocalState(dir, true);
+                case CACHED:
+                    LocalState cached = new LocalState(dir, true);
+                    return () -> cached;
+                default:
+                    LocalState wal = new LocalState(dir, true, true);
+                    return () -> wal;
+            }
+        }
+    }
+
+    private interface StateSupplier {
+        LocalState get() throws IOException;
+    }
+
+    /**
+     * The I/O counters of this process from /proc/self/io, all 0 where that does not exist.
+     */
+    private static class IoCounters {
+        private long syscr;
+        private long syscw;
+        private long rchar;
+        private long wchar;
+
+        static IoCounters read() throws IOException {
+            IoCounters ret = new IoCounters();
+            File io = new File("/proc/self/io");
+            if (!io.exists()) {
+                return ret;
+            }
+            for (String line : Files.readAllLines(io.toPath())) {
+                String[] parts = line.split(":\\s*");
+                if (parts.length != 2) {
+                    continue;
+                }
+                long value = Long.parseLong(parts[1].trim());
+                switch (parts[0]) {
+                    case "syscr":
+                        ret.syscr = value;
+                        break;
+                    case "syscw":
+                        ret.syscw = value;
+                        break;
+                    case "rchar":
+                        ret.rchar = value;
+                        break;
+                    case "wchar":
+                        ret.wchar = value;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return ret;
+        }
+    }
+}
@@ -24,6 +24,8 @@ import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
 import org.apache.storm.trident.state.map.NonTransactionalMap;
 import org.apache.storm.trident.state.map.OpaqueMap;
+import org.apache.storm.trident.state.map.PrefetchingBackingMap;
+import org.apache.storm.trident.state.map.ShardedAsyncBackingMap;
 import org.apache.storm.trident.state.map.TransactionalMap;
 
 /**
@@ -31,12 +33,15 @@ import org.apache.storm.trident.state.map.TransactionalMap;
  *
  * <p>The statefactory supports opaque, transactional and non-transactional configurations.
  * Optionally, the backing map can be wrapped in a {@link CachedMap} by specifying {@link #withCache} (off by default).
+ * Large key lists can be split into several multiGet/multiPut calls that run at the same time by specifying
+ * {@link #withRequestSharding} (off by default). All of them share the statement throttle of the backing map.
  */
 public class CassandraMapStateFactory implements StateFactory {
 
     private final StateType stateType;
     private final CassandraBackingMap.Options options;
     private int cacheSize;
+    private ShardedAsyncBackingMap.Options shardingOptions;
     private Map<String, Object> cassandraConfig;
 
     private CassandraMapStateFactory(StateType stateType, CassandraBackingMap.Options options, Map<String, Object> cassandraConfig) {
@@ -62,6 +67,16 @@ public class CassandraMapStateFactory implements StateFactory {
         return this;
     }
 
+    /**
+     * Split large key lists into requests of at most maxKeysPerRequest keys, and run up to maxConcurrentRequests of them at once.
+     */
+    public CassandraMapStateFactory withRequestSharding(int maxConcurrentRequests, int maxKeysPerRequest) {
+        this.shardingOptions = new ShardedAsyncBackingMap.Options()
+            .withMaxConcurrentRequests(maxConcurrentRequests)
+            .withMaxKeysPerRequest(maxKeysPerRequest);
+        return this;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public State makeState(Map<String, Object> conf, IMetricsContext metrics, int partitionIndex, int numPartitions) {
@@ -69,9 +84,16 @@ public class CassandraMapStateFactory implements StateFactory {
         CassandraBackingMap cassandraBackingMap = new CassandraBackingMap(cassandraConfig, options);
         cassandraBackingMap.prepare();
 
-        IBackingMap backingMap = cacheSize > 0
-            ? new CachedMap<>(cassandraBackingMap, cacheSize)
+        IBackingMap backingMap = shardingOptions != null
+            ? new ShardedAsyncBackingMap<>(cassandraBackingMap, shardingOptions)
             : cassandraBackingMap;
+        backingMap = PrefetchingBackingMap.wrapIfEnabled(conf, backingMap);
+
+        if (cacheSize > 0) {
+            CachedMap<?> cachedMap = new CachedMap<>(backingMap, cacheSize);
+            cachedMap.registerMetrics(metrics, "cassandra-map-state-cache");
+            backingMap = cachedMap;
+        }
 
         MapState<?> mapState;
 
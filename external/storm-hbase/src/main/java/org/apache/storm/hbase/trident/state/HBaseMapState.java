@@ -52,6 +52,7 @@ import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
 import org.apache.storm.trident.state.map.NonTransactionalMap;
 import org.apache.storm.trident.state.map.OpaqueMap;
+import org.apache.storm.trident.state.map.ShardedAsyncBackingMap;
 import org.apache.storm.trident.state.map.SnapshottableMap;
 import org.apache.storm.trident.state.map.TransactionalMap;
 import org.apache.storm.tuple.Values;
@@ -148,7 +149,7 @@ public class HBaseMapState<T> implements IBackingMap<T> {
             byte[] hbaseKey = this.options.mapMapper.rowKey(key);
             String qualifier = this.options.mapMapper.qualifier(key);
 
-            LOG.info("Partition: {}, GET: {}", this.partitionNum, new String(hbaseKey));
+            LOG.debug("Partition: {}, GET: {}", this.partitionNum, new String(hbaseKey));
             Get get = new Get(hbaseKey);
             get.addColumn(this.options.columnFamily.getBytes(), qualifier.getBytes());
             gets.add(get);
@@ -179,13 +180,14 @@ public class HBaseMapState<T> implements IBackingMap<T> {
         for (int i = 0; i < keys.size(); i++) {
             byte[] hbaseKey = this.options.mapMapper.rowKey(keys.get(i));
             String qualifier = this.options.mapMapper.qualifier(keys.get(i));
-            LOG.info("Partiton: {}, Key: {}, Value: {}",
-                     new Object[]{ this.partitionNum, new String(hbaseKey), new String(this.serializer.serialize(values.get(i))) });
+            byte[] value = this.serializer.serialize(values.get(i));
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Partiton: {}, Key: {}, Value: {}", this.partitionNum, new String(hbaseKey), new String(value));
+            }
             Put put = new Put(hbaseKey);
-            T val = values.get(i);
             put.addColumn(this.options.columnFamily.getBytes(),
                     qualifier.getBytes(),
-                    this.serializer.serialize(val));
+                    value);
 
             puts.add(put);
         }
@@ -209,6 +211,11 @@ public class HBaseMapState<T> implements IBackingMap<T> {
         public String tableName;
         public String columnFamily;
         public TridentHBaseMapMapper mapMapper;
+        /**
+         * Maximum number of keys in a single request to HBase, 0 for no limit. HBase already spreads a request over the region
+         * servers in parallel, and its tables are not thread safe, so the requests are sent one after the other.
+         */
+        public int maxKeysPerRequest = 0;
     }
 
     protected static class Factory implements StateFactory {
@@ -239,8 +246,16 @@ public class HBaseMapState<T> implements IBackingMap<T> {
             LOG.info("Preparing HBase State for partition {} of {}.", partitionIndex + 1, numPartitions);
             IBackingMap state = new HBaseMapState(options, conf, partitionIndex);
 
+            if (options.maxKeysPerRequest > 0) {
+                state = new ShardedAsyncBackingMap(state, new ShardedAsyncBackingMap.Options()
+                    .withMaxConcurrentRequests(1)
+                    .withMaxKeysPerRequest(options.maxKeysPerRequest));
+            }
+
             if (options.cacheSize > 0) {
-                state = new CachedMap(state, options.cacheSize);
+                CachedMap cachedMap = new CachedMap(state, options.cacheSize);
+                cachedMap.registerMetrics(metrics, "hbase-map-state-cache");
+                state = cachedMap;
             }
 
             MapState mapState;
@@ -45,6 +45,7 @@ import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
 import org.apache.storm.trident.state.map.NonTransactionalMap;
 import org.apache.storm.trident.state.map.OpaqueMap;
+import org.apache.storm.trident.state.map.PrefetchingBackingMap;
 import org.apache.storm.trident.state.map.SnapshottableMap;
 import org.apache.storm.trident.state.map.TransactionalMap;
 import org.apache.storm.tuple.Values;
@@ -149,10 +150,12 @@ public class MongoMapState<T> implements IBackingMap<T> {
         @SuppressWarnings({"rawtypes", "unchecked"})
         @Override
         public State makeState(Map<String, Object> conf, IMetricsContext metrics, int partitionIndex, int numPartitions) {
-            IBackingMap state = new MongoMapState(conf, options);
+            IBackingMap state = PrefetchingBackingMap.wrapIfEnabled(conf, new MongoMapState(conf, options));
 
             if (options.cacheSize > 0) {
-                state = new CachedMap(state, options.cacheSize);
+                CachedMap cachedMap = new CachedMap(state, options.cacheSize);
+                cachedMap.registerMetrics(metrics, "mongo-map-state-cache");
+                state = cachedMap;
             }
 
             MapState mapState;
@@ -26,6 +26,7 @@ import org.apache.storm.trident.state.JSONTransactionalSerializer;
 import org.apache.storm.trident.state.Serializer;
 import org.apache.storm.trident.state.StateType;
 import org.apache.storm.trident.state.map.IBackingMap;
+import org.apache.storm.trident.state.map.ShardedAsyncBackingMap;
 
 /**
  * AbstractRedisMapState is base class of any RedisMapState, which implements IBackingMap.
@@ -102,6 +103,22 @@ public abstract class AbstractRedisMapState<T> implements IBackingMap<T> {
         return result;
     }
 
+    /**
+     * Wraps the state so that large key lists are split into several requests sent in parallel, if the options ask for it.
+     *
+     * @param state the state to wrap
+     * @param options options of State
+     * @return the state to use
+     */
+    static IBackingMap withRequestSharding(IBackingMap state, Options options) {
+        if (options.maxConcurrentRequests <= 1 && options.maxKeysPerRequest <= 0) {
+            return state;
+        }
+        return new ShardedAsyncBackingMap(state, new ShardedAsyncBackingMap.Options()
+            .withMaxConcurrentRequests(Math.max(1, options.maxConcurrentRequests))
+            .withMaxKeysPerRequest(Math.max(0, options.maxKeysPerRequest)));
+    }
+
     /**
      * Returns Serializer which is used for serializing tuple value and deserializing Redis value.
      *
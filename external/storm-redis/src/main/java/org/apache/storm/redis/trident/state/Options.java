@@ -32,4 +32,13 @@ public class Options<T> implements Serializable {
     public Serializer<T> serializer = null;
     public RedisDataTypeDescription dataTypeDescription = DEFAULT_REDIS_DATATYPE;
     public int expireIntervalSec = 0;
+    /**
+     * Maximum number of requests sent to Redis at the same time for a single multiGet or multiPut.
+     * Keep it below the maximum size of the connection pool.
+     */
+    public int maxConcurrentRequests = 1;
+    /**
+     * Maximum number of keys in a single request to Redis, 0 for no limit.
+     */
+    public int maxKeysPerRequest = 0;
 }
@@ -25,9 +25,11 @@ import org.apache.storm.trident.state.StateFactory;
 import org.apache.storm.trident.state.StateType;
 import org.apache.storm.trident.state.TransactionalValue;
 import org.apache.storm.trident.state.map.CachedMap;
+import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
 import org.apache.storm.trident.state.map.NonTransactionalMap;
 import org.apache.storm.trident.state.map.OpaqueMap;
+import org.apache.storm.trident.state.map.PrefetchingBackingMap;
 import org.apache.storm.trident.state.map.SnapshottableMap;
 import org.apache.storm.trident.state.map.TransactionalMap;
 import org.apache.storm.tuple.Values;
@@ -324,7 +326,9 @@ public class RedisClusterMapState<T> extends AbstractRedisMapState<T> {
                                                          DEFAULT_POOL_CONFIG);
 
             RedisClusterMapState state = new RedisClusterMapState(jedisCluster, options, serializer, keyFactory);
-            CachedMap c = new CachedMap(state, options.localCacheSize);
+            IBackingMap backing = PrefetchingBackingMap.wrapIfEnabled(conf, withRequestSharding(state, options));
+            CachedMap c = new CachedMap(backing, options.localCacheSize);
+            c.registerMetrics(metrics, "redis-cluster-map-state-cache");
 
             MapState ms;
             if (type == StateType.NON_TRANSACTIONAL) {
@@ -24,9 +24,11 @@ import org.apache.storm.trident.state.StateFactory;
 import org.apache.storm.trident.state.StateType;
 import org.apache.storm.trident.state.TransactionalValue;
 import org.apache.storm.trident.state.map.CachedMap;
+import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
 import org.apache.storm.trident.state.map.NonTransactionalMap;
 import org.apache.storm.trident.state.map.OpaqueMap;
+import org.apache.storm.trident.state.map.PrefetchingBackingMap;
 import org.apache.storm.trident.state.map.SnapshottableMap;
 import org.apache.storm.trident.state.map.TransactionalMap;
 import org.apache.storm.tuple.Values;
@@ -353,7 +355,9 @@ public class RedisMapState<T> extends AbstractRedisMapState<T> {
                                                 jedisPoolConfig.getPassword(),
                                                 jedisPoolConfig.getDatabase());
             RedisMapState state = new RedisMapState(jedisPool, options, serializer, keyFactory);
-            CachedMap c = new CachedMap(state, options.localCacheSize);
+            IBackingMap backing = PrefetchingBackingMap.wrapIfEnabled(conf, withRequestSharding(state, options));
+            CachedMap c = new CachedMap(backing, options.localCacheSize);
+            c.registerMetrics(metrics, "redis-map-state-cache");
 
             MapState ms;
             if (type == StateType.NON_TRANSACTIONAL) {
@@ -318,6 +318,74 @@ public class Config extends HashMap<String, Object> {
      */
     public static final String TOPOLOGY_RAS_ORDER_EXECUTORS_BY_PROXIMITY_NEEDS = "topology.ras.order.executors.by.proximity.needs";
 
+    /**
+     * If set to true, rebalancing the topology measures the tuples sent between its components and the resource aware strategies
+     * schedule executors that exchange the most tuples next to each other, in the same worker or on the same node where possible.
+     */
+    @IsBoolean
+    public static final String TOPOLOGY_RAS_ORDER_EXECUTORS_BY_TRAFFIC = "topology.ras.order.executors.by.traffic";
+
+    /**
+     * If set to true, rebalancing the topology keeps the slots of its unchanged workers and only schedules the executors that are not
+     * assigned anymore, like those of components whose parallelism changed, instead of scheduling the whole topology again. Workers
+     * whose executors did not change keep running and just update their connections to the moved executors, the other workers are
+     * restarted as usual, there is no drain or migration of their executors. This only applies to rebalances that change the number
+     * of executors, a rebalance that also changes the number of workers, the resources or the configuration of the topology is
+     * scheduled from scratch. Can be passed to a rebalance as a topology configuration override, which only applies to that rebalance
+     * and is not kept in the topology configuration.
+     */
+    @IsBoolean
+    public static final String TOPOLOGY_REBALANCE_IN_PLACE = "topology.rebalance.in.place";
+
+    /**
+     * If set to true, nimbus changes the number of executors of the components of the topology on its own when it runs a
+     * {@code nimbus.topology.autoscaler.plugin.class}. The other topology.autoscale settings tune the default autoscaler and can be
+     * set per component.
+     */
+    @IsBoolean
+    public static final String TOPOLOGY_AUTOSCALE_ENABLE = "topology.autoscale.enable";
+
+    /**
+     * The capacity above which a bolt gets more executors when autoscaling.
+     */
+    @IsPositiveNumber
+    public static final String TOPOLOGY_AUTOSCALE_CAPACITY_HIGH = "topology.autoscale.capacity.high";
+
+    /**
+     * The capacity below which a bolt gets fewer executors when autoscaling.
+     */
+    @IsPositiveNumber
+    public static final String TOPOLOGY_AUTOSCALE_CAPACITY_LOW = "topology.autoscale.capacity.low";
+
+    /**
+     * How many evaluations in a row a bolt has to be over or under its capacity targets before autoscaling changes its executors.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_AUTOSCALE_EVALUATIONS = "topology.autoscale.evaluations";
+
+    /**
+     * The fewest executors autoscaling leaves a component with.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_AUTOSCALE_MIN_EXECUTORS = "topology.autoscale.min.executors";
+
+    /**
+     * The most executors autoscaling gives a component, defaults to its number of tasks which is also the upper limit.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_AUTOSCALE_MAX_EXECUTORS = "topology.autoscale.max.executors";
+
+    /**
+     * How long to leave a component alone after autoscaling changed its topology, so its stats reflect the new executors. Can be set
+     * per component.
+     */
+    @IsInteger
+    @IsPositiveNumber(includeZero = true)
+    public static final String TOPOLOGY_AUTOSCALE_COOLDOWN_SECS = "topology.autoscale.cooldown.secs";
+
     /**
      * Declare scheduling constraints for a topology used by the constraint solver strategy. The format can be either
      * old style (validated by ListOfListOfStringValidator.class or the newer style, which is a list of specific type of
@@ -361,6 +429,14 @@ public class Config extends HashMap<String, Object> {
     @IsInteger
     @IsPositiveNumber
     public static final String TOPOLOGY_RAS_CONSTRAINT_MAX_STATE_SEARCH = "topology.ras.constraint.max.state.search";
+    /**
+     * The number of threads ConstraintSolverStrategy uses to search for a solution. With more than one thread, the nodes the first
+     * executor could be placed on are split into one branch per thread, and the first branch to find a solution wins. The branches
+     * search up to {@link #TOPOLOGY_RAS_CONSTRAINT_MAX_STATE_SEARCH} states together.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_RAS_CONSTRAINT_SEARCH_THREADS = "topology.ras.constraint.search.threads";
     /*
      * Whether to limit each worker to one executor. This is useful for debugging topologies to clearly identify workers that
      * are slow/crashing and for estimating resource requirements and capacity.
@@ -764,6 +840,20 @@ public class Config extends HashMap<String, Object> {
     @IsInteger
     @IsPositiveNumber
     public static final String TOPOLOGY_TRIDENT_WINDOWING_INMEMORY_CACHE_LIMIT = "topology.trident.windowing.cache.tuple.limit";
+    /**
+     * Maximum number of groups the map side of a grouped combiner aggregation, such as {@code groupBy(...).persistentAggregate(...)}
+     * with a {@code CombinerAggregator}, keeps in memory per batch. When it is reached the partial results are sent on and the map side
+     * starts over, so memory stays bounded at the cost of sending a key more than once for high cardinality batches.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_TRIDENT_PARTIAL_AGGREGATION_MAX_GROUPS = "topology.trident.partial.aggregation.max.groups";
+    /**
+     * Whether the map states that support it read the keys of a batch in the background while the batch waits for its commit, instead
+     * of reading them when the batch commits. The backing store must allow a read and a write of the same partition to run at once.
+     */
+    @IsBoolean
+    public static final String TOPOLOGY_TRIDENT_STATE_PREFETCH = "topology.trident.state.prefetch";
     /**
      * The id assigned to a running topology. The id is the storm name with a unique nonce appended.
      */
@@ -982,6 +1072,13 @@ public class Config extends HashMap<String, Object> {
      */
     @IsStringList
     public static final String PACEMAKER_SERVERS = "pacemaker.servers";
+    /**
+     * Whether the heartbeats of topologies are partitioned across the Pacemaker servers instead of every server being able to hold all
+     * of them. The servers of a topology are picked by consistent hashing of its id, it is written to the first one that is up and read
+     * from the first two. Must be set the same for all daemons of the cluster.
+     */
+    @IsBoolean
+    public static final String PACEMAKER_SHARDING_ENABLE = "pacemaker.sharding.enable";
     /**
      * The port Pacemaker should run on. Clients should connect to this port to submit or read heartbeats.
      */
@@ -1568,6 +1665,12 @@ public class Config extends HashMap<String, Object> {
     @IsInteger
     public static final String STORM_BLOBSTORE_DEPENDENCY_JAR_UPLOAD_CHUNK_SIZE_BYTES =
             "storm.blobstore.dependency.jar.upload.chunk.size.bytes";
+    /**
+     * Whether storm clients upload dependency jars under a key made from the SHA-256 of their content, instead of a random one. A jar
+     * that is in the blob store already is then not uploaded again, and nimbus only deletes it when no topology uses it anymore.
+     */
+    @IsBoolean
+    public static final String STORM_BLOBSTORE_DEPENDENCY_JAR_CONTENT_ADDRESSED = "storm.blobstore.dependency.jar.content.addressed";
     /**
      * FQCN of a class that implements {@code ISubmitterHook} @see ISubmitterHook for details.
      */
@@ -1700,11 +1803,30 @@ public class Config extends HashMap<String, Object> {
      */
     @IsInteger
     public static final String STORM_ZOOKEEPER_RETRY_TIMES = "storm.zookeeper.retry.times";
+    /**
+     * Whether bulk writes to ZooKeeper, like the assignments of a scheduling round or the cleanup of killed topologies, are sent as
+     * multi-op transactions and asynchronous requests instead of one request at a time.
+     */
+    @IsBoolean
+    public static final String STORM_ZOOKEEPER_BATCH_WRITES_ENABLE = "storm.zookeeper.batch.writes.enable";
+    /**
+     * The maximum number of asynchronous ZooKeeper requests of a bulk write that can be outstanding at the same time.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String STORM_ZOOKEEPER_BATCH_MAX_OUTSTANDING = "storm.zookeeper.batch.max.outstanding";
     /**
      * The ClusterState factory that worker will use to create a ClusterState to store state in. Defaults to ZooKeeper.
      */
     @IsString
     public static final String STORM_CLUSTER_STATE_STORE = "storm.cluster.state.store";
+    /**
+     * Whether nimbus and the supervisors keep an in-memory mirror of the assignments, storm bases and errors in ZooKeeper that is kept up
+     * to date with watches, and read them from it instead of from ZooKeeper. Supervisors only mirror the assignments, the only one of
+     * them they read.
+     */
+    @IsBoolean
+    public static final String STORM_CLUSTER_STATE_CACHE_ENABLE = "storm.cluster.state.cache.enable";
     /**
      * How often this worker should heartbeat to the supervisor.
      */
@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.cluster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.storm.callback.ZKStateChangedCallback;
+import org.apache.storm.shade.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.storm.shade.org.apache.curator.framework.CuratorFramework;
+import org.apache.storm.shade.org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.storm.shade.org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.storm.shade.org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.storm.shade.org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.storm.shade.org.apache.zookeeper.Watcher;
+import org.apache.storm.shade.org.apache.zookeeper.data.ACL;
+import org.apache.storm.zookeeper.ClientZookeeper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves reads of the subtrees that are read the most, like the assignments and the storm bases, from an in-memory mirror of them that
+ * ZooKeeper keeps up to date, instead of a round trip for every read. Everything else, and all writes, go to ZooKeeper.
+ *
+ * <p>Watches set by reads from the mirror fire once, like ZooKeeper watches, when the mirror sees the change. A node written through this
+ * storage is read from ZooKeeper until the mirror sees the write, so a daemon always reads its own writes.
+ */
+@SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+public class CachedZKStateStorage implements IStateStorage {
+    // the subtrees nimbus reads the most
+    static final String[] NIMBUS_SUBTREES = {
+        ClusterUtils.ASSIGNMENTS_SUBTREE,
+        ClusterUtils.STORMS_SUBTREE,
+        ClusterUtils.ERRORS_SUBTREE
+    };
+    // supervisors only read the assignments of the cached subtrees
+    static final String[] SUPERVISOR_SUBTREES = {
+        ClusterUtils.ASSIGNMENTS_SUBTREE
+    };
+    private static final Logger LOG = LoggerFactory.getLogger(CachedZKStateStorage.class);
+    // how long a node that was written is read from ZooKeeper if the mirror does not see the write
+    private static final long PENDING_WRITE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final IStateStorage delegate;
+    private final String[] subtrees;
+    private final ExecutorService eventExecutor;
+    private final Map<String, TreeCache> caches = new ConcurrentHashMap<>();
+    private final Set<String> initialized = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean connected = new AtomicBoolean(true);
+    private final ConcurrentHashMap<String, ZKStateChangedCallback> callbacks = new ConcurrentHashMap<>();
+    // path -> when it is read from the mirror again, even if the mirror did not see the write
+    private final ConcurrentHashMap<String, Long> pendingWrites = new ConcurrentHashMap<>();
+    private final Set<String> dataWatches = ConcurrentHashMap.newKeySet();
+    private final Set<String> childWatches = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Mirror some subtrees.
+     *
+     * @param delegate the storage for everything that is not read from the mirror.
+     * @param zk the client to keep the mirror up to date with.
+     * @param subtrees the subtrees to mirror.
+     */
+    public CachedZKStateStorage(IStateStorage delegate, CuratorFramework zk, String... subtrees) throws Exception {
+        this.delegate = delegate;
+        this.subtrees = subtrees;
+        this.eventExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("cluster-state-cache").build());
+        for (String subtree : subtrees) {
+            TreeCache cache = TreeCache.newBuilder(zk, subtree).setCacheData(true).setExecutor(eventExecutor).build();
+            cache.getListenable().addListener((client, event) -> handleEvent(subtree, event));
+            caches.put(subtree, cache);
+            cache.start();
+        }
+    }
+
+    private void handleEvent(String subtree, TreeCacheEvent event) {
+        switch (event.getType()) {
+            case INITIALIZED:
+                LOG.info("Mirrored {}", subtree);
+                initialized.add(subtree);
+                break;
+            case CONNECTION_SUSPENDED:
+            case CONNECTION_LOST:
+                connected.set(false);
+                break;
+            case CONNECTION_RECONNECTED:
+                connected.set(true);
+                break;
+            case NODE_ADDED:
+                changed(event.getData().getPath(), Watcher.Event.EventType.NodeCreated);
+                break;
+            case NODE_UPDATED:
+                changed(event.getData().getPath(), Watcher.Event.EventType.NodeDataChanged);
+                break;
+            case NODE_REMOVED:
+                changed(event.getData().getPath(), Watcher.Event.EventType.NodeDeleted);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void changed(String path, Watcher.Event.EventType type) {
+        pendingWrites.remove(path);
+        if (dataWatches.remove(path)) {
+            fire(type, path);
+        }
+        String parent = ClientZookeeper.parentPath(path);
+        if (type != Watcher.Event.EventType.NodeDataChanged && childWatches.remove(parent)) {
+            fire(Watcher.Event.EventType.NodeChildrenChanged, parent);
+        }
+    }
+
+    private void fire(Watcher.Event.EventType type, String path) {
+        for (ZKStateChangedCallback callback : callbacks.values()) {
+            callback.changed(type, path);
+        }
+    }
+
+    /**
+     * Get the mirror to read a path from.
+     *
+     * @param path the normalized path.
+     * @param children whether the children of the path are read.
+     * @return the mirror, or null if the path is read from ZooKeeper.
+     */
+    private TreeCache cacheFor(String path, boolean children) {
+        if (!connected.get()) {
+            return null;
+        }
+        for (String subtree : subtrees) {
+            if (path.equals(subtree) || path.startsWith(subtree + ClusterUtils.ZK_SEPERATOR)) {
+                if (!initialized.contains(subtree) || isPending(path, children)) {
+                    return null;
+                }
+                return caches.get(subtree);
+            }
+        }
+        return null;
+    }
+
+    private boolean isPending(String path, boolean children) {
+        long now = System.nanoTime();
+        for (Map.Entry<String, Long> pending : pendingWrites.entrySet()) {
+            if (pending.getValue() - now < 0) {
+                pendingWrites.remove(pending.getKey(), pending.getValue());
+                continue;
+            }
+            String written = pending.getKey();
+            if (path.equals(written) || path.startsWith(written + ClusterUtils.ZK_SEPERATOR)
+                || (children && ClientZookeeper.parentPath(written).equals(path))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writing(String path) {
+        pendingWrites.put(ClientZookeeper.normalizePath(path), System.nanoTime() + PENDING_WRITE_TIMEOUT_NANOS);
+    }
+
+    /**
+     * Check if the mirror knows whether a node exists, a write that creates a node that exists or deletes one that does not changes
+     * nothing, so the mirror does not see it.
+     *
+     * @return true or false if the mirror has the node or not, null if it is not known.
+     */
+    private Boolean mirrorHas(String path) {
+        String npath = ClientZookeeper.normalizePath(path);
+        TreeCache cache = cacheFor(npath, false);
+        return cache == null ? null : cache.getCurrentData(npath) != null;
+    }
+
+    private void deleting(String path) {
+        if (!Boolean.FALSE.equals(mirrorHas(path))) {
+            writing(path);
+        }
+    }
+
+    @Override
+    public String register(ZKStateChangedCallback callback) {
+        String id = delegate.register(callback);
+        callbacks.put(id, callback);
+        return id;
+    }
+
+    @Override
+    public void unregister(String id) {
+        callbacks.remove(id);
+        delegate.unregister(id);
+    }
+
+    @Override
+    public String create_sequential(String path, byte[] data, List<ACL> acls) {
+        String ret = delegate.create_sequential(path, data, acls);
+        writing(ret);
+        return ret;
+    }
+
+    @Override
+    public void mkdirs(String path, List<ACL> acls) {
+        if (!Boolean.TRUE.equals(mirrorHas(path))) {
+            writing(path);
+        }
+        delegate.mkdirs(path, acls);
+    }
+
+    @Override
+    public void delete_node(String path) {
+        deleting(path);
+        delegate.delete_node(path);
+    }
+
+    @Override
+    public void delete_node_all(Collection<String> paths) {
+        for (String path : paths) {
+            deleting(path);
+        }
+        delegate.delete_node_all(paths);
+    }
+
+    @Override
+    public void set_ephemeral_node(String path, byte[] data, List<ACL> acls) {
+        writing(path);
+        delegate.set_ephemeral_node(path, data, acls);
+    }
+
+    @Override
+    public Integer get_version(String path, boolean watch) throws Exception {
+        String npath = ClientZookeeper.normalizePath(path);
+        TreeCache cache = cacheFor(npath, false);
+        if (cache == null) {
+            return delegate.get_version(path, watch);
+        }
+        if (watch) {
+            dataWatches.add(npath);
+        }
+        ChildData data = cache.getCurrentData(npath);
+        return data == null ? null : data.getStat().getVersion();
+    }
+
+    @Override
+    public boolean node_exists(String path, boolean watch) {
+        String npath = ClientZookeeper.normalizePath(path);
+        TreeCache cache = cacheFor(npath, false);
+        if (cache == null) {
+            return delegate.node_exists(path, watch);
+        }
+        if (watch) {
+            dataWatches.add(npath);
+        }
+        return cache.getCurrentData(npath) != null;
+    }
+
+    @Override
+    public List<String> get_children(String path, boolean watch) {
+        String npath = ClientZookeeper.normalizePath(path);
+        TreeCache cache = cacheFor(npath, true);
+        Map<String, ChildData> children = cache == null ? null : cache.getCurrentChildren(npath);
+        if (children == null) {
+            // A node that does not exist fails the same way it does without the mirror
+            return delegate.get_children(path, watch);
+        }
+        if (watch) {
+            childWatches.add(npath);
+        }
+        return new ArrayList<>(children.keySet());
+    }
+
+    @Override
+    public void close() {
+        for (TreeCache cache : caches.values()) {
+            cache.close();
+        }
+        eventExecutor.shutdownNow();
+        delegate.close();
+    }
+
+    @Override
+    public void set_data(String path, byte[] data, List<ACL> acls) {
+        writing(path);
+        delegate.set_data(path, data, acls);
+    }
+
+    @Override
+    public void set_data_all(Map<String, byte[]> pathToData, Map<String, List<ACL>> pathToAcls) {
+        for (String path : pathToData.keySet()) {
+            writing(path);
+        }
+        delegate.set_data_all(pathToData, pathToAcls);
+    }
+
+    @Override
+    public byte[] get_data(String path, boolean watch) {
+        String npath = ClientZookeeper.normalizePath(path);
+        TreeCache cache = cacheFor(npath, false);
+        if (cache == null) {
+            return delegate.get_data(path, watch);
+        }
+        if (watch) {
+            dataWatches.add(npath);
+        }
+        ChildData data = cache.getCurrentData(npath);
+        return data == null ? null : data.getData();
+    }
+
+    @Override
+    public VersionedData<byte[]> get_data_with_version(String path, boolean watch) {
+        String npath = ClientZookeeper.normalizePath(path);
+        TreeCache cache = cacheFor(npath, false);
+        if (cache == null) {
+            return delegate.get_data_with_version(path, watch);
+        }
+        if (watch) {
+            dataWatches.add(npath);
+        }
+        ChildData data = cache.getCurrentData(npath);
+        if (data == null || data.getData() == null) {
+            return null;
+        }
+        return new VersionedData<>(data.getStat().getVersion(), data.getData());
+    }
+
+    @Override
+    public void set_worker_hb(String path, byte[] data, List<ACL> acls) {
+        delegate.set_worker_hb(path, data, acls);
+    }
+
+    @Override
+    public byte[] get_worker_hb(String path, boolean watch) {
+        return delegate.get_worker_hb(path, watch);
+    }
+
+    @Override
+    public List<String> get_worker_hb_children(String path, boolean watch) {
+        return delegate.get_worker_hb_children(path, watch);
+    }
+
+    @Override
+    public Map<String, byte[]> get_worker_hb_children_data(String path, boolean watch) {
+        return delegate.get_worker_hb_children_data(path, watch);
+    }
+
+    @Override
+    public void delete_worker_hb(String path) {
+        delegate.delete_worker_hb(path);
+    }
+
+    @Override
+    public void add_listener(ConnectionStateListener listener) {
+        delegate.add_listener(listener);
+    }
+
+    @Override
+    public void sync_path(String path) {
+        delegate.sync_path(path);
+    }
+
+    @Override
+    public void delete_node_blobstore(String path, String nimbusHostPortInfo) {
+        delegate.delete_node_blobstore(path, nimbusHostPortInfo);
+    }
+}
@@ -12,6 +12,7 @@
 
 package org.apache.storm.cluster;
 
+import com.codahale.metrics.MetricRegistry;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,7 @@ import org.apache.storm.shade.org.apache.zookeeper.data.ACL;
 public class ClusterStateContext {
 
     private final Map<String, Object> conf;
+    private final MetricRegistry metrics = new MetricRegistry();
     private DaemonType daemonType;
 
     public ClusterStateContext() {
@@ -41,6 +43,13 @@ public class ClusterStateContext {
         return daemonType;
     }
 
+    /**
+     * Get the metrics of the state store, for the daemon to report with its own.
+     */
+    public MetricRegistry getMetrics() {
+        return metrics;
+    }
+
     public List<ACL> getDefaultZkAcls() {
         return daemonType.getDefaultZkAcls(conf);
     }
@@ -13,7 +13,10 @@
 package org.apache.storm.cluster;
 
 import java.io.Closeable;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.storm.callback.ZKStateChangedCallback;
 import org.apache.storm.shade.org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.storm.shade.org.apache.zookeeper.data.ACL;
@@ -84,6 +87,31 @@ public interface IStateStorage extends Closeable {
      */
     void set_ephemeral_node(String path, byte[] data, List<ACL> acls);
 
+    /**
+     * Set the value of many nodes, creating the ones that do not exist. Stores that can write them in fewer round trips should override
+     * this.
+     *
+     * @param pathToData the path of each node -> the value to set.
+     * @param pathToAcls the path of each node -> the acls to create it with.
+     */
+    default void set_data_all(Map<String, byte[]> pathToData, Map<String, List<ACL>> pathToAcls) {
+        for (Map.Entry<String, byte[]> entry : pathToData.entrySet()) {
+            set_data(entry.getKey(), entry.getValue(), pathToAcls.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Delete many nodes and their children, nodes that do not exist are skipped. Stores that can delete them in fewer round trips
+     * should override this.
+     *
+     * @param paths the paths of the nodes to delete.
+     */
+    default void delete_node_all(Collection<String> paths) {
+        for (String path : paths) {
+            delete_node(path);
+        }
+    }
+
     /**
      * Gets the 'version' of the node at a path. Optionally sets a watch on that node. The version should increase whenever a write
      * happens.
@@ -180,6 +208,25 @@ public interface IStateStorage extends Closeable {
      */
     List<String> get_worker_hb_children(String path, boolean watch);
 
+    /**
+     * Get the heartbeats of all the child nodes which exist immediately under path. Stores that can do it in one round trip should
+     * override this.
+     *
+     * @param path  The path to look under
+     * @param watch Whether or not to set a watch on the path.
+     * @return the name of each child node -> the heartbeat at it.
+     */
+    default Map<String, byte[]> get_worker_hb_children_data(String path, boolean watch) {
+        Map<String, byte[]> ret = new HashMap<>();
+        for (String child : get_worker_hb_children(path, watch)) {
+            byte[] data = get_worker_hb(path + ClusterUtils.ZK_SEPERATOR + child, watch);
+            if (data != null) {
+                ret.put(child, data);
+            }
+        }
+        return ret;
+    }
+
     /**
      * Deletes the heartbeat at a given path, and any child nodes that may exist.
      *
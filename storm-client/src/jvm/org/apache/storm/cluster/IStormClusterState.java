@@ -12,6 +12,7 @@
 
 package org.apache.storm.cluster;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -142,6 +143,20 @@ public interface IStormClusterState {
 
     void teardownHeartbeats(String stormId);
 
+    /**
+     * Remove the heartbeats, errors, worker keys and backpressure of topologies that are gone.
+     *
+     * @param stormIds the topologies to clean up after.
+     */
+    default void teardownTopologies(Collection<String> stormIds) {
+        for (String stormId : stormIds) {
+            teardownHeartbeats(stormId);
+            teardownTopologyErrors(stormId);
+            removeAllPrivateWorkerKeys(stormId);
+            removeBackpressure(stormId);
+        }
+    }
+
     void teardownTopologyErrors(String stormId);
 
     List<String> heartbeatStorms();
@@ -212,6 +227,18 @@ public interface IStormClusterState {
 
     void setAssignment(String stormId, Assignment info, Map<String, Object> topoConf);
 
+    /**
+     * Set the assignments of many topologies at once.
+     *
+     * @param assignments the id of each topology -> its assignment.
+     * @param topoConfs the id of each topology -> its conf.
+     */
+    default void setAssignments(Map<String, Assignment> assignments, Map<String, Map<String, Object>> topoConfs) {
+        for (Map.Entry<String, Assignment> entry : assignments.entrySet()) {
+            setAssignment(entry.getKey(), entry.getValue(), topoConfs.get(entry.getKey()));
+        }
+    }
+
     void setupBlob(String key, NimbusInfo nimbusInfo, Integer versionInfo);
 
     List<String> activeKeys();
@@ -19,8 +19,11 @@
 package org.apache.storm.cluster;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import org.apache.storm.callback.ZKStateChangedCallback;
 import org.apache.storm.generated.ClusterWorkerHeartbeat;
 import org.apache.storm.generated.HBExecutionException;
@@ -49,6 +52,33 @@ public class PaceMakerStateStorage implements IStateStorage {
         this.stateStorage = stateStorage;
     }
 
+    /**
+     * Get the shard of a heartbeat path, the id of the topology it is under.
+     *
+     * @return the shard, or null if the path is not under a single topology or sharding is off.
+     */
+    private String shardKey(String path) {
+        if (!pacemakerClientPool.isSharded()) {
+            return null;
+        }
+        String prefix = ClusterUtils.WORKERBEATS_SUBTREE + ClusterUtils.ZK_SEPERATOR;
+        if (!path.startsWith(prefix)) {
+            return null;
+        }
+        String rest = path.substring(prefix.length());
+        int end = rest.indexOf(ClusterUtils.ZK_SEPERATOR);
+        String stormId = end < 0 ? rest : rest.substring(0, end);
+        return stormId.isEmpty() ? null : stormId;
+    }
+
+    private List<HBMessage> sendRead(String path, HBMessage message) throws PacemakerConnectionException, InterruptedException {
+        String shard = shardKey(path);
+        if (shard == null) {
+            return pacemakerClientPool.sendAll(message);
+        }
+        return pacemakerClientPool.sendToShard(shard, message, PacemakerClientPool.SHARD_SERVERS);
+    }
+
     @Override
     public String register(ZKStateChangedCallback callback) {
         return stateStorage.register(callback);
@@ -74,6 +104,11 @@ public class PaceMakerStateStorage implements IStateStorage {
         stateStorage.delete_node(path);
     }
 
+    @Override
+    public void delete_node_all(Collection<String> paths) {
+        stateStorage.delete_node_all(paths);
+    }
+
     @Override
     public void set_ephemeral_node(String path, byte[] data, List<ACL> acls) {
         stateStorage.set_ephemeral_node(path, data, acls);
@@ -105,6 +140,11 @@ public class PaceMakerStateStorage implements IStateStorage {
         stateStorage.set_data(path, data, acls);
     }
 
+    @Override
+    public void set_data_all(Map<String, byte[]> pathToData, Map<String, List<ACL>> pathToAcls) {
+        stateStorage.set_data_all(pathToData, pathToAcls);
+    }
+
     @Override
     public byte[] get_data(String path, boolean watch) {
         return stateStorage.get_data(path, watch);
@@ -124,7 +164,8 @@ public class PaceMakerStateStorage implements IStateStorage {
                 hbPulse.set_id(path);
                 hbPulse.set_details(data);
                 HBMessage message = new HBMessage(HBServerMessageType.SEND_PULSE, HBMessageData.pulse(hbPulse));
-                HBMessage response = pacemakerClientPool.send(message);
+                String shard = shardKey(path);
+                HBMessage response = shard == null ? pacemakerClientPool.send(message) : pacemakerClientPool.send(shard, message);
                 if (response.get_type() != HBServerMessageType.SEND_PULSE_RESPONSE) {
                     throw new WrappedHBExecutionException("Invalid Response Type");
                 }
@@ -153,7 +194,7 @@ public class PaceMakerStateStorage implements IStateStorage {
                 boolean gotResponse = false;
 
                 HBMessage message = new HBMessage(HBServerMessageType.GET_PULSE, HBMessageData.path(path));
-                List<HBMessage> responses = pacemakerClientPool.sendAll(message);
+                List<HBMessage> responses = sendRead(path, message);
                 for (HBMessage response : responses) {
                     if (response.get_type() != HBServerMessageType.GET_PULSE_RESPONSE) {
                         LOG.error("get_worker_hb: Invalid Response Type");
@@ -196,7 +237,7 @@ public class PaceMakerStateStorage implements IStateStorage {
                 HashSet<String> retSet = new HashSet<>();
 
                 HBMessage message = new HBMessage(HBServerMessageType.GET_ALL_NODES_FOR_PATH, HBMessageData.path(path));
-                List<HBMessage> responses = pacemakerClientPool.sendAll(message);
+                List<HBMessage> responses = sendRead(path, message);
                 for (HBMessage response : responses) {
                     if (response.get_type() != HBServerMessageType.GET_ALL_NODES_FOR_PATH_RESPONSE) {
                         LOG.error("get_worker_hb_children: Invalid Response Type");
@@ -222,6 +263,55 @@ public class PaceMakerStateStorage implements IStateStorage {
         }
     }
 
+    @Override
+    public Map<String, byte[]> get_worker_hb_children_data(String path, boolean watch) {
+        int retry = maxRetries;
+        while (true) {
+            try {
+                Map<String, byte[]> ret = new HashMap<>();
+                Map<String, Integer> latestTimeSecs = new HashMap<>();
+                String prefix = path.endsWith(ClusterUtils.ZK_SEPERATOR) ? path : (path + ClusterUtils.ZK_SEPERATOR);
+
+                HBMessage message = new HBMessage(HBServerMessageType.GET_ALL_PULSE_FOR_PATH, HBMessageData.path(path));
+                List<HBMessage> responses = sendRead(path, message);
+                for (HBMessage response : responses) {
+                    if (response.get_type() != HBServerMessageType.GET_ALL_PULSE_FOR_PATH_RESPONSE) {
+                        LOG.error("get_worker_hb_children_data: Invalid Response Type");
+                        continue;
+                    }
+                    if (response.get_data() == null || response.get_data().get_records().get_pulses() == null) {
+                        // The server could not return all of them at once, or does not support it
+                        LOG.debug("Getting the heartbeats under {} one at a time", path);
+                        return IStateStorage.super.get_worker_hb_children_data(path, watch);
+                    }
+                    for (HBPulse pulse : response.get_data().get_records().get_pulses()) {
+                        byte[] details = pulse.get_details();
+                        if (details == null || !pulse.get_id().startsWith(prefix)) {
+                            continue;
+                        }
+                        String child = pulse.get_id().substring(prefix.length());
+                        ClusterWorkerHeartbeat cwh = Utils.deserialize(details, ClusterWorkerHeartbeat.class);
+                        if (cwh != null && cwh.get_time_secs() > latestTimeSecs.getOrDefault(child, 0)) {
+                            latestTimeSecs.put(child, cwh.get_time_secs());
+                            ret.put(child, details);
+                        }
+                    }
+                }
+                LOG.debug("Successful get_worker_hb_children_data");
+                return ret;
+            } catch (PacemakerConnectionException e) {
+                if (retry <= 0) {
+                    throw new RuntimeException(e);
+                }
+                retry--;
+                LOG.error("{} Failed to get_worker_hb_children_data. Will make {} more attempts.", e.getMessage(), retry);
+            } catch (InterruptedException e) {
+                LOG.debug("get_worker_hb_children_data got interrupted: {}", e);
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     @Override
     public void delete_worker_hb(String path) {
         int retry = maxRetries;
@@ -14,6 +14,8 @@ package org.apache.storm.cluster;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -407,12 +409,22 @@ public class StormClusterStateImpl implements IStormClusterState {
         Map<ExecutorInfo, ExecutorBeat> executorWhbs = new HashMap<>();
 
         Map<NodeInfo, List<List<Long>>> nodePortExecutors = Utils.reverseMap(executorNodePort);
+        // pacemaker can return all of the heartbeats of the topology at once
+        Map<String, byte[]> workerHbs = null;
+        if (isPacemakerStateStore() && !nodePortExecutors.isEmpty()) {
+            workerHbs = stateStorage.get_worker_hb_children_data(ClusterUtils.workerbeatStormRoot(stormId), false);
+        }
 
         for (Map.Entry<NodeInfo, List<List<Long>>> entry : nodePortExecutors.entrySet()) {
 
             String node = entry.getKey().get_node();
             Long port = entry.getKey().get_port_iterator().next();
-            ClusterWorkerHeartbeat whb = getWorkerHeartbeat(stormId, node, port);
+            ClusterWorkerHeartbeat whb;
+            if (workerHbs != null) {
+                whb = ClusterUtils.maybeDeserialize(workerHbs.get(node + "-" + port), ClusterWorkerHeartbeat.class);
+            } else {
+                whb = getWorkerHeartbeat(stormId, node, port);
+            }
             List<ExecutorInfo> executorInfoList = new ArrayList<>();
             for (List<Long> list : entry.getValue()) {
                 executorInfoList.add(new ExecutorInfo(list.get(0).intValue(), list.get(list.size() - 1).intValue()));
@@ -458,6 +470,29 @@ public class StormClusterStateImpl implements IStormClusterState {
         }
     }
 
+    @Override
+    public void teardownTopologies(Collection<String> stormIds) {
+        List<String> paths = new ArrayList<>();
+        for (String stormId : stormIds) {
+            teardownHeartbeats(stormId);
+            paths.add(ClusterUtils.errorStormRoot(stormId));
+            paths.add(ClusterUtils.backpressureStormRoot(stormId));
+            for (WorkerTokenServiceType type : WorkerTokenServiceType.values()) {
+                paths.add(ClusterUtils.secretKeysPath(type, stormId));
+            }
+        }
+        try {
+            stateStorage.delete_node_all(paths);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not teardown {} at once, trying one at a time.", stormIds, e);
+            for (String stormId : stormIds) {
+                teardownTopologyErrors(stormId);
+                removeAllPrivateWorkerKeys(stormId);
+                removeBackpressure(stormId);
+            }
+        }
+    }
+
     @Override
     public void teardownTopologyErrors(String stormId) {
         try {
@@ -696,6 +731,25 @@ public class StormClusterStateImpl implements IStormClusterState {
         this.assignmentsBackend.keepOrUpdateAssignment(stormId, info);
     }
 
+    @Override
+    public void setAssignments(Map<String, Assignment> assignments, Map<String, Map<String, Object>> topoConfs) {
+        if (assignments.isEmpty()) {
+            return;
+        }
+        Map<String, byte[]> pathToData = new HashMap<>();
+        Map<String, List<ACL>> pathToAcls = new HashMap<>();
+        for (Map.Entry<String, Assignment> entry : assignments.entrySet()) {
+            String path = ClusterUtils.assignmentPath(entry.getKey());
+            pathToData.put(path, Utils.serialize(entry.getValue()));
+            pathToAcls.put(path, ClusterUtils.mkTopoReadOnlyAcls(topoConfs.get(entry.getKey())));
+        }
+        stateStorage.mkdirs(ClusterUtils.ASSIGNMENTS_SUBTREE, defaultAcls);
+        stateStorage.set_data_all(pathToData, pathToAcls);
+        for (Map.Entry<String, Assignment> entry : assignments.entrySet()) {
+            this.assignmentsBackend.keepOrUpdateAssignment(entry.getKey(), entry.getValue());
+        }
+    }
+
     @Override
     public void setupBlob(String key, NimbusInfo nimbusInfo, Integer versionInfo) {
         String path = ClusterUtils.blobstorePath(key) + ClusterUtils.ZK_SEPERATOR + nimbusInfo.toHostPortString() + "-" + versionInfo;
@@ -723,11 +777,10 @@ public class StormClusterStateImpl implements IStormClusterState {
 
     @Override
     public void removeStorm(String stormId) {
-        stateStorage.delete_node(ClusterUtils.assignmentPath(stormId));
+        stateStorage.delete_node_all(Arrays.asList(ClusterUtils.assignmentPath(stormId), ClusterUtils.credentialsPath(stormId),
+                                                   ClusterUtils.logConfigPath(stormId), ClusterUtils.profilerConfigPath(stormId)));
         this.assignmentsBackend.clearStateForStorm(stormId);
-        stateStorage.delete_node(ClusterUtils.credentialsPath(stormId));
-        stateStorage.delete_node(ClusterUtils.logConfigPath(stormId));
-        stateStorage.delete_node(ClusterUtils.profilerConfigPath(stormId));
+        // the storm base is removed last, it is what marks the topology as gone
         removeStormBase(stormId);
     }
 
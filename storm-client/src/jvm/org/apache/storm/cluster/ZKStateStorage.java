@@ -18,21 +18,32 @@
 
 package org.apache.storm.cluster;
 
+import com.codahale.metrics.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.storm.Config;
 import org.apache.storm.callback.DefaultWatcherCallBack;
 import org.apache.storm.callback.WatcherCallBack;
 import org.apache.storm.callback.ZKStateChangedCallback;
+import org.apache.storm.shade.com.google.common.annotations.VisibleForTesting;
 import org.apache.storm.shade.org.apache.curator.framework.CuratorFramework;
+import org.apache.storm.shade.org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.storm.shade.org.apache.curator.framework.api.transaction.CuratorOp;
 import org.apache.storm.shade.org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.storm.shade.org.apache.zookeeper.CreateMode;
 import org.apache.storm.shade.org.apache.zookeeper.KeeperException;
 import org.apache.storm.shade.org.apache.zookeeper.Watcher;
 import org.apache.storm.shade.org.apache.zookeeper.data.ACL;
+import org.apache.storm.utils.ObjectReader;
 import org.apache.storm.utils.Utils;
 import org.apache.storm.zookeeper.ClientZookeeper;
 import org.slf4j.Logger;
@@ -42,6 +53,8 @@ import org.slf4j.LoggerFactory;
 public class ZKStateStorage implements IStateStorage {
 
     private static Logger LOG = LoggerFactory.getLogger(ZKStateStorage.class);
+    // the size of the values of one multi-op transaction is kept under this, a request must fit in the jute.maxbuffer of the servers
+    private static final int MAX_TRANSACTION_BYTES = 512 * 1024;
 
     private ConcurrentHashMap<String, ZKStateChangedCallback> callbacks = new ConcurrentHashMap<String, ZKStateChangedCallback>();
     private CuratorFramework zkWriter;
@@ -52,12 +65,29 @@ public class ZKStateStorage implements IStateStorage {
     private Map<String, Object> authConf;
     private Map<String, Object> conf;
 
+    private final boolean batchWrites;
+    private final Semaphore outstandingRequests;
+    private final Timer setDataTimer;
+    private final Timer mkdirsTimer;
+    private final Timer deleteNodeTimer;
+    private final Timer setDataAllTimer;
+    private final Timer deleteNodeAllTimer;
+    private final Timer transactionTimer;
+
     public ZKStateStorage(Map<String, Object> conf, Map<String, Object> authConf, ClusterStateContext context) throws Exception {
         this.conf = conf;
         this.authConf = authConf;
         if (context.getDaemonType().equals(DaemonType.NIMBUS)) {
             this.isNimbus = true;
         }
+        this.batchWrites = ObjectReader.getBoolean(conf.get(Config.STORM_ZOOKEEPER_BATCH_WRITES_ENABLE), false);
+        this.outstandingRequests = new Semaphore(ObjectReader.getInt(conf.get(Config.STORM_ZOOKEEPER_BATCH_MAX_OUTSTANDING), 64));
+        this.setDataTimer = context.getMetrics().timer("zookeeper:set-data-duration");
+        this.mkdirsTimer = context.getMetrics().timer("zookeeper:mkdirs-duration");
+        this.deleteNodeTimer = context.getMetrics().timer("zookeeper:delete-node-duration");
+        this.setDataAllTimer = context.getMetrics().timer("zookeeper:set-data-batch-duration");
+        this.deleteNodeAllTimer = context.getMetrics().timer("zookeeper:delete-node-batch-duration");
+        this.transactionTimer = context.getMetrics().timer("zookeeper:transaction-duration");
 
         // just mkdir STORM_ZOOKEEPER_ROOT dir
         CuratorFramework zkTemp = mkZk(context.getDaemonType());
@@ -75,6 +105,13 @@ public class ZKStateStorage implements IStateStorage {
 
     }
 
+    /**
+     * Get the client reads are done with.
+     */
+    CuratorFramework getReader() {
+        return zkReader;
+    }
+
     @SuppressWarnings("unchecked")
     private CuratorFramework mkZk(DaemonType type) {
         return ClientZookeeper.mkClient(conf, (List<String>) conf.get(Config.STORM_ZOOKEEPER_SERVERS),
@@ -112,12 +149,34 @@ public class ZKStateStorage implements IStateStorage {
 
     @Override
     public void mkdirs(String path, List<ACL> acls) {
-        ClientZookeeper.mkdirs(zkWriter, path, acls);
+        try (Timer.Context t = mkdirsTimer.time()) {
+            ClientZookeeper.mkdirs(zkWriter, path, acls);
+        }
     }
 
     @Override
     public void delete_node(String path) {
-        ClientZookeeper.deleteNode(zkWriter, path);
+        try (Timer.Context t = deleteNodeTimer.time()) {
+            ClientZookeeper.deleteNode(zkWriter, path);
+        }
+    }
+
+    @Override
+    public void delete_node_all(Collection<String> paths) {
+        if (!batchWrites) {
+            IStateStorage.super.delete_node_all(paths);
+            return;
+        }
+        try (Timer.Context t = deleteNodeAllTimer.time()) {
+            Map<String, Integer> results = inBackground(paths, (path, callback) ->
+                zkWriter.delete().deletingChildrenIfNeeded().inBackground(callback).forPath(path));
+            for (Map.Entry<String, Integer> result : results.entrySet()) {
+                int code = result.getValue();
+                if (code != KeeperException.Code.OK.intValue() && code != KeeperException.Code.NONODE.intValue()) {
+                    throw Utils.wrapInRuntime(KeeperException.create(KeeperException.Code.get(code), result.getKey()));
+                }
+            }
+        }
     }
 
     @Override
@@ -166,6 +225,12 @@ public class ZKStateStorage implements IStateStorage {
 
     @Override
     public void set_data(String path, byte[] data, List<ACL> acls) {
+        try (Timer.Context t = setDataTimer.time()) {
+            setData(path, data, acls);
+        }
+    }
+
+    private void setData(String path, byte[] data, List<ACL> acls) {
         if (ClientZookeeper.exists(zkWriter, path, false)) {
             ClientZookeeper.setData(zkWriter, path, data);
         } else {
@@ -182,6 +247,99 @@ public class ZKStateStorage implements IStateStorage {
         }
     }
 
+    @Override
+    public void set_data_all(Map<String, byte[]> pathToData, Map<String, List<ACL>> pathToAcls) {
+        if (!batchWrites) {
+            IStateStorage.super.set_data_all(pathToData, pathToAcls);
+            return;
+        }
+        try (Timer.Context t = setDataAllTimer.time()) {
+            Set<String> parents = new HashSet<>();
+            for (String path : pathToData.keySet()) {
+                String parent = ClientZookeeper.parentPath(path);
+                if (parents.add(parent)) {
+                    mkdirs(parent, pathToAcls.get(path));
+                }
+            }
+            Map<String, Integer> exists = inBackground(pathToData.keySet(), (path, callback) ->
+                zkWriter.checkExists().inBackground(callback).forPath(path));
+
+            List<String> batch = new ArrayList<>();
+            List<CuratorOp> ops = new ArrayList<>();
+            long batchBytes = 0;
+            for (Map.Entry<String, byte[]> entry : pathToData.entrySet()) {
+                String path = ClientZookeeper.normalizePath(entry.getKey());
+                byte[] data = entry.getValue();
+                if (!ops.isEmpty() && batchBytes + data.length > MAX_TRANSACTION_BYTES) {
+                    commit(batch, ops, pathToData, pathToAcls);
+                    batch.clear();
+                    ops.clear();
+                    batchBytes = 0;
+                }
+                if (exists.get(entry.getKey()) == KeeperException.Code.OK.intValue()) {
+                    ops.add(zkWriter.transactionOp().setData().forPath(path, data));
+                } else {
+                    ops.add(zkWriter.transactionOp().create().withMode(CreateMode.PERSISTENT)
+                                    .withACL(pathToAcls.get(entry.getKey())).forPath(path, data));
+                }
+                batch.add(entry.getKey());
+                batchBytes += data.length;
+            }
+            if (!ops.isEmpty()) {
+                commit(batch, ops, pathToData, pathToAcls);
+            }
+        } catch (Exception e) {
+            throw Utils.wrapInRuntime(e);
+        }
+    }
+
+    /**
+     * Commit the writes to some nodes in one transaction, or one at a time if the transaction fails because a node was created or
+     * deleted in the meantime.
+     */
+    private void commit(List<String> paths, List<CuratorOp> ops, Map<String, byte[]> pathToData, Map<String, List<ACL>> pathToAcls)
+        throws Exception {
+        try (Timer.Context t = transactionTimer.time()) {
+            zkWriter.transaction().forOperations(ops);
+        } catch (KeeperException e) {
+            LOG.warn("Transaction writing {} nodes failed, writing them one at a time", paths.size(), e);
+            for (String path : paths) {
+                set_data(path, pathToData.get(path), pathToAcls.get(path));
+            }
+        }
+    }
+
+    /**
+     * Send an asynchronous request for every path, with a bounded number of requests outstanding at the same time, and wait for all of
+     * them to finish.
+     *
+     * @return the path -> the result code of its request.
+     */
+    @VisibleForTesting
+    Map<String, Integer> inBackground(Collection<String> paths, BackgroundRequest request) {
+        Map<String, Integer> results = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(paths.size());
+        try {
+            for (String path : paths) {
+                outstandingRequests.acquire();
+                try {
+                    request.send(ClientZookeeper.normalizePath(path), (client, event) -> {
+                        results.put(path, event.getResultCode());
+                        outstandingRequests.release();
+                        done.countDown();
+                    });
+                } catch (Exception e) {
+                    outstandingRequests.release();
+                    throw Utils.wrapInRuntime(e);
+                }
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return results;
+    }
+
     @Override
     public byte[] get_data(String path, boolean watch) {
         byte[] ret = null;
@@ -227,6 +385,10 @@ public class ZKStateStorage implements IStateStorage {
         ClientZookeeper.syncPath(zkWriter, path);
     }
 
+    interface BackgroundRequest {
+        void send(String path, BackgroundCallback callback) throws Exception;
+    }
+
     private class ZkWatcherCallBack implements WatcherCallBack {
         @Override
         public void execute(Watcher.Event.KeeperState state, Watcher.Event.EventType type, String path) {
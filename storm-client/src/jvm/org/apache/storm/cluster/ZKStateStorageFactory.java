@@ -19,6 +19,8 @@
 package org.apache.storm.cluster;
 
 import java.util.Map;
+import org.apache.storm.Config;
+import org.apache.storm.utils.ObjectReader;
 import org.apache.storm.utils.Utils;
 
 @SuppressWarnings("checkstyle:AbbreviationAsWordInName")
@@ -27,7 +29,18 @@ public class ZKStateStorageFactory implements StateStorageFactory {
     @Override
     public IStateStorage mkStore(Map<String, Object> config, Map<String, Object> authConf, ClusterStateContext context) {
         try {
-            return new ZKStateStorage(config, authConf, context);
+            ZKStateStorage zkState = new ZKStateStorage(config, authConf, context);
+            if (!ObjectReader.getBoolean(config.get(Config.STORM_CLUSTER_STATE_CACHE_ENABLE), false)) {
+                return zkState;
+            }
+            switch (context.getDaemonType()) {
+                case NIMBUS:
+                    return new CachedZKStateStorage(zkState, zkState.getReader(), CachedZKStateStorage.NIMBUS_SUBTREES);
+                case SUPERVISOR:
+                    return new CachedZKStateStorage(zkState, zkState.getReader(), CachedZKStateStorage.SUPERVISOR_SUBTREES);
+                default:
+                    return zkState;
+            }
         } catch (Exception e) {
             throw Utils.wrapInRuntime(e);
         }
@@ -39,15 +39,19 @@ import org.apache.storm.cluster.IStormClusterState;
 import org.apache.storm.daemon.DaemonCommon;
 import org.apache.storm.daemon.Shutdownable;
 import org.apache.storm.daemon.StormCommon;
+import org.apache.storm.daemon.supervisor.AdvancedFSOps;
 import org.apache.storm.executor.Executor;
 import org.apache.storm.executor.ExecutorShutdown;
 import org.apache.storm.executor.IRunningExecutor;
 import org.apache.storm.executor.LocalExecutor;
+import org.apache.storm.generated.Bolt;
 import org.apache.storm.generated.Credentials;
 import org.apache.storm.generated.ExecutorInfo;
 import org.apache.storm.generated.ExecutorStats;
 import org.apache.storm.generated.LSWorkerHeartbeat;
 import org.apache.storm.generated.LogConfig;
+import org.apache.storm.generated.SpoutSpec;
+import org.apache.storm.generated.StormTopology;
 import org.apache.storm.generated.SupervisorWorkerHeartbeat;
 import org.apache.storm.messaging.IConnection;
 import org.apache.storm.messaging.IContext;
@@ -85,6 +89,7 @@ public class Worker implements Shutdownable, DaemonCommon {
     private final LogConfigManager logConfigManager;
     private final StormMetricRegistry metricRegistry;
     private Meter heatbeatMeter;
+    private LocalState heartbeatState;
 
     private WorkerState workerState;
     private AtomicReference<List<IRunningExecutor>> executorsAtom;
@@ -157,6 +162,9 @@ public class Worker implements Shutdownable, DaemonCommon {
         StormCommon.validateDistributedMode(conf);
         int supervisorPortInt = Integer.parseInt(supervisorPort);
         Worker worker = new Worker(conf, null, stormId, assignmentId, supervisorPortInt, Integer.parseInt(portStr), workerId);
+        if (Boolean.getBoolean("worker.standby")) {
+            worker.standBy();
+        }
 
         //Add shutdown hooks before starting any other threads to avoid possible race condition
         //between invoking shutdown hooks and registering shutdown hooks. See STORM-3658.
@@ -167,6 +175,43 @@ public class Worker implements Shutdownable, DaemonCommon {
         worker.start();
     }
 
+    /**
+     * Wait, with the classes of the topology loaded, until the supervisor activates this worker in place of the one in the same slot.
+     * Exits if the supervisor discards it instead.
+     */
+    private void standBy() throws Exception {
+        FileUtils.touch(new File(ConfigUtils.workerPidPath(conf, workerId, Utils.processPid())));
+        preload();
+        File activation = new File(ConfigUtils.workerStandbyActivationPath(conf, workerId));
+        File workerRoot = activation.getParentFile();
+        LOG.info("Standing by as worker {} for {} on port {}", workerId, topologyId, port);
+        while (!activation.exists()) {
+            if (!workerRoot.exists()) {
+                LOG.info("Standby worker {} was discarded", workerId);
+                Runtime.getRuntime().exit(0);
+            }
+            Time.sleep(100);
+        }
+        LOG.info("Standby worker {} activated", workerId);
+    }
+
+    /**
+     * Load the classes of the components of the topology, so a standby worker starts without waiting for them.
+     */
+    private void preload() {
+        try {
+            StormTopology topology = ConfigUtils.readSupervisorTopology(conf, topologyId, AdvancedFSOps.make(conf));
+            for (SpoutSpec spout : topology.get_spouts().values()) {
+                Utils.getSetComponentObject(spout.get_spout_object());
+            }
+            for (Bolt bolt : topology.get_bolts().values()) {
+                Utils.getSetComponentObject(bolt.get_bolt_object());
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not preload the components of {}", topologyId, e);
+        }
+    }
+
     public void start() throws Exception {
         LOG.info("Launching worker for {} on {}:{} with id {} and conf {}", topologyId, assignmentId, port, workerId,
                  ConfigUtils.maskPasswords(conf));
@@ -364,7 +409,10 @@ public class Worker implements Shutdownable, DaemonCommon {
     }
 
     public void doHeartBeat() throws IOException {
-        LocalState state = ConfigUtils.workerState(workerState.conf, workerState.workerId);
+        if (heartbeatState == null) {
+            heartbeatState = ConfigUtils.workerState(workerState.conf, workerState.workerId);
+        }
+        LocalState state = heartbeatState;
         LSWorkerHeartbeat lsWorkerHeartbeat = new LSWorkerHeartbeat(Time.currentTimeSecs(), workerState.topologyId,
                                                                     workerState.localExecutors.stream()
                                                                                               .map(executor -> new ExecutorInfo(
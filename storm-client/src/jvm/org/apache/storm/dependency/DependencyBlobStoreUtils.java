@@ -19,12 +19,15 @@
 package org.apache.storm.dependency;
 
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.apache.storm.shade.com.google.common.io.Files;
 import org.apache.storm.shade.org.apache.commons.lang.StringUtils;
 
 public class DependencyBlobStoreUtils {
 
     private static final String BLOB_DEPENDENCIES_PREFIX = "dep-";
+    private static final Pattern CONTENT_ADDRESSED_KEY = Pattern.compile(BLOB_DEPENDENCIES_PREFIX + ".*-sha256-([0-9a-f]{64})(\\.[^.]*)?");
 
     public static String generateDependencyBlobKey(String key) {
         return BLOB_DEPENDENCIES_PREFIX + key;
@@ -41,4 +44,26 @@ public class DependencyBlobStoreUtils {
         }
         return fileName;
     }
+
+    public static String applyHashToFileName(String fileName, String hash) {
+        String fileNameWithExt = Files.getNameWithoutExtension(fileName);
+        String ext = Files.getFileExtension(fileName);
+        if (StringUtils.isEmpty(ext)) {
+            fileName = fileName + "-sha256-" + hash;
+        } else {
+            fileName = fileNameWithExt + "-sha256-" + hash + "." + ext;
+        }
+        return fileName;
+    }
+
+    /**
+     * Get the SHA-256 a content addressed dependency jar key was made from, see {@link #applyHashToFileName(String, String)}.
+     *
+     * @param key the blob key.
+     * @return the SHA-256 in hex, or null if the key is not the key of a content addressed dependency jar.
+     */
+    public static String getContentHash(String key) {
+        Matcher matcher = CONTENT_ADDRESSED_KEY.matcher(key);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
 }
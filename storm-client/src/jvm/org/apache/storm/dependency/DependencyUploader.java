@@ -22,10 +22,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.storm.Config;
 import org.apache.storm.blobstore.AtomicOutputStream;
 import org.apache.storm.blobstore.BlobStoreAclHandler;
@@ -37,6 +41,7 @@ import org.apache.storm.generated.KeyAlreadyExistsException;
 import org.apache.storm.generated.KeyNotFoundException;
 import org.apache.storm.generated.SettableBlobMeta;
 import org.apache.storm.shade.com.google.common.annotations.VisibleForTesting;
+import org.apache.storm.shade.org.apache.commons.codec.binary.Hex;
 import org.apache.storm.shade.org.apache.commons.io.IOUtils;
 import org.apache.storm.utils.ObjectReader;
 import org.apache.storm.utils.Utils;
@@ -49,10 +54,14 @@ public class DependencyUploader {
     private final Map<String, Object> conf;
     private ClientBlobStore blobStore;
     private final int uploadChunkSize;
+    private boolean contentAddressed;
+    // content addressed keys that were in the blob store already, other topologies may use them so they are never deleted
+    private final Set<String> sharedKeys = new HashSet<>();
 
     public DependencyUploader() {
         conf = Utils.readStormConfig();
         this.uploadChunkSize = ObjectReader.getInt(conf.get(Config.STORM_BLOBSTORE_DEPENDENCY_JAR_UPLOAD_CHUNK_SIZE_BYTES), 1024 * 1024);
+        this.contentAddressed = ObjectReader.getBoolean(conf.get(Config.STORM_BLOBSTORE_DEPENDENCY_JAR_CONTENT_ADDRESSED), false);
     }
 
     public void init() {
@@ -77,6 +86,11 @@ public class DependencyUploader {
         this.blobStore = blobStore;
     }
 
+    @VisibleForTesting
+    void setContentAddressed(boolean contentAddressed) {
+        this.contentAddressed = contentAddressed;
+    }
+
     public List<String> uploadFiles(List<File> dependencies, boolean cleanupIfFails) throws IOException, AuthorizationException {
         checkFilesExist(dependencies);
 
@@ -84,13 +98,25 @@ public class DependencyUploader {
         try {
             for (File dependency : dependencies) {
                 String fileName = dependency.getName();
-                String key = DependencyBlobStoreUtils.generateDependencyBlobKey(DependencyBlobStoreUtils.applyUUIDToFileName(fileName));
+                String key;
+                if (contentAddressed) {
+                    key = DependencyBlobStoreUtils.generateDependencyBlobKey(
+                        DependencyBlobStoreUtils.applyHashToFileName(fileName, sha256Hex(dependency)));
+                } else {
+                    key = DependencyBlobStoreUtils.generateDependencyBlobKey(DependencyBlobStoreUtils.applyUUIDToFileName(fileName));
+                }
 
                 try {
-                    uploadDependencyToBlobStore(key, dependency);
+                    if (!uploadDependencyToBlobStore(key, dependency) && contentAddressed) {
+                        sharedKeys.add(key);
+                    }
                 } catch (KeyAlreadyExistsException e) {
-                    // it should never happened since we apply UUID
-                    throw new RuntimeException(e);
+                    if (!contentAddressed) {
+                        // it should never happened since we apply UUID
+                        throw new RuntimeException(e);
+                    }
+                    // someone else uploaded the same jar at the same time
+                    sharedKeys.add(key);
                 }
 
                 keys.add(key);
@@ -132,6 +158,9 @@ public class DependencyUploader {
 
     public void deleteBlobs(List<String> keys) {
         for (String key : keys) {
+            if (sharedKeys.contains(key)) {
+                continue;
+            }
             try {
                 getBlobStore().deleteBlob(key);
             } catch (Throwable e) {
@@ -140,6 +169,20 @@ public class DependencyUploader {
         }
     }
 
+    private static String sha256Hex(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+            return Hex.encodeHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private String convertArtifactToJarFileName(String artifact) {
         return artifact.replace(":", "-") + ".jar";
     }
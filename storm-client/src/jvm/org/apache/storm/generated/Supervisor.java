@@ -36,6 +36,14 @@ public class Supervisor {
      */
     public void sendSupervisorAssignments(SupervisorAssignments assignments) throws AuthorizationException, org.apache.storm.thrift.TException;
 
+    /**
+     * Send a delta of the node specific assignments to supervisor, returns false if it does not apply on top of the assignments
+     * the supervisor has
+     * 
+     * @param assignments
+     */
+    public boolean sendSupervisorAssignmentsDelta(SupervisorAssignments assignments) throws AuthorizationException, org.apache.storm.thrift.TException;
+
     /**
      * Get local assignment for a storm
      * 
@@ -56,6 +64,8 @@ public class Supervisor {
 
     public void sendSupervisorAssignments(SupervisorAssignments assignments, org.apache.storm.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.storm.thrift.TException;
 
+    public void sendSupervisorAssignmentsDelta(SupervisorAssignments assignments, org.apache.storm.thrift.async.AsyncMethodCallback<java.lang.Boolean> resultHandler) throws org.apache.storm.thrift.TException;
+
     public void getLocalAssignmentForStorm(java.lang.String id, org.apache.storm.thrift.async.AsyncMethodCallback<Assignment> resultHandler) throws org.apache.storm.thrift.TException;
 
     public void sendSupervisorWorkerHeartbeat(SupervisorWorkerHeartbeat heartbeat, org.apache.storm.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.storm.thrift.TException;
@@ -105,6 +115,32 @@ public class Supervisor {
       return;
     }
 
+    public boolean sendSupervisorAssignmentsDelta(SupervisorAssignments assignments) throws AuthorizationException, org.apache.storm.thrift.TException
+    {
+      send_sendSupervisorAssignmentsDelta(assignments);
+      return recv_sendSupervisorAssignmentsDelta();
+    }
+
+    public void send_sendSupervisorAssignmentsDelta(SupervisorAssignments assignments) throws org.apache.storm.thrift.TException
+    {
+      sendSupervisorAssignmentsDelta_args args = new sendSupervisorAssignmentsDelta_args();
+      args.set_assignments(assignments);
+      sendBase("sendSupervisorAssignmentsDelta", args);
+    }
+
+    public boolean recv_sendSupervisorAssignmentsDelta() throws AuthorizationException, org.apache.storm.thrift.TException
+    {
+      sendSupervisorAssignmentsDelta_result result = new sendSupervisorAssignmentsDelta_result();
+      receiveBase(result, "sendSupervisorAssignmentsDelta");
+      if (result.is_set_success()) {
+        return result.success;
+      }
+      if (result.aze != null) {
+        throw result.aze;
+      }
+      throw new org.apache.storm.thrift.TApplicationException(org.apache.storm.thrift.TApplicationException.MISSING_RESULT, "sendSupervisorAssignmentsDelta failed: unknown result");
+    }
+
     public Assignment getLocalAssignmentForStorm(java.lang.String id) throws NotAliveException, AuthorizationException, org.apache.storm.thrift.TException
     {
       send_getLocalAssignmentForStorm(id);
@@ -207,6 +243,38 @@ public class Supervisor {
       }
     }
 
+    public void sendSupervisorAssignmentsDelta(SupervisorAssignments assignments, org.apache.storm.thrift.async.AsyncMethodCallback<java.lang.Boolean> resultHandler) throws org.apache.storm.thrift.TException {
+      checkReady();
+      sendSupervisorAssignmentsDelta_call method_call = new sendSupervisorAssignmentsDelta_call(assignments, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class sendSupervisorAssignmentsDelta_call extends org.apache.storm.thrift.async.TAsyncMethodCall<java.lang.Boolean> {
+      private SupervisorAssignments assignments;
+      public sendSupervisorAssignmentsDelta_call(SupervisorAssignments assignments, org.apache.storm.thrift.async.AsyncMethodCallback<java.lang.Boolean> resultHandler, org.apache.storm.thrift.async.TAsyncClient client, org.apache.storm.thrift.protocol.TProtocolFactory protocolFactory, org.apache.storm.thrift.transport.TNonblockingTransport transport) throws org.apache.storm.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.assignments = assignments;
+      }
+
+      public void write_args(org.apache.storm.thrift.protocol.TProtocol prot) throws org.apache.storm.thrift.TException {
+        prot.writeMessageBegin(new org.apache.storm.thrift.protocol.TMessage("sendSupervisorAssignmentsDelta", org.apache.storm.thrift.protocol.TMessageType.CALL, 0));
+        sendSupervisorAssignmentsDelta_args args = new sendSupervisorAssignmentsDelta_args();
+        args.set_assignments(assignments);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public java.lang.Boolean getResult() throws AuthorizationException, org.apache.storm.thrift.TException {
+        if (getState() != org.apache.storm.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new java.lang.IllegalStateException("Method call not finished!");
+        }
+        org.apache.storm.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.storm.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.storm.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_sendSupervisorAssignmentsDelta();
+      }
+    }
+
     public void getLocalAssignmentForStorm(java.lang.String id, org.apache.storm.thrift.async.AsyncMethodCallback<Assignment> resultHandler) throws org.apache.storm.thrift.TException {
       checkReady();
       getLocalAssignmentForStorm_call method_call = new getLocalAssignmentForStorm_call(id, resultHandler, this, ___protocolFactory, ___transport);
@@ -285,6 +353,7 @@ public class Supervisor {
 
     private static <I extends Iface> java.util.Map<java.lang.String,  org.apache.storm.thrift.ProcessFunction<I, ? extends org.apache.storm.thrift.TBase>> getProcessMap(java.util.Map<java.lang.String, org.apache.storm.thrift.ProcessFunction<I, ? extends  org.apache.storm.thrift.TBase>> processMap) {
       processMap.put("sendSupervisorAssignments", new sendSupervisorAssignments());
+      processMap.put("sendSupervisorAssignmentsDelta", new sendSupervisorAssignmentsDelta());
       processMap.put("getLocalAssignmentForStorm", new getLocalAssignmentForStorm());
       processMap.put("sendSupervisorWorkerHeartbeat", new sendSupervisorWorkerHeartbeat());
       return processMap;
@@ -319,6 +388,36 @@ public class Supervisor {
       }
     }
 
+    public static class sendSupervisorAssignmentsDelta<I extends Iface> extends org.apache.storm.thrift.ProcessFunction<I, sendSupervisorAssignmentsDelta_args> {
+      public sendSupervisorAssignmentsDelta() {
+        super("sendSupervisorAssignmentsDelta");
+      }
+
+      public sendSupervisorAssignmentsDelta_args getEmptyArgsInstance() {
+        return new sendSupervisorAssignmentsDelta_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      @Override
+      protected boolean rethrowUnhandledExceptions() {
+        return false;
+      }
+
+      public sendSupervisorAssignmentsDelta_result getResult(I iface, sendSupervisorAssignmentsDelta_args args) throws org.apache.storm.thrift.TException {
+        sendSupervisorAssignmentsDelta_result result = new sendSupervisorAssignmentsDelta_result();
+        try {
+          result.success = iface.sendSupervisorAssignmentsDelta(args.assignments);
+          result.set_success_isSet(true);
+        } catch (AuthorizationException aze) {
+          result.aze = aze;
+        }
+        return result;
+      }
+    }
+
     public static class getLocalAssignmentForStorm<I extends Iface> extends org.apache.storm.thrift.ProcessFunction<I, getLocalAssignmentForStorm_args> {
       public getLocalAssignmentForStorm() {
         super("getLocalAssignmentForStorm");
@@ -393,6 +492,7 @@ public class Supervisor {
 
     private static <I extends AsyncIface> java.util.Map<java.lang.String,  org.apache.storm.thrift.AsyncProcessFunction<I, ? extends  org.apache.storm.thrift.TBase,?>> getProcessMap(java.util.Map<java.lang.String,  org.apache.storm.thrift.AsyncProcessFunction<I, ? extends  org.apache.storm.thrift.TBase, ?>> processMap) {
       processMap.put("sendSupervisorAssignments", new sendSupervisorAssignments());
+      processMap.put("sendSupervisorAssignmentsDelta", new sendSupervisorAssignmentsDelta());
       processMap.put("getLocalAssignmentForStorm", new getLocalAssignmentForStorm());
       processMap.put("sendSupervisorWorkerHeartbeat", new sendSupervisorWorkerHeartbeat());
       return processMap;
@@ -462,6 +562,72 @@ public class Supervisor {
       }
     }
 
+    public static class sendSupervisorAssignmentsDelta<I extends AsyncIface> extends org.apache.storm.thrift.AsyncProcessFunction<I, sendSupervisorAssignmentsDelta_args, java.lang.Boolean> {
+      public sendSupervisorAssignmentsDelta() {
+        super("sendSupervisorAssignmentsDelta");
+      }
+
+      public sendSupervisorAssignmentsDelta_args getEmptyArgsInstance() {
+        return new sendSupervisorAssignmentsDelta_args();
+      }
+
+      public org.apache.storm.thrift.async.AsyncMethodCallback<java.lang.Boolean> getResultHandler(final org.apache.storm.thrift.server.AbstractNonblockingServer.AsyncFrameBuffer fb, final int seqid) {
+        final org.apache.storm.thrift.AsyncProcessFunction fcall = this;
+        return new org.apache.storm.thrift.async.AsyncMethodCallback<java.lang.Boolean>() { 
+          public void onComplete(java.lang.Boolean o) {
+            sendSupervisorAssignmentsDelta_result result = new sendSupervisorAssignmentsDelta_result();
+            result.success = o;
+            result.set_success_isSet(true);
+            try {
+              fcall.sendResponse(fb, result, org.apache.storm.thrift.protocol.TMessageType.REPLY,seqid);
+            } catch (org.apache.storm.thrift.transport.TTransportException e) {
+              _LOGGER.error("TTransportException writing to internal frame buffer", e);
+              fb.close();
+            } catch (java.lang.Exception e) {
+              _LOGGER.error("Exception writing to internal frame buffer", e);
+              onError(e);
+            }
+          }
+          public void onError(java.lang.Exception e) {
+            byte msgType = org.apache.storm.thrift.protocol.TMessageType.REPLY;
+            org.apache.storm.thrift.TSerializable msg;
+            sendSupervisorAssignmentsDelta_result result = new sendSupervisorAssignmentsDelta_result();
+            if (e instanceof AuthorizationException) {
+              result.aze = (AuthorizationException) e;
+              result.set_aze_isSet(true);
+              msg = result;
+            } else if (e instanceof org.apache.storm.thrift.transport.TTransportException) {
+              _LOGGER.error("TTransportException inside handler", e);
+              fb.close();
+              return;
+            } else if (e instanceof org.apache.storm.thrift.TApplicationException) {
+              _LOGGER.error("TApplicationException inside handler", e);
+              msgType = org.apache.storm.thrift.protocol.TMessageType.EXCEPTION;
+              msg = (org.apache.storm.thrift.TApplicationException)e;
+            } else {
+              _LOGGER.error("Exception inside handler", e);
+              msgType = org.apache.storm.thrift.protocol.TMessageType.EXCEPTION;
+              msg = new org.apache.storm.thrift.TApplicationException(org.apache.storm.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
+            }
+            try {
+              fcall.sendResponse(fb,msg,msgType,seqid);
+            } catch (java.lang.Exception ex) {
+              _LOGGER.error("Exception writing to internal frame buffer", ex);
+              fb.close();
+            }
+          }
+        };
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public void start(I iface, sendSupervisorAssignmentsDelta_args args, org.apache.storm.thrift.async.AsyncMethodCallback<java.lang.Boolean> resultHandler) throws org.apache.storm.thrift.TException {
+        iface.sendSupervisorAssignmentsDelta(args.assignments,resultHandler);
+      }
+    }
+
     public static class getLocalAssignmentForStorm<I extends AsyncIface> extends org.apache.storm.thrift.AsyncProcessFunction<I, getLocalAssignmentForStorm_args, Assignment> {
       public getLocalAssignmentForStorm() {
         super("getLocalAssignmentForStorm");
@@ -1332,6 +1498,842 @@ public class Supervisor {
     }
   }
 
+  public static class sendSupervisorAssignmentsDelta_args implements org.apache.storm.thrift.TBase<sendSupervisorAssignmentsDelta_args, sendSupervisorAssignmentsDelta_args._Fields>, java.io.Serializable, Cloneable, Comparable<sendSupervisorAssignmentsDelta_args>   {
+    private static final org.apache.storm.thrift.protocol.TStruct STRUCT_DESC = new org.apache.storm.thrift.protocol.TStruct("sendSupervisorAssignmentsDelta_args");
+
+    private static final org.apache.storm.thrift.protocol.TField ASSIGNMENTS_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("assignments", org.apache.storm.thrift.protocol.TType.STRUCT, (short)1);
+
+    private static final org.apache.storm.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new sendSupervisorAssignmentsDelta_argsStandardSchemeFactory();
+    private static final org.apache.storm.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new sendSupervisorAssignmentsDelta_argsTupleSchemeFactory();
+
+    private @org.apache.storm.thrift.annotation.Nullable SupervisorAssignments assignments; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.storm.thrift.TFieldIdEnum {
+      ASSIGNMENTS((short)1, "assignments");
+
+      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+
+      static {
+        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      @org.apache.storm.thrift.annotation.Nullable
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // ASSIGNMENTS
+            return ASSIGNMENTS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      @org.apache.storm.thrift.annotation.Nullable
+      public static _Fields findByName(java.lang.String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final java.lang.String _fieldName;
+
+      _Fields(short thriftId, java.lang.String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public java.lang.String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.ASSIGNMENTS, new org.apache.storm.thrift.meta_data.FieldMetaData("assignments", org.apache.storm.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.storm.thrift.meta_data.StructMetaData(org.apache.storm.thrift.protocol.TType.STRUCT, SupervisorAssignments.class)));
+      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
+      org.apache.storm.thrift.meta_data.FieldMetaData.addStructMetaDataMap(sendSupervisorAssignmentsDelta_args.class, metaDataMap);
+    }
+
+    public sendSupervisorAssignmentsDelta_args() {
+    }
+
+    public sendSupervisorAssignmentsDelta_args(
+      SupervisorAssignments assignments)
+    {
+      this();
+      this.assignments = assignments;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public sendSupervisorAssignmentsDelta_args(sendSupervisorAssignmentsDelta_args other) {
+      if (other.is_set_assignments()) {
+        this.assignments = new SupervisorAssignments(other.assignments);
+      }
+    }
+
+    public sendSupervisorAssignmentsDelta_args deepCopy() {
+      return new sendSupervisorAssignmentsDelta_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.assignments = null;
+    }
+
+    @org.apache.storm.thrift.annotation.Nullable
+    public SupervisorAssignments get_assignments() {
+      return this.assignments;
+    }
+
+    public void set_assignments(@org.apache.storm.thrift.annotation.Nullable SupervisorAssignments assignments) {
+      this.assignments = assignments;
+    }
+
+    public void unset_assignments() {
+      this.assignments = null;
+    }
+
+    /** Returns true if field assignments is set (has been assigned a value) and false otherwise */
+    public boolean is_set_assignments() {
+      return this.assignments != null;
+    }
+
+    public void set_assignments_isSet(boolean value) {
+      if (!value) {
+        this.assignments = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, @org.apache.storm.thrift.annotation.Nullable java.lang.Object value) {
+      switch (field) {
+      case ASSIGNMENTS:
+        if (value == null) {
+          unset_assignments();
+        } else {
+          set_assignments((SupervisorAssignments)value);
+        }
+        break;
+
+      }
+    }
+
+    @org.apache.storm.thrift.annotation.Nullable
+    public java.lang.Object getFieldValue(_Fields field) {
+      switch (field) {
+      case ASSIGNMENTS:
+        return get_assignments();
+
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new java.lang.IllegalArgumentException();
+      }
+
+      switch (field) {
+      case ASSIGNMENTS:
+        return is_set_assignments();
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(java.lang.Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof sendSupervisorAssignmentsDelta_args)
+        return this.equals((sendSupervisorAssignmentsDelta_args)that);
+      return false;
+    }
+
+    public boolean equals(sendSupervisorAssignmentsDelta_args that) {
+      if (that == null)
+        return false;
+      if (this == that)
+        return true;
+
+      boolean this_present_assignments = true && this.is_set_assignments();
+      boolean that_present_assignments = true && that.is_set_assignments();
+      if (this_present_assignments || that_present_assignments) {
+        if (!(this_present_assignments && that_present_assignments))
+          return false;
+        if (!this.assignments.equals(that.assignments))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = 1;
+
+      hashCode = hashCode * 8191 + ((is_set_assignments()) ? 131071 : 524287);
+      if (is_set_assignments())
+        hashCode = hashCode * 8191 + assignments.hashCode();
+
+      return hashCode;
+    }
+
+    @Override
+    public int compareTo(sendSupervisorAssignmentsDelta_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = java.lang.Boolean.valueOf(is_set_assignments()).compareTo(other.is_set_assignments());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_assignments()) {
+        lastComparison = org.apache.storm.thrift.TBaseHelper.compareTo(this.assignments, other.assignments);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    @org.apache.storm.thrift.annotation.Nullable
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.storm.thrift.protocol.TProtocol iprot) throws org.apache.storm.thrift.TException {
+      scheme(iprot).read(iprot, this);
+    }
+
+    public void write(org.apache.storm.thrift.protocol.TProtocol oprot) throws org.apache.storm.thrift.TException {
+      scheme(oprot).write(oprot, this);
+    }
+
+    @Override
+    public java.lang.String toString() {
+      java.lang.StringBuilder sb = new java.lang.StringBuilder("sendSupervisorAssignmentsDelta_args(");
+      boolean first = true;
+
+      sb.append("assignments:");
+      if (this.assignments == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.assignments);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.storm.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (assignments != null) {
+        assignments.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.storm.thrift.protocol.TCompactProtocol(new org.apache.storm.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.storm.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, java.lang.ClassNotFoundException {
+      try {
+        read(new org.apache.storm.thrift.protocol.TCompactProtocol(new org.apache.storm.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.storm.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class sendSupervisorAssignmentsDelta_argsStandardSchemeFactory implements org.apache.storm.thrift.scheme.SchemeFactory {
+      public sendSupervisorAssignmentsDelta_argsStandardScheme getScheme() {
+        return new sendSupervisorAssignmentsDelta_argsStandardScheme();
+      }
+    }
+
+    private static class sendSupervisorAssignmentsDelta_argsStandardScheme extends org.apache.storm.thrift.scheme.StandardScheme<sendSupervisorAssignmentsDelta_args> {
+
+      public void read(org.apache.storm.thrift.protocol.TProtocol iprot, sendSupervisorAssignmentsDelta_args struct) throws org.apache.storm.thrift.TException {
+        org.apache.storm.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.storm.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // ASSIGNMENTS
+              if (schemeField.type == org.apache.storm.thrift.protocol.TType.STRUCT) {
+                struct.assignments = new SupervisorAssignments();
+                struct.assignments.read(iprot);
+                struct.set_assignments_isSet(true);
+              } else { 
+                org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+        struct.validate();
+      }
+
+      public void write(org.apache.storm.thrift.protocol.TProtocol oprot, sendSupervisorAssignmentsDelta_args struct) throws org.apache.storm.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.assignments != null) {
+          oprot.writeFieldBegin(ASSIGNMENTS_FIELD_DESC);
+          struct.assignments.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class sendSupervisorAssignmentsDelta_argsTupleSchemeFactory implements org.apache.storm.thrift.scheme.SchemeFactory {
+      public sendSupervisorAssignmentsDelta_argsTupleScheme getScheme() {
+        return new sendSupervisorAssignmentsDelta_argsTupleScheme();
+      }
+    }
+
+    private static class sendSupervisorAssignmentsDelta_argsTupleScheme extends org.apache.storm.thrift.scheme.TupleScheme<sendSupervisorAssignmentsDelta_args> {
+
+      @Override
+      public void write(org.apache.storm.thrift.protocol.TProtocol prot, sendSupervisorAssignmentsDelta_args struct) throws org.apache.storm.thrift.TException {
+        org.apache.storm.thrift.protocol.TTupleProtocol oprot = (org.apache.storm.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet optionals = new java.util.BitSet();
+        if (struct.is_set_assignments()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.is_set_assignments()) {
+          struct.assignments.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.storm.thrift.protocol.TProtocol prot, sendSupervisorAssignmentsDelta_args struct) throws org.apache.storm.thrift.TException {
+        org.apache.storm.thrift.protocol.TTupleProtocol iprot = (org.apache.storm.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.assignments = new SupervisorAssignments();
+          struct.assignments.read(iprot);
+          struct.set_assignments_isSet(true);
+        }
+      }
+    }
+
+    private static <S extends org.apache.storm.thrift.scheme.IScheme> S scheme(org.apache.storm.thrift.protocol.TProtocol proto) {
+      return (org.apache.storm.thrift.scheme.StandardScheme.class.equals(proto.getScheme()) ? STANDARD_SCHEME_FACTORY : TUPLE_SCHEME_FACTORY).getScheme();
+    }
+  }
+
+  public static class sendSupervisorAssignmentsDelta_result implements org.apache.storm.thrift.TBase<sendSupervisorAssignmentsDelta_result, sendSupervisorAssignmentsDelta_result._Fields>, java.io.Serializable, Cloneable, Comparable<sendSupervisorAssignmentsDelta_result>   {
+    private static final org.apache.storm.thrift.protocol.TStruct STRUCT_DESC = new org.apache.storm.thrift.protocol.TStruct("sendSupervisorAssignmentsDelta_result");
+
+    private static final org.apache.storm.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("success", org.apache.storm.thrift.protocol.TType.BOOL, (short)0);
+    private static final org.apache.storm.thrift.protocol.TField AZE_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("aze", org.apache.storm.thrift.protocol.TType.STRUCT, (short)1);
+
+    private static final org.apache.storm.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new sendSupervisorAssignmentsDelta_resultStandardSchemeFactory();
+    private static final org.apache.storm.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new sendSupervisorAssignmentsDelta_resultTupleSchemeFactory();
+
+    private boolean success; // required
+    private @org.apache.storm.thrift.annotation.Nullable AuthorizationException aze; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.storm.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success"),
+      AZE((short)1, "aze");
+
+      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+
+      static {
+        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      @org.apache.storm.thrift.annotation.Nullable
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          case 1: // AZE
+            return AZE;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      @org.apache.storm.thrift.annotation.Nullable
+      public static _Fields findByName(java.lang.String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final java.lang.String _fieldName;
+
+      _Fields(short thriftId, java.lang.String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public java.lang.String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __SUCCESS_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
+    public static final java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.storm.thrift.meta_data.FieldMetaData("success", org.apache.storm.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.BOOL)));
+      tmpMap.put(_Fields.AZE, new org.apache.storm.thrift.meta_data.FieldMetaData("aze", org.apache.storm.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.storm.thrift.meta_data.StructMetaData(org.apache.storm.thrift.protocol.TType.STRUCT, AuthorizationException.class)));
+      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
+      org.apache.storm.thrift.meta_data.FieldMetaData.addStructMetaDataMap(sendSupervisorAssignmentsDelta_result.class, metaDataMap);
+    }
+
+    public sendSupervisorAssignmentsDelta_result() {
+    }
+
+    public sendSupervisorAssignmentsDelta_result(
+      boolean success,
+      AuthorizationException aze)
+    {
+      this();
+      this.success = success;
+      set_success_isSet(true);
+      this.aze = aze;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public sendSupervisorAssignmentsDelta_result(sendSupervisorAssignmentsDelta_result other) {
+      __isset_bitfield = other.__isset_bitfield;
+      this.success = other.success;
+      if (other.is_set_aze()) {
+        this.aze = new AuthorizationException(other.aze);
+      }
+    }
+
+    public sendSupervisorAssignmentsDelta_result deepCopy() {
+      return new sendSupervisorAssignmentsDelta_result(this);
+    }
+
+    @Override
+    public void clear() {
+      set_success_isSet(false);
+      this.success = false;
+      this.aze = null;
+    }
+
+    public boolean is_success() {
+      return this.success;
+    }
+
+    public void set_success(boolean success) {
+      this.success = success;
+      set_success_isSet(true);
+    }
+
+    public void unset_success() {
+      __isset_bitfield = org.apache.storm.thrift.EncodingUtils.clearBit(__isset_bitfield, __SUCCESS_ISSET_ID);
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean is_set_success() {
+      return org.apache.storm.thrift.EncodingUtils.testBit(__isset_bitfield, __SUCCESS_ISSET_ID);
+    }
+
+    public void set_success_isSet(boolean value) {
+      __isset_bitfield = org.apache.storm.thrift.EncodingUtils.setBit(__isset_bitfield, __SUCCESS_ISSET_ID, value);
+    }
+
+    @org.apache.storm.thrift.annotation.Nullable
+    public AuthorizationException get_aze() {
+      return this.aze;
+    }
+
+    public void set_aze(@org.apache.storm.thrift.annotation.Nullable AuthorizationException aze) {
+      this.aze = aze;
+    }
+
+    public void unset_aze() {
+      this.aze = null;
+    }
+
+    /** Returns true if field aze is set (has been assigned a value) and false otherwise */
+    public boolean is_set_aze() {
+      return this.aze != null;
+    }
+
+    public void set_aze_isSet(boolean value) {
+      if (!value) {
+        this.aze = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, @org.apache.storm.thrift.annotation.Nullable java.lang.Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unset_success();
+        } else {
+          set_success((java.lang.Boolean)value);
+        }
+        break;
+
+      case AZE:
+        if (value == null) {
+          unset_aze();
+        } else {
+          set_aze((AuthorizationException)value);
+        }
+        break;
+
+      }
+    }
+
+    @org.apache.storm.thrift.annotation.Nullable
+    public java.lang.Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return is_success();
+
+      case AZE:
+        return get_aze();
+
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new java.lang.IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return is_set_success();
+      case AZE:
+        return is_set_aze();
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(java.lang.Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof sendSupervisorAssignmentsDelta_result)
+        return this.equals((sendSupervisorAssignmentsDelta_result)that);
+      return false;
+    }
+
+    public boolean equals(sendSupervisorAssignmentsDelta_result that) {
+      if (that == null)
+        return false;
+      if (this == that)
+        return true;
+
+      boolean this_present_success = true;
+      boolean that_present_success = true;
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (this.success != that.success)
+          return false;
+      }
+
+      boolean this_present_aze = true && this.is_set_aze();
+      boolean that_present_aze = true && that.is_set_aze();
+      if (this_present_aze || that_present_aze) {
+        if (!(this_present_aze && that_present_aze))
+          return false;
+        if (!this.aze.equals(that.aze))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = 1;
+
+      hashCode = hashCode * 8191 + ((success) ? 131071 : 524287);
+
+      hashCode = hashCode * 8191 + ((is_set_aze()) ? 131071 : 524287);
+      if (is_set_aze())
+        hashCode = hashCode * 8191 + aze.hashCode();
+
+      return hashCode;
+    }
+
+    @Override
+    public int compareTo(sendSupervisorAssignmentsDelta_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = java.lang.Boolean.valueOf(is_set_success()).compareTo(other.is_set_success());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_success()) {
+        lastComparison = org.apache.storm.thrift.TBaseHelper.compareTo(this.success, other.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = java.lang.Boolean.valueOf(is_set_aze()).compareTo(other.is_set_aze());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (is_set_aze()) {
+        lastComparison = org.apache.storm.thrift.TBaseHelper.compareTo(this.aze, other.aze);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    @org.apache.storm.thrift.annotation.Nullable
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.storm.thrift.protocol.TProtocol iprot) throws org.apache.storm.thrift.TException {
+      scheme(iprot).read(iprot, this);
+    }
+
+    public void write(org.apache.storm.thrift.protocol.TProtocol oprot) throws org.apache.storm.thrift.TException {
+      scheme(oprot).write(oprot, this);
+      }
+
+    @Override
+    public java.lang.String toString() {
+      java.lang.StringBuilder sb = new java.lang.StringBuilder("sendSupervisorAssignmentsDelta_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      sb.append(this.success);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("aze:");
+      if (this.aze == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.aze);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.storm.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.storm.thrift.protocol.TCompactProtocol(new org.apache.storm.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.storm.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, java.lang.ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.storm.thrift.protocol.TCompactProtocol(new org.apache.storm.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.storm.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class sendSupervisorAssignmentsDelta_resultStandardSchemeFactory implements org.apache.storm.thrift.scheme.SchemeFactory {
+      public sendSupervisorAssignmentsDelta_resultStandardScheme getScheme() {
+        return new sendSupervisorAssignmentsDelta_resultStandardScheme();
+      }
+    }
+
+    private static class sendSupervisorAssignmentsDelta_resultStandardScheme extends org.apache.storm.thrift.scheme.StandardScheme<sendSupervisorAssignmentsDelta_result> {
+
+      public void read(org.apache.storm.thrift.protocol.TProtocol iprot, sendSupervisorAssignmentsDelta_result struct) throws org.apache.storm.thrift.TException {
+        org.apache.storm.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.storm.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.storm.thrift.protocol.TType.BOOL) {
+                struct.success = iprot.readBool();
+                struct.set_success_isSet(true);
+              } else { 
+                org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 1: // AZE
+              if (schemeField.type == org.apache.storm.thrift.protocol.TType.STRUCT) {
+                struct.aze = new AuthorizationException();
+                struct.aze.read(iprot);
+                struct.set_aze_isSet(true);
+              } else { 
+                org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+        struct.validate();
+      }
+
+      public void write(org.apache.storm.thrift.protocol.TProtocol oprot, sendSupervisorAssignmentsDelta_result struct) throws org.apache.storm.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.is_set_success()) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          oprot.writeBool(struct.success);
+          oprot.writeFieldEnd();
+        }
+        if (struct.aze != null) {
+          oprot.writeFieldBegin(AZE_FIELD_DESC);
+          struct.aze.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class sendSupervisorAssignmentsDelta_resultTupleSchemeFactory implements org.apache.storm.thrift.scheme.SchemeFactory {
+      public sendSupervisorAssignmentsDelta_resultTupleScheme getScheme() {
+        return new sendSupervisorAssignmentsDelta_resultTupleScheme();
+      }
+    }
+
+    private static class sendSupervisorAssignmentsDelta_resultTupleScheme extends org.apache.storm.thrift.scheme.TupleScheme<sendSupervisorAssignmentsDelta_result> {
+
+      @Override
+      public void write(org.apache.storm.thrift.protocol.TProtocol prot, sendSupervisorAssignmentsDelta_result struct) throws org.apache.storm.thrift.TException {
+        org.apache.storm.thrift.protocol.TTupleProtocol oprot = (org.apache.storm.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet optionals = new java.util.BitSet();
+        if (struct.is_set_success()) {
+          optionals.set(0);
+        }
+        if (struct.is_set_aze()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.is_set_success()) {
+          oprot.writeBool(struct.success);
+        }
+        if (struct.is_set_aze()) {
+          struct.aze.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.storm.thrift.protocol.TProtocol prot, sendSupervisorAssignmentsDelta_result struct) throws org.apache.storm.thrift.TException {
+        org.apache.storm.thrift.protocol.TTupleProtocol iprot = (org.apache.storm.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          struct.success = iprot.readBool();
+          struct.set_success_isSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.aze = new AuthorizationException();
+          struct.aze.read(iprot);
+          struct.set_aze_isSet(true);
+        }
+      }
+    }
+
+    private static <S extends org.apache.storm.thrift.scheme.IScheme> S scheme(org.apache.storm.thrift.protocol.TProtocol proto) {
+      return (org.apache.storm.thrift.scheme.StandardScheme.class.equals(proto.getScheme()) ? STANDARD_SCHEME_FACTORY : TUPLE_SCHEME_FACTORY).getScheme();
+    }
+  }
+
   public static class getLocalAssignmentForStorm_args implements org.apache.storm.thrift.TBase<getLocalAssignmentForStorm_args, getLocalAssignmentForStorm_args._Fields>, java.io.Serializable, Cloneable, Comparable<getLocalAssignmentForStorm_args>   {
     private static final org.apache.storm.thrift.protocol.TStruct STRUCT_DESC = new org.apache.storm.thrift.protocol.TStruct("getLocalAssignmentForStorm_args");
 
@@ -29,15 +29,24 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
   private static final org.apache.storm.thrift.protocol.TStruct STRUCT_DESC = new org.apache.storm.thrift.protocol.TStruct("SupervisorAssignments");
 
   private static final org.apache.storm.thrift.protocol.TField STORM_ASSIGNMENT_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("storm_assignment", org.apache.storm.thrift.protocol.TType.MAP, (short)1);
+  private static final org.apache.storm.thrift.protocol.TField VERSION_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("version", org.apache.storm.thrift.protocol.TType.I64, (short)2);
+  private static final org.apache.storm.thrift.protocol.TField BASE_VERSION_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("base_version", org.apache.storm.thrift.protocol.TType.I64, (short)3);
+  private static final org.apache.storm.thrift.protocol.TField REMOVED_STORM_IDS_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("removed_storm_ids", org.apache.storm.thrift.protocol.TType.LIST, (short)4);
 
   private static final org.apache.storm.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new SupervisorAssignmentsStandardSchemeFactory();
   private static final org.apache.storm.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new SupervisorAssignmentsTupleSchemeFactory();
 
   private @org.apache.storm.thrift.annotation.Nullable java.util.Map<java.lang.String,Assignment> storm_assignment; // optional
+  private long version; // optional
+  private long base_version; // optional
+  private @org.apache.storm.thrift.annotation.Nullable java.util.List<java.lang.String> removed_storm_ids; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.storm.thrift.TFieldIdEnum {
-    STORM_ASSIGNMENT((short)1, "storm_assignment");
+    STORM_ASSIGNMENT((short)1, "storm_assignment"),
+    VERSION((short)2, "version"),
+    BASE_VERSION((short)3, "base_version"),
+    REMOVED_STORM_IDS((short)4, "removed_storm_ids");
 
     private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
 
@@ -55,6 +64,12 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
       switch(fieldId) {
         case 1: // STORM_ASSIGNMENT
           return STORM_ASSIGNMENT;
+        case 2: // VERSION
+          return VERSION;
+        case 3: // BASE_VERSION
+          return BASE_VERSION;
+        case 4: // REMOVED_STORM_IDS
+          return REMOVED_STORM_IDS;
         default:
           return null;
       }
@@ -96,7 +111,10 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
   }
 
   // isset id assignments
-  private static final _Fields optionals[] = {_Fields.STORM_ASSIGNMENT};
+  private static final int __VERSION_ISSET_ID = 0;
+  private static final int __BASE_VERSION_ISSET_ID = 1;
+  private byte __isset_bitfield = 0;
+  private static final _Fields optionals[] = {_Fields.STORM_ASSIGNMENT,_Fields.VERSION,_Fields.BASE_VERSION,_Fields.REMOVED_STORM_IDS};
   public static final java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -104,6 +122,13 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
         new org.apache.storm.thrift.meta_data.MapMetaData(org.apache.storm.thrift.protocol.TType.MAP, 
             new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.STRING), 
             new org.apache.storm.thrift.meta_data.StructMetaData(org.apache.storm.thrift.protocol.TType.STRUCT, Assignment.class))));
+    tmpMap.put(_Fields.VERSION, new org.apache.storm.thrift.meta_data.FieldMetaData("version", org.apache.storm.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.BASE_VERSION, new org.apache.storm.thrift.meta_data.FieldMetaData("base_version", org.apache.storm.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.REMOVED_STORM_IDS, new org.apache.storm.thrift.meta_data.FieldMetaData("removed_storm_ids", org.apache.storm.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.storm.thrift.meta_data.ListMetaData(org.apache.storm.thrift.protocol.TType.LIST, 
+            new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.STRING))));
     metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
     org.apache.storm.thrift.meta_data.FieldMetaData.addStructMetaDataMap(SupervisorAssignments.class, metaDataMap);
   }
@@ -117,6 +142,7 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
    * Performs a deep copy on <i>other</i>.
    */
   public SupervisorAssignments(SupervisorAssignments other) {
+    __isset_bitfield = other.__isset_bitfield;
     if (other.is_set_storm_assignment()) {
       java.util.Map<java.lang.String,Assignment> __this__storm_assignment = new java.util.HashMap<java.lang.String,Assignment>(other.storm_assignment.size());
       for (java.util.Map.Entry<java.lang.String, Assignment> other_element : other.storm_assignment.entrySet()) {
@@ -132,6 +158,12 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
       }
       this.storm_assignment = __this__storm_assignment;
     }
+    this.version = other.version;
+    this.base_version = other.base_version;
+    if (other.is_set_removed_storm_ids()) {
+      java.util.List<java.lang.String> __this__removed_storm_ids = new java.util.ArrayList<java.lang.String>(other.removed_storm_ids);
+      this.removed_storm_ids = __this__removed_storm_ids;
+    }
   }
 
   public SupervisorAssignments deepCopy() {
@@ -142,6 +174,11 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
   public void clear() {
     this.storm_assignment = new java.util.HashMap<java.lang.String,Assignment>();
 
+    set_version_isSet(false);
+    this.version = 0;
+    set_base_version_isSet(false);
+    this.base_version = 0;
+    this.removed_storm_ids = null;
   }
 
   public int get_storm_assignment_size() {
@@ -179,6 +216,90 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
     }
   }
 
+  public long get_version() {
+    return this.version;
+  }
+
+  public void set_version(long version) {
+    this.version = version;
+    set_version_isSet(true);
+  }
+
+  public void unset_version() {
+    __isset_bitfield = org.apache.storm.thrift.EncodingUtils.clearBit(__isset_bitfield, __VERSION_ISSET_ID);
+  }
+
+  /** Returns true if field version is set (has been assigned a value) and false otherwise */
+  public boolean is_set_version() {
+    return org.apache.storm.thrift.EncodingUtils.testBit(__isset_bitfield, __VERSION_ISSET_ID);
+  }
+
+  public void set_version_isSet(boolean value) {
+    __isset_bitfield = org.apache.storm.thrift.EncodingUtils.setBit(__isset_bitfield, __VERSION_ISSET_ID, value);
+  }
+
+  public long get_base_version() {
+    return this.base_version;
+  }
+
+  public void set_base_version(long base_version) {
+    this.base_version = base_version;
+    set_base_version_isSet(true);
+  }
+
+  public void unset_base_version() {
+    __isset_bitfield = org.apache.storm.thrift.EncodingUtils.clearBit(__isset_bitfield, __BASE_VERSION_ISSET_ID);
+  }
+
+  /** Returns true if field base_version is set (has been assigned a value) and false otherwise */
+  public boolean is_set_base_version() {
+    return org.apache.storm.thrift.EncodingUtils.testBit(__isset_bitfield, __BASE_VERSION_ISSET_ID);
+  }
+
+  public void set_base_version_isSet(boolean value) {
+    __isset_bitfield = org.apache.storm.thrift.EncodingUtils.setBit(__isset_bitfield, __BASE_VERSION_ISSET_ID, value);
+  }
+
+  public int get_removed_storm_ids_size() {
+    return (this.removed_storm_ids == null) ? 0 : this.removed_storm_ids.size();
+  }
+
+  @org.apache.storm.thrift.annotation.Nullable
+  public java.util.Iterator<java.lang.String> get_removed_storm_ids_iterator() {
+    return (this.removed_storm_ids == null) ? null : this.removed_storm_ids.iterator();
+  }
+
+  public void add_to_removed_storm_ids(java.lang.String elem) {
+    if (this.removed_storm_ids == null) {
+      this.removed_storm_ids = new java.util.ArrayList<java.lang.String>();
+    }
+    this.removed_storm_ids.add(elem);
+  }
+
+  @org.apache.storm.thrift.annotation.Nullable
+  public java.util.List<java.lang.String> get_removed_storm_ids() {
+    return this.removed_storm_ids;
+  }
+
+  public void set_removed_storm_ids(@org.apache.storm.thrift.annotation.Nullable java.util.List<java.lang.String> removed_storm_ids) {
+    this.removed_storm_ids = removed_storm_ids;
+  }
+
+  public void unset_removed_storm_ids() {
+    this.removed_storm_ids = null;
+  }
+
+  /** Returns true if field removed_storm_ids is set (has been assigned a value) and false otherwise */
+  public boolean is_set_removed_storm_ids() {
+    return this.removed_storm_ids != null;
+  }
+
+  public void set_removed_storm_ids_isSet(boolean value) {
+    if (!value) {
+      this.removed_storm_ids = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, @org.apache.storm.thrift.annotation.Nullable java.lang.Object value) {
     switch (field) {
     case STORM_ASSIGNMENT:
@@ -189,6 +310,30 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
       }
       break;
 
+    case VERSION:
+      if (value == null) {
+        unset_version();
+      } else {
+        set_version((java.lang.Long)value);
+      }
+      break;
+
+    case BASE_VERSION:
+      if (value == null) {
+        unset_base_version();
+      } else {
+        set_base_version((java.lang.Long)value);
+      }
+      break;
+
+    case REMOVED_STORM_IDS:
+      if (value == null) {
+        unset_removed_storm_ids();
+      } else {
+        set_removed_storm_ids((java.util.List<java.lang.String>)value);
+      }
+      break;
+
     }
   }
 
@@ -198,6 +343,15 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
     case STORM_ASSIGNMENT:
       return get_storm_assignment();
 
+    case VERSION:
+      return get_version();
+
+    case BASE_VERSION:
+      return get_base_version();
+
+    case REMOVED_STORM_IDS:
+      return get_removed_storm_ids();
+
     }
     throw new java.lang.IllegalStateException();
   }
@@ -211,6 +365,12 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
     switch (field) {
     case STORM_ASSIGNMENT:
       return is_set_storm_assignment();
+    case VERSION:
+      return is_set_version();
+    case BASE_VERSION:
+      return is_set_base_version();
+    case REMOVED_STORM_IDS:
+      return is_set_removed_storm_ids();
     }
     throw new java.lang.IllegalStateException();
   }
@@ -239,6 +399,33 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
         return false;
     }
 
+    boolean this_present_version = true && this.is_set_version();
+    boolean that_present_version = true && that.is_set_version();
+    if (this_present_version || that_present_version) {
+      if (!(this_present_version && that_present_version))
+        return false;
+      if (this.version != that.version)
+        return false;
+    }
+
+    boolean this_present_base_version = true && this.is_set_base_version();
+    boolean that_present_base_version = true && that.is_set_base_version();
+    if (this_present_base_version || that_present_base_version) {
+      if (!(this_present_base_version && that_present_base_version))
+        return false;
+      if (this.base_version != that.base_version)
+        return false;
+    }
+
+    boolean this_present_removed_storm_ids = true && this.is_set_removed_storm_ids();
+    boolean that_present_removed_storm_ids = true && that.is_set_removed_storm_ids();
+    if (this_present_removed_storm_ids || that_present_removed_storm_ids) {
+      if (!(this_present_removed_storm_ids && that_present_removed_storm_ids))
+        return false;
+      if (!this.removed_storm_ids.equals(that.removed_storm_ids))
+        return false;
+    }
+
     return true;
   }
 
@@ -250,6 +437,18 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
     if (is_set_storm_assignment())
       hashCode = hashCode * 8191 + storm_assignment.hashCode();
 
+    hashCode = hashCode * 8191 + ((is_set_version()) ? 131071 : 524287);
+    if (is_set_version())
+      hashCode = hashCode * 8191 + org.apache.storm.thrift.TBaseHelper.hashCode(version);
+
+    hashCode = hashCode * 8191 + ((is_set_base_version()) ? 131071 : 524287);
+    if (is_set_base_version())
+      hashCode = hashCode * 8191 + org.apache.storm.thrift.TBaseHelper.hashCode(base_version);
+
+    hashCode = hashCode * 8191 + ((is_set_removed_storm_ids()) ? 131071 : 524287);
+    if (is_set_removed_storm_ids())
+      hashCode = hashCode * 8191 + removed_storm_ids.hashCode();
+
     return hashCode;
   }
 
@@ -271,6 +470,36 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
         return lastComparison;
       }
     }
+    lastComparison = java.lang.Boolean.valueOf(is_set_version()).compareTo(other.is_set_version());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (is_set_version()) {
+      lastComparison = org.apache.storm.thrift.TBaseHelper.compareTo(this.version, other.version);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = java.lang.Boolean.valueOf(is_set_base_version()).compareTo(other.is_set_base_version());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (is_set_base_version()) {
+      lastComparison = org.apache.storm.thrift.TBaseHelper.compareTo(this.base_version, other.base_version);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = java.lang.Boolean.valueOf(is_set_removed_storm_ids()).compareTo(other.is_set_removed_storm_ids());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (is_set_removed_storm_ids()) {
+      lastComparison = org.apache.storm.thrift.TBaseHelper.compareTo(this.removed_storm_ids, other.removed_storm_ids);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -301,6 +530,28 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
       }
       first = false;
     }
+    if (is_set_version()) {
+      if (!first) sb.append(", ");
+      sb.append("version:");
+      sb.append(this.version);
+      first = false;
+    }
+    if (is_set_base_version()) {
+      if (!first) sb.append(", ");
+      sb.append("base_version:");
+      sb.append(this.base_version);
+      first = false;
+    }
+    if (is_set_removed_storm_ids()) {
+      if (!first) sb.append(", ");
+      sb.append("removed_storm_ids:");
+      if (this.removed_storm_ids == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.removed_storm_ids);
+      }
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -320,6 +571,8 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
 
   private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, java.lang.ClassNotFoundException {
     try {
+      // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+      __isset_bitfield = 0;
       read(new org.apache.storm.thrift.protocol.TCompactProtocol(new org.apache.storm.thrift.transport.TIOStreamTransport(in)));
     } catch (org.apache.storm.thrift.TException te) {
       throw new java.io.IOException(te);
@@ -365,6 +618,40 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
               org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 2: // VERSION
+            if (schemeField.type == org.apache.storm.thrift.protocol.TType.I64) {
+              struct.version = iprot.readI64();
+              struct.set_version_isSet(true);
+            } else { 
+              org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 3: // BASE_VERSION
+            if (schemeField.type == org.apache.storm.thrift.protocol.TType.I64) {
+              struct.base_version = iprot.readI64();
+              struct.set_base_version_isSet(true);
+            } else { 
+              org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 4: // REMOVED_STORM_IDS
+            if (schemeField.type == org.apache.storm.thrift.protocol.TType.LIST) {
+              {
+                org.apache.storm.thrift.protocol.TList _list941 = iprot.readListBegin();
+                struct.removed_storm_ids = new java.util.ArrayList<java.lang.String>(_list941.size);
+                @org.apache.storm.thrift.annotation.Nullable java.lang.String _elem942;
+                for (int _i943 = 0; _i943 < _list941.size; ++_i943)
+                {
+                  _elem942 = iprot.readString();
+                  struct.removed_storm_ids.add(_elem942);
+                }
+                iprot.readListEnd();
+              }
+              struct.set_removed_storm_ids_isSet(true);
+            } else { 
+              org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -393,6 +680,30 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
           oprot.writeFieldEnd();
         }
       }
+      if (struct.is_set_version()) {
+        oprot.writeFieldBegin(VERSION_FIELD_DESC);
+        oprot.writeI64(struct.version);
+        oprot.writeFieldEnd();
+      }
+      if (struct.is_set_base_version()) {
+        oprot.writeFieldBegin(BASE_VERSION_FIELD_DESC);
+        oprot.writeI64(struct.base_version);
+        oprot.writeFieldEnd();
+      }
+      if (struct.removed_storm_ids != null) {
+        if (struct.is_set_removed_storm_ids()) {
+          oprot.writeFieldBegin(REMOVED_STORM_IDS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.storm.thrift.protocol.TList(org.apache.storm.thrift.protocol.TType.STRING, struct.removed_storm_ids.size()));
+            for (java.lang.String _iter944 : struct.removed_storm_ids)
+            {
+              oprot.writeString(_iter944);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -414,7 +725,16 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
       if (struct.is_set_storm_assignment()) {
         optionals.set(0);
       }
-      oprot.writeBitSet(optionals, 1);
+      if (struct.is_set_version()) {
+        optionals.set(1);
+      }
+      if (struct.is_set_base_version()) {
+        optionals.set(2);
+      }
+      if (struct.is_set_removed_storm_ids()) {
+        optionals.set(3);
+      }
+      oprot.writeBitSet(optionals, 4);
       if (struct.is_set_storm_assignment()) {
         {
           oprot.writeI32(struct.storm_assignment.size());
@@ -425,12 +745,27 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
           }
         }
       }
+      if (struct.is_set_version()) {
+        oprot.writeI64(struct.version);
+      }
+      if (struct.is_set_base_version()) {
+        oprot.writeI64(struct.base_version);
+      }
+      if (struct.is_set_removed_storm_ids()) {
+        {
+          oprot.writeI32(struct.removed_storm_ids.size());
+          for (java.lang.String _iter945 : struct.removed_storm_ids)
+          {
+            oprot.writeString(_iter945);
+          }
+        }
+      }
     }
 
     @Override
     public void read(org.apache.storm.thrift.protocol.TProtocol prot, SupervisorAssignments struct) throws org.apache.storm.thrift.TException {
       org.apache.storm.thrift.protocol.TTupleProtocol iprot = (org.apache.storm.thrift.protocol.TTupleProtocol) prot;
-      java.util.BitSet incoming = iprot.readBitSet(1);
+      java.util.BitSet incoming = iprot.readBitSet(4);
       if (incoming.get(0)) {
         {
           org.apache.storm.thrift.protocol.TMap _map942 = new org.apache.storm.thrift.protocol.TMap(org.apache.storm.thrift.protocol.TType.STRING, org.apache.storm.thrift.protocol.TType.STRUCT, iprot.readI32());
@@ -447,6 +782,27 @@ public class SupervisorAssignments implements org.apache.storm.thrift.TBase<Supe
         }
         struct.set_storm_assignment_isSet(true);
       }
+      if (incoming.get(1)) {
+        struct.version = iprot.readI64();
+        struct.set_version_isSet(true);
+      }
+      if (incoming.get(2)) {
+        struct.base_version = iprot.readI64();
+        struct.set_base_version_isSet(true);
+      }
+      if (incoming.get(3)) {
+        {
+          org.apache.storm.thrift.protocol.TList _list946 = new org.apache.storm.thrift.protocol.TList(org.apache.storm.thrift.protocol.TType.STRING, iprot.readI32());
+          struct.removed_storm_ids = new java.util.ArrayList<java.lang.String>(_list946.size);
+          @org.apache.storm.thrift.annotation.Nullable java.lang.String _elem947;
+          for (int _i948 = 0; _i948 < _list946.size; ++_i948)
+          {
+            _elem947 = iprot.readString();
+            struct.removed_storm_ids.add(_elem947);
+          }
+        }
+        struct.set_removed_storm_ids_isSet(true);
+      }
     }
   }
 
@@ -38,6 +38,7 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
   private static final org.apache.storm.thrift.protocol.TField VERSION_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("version", org.apache.storm.thrift.protocol.TType.STRING, (short)8);
   private static final org.apache.storm.thrift.protocol.TField RESOURCES_MAP_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("resources_map", org.apache.storm.thrift.protocol.TType.MAP, (short)9);
   private static final org.apache.storm.thrift.protocol.TField SERVER_PORT_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("server_port", org.apache.storm.thrift.protocol.TType.I32, (short)10);
+  private static final org.apache.storm.thrift.protocol.TField BLOB_PEER_PORT_FIELD_DESC = new org.apache.storm.thrift.protocol.TField("blob_peer_port", org.apache.storm.thrift.protocol.TType.I32, (short)11);
 
   private static final org.apache.storm.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new SupervisorInfoStandardSchemeFactory();
   private static final org.apache.storm.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new SupervisorInfoTupleSchemeFactory();
@@ -52,6 +53,7 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
   private @org.apache.storm.thrift.annotation.Nullable java.lang.String version; // optional
   private @org.apache.storm.thrift.annotation.Nullable java.util.Map<java.lang.String,java.lang.Double> resources_map; // optional
   private int server_port; // optional
+  private int blob_peer_port; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.storm.thrift.TFieldIdEnum {
@@ -64,7 +66,8 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
     UPTIME_SECS((short)7, "uptime_secs"),
     VERSION((short)8, "version"),
     RESOURCES_MAP((short)9, "resources_map"),
-    SERVER_PORT((short)10, "server_port");
+    SERVER_PORT((short)10, "server_port"),
+    BLOB_PEER_PORT((short)11, "blob_peer_port");
 
     private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
 
@@ -100,6 +103,8 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
           return RESOURCES_MAP;
         case 10: // SERVER_PORT
           return SERVER_PORT;
+        case 11: // BLOB_PEER_PORT
+          return BLOB_PEER_PORT;
         default:
           return null;
       }
@@ -144,8 +149,9 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
   private static final int __TIME_SECS_ISSET_ID = 0;
   private static final int __UPTIME_SECS_ISSET_ID = 1;
   private static final int __SERVER_PORT_ISSET_ID = 2;
+  private static final int __BLOB_PEER_PORT_ISSET_ID = 3;
   private byte __isset_bitfield = 0;
-  private static final _Fields optionals[] = {_Fields.ASSIGNMENT_ID,_Fields.USED_PORTS,_Fields.META,_Fields.SCHEDULER_META,_Fields.UPTIME_SECS,_Fields.VERSION,_Fields.RESOURCES_MAP,_Fields.SERVER_PORT};
+  private static final _Fields optionals[] = {_Fields.ASSIGNMENT_ID,_Fields.USED_PORTS,_Fields.META,_Fields.SCHEDULER_META,_Fields.UPTIME_SECS,_Fields.VERSION,_Fields.RESOURCES_MAP,_Fields.SERVER_PORT,_Fields.BLOB_PEER_PORT};
   public static final java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     java.util.Map<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.storm.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -175,6 +181,8 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
             new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.DOUBLE))));
     tmpMap.put(_Fields.SERVER_PORT, new org.apache.storm.thrift.meta_data.FieldMetaData("server_port", org.apache.storm.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.I32)));
+    tmpMap.put(_Fields.BLOB_PEER_PORT, new org.apache.storm.thrift.meta_data.FieldMetaData("blob_peer_port", org.apache.storm.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.storm.thrift.meta_data.FieldValueMetaData(org.apache.storm.thrift.protocol.TType.I32)));
     metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
     org.apache.storm.thrift.meta_data.FieldMetaData.addStructMetaDataMap(SupervisorInfo.class, metaDataMap);
   }
@@ -225,6 +233,7 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
       this.resources_map = __this__resources_map;
     }
     this.server_port = other.server_port;
+    this.blob_peer_port = other.blob_peer_port;
   }
 
   public SupervisorInfo deepCopy() {
@@ -246,6 +255,8 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
     this.resources_map = null;
     set_server_port_isSet(false);
     this.server_port = 0;
+    set_blob_peer_port_isSet(false);
+    this.blob_peer_port = 0;
   }
 
   public long get_time_secs() {
@@ -536,6 +547,28 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
     __isset_bitfield = org.apache.storm.thrift.EncodingUtils.setBit(__isset_bitfield, __SERVER_PORT_ISSET_ID, value);
   }
 
+  public int get_blob_peer_port() {
+    return this.blob_peer_port;
+  }
+
+  public void set_blob_peer_port(int blob_peer_port) {
+    this.blob_peer_port = blob_peer_port;
+    set_blob_peer_port_isSet(true);
+  }
+
+  public void unset_blob_peer_port() {
+    __isset_bitfield = org.apache.storm.thrift.EncodingUtils.clearBit(__isset_bitfield, __BLOB_PEER_PORT_ISSET_ID);
+  }
+
+  /** Returns true if field blob_peer_port is set (has been assigned a value) and false otherwise */
+  public boolean is_set_blob_peer_port() {
+    return org.apache.storm.thrift.EncodingUtils.testBit(__isset_bitfield, __BLOB_PEER_PORT_ISSET_ID);
+  }
+
+  public void set_blob_peer_port_isSet(boolean value) {
+    __isset_bitfield = org.apache.storm.thrift.EncodingUtils.setBit(__isset_bitfield, __BLOB_PEER_PORT_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, @org.apache.storm.thrift.annotation.Nullable java.lang.Object value) {
     switch (field) {
     case TIME_SECS:
@@ -618,6 +651,14 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
       }
       break;
 
+    case BLOB_PEER_PORT:
+      if (value == null) {
+        unset_blob_peer_port();
+      } else {
+        set_blob_peer_port((java.lang.Integer)value);
+      }
+      break;
+
     }
   }
 
@@ -654,6 +695,9 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
     case SERVER_PORT:
       return get_server_port();
 
+    case BLOB_PEER_PORT:
+      return get_blob_peer_port();
+
     }
     throw new java.lang.IllegalStateException();
   }
@@ -685,6 +729,8 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
       return is_set_resources_map();
     case SERVER_PORT:
       return is_set_server_port();
+    case BLOB_PEER_PORT:
+      return is_set_blob_peer_port();
     }
     throw new java.lang.IllegalStateException();
   }
@@ -794,6 +840,15 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
         return false;
     }
 
+    boolean this_present_blob_peer_port = true && this.is_set_blob_peer_port();
+    boolean that_present_blob_peer_port = true && that.is_set_blob_peer_port();
+    if (this_present_blob_peer_port || that_present_blob_peer_port) {
+      if (!(this_present_blob_peer_port && that_present_blob_peer_port))
+        return false;
+      if (this.blob_peer_port != that.blob_peer_port)
+        return false;
+    }
+
     return true;
   }
 
@@ -839,6 +894,10 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
     if (is_set_server_port())
       hashCode = hashCode * 8191 + server_port;
 
+    hashCode = hashCode * 8191 + ((is_set_blob_peer_port()) ? 131071 : 524287);
+    if (is_set_blob_peer_port())
+      hashCode = hashCode * 8191 + blob_peer_port;
+
     return hashCode;
   }
 
@@ -950,6 +1009,16 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
         return lastComparison;
       }
     }
+    lastComparison = java.lang.Boolean.valueOf(is_set_blob_peer_port()).compareTo(other.is_set_blob_peer_port());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (is_set_blob_peer_port()) {
+      lastComparison = org.apache.storm.thrift.TBaseHelper.compareTo(this.blob_peer_port, other.blob_peer_port);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -1054,6 +1123,12 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
       sb.append(this.server_port);
       first = false;
     }
+    if (is_set_blob_peer_port()) {
+      if (!first) sb.append(", ");
+      sb.append("blob_peer_port:");
+      sb.append(this.blob_peer_port);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -1231,6 +1306,14 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
               org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 11: // BLOB_PEER_PORT
+            if (schemeField.type == org.apache.storm.thrift.protocol.TType.I32) {
+              struct.blob_peer_port = iprot.readI32();
+              struct.set_blob_peer_port_isSet(true);
+            } else { 
+              org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.storm.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -1334,6 +1417,11 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
         oprot.writeI32(struct.server_port);
         oprot.writeFieldEnd();
       }
+      if (struct.is_set_blob_peer_port()) {
+        oprot.writeFieldBegin(BLOB_PEER_PORT_FIELD_DESC);
+        oprot.writeI32(struct.blob_peer_port);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -1378,7 +1466,10 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
       if (struct.is_set_server_port()) {
         optionals.set(7);
       }
-      oprot.writeBitSet(optionals, 8);
+      if (struct.is_set_blob_peer_port()) {
+        optionals.set(8);
+      }
+      oprot.writeBitSet(optionals, 9);
       if (struct.is_set_assignment_id()) {
         oprot.writeString(struct.assignment_id);
       }
@@ -1429,6 +1520,9 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
       if (struct.is_set_server_port()) {
         oprot.writeI32(struct.server_port);
       }
+      if (struct.is_set_blob_peer_port()) {
+        oprot.writeI32(struct.blob_peer_port);
+      }
     }
 
     @Override
@@ -1438,7 +1532,7 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
       struct.set_time_secs_isSet(true);
       struct.hostname = iprot.readString();
       struct.set_hostname_isSet(true);
-      java.util.BitSet incoming = iprot.readBitSet(8);
+      java.util.BitSet incoming = iprot.readBitSet(9);
       if (incoming.get(0)) {
         struct.assignment_id = iprot.readString();
         struct.set_assignment_id_isSet(true);
@@ -1511,6 +1605,10 @@ public class SupervisorInfo implements org.apache.storm.thrift.TBase<SupervisorI
         struct.server_port = iprot.readI32();
         struct.set_server_port_isSet(true);
       }
+      if (incoming.get(8)) {
+        struct.blob_peer_port = iprot.readI32();
+        struct.set_blob_peer_port_isSet(true);
+      }
     }
   }
 
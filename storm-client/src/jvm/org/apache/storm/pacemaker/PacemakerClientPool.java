@@ -12,24 +12,41 @@
 
 package org.apache.storm.pacemaker;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import org.apache.storm.Config;
 import org.apache.storm.generated.HBMessage;
+import org.apache.storm.utils.ObjectReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class PacemakerClientPool {
 
+    // with sharding the heartbeats of a topology are written to and read from this many servers, so they are found while a server
+    // fails over
+    public static final int SHARD_SERVERS = 2;
     private static final Logger LOG = LoggerFactory.getLogger(PacemakerClientPool.class);
+    // points on the hash ring for every server, so keys spread evenly and move little when a server is added or removed
+    private static final int RING_POINTS_PER_SERVER = 100;
 
     private ConcurrentHashMap<String, PacemakerClient> clientForServer = new ConcurrentHashMap<>();
     private ConcurrentLinkedQueue<String> servers;
     private Map<String, Object> config;
+    private final boolean sharded;
+    // hash -> server
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
 
     public PacemakerClientPool(Map<String, Object> config) {
         this.config = config;
@@ -45,6 +62,44 @@ public class PacemakerClientPool {
         } else {
             servers = new ConcurrentLinkedQueue<>();
         }
+        sharded = ObjectReader.getBoolean(config.get(Config.PACEMAKER_SHARDING_ENABLE), false);
+        for (String server : serverList) {
+            for (int i = 0; i < RING_POINTS_PER_SERVER; i++) {
+                ring.put(hash(server + "#" + i), server);
+            }
+        }
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    /**
+     * Get the servers in the order they hold a shard, the first one is where the data of the shard normally is and the next ones take
+     * over when it is down.
+     *
+     * @param shard the key of the shard.
+     * @return all of the servers, in order.
+     */
+    public List<String> getServersFor(String shard) {
+        Set<String> ret = new LinkedHashSet<>();
+        long hash = hash(shard);
+        for (String server : ring.tailMap(hash).values()) {
+            ret.add(server);
+        }
+        for (String server : ring.headMap(hash).values()) {
+            ret.add(server);
+        }
+        return new ArrayList<>(ret);
     }
 
     public HBMessage send(HBMessage m) throws PacemakerConnectionException, InterruptedException {
@@ -56,6 +111,55 @@ public class PacemakerClientPool {
         }
     }
 
+    /**
+     * Send a message to the first server of a shard that is up, of the first {@link #SHARD_SERVERS} servers of the shard. Readers only
+     * look at those, so a message that went further would never be read.
+     *
+     * @param shard the key of the shard.
+     * @param m the message.
+     * @return the response.
+     * @throws PacemakerConnectionException if no server could be reached.
+     */
+    public HBMessage send(String shard, HBMessage m) throws PacemakerConnectionException, InterruptedException {
+        List<String> shardServers = getServersFor(shard);
+        for (String s : shardServers.subList(0, Math.min(SHARD_SERVERS, shardServers.size()))) {
+            try {
+                return getClientForServer(s).send(m);
+            } catch (PacemakerConnectionException e) {
+                LOG.warn("Failed to connect to the pacemaker server {}, trying the next server for {}", s, shard);
+                getClientForServer(s).reconnect();
+            }
+        }
+        throw new PacemakerConnectionException("Failed to connect to any Pacemaker for " + shard);
+    }
+
+    /**
+     * Send a message to the first servers of a shard.
+     *
+     * @param shard the key of the shard.
+     * @param m the message.
+     * @param numServers how many servers to send it to.
+     * @return the responses of the servers that could be reached.
+     * @throws PacemakerConnectionException if no server could be reached.
+     */
+    public List<HBMessage> sendToShard(String shard, HBMessage m, int numServers)
+        throws PacemakerConnectionException, InterruptedException {
+        List<String> shardServers = getServersFor(shard);
+        List<HBMessage> responses = new ArrayList<>();
+        for (String s : shardServers.subList(0, Math.min(numServers, shardServers.size()))) {
+            try {
+                responses.add(getClientForServer(s).send(m));
+            } catch (PacemakerConnectionException e) {
+                LOG.warn("Failed to connect to the pacemaker server {}, attempting to reconnect", s);
+                getClientForServer(s).reconnect();
+            }
+        }
+        if (responses.isEmpty()) {
+            throw new PacemakerConnectionException("Failed to connect to any Pacemaker for " + shard);
+        }
+        return responses;
+    }
+
     public List<HBMessage> sendAll(HBMessage m) throws PacemakerConnectionException, InterruptedException {
         List<HBMessage> responses = new ArrayList<HBMessage>();
         LOG.debug("Using servers: {}", servers);
@@ -39,7 +39,8 @@ public class SupervisorSimpleACLAuthorizer implements IAuthorizer {
         "getLocalAssignmentForStorm",
         "sendSupervisorWorkerHeartbeat"));
     protected Set<String> nimbusCommands = new HashSet<>(Arrays.asList(
-        "sendSupervisorAssignments"));
+        "sendSupervisorAssignments",
+        "sendSupervisorAssignmentsDelta"));
 
     protected Set<String> admins;
     protected Set<String> adminsGroups;
@@ -369,7 +369,10 @@ public class PairStream<K, V> extends Stream<Pair<K, V>> {
      * @return the {@link StreamState} which can be used to query the state
      */
     public <R> StreamState<K, R> updateStateByKey(StateUpdater<? super V, ? extends R> stateUpdater) {
-        // repartition so that state query fields grouping works correctly. this can be optimized further
+        // repartition so that state query fields grouping works correctly, unless the stream is already partitioned on key
+        if (streamBuilder.isPartitionedBy(node, KEY, true)) {
+            return updateStateByKeyPartition(stateUpdater);
+        }
         return partitionBy(KEY).updateStateByKeyPartition(stateUpdater);
     }
 
@@ -432,17 +435,10 @@ public class PairStream<K, V> extends Stream<Pair<K, V>> {
             return false;
         }
         /*
-         * if the current processor preserves the key and is
-         * already partitioned on key, skip the re-partition.
+         * if the stream is already partitioned on key and every processor
+         * since then preserves the key, skip the re-partition.
          */
-        if (node instanceof ProcessorNode) {
-            ProcessorNode pn = (ProcessorNode) node;
-            Fields fields = pn.getGroupingInfo() == null ? null : pn.getGroupingInfo().getFields();
-            if (pn.isPreservesKey() && fields != null && fields.equals(KEY)) {
-                return false;
-            }
-        }
-        return true;
+        return !streamBuilder.isPartitionedBy(node, KEY, false);
     }
 
     private PairStream<K, V> partitionBy(Fields fields) {
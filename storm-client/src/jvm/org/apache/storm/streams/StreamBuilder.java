@@ -46,6 +46,7 @@ import org.apache.storm.topology.IComponent;
 import org.apache.storm.topology.IRichBolt;
 import org.apache.storm.topology.IRichSpout;
 import org.apache.storm.topology.TopologyBuilder;
+import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -359,6 +360,39 @@ public class StreamBuilder {
         }
     }
 
+    /*
+     * Returns true if the output of the node is already partitioned on the given fields across the tasks of the bolt the node
+     * ends up in, so that a downstream operation on the same fields can run in that bolt without a re-partition.
+     *
+     * This holds if every path from the node back to a fields partition on the same fields only goes through processors that
+     * preserve the key and stay in the same bolt. A change in parallelism or a window starts a new bolt that is fed with a shuffle
+     * grouping, and so does a second stateful processor if the downstream operation is stateful.
+     */
+    boolean isPartitionedBy(Node node, Fields fields, boolean stateful) {
+        if (!(node instanceof ProcessorNode)) {
+            return false;
+        }
+        ProcessorNode processorNode = (ProcessorNode) node;
+        if (!processorNode.isPreservesKey() || (stateful && processorNode.getProcessor() instanceof StatefulProcessor)) {
+            return false;
+        }
+        List<Node> parents = StreamUtil.getParents(graph, node);
+        if (parents.isEmpty()) {
+            return false;
+        }
+        for (Node parent : parents) {
+            if (parent instanceof PartitionNode) {
+                GroupingInfo groupingInfo = parent.getGroupingInfo();
+                if (groupingInfo == null || !fields.equals(groupingInfo.getFields())) {
+                    return false;
+                }
+            } else if (parent.getParallelism() != node.getParallelism() || !isPartitionedBy(parent, fields, stateful)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     Node parentNode(Node curNode) {
         Set<Node> parentNode = parentNodes(curNode);
         if (parentNode.size() > 1) {
@@ -73,7 +73,10 @@ public class ChainedAggregatorDeclarer implements ChainedFullAggregatorDeclarer,
         Fields outFields = new Fields(allOutFields);
         Aggregator combined = new ChainedAggregatorImpl(aggs, inputFields, new ComboList.Factory(outSizes));
 
-        if (type != AggType.FULL) {
+        if (type == AggType.FULL_COMBINE) {
+            // combiners are associative, so the map side may flush early to bound its memory
+            stream = stream.partialAggregate(inFields, combined, outFields);
+        } else if (type != AggType.FULL) {
             stream = stream.partitionAggregate(inFields, combined, outFields);
         }
         if (type != AggType.PARTITION) {
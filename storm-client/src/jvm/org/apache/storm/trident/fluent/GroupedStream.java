@@ -143,6 +143,15 @@ public class GroupedStream implements IAggregatableStream, GlobalAggregationSche
         return new GroupedStream(s, groupFields);
     }
 
+    @Override
+    public IAggregatableStream partialAggregate(Fields inputFields, Aggregator agg, Fields functionFields) {
+        Aggregator groupedAgg = new GroupedAggregator(agg, groupFields, inputFields, functionFields.size(), true);
+        Fields allInFields = TridentUtils.fieldsUnion(groupFields, inputFields);
+        Fields allOutFields = TridentUtils.fieldsConcat(groupFields, functionFields);
+        Stream s = stream.partitionAggregate(allInFields, groupedAgg, allOutFields);
+        return new GroupedStream(s, groupFields);
+    }
+
     @Override
     public IAggregatableStream aggPartition(GroupedStream s) {
         return new GroupedStream(s.stream.partitionBy(groupFields), groupFields);
@@ -22,6 +22,14 @@ public interface IAggregatableStream {
 
     IAggregatableStream partitionAggregate(Fields inputFields, Aggregator agg, Fields functionFields);
 
+    /**
+     * Like {@link #partitionAggregate}, but the results for a group may be emitted in several parts. Only valid when the results are
+     * combined again after repartitioning, as the map side of a combiner aggregation is.
+     */
+    default IAggregatableStream partialAggregate(Fields inputFields, Aggregator agg, Fields functionFields) {
+        return partitionAggregate(inputFields, agg, functionFields);
+    }
+
     Stream toStream();
 
     Fields getOutputFields();
@@ -12,10 +12,12 @@
 
 package org.apache.storm.trident.operation.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import org.apache.storm.Config;
 import org.apache.storm.trident.operation.Aggregator;
 import org.apache.storm.trident.operation.TridentCollector;
 import org.apache.storm.trident.operation.TridentOperationContext;
@@ -24,6 +26,7 @@ import org.apache.storm.trident.tuple.TridentTuple;
 import org.apache.storm.trident.tuple.TridentTupleView;
 import org.apache.storm.trident.tuple.TridentTupleView.ProjectionFactory;
 import org.apache.storm.tuple.Fields;
+import org.apache.storm.utils.ObjectReader;
 
 public class GroupedAggregator implements Aggregator<Object[]> {
     ProjectionFactory groupFactory;
@@ -32,8 +35,22 @@ public class GroupedAggregator implements Aggregator<Object[]> {
     ComboList.Factory fact;
     Fields inFields;
     Fields groupFields;
+    boolean partial;
+    int maxGroups = Integer.MAX_VALUE;
 
     public GroupedAggregator(Aggregator agg, Fields group, Fields input, int outSize) {
+        this(agg, group, input, outSize, false);
+    }
+
+    /**
+     * Create a grouped aggregator.
+     *
+     * @param partial true if the results for a group may be emitted in several parts because they are combined again downstream.
+     *     The aggregator then emits and forgets its groups whenever it holds
+     *     {@link Config#TOPOLOGY_TRIDENT_PARTIAL_AGGREGATION_MAX_GROUPS} of them, instead of keeping every group of the batch in memory.
+     */
+    public GroupedAggregator(Aggregator agg, Fields group, Fields input, int outSize, boolean partial) {
+        this.partial = partial;
         groupFields = group;
         inFields = input;
         this.agg = agg;
@@ -48,6 +65,9 @@ public class GroupedAggregator implements Aggregator<Object[]> {
         inputFactory = context.makeProjectionFactory(inFields);
         groupFactory = context.makeProjectionFactory(groupFields);
         agg.prepare(conf, new TridentOperationContext(context, inputFactory));
+        if (partial) {
+            maxGroups = ObjectReader.getInt(conf.get(Config.TOPOLOGY_TRIDENT_PARTIAL_AGGREGATION_MAX_GROUPS), Integer.MAX_VALUE);
+        }
     }
 
     @Override
@@ -70,7 +90,10 @@ public class GroupedAggregator implements Aggregator<Object[]> {
         }
         groupColl.currGroup = group;
         agg.aggregate(curr, input, groupColl);
-
+        if (val.size() >= maxGroups) {
+            complete(arr, collector);
+            val.clear();
+        }
     }
 
     @Override
@@ -83,6 +106,22 @@ public class GroupedAggregator implements Aggregator<Object[]> {
         }
     }
 
+    /**
+     * The groups currently held for the batch, each as the values of the group fields.
+     */
+    public List<List<Object>> getGroups(Object[] arr) {
+        Map<List, Object> val = (Map) arr[1];
+        List<List<Object>> ret = new ArrayList<>(val.size());
+        for (List group : val.keySet()) {
+            ret.add(new ArrayList<Object>(group));
+        }
+        return ret;
+    }
+
+    public Fields getGroupFields() {
+        return groupFields;
+    }
+
     @Override
     public void cleanup() {
         agg.cleanup();
@@ -176,6 +176,13 @@ public class SubtopologyBolt implements ITridentBatchBolt {
         }
     }
 
+    @Override
+    public void batchReceived(BatchInfo batchInfo) {
+        for (TridentProcessor p : myTopologicallyOrdered.get(batchInfo.batchGroup)) {
+            p.batchReceived((ProcessorContext) batchInfo.state);
+        }
+    }
+
     @Override
     public Object initBatchState(String batchGroup, Object batchId) {
         ProcessorContext ret = new ProcessorContext(batchId, new Object[nodes.size()]);
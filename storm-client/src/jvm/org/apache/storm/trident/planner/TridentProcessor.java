@@ -13,10 +13,12 @@
 package org.apache.storm.trident.planner;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Map;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.trident.planner.processor.TridentContext;
 import org.apache.storm.trident.tuple.TridentTuple.Factory;
+import org.apache.storm.tuple.Fields;
 
 public interface TridentProcessor extends Serializable, TupleReceiver {
 
@@ -32,5 +34,20 @@ public interface TridentProcessor extends Serializable, TupleReceiver {
 
     void finishBatch(ProcessorContext processorContext);
 
+    /**
+     * Called when all the tuples of a committing batch have been received but the batch is still waiting for its commit, for example
+     * to start reading state for the batch while the previous batch commits. Must not emit tuples.
+     */
+    default void batchReceived(ProcessorContext processorContext) {
+    }
+
+    /**
+     * Called by a parent from its {@link #batchReceived} with values it is going to emit for the batch when it finishes, before this
+     * processor's own {@link #batchReceived} is called. Each entry of values holds one value per field in fields, which are a subset of
+     * the parent's output fields. Must not emit tuples.
+     */
+    default void prefetch(ProcessorContext processorContext, Fields fields, List<List<Object>> values) {
+    }
+
     Factory getOutputFactory();
 }
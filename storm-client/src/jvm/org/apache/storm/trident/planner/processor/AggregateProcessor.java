@@ -17,8 +17,10 @@ import java.util.Map;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.trident.operation.Aggregator;
 import org.apache.storm.trident.operation.TridentOperationContext;
+import org.apache.storm.trident.operation.impl.GroupedAggregator;
 import org.apache.storm.trident.planner.ProcessorContext;
 import org.apache.storm.trident.planner.TridentProcessor;
+import org.apache.storm.trident.planner.TupleReceiver;
 import org.apache.storm.trident.tuple.TridentTuple;
 import org.apache.storm.trident.tuple.TridentTuple.Factory;
 import org.apache.storm.trident.tuple.TridentTupleView.ProjectionFactory;
@@ -77,6 +79,22 @@ public class AggregateProcessor implements TridentProcessor {
         agg.complete(processorContext.state[context.getStateIndex()], collector);
     }
 
+    @Override
+    public void batchReceived(ProcessorContext processorContext) {
+        if (agg instanceof GroupedAggregator) {
+            // the groups of the batch are known before it finishes, let a downstream state read them while the batch waits for its commit
+            GroupedAggregator grouped = (GroupedAggregator) agg;
+            List<List<Object>> groups = grouped.getGroups((Object[]) processorContext.state[context.getStateIndex()]);
+            if (!groups.isEmpty()) {
+                for (TupleReceiver r : context.getReceivers()) {
+                    if (r instanceof TridentProcessor) {
+                        ((TridentProcessor) r).prefetch(processorContext, grouped.getGroupFields(), groups);
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public Factory getOutputFactory() {
         return collector.getOutputFactory();
@@ -19,6 +19,7 @@ import org.apache.storm.task.TopologyContext;
 import org.apache.storm.trident.operation.TridentOperationContext;
 import org.apache.storm.trident.planner.ProcessorContext;
 import org.apache.storm.trident.planner.TridentProcessor;
+import org.apache.storm.trident.state.PrefetchingStateUpdater;
 import org.apache.storm.trident.state.State;
 import org.apache.storm.trident.state.StateUpdater;
 import org.apache.storm.trident.topology.TransactionAttempt;
@@ -100,6 +101,21 @@ public class PartitionPersistProcessor implements TridentProcessor {
         }
     }
 
+    @Override
+    public void batchReceived(ProcessorContext processorContext) {
+        List<TridentTuple> buffer = (List) processorContext.state[context.getStateIndex()];
+        if (buffer.size() > 0 && updater instanceof PrefetchingStateUpdater) {
+            ((PrefetchingStateUpdater) updater).prefetch(state, buffer);
+        }
+    }
+
+    @Override
+    public void prefetch(ProcessorContext processorContext, Fields fields, List<List<Object>> values) {
+        if (updater instanceof PrefetchingStateUpdater) {
+            ((PrefetchingStateUpdater) updater).prefetch(state, fields, values);
+        }
+    }
+
     @Override
     public Factory getOutputFactory() {
         return collector.getOutputFactory();
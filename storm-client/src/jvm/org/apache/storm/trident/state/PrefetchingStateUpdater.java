@@ -0,0 +1,35 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state;
+
+import java.util.List;
+import org.apache.storm.trident.tuple.TridentTuple;
+import org.apache.storm.tuple.Fields;
+
+/**
+ * A state updater that can tell the state which reads it is going to make for a batch before the batch is committed.
+ */
+public interface PrefetchingStateUpdater<S extends State> extends StateUpdater<S> {
+    /**
+     * Called with all the tuples of a batch while the batch waits for its commit. {@link #updateState} will be called with the same
+     * tuples later.
+     */
+    void prefetch(S state, List<TridentTuple> tuples);
+
+    /**
+     * Called while a batch waits for its commit with values an upstream operation, such as a grouped aggregation, is going to emit for the
+     * batch when it finishes. Each entry of values holds one value per field in fields.
+     */
+    default void prefetch(S state, Fields fields, List<List<Object>> values) {
+    }
+}
@@ -45,6 +45,12 @@ public class CachedBatchReadsMap<T> {
         return ret;
     }
 
+    public void prefetch(List<List<Object>> keys) {
+        if (delegate instanceof Prefetchable) {
+            ((Prefetchable) delegate).prefetch(keys);
+        }
+    }
+
     public void multiPut(List<List<Object>> keys, List<T> vals) {
         delegate.multiPut(keys, vals);
         cache(keys, vals);
@@ -16,29 +16,67 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.storm.trident.util.LRUMap;
+import org.apache.storm.task.IMetricsContext;
+import org.apache.storm.trident.util.TinyLfuCache;
 
 /**
  * Useful to layer over a map that communicates with a database. you generally layer opaque map over this over your database store.
+ *
+ * <p>The cache uses a W-TinyLFU policy (see {@link TinyLfuCache}), so a batch full of keys that are only seen once does not evict the
+ * frequently used keys.
  */
-public class CachedMap<T> implements IBackingMap<T> {
-    LRUMap<List<Object>, T> cache;
+public class CachedMap<T> implements IBackingMap<T>, Prefetchable {
+    private static final Object NULL_VALUE = new Object();
+
+    TinyLfuCache<List<Object>, Object> cache;
     IBackingMap<T> delegate;
 
     public CachedMap(IBackingMap<T> delegate, int cacheSize) {
-        cache = new LRUMap<List<Object>, T>(cacheSize);
+        this(delegate, new TinyLfuCache<List<Object>, Object>(cacheSize));
+    }
+
+    /**
+     * Create a cached map bounded by the weight of the cached values instead of their number.
+     *
+     * @param maxWeight the maximum total weight of the cached values
+     * @param weigher computes the weight of a value, it is never called for keys the delegate has no value for
+     */
+    public CachedMap(IBackingMap<T> delegate, long maxWeight, TinyLfuCache.Weigher<List<Object>, T> weigher) {
+        this(delegate, new TinyLfuCache<List<Object>, Object>(maxWeight, new NullAwareWeigher<>(weigher)));
+    }
+
+    private CachedMap(IBackingMap<T> delegate, TinyLfuCache<List<Object>, Object> cache) {
+        this.cache = cache;
         this.delegate = delegate;
     }
 
+    /**
+     * Register gauges for the cache hit rate, size and evictions under the given name.
+     *
+     * @param context the metrics context the state was made with, nothing is registered when it is null
+     */
+    public void registerMetrics(IMetricsContext context, String name) {
+        if (context == null) {
+            return;
+        }
+        context.registerGauge(name + ".hitRate", cache::hitRate);
+        context.registerGauge(name + ".hits", cache::hitCount);
+        context.registerGauge(name + ".misses", cache::missCount);
+        context.registerGauge(name + ".evictions", cache::evictionCount);
+        context.registerGauge(name + ".size", cache::size);
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public List<T> multiGet(List<List<Object>> keys) {
         Map<List<Object>, T> results = new HashMap<List<Object>, T>();
         List<List<Object>> toGet = new ArrayList<List<Object>>();
         for (List<Object> key : keys) {
-            if (cache.containsKey(key)) {
-                results.put(key, cache.get(key));
-            } else {
+            Object cached = cache.get(key);
+            if (cached == null) {
                 toGet.add(key);
+            } else {
+                results.put(key, cached == NULL_VALUE ? null : (T) cached);
             }
         }
 
@@ -46,7 +84,7 @@ public class CachedMap<T> implements IBackingMap<T> {
         for (int i = 0; i < toGet.size(); i++) {
             List<Object> key = toGet.get(i);
             T val = fetchedVals.get(i);
-            cache.put(key, val);
+            cache.put(key, val == null ? NULL_VALUE : val);
             results.put(key, val);
         }
 
@@ -57,6 +95,21 @@ public class CachedMap<T> implements IBackingMap<T> {
         return ret;
     }
 
+    @Override
+    public void prefetch(List<List<Object>> keys) {
+        if (delegate instanceof Prefetchable) {
+            List<List<Object>> toFetch = new ArrayList<List<Object>>();
+            for (List<Object> key : keys) {
+                if (!cache.containsKey(key)) {
+                    toFetch.add(key);
+                }
+            }
+            if (!toFetch.isEmpty()) {
+                ((Prefetchable) delegate).prefetch(toFetch);
+            }
+        }
+    }
+
     @Override
     public void multiPut(List<List<Object>> keys, List<T> values) {
         cache(keys, values);
@@ -65,8 +118,26 @@ public class CachedMap<T> implements IBackingMap<T> {
 
     private void cache(List<List<Object>> keys, List<T> values) {
         for (int i = 0; i < keys.size(); i++) {
-            cache.put(keys.get(i), values.get(i));
+            T val = values.get(i);
+            cache.put(keys.get(i), val == null ? NULL_VALUE : val);
         }
     }
 
+    /**
+     * Gives the entries cached for keys without a value a weight of 1, the weigher of the caller only sees its own values.
+     */
+    private static class NullAwareWeigher<T> implements TinyLfuCache.Weigher<List<Object>, Object> {
+        private static final long serialVersionUID = 1L;
+        private final TinyLfuCache.Weigher<List<Object>, T> delegate;
+
+        NullAwareWeigher(TinyLfuCache.Weigher<List<Object>, T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int weigh(List<Object> key, Object value) {
+            return value == NULL_VALUE ? 1 : delegate.weigh(key, (T) value);
+        }
+    }
 }
@@ -13,13 +13,15 @@
 package org.apache.storm.trident.state.map;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.storm.trident.operation.CombinerAggregator;
 import org.apache.storm.trident.operation.TridentCollector;
 import org.apache.storm.trident.operation.TridentOperationContext;
 import org.apache.storm.trident.state.CombinerValueUpdater;
-import org.apache.storm.trident.state.StateUpdater;
+import org.apache.storm.trident.state.PrefetchingStateUpdater;
 import org.apache.storm.trident.state.ValueUpdater;
 import org.apache.storm.trident.tuple.ComboList;
 import org.apache.storm.trident.tuple.TridentTuple;
@@ -27,7 +29,7 @@ import org.apache.storm.trident.tuple.TridentTupleView.ProjectionFactory;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Values;
 
-public class MapCombinerAggStateUpdater implements StateUpdater<MapState> {
+public class MapCombinerAggStateUpdater implements PrefetchingStateUpdater<MapState> {
     //ANY CHANGE TO THIS CODE MUST BE SERIALIZABLE COMPATIBLE OR THERE WILL BE PROBLEMS
     private static final long serialVersionUID = -3960578785572592092L;
 
@@ -67,6 +69,39 @@ public class MapCombinerAggStateUpdater implements StateUpdater<MapState> {
         }
     }
 
+    @Override
+    public void prefetch(MapState map, List<TridentTuple> tuples) {
+        if (map instanceof Prefetchable) {
+            Set<List<Object>> groups = new LinkedHashSet<>();
+            for (TridentTuple t : tuples) {
+                groups.add(groupFactory.create(t));
+            }
+            ((Prefetchable) map).prefetch(new ArrayList<>(groups));
+        }
+    }
+
+    @Override
+    public void prefetch(MapState map, Fields fields, List<List<Object>> values) {
+        if (map instanceof Prefetchable) {
+            int[] indexes = new int[groupFields.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                if (!fields.contains(groupFields.get(i))) {
+                    return;
+                }
+                indexes[i] = fields.fieldIndex(groupFields.get(i));
+            }
+            List<List<Object>> groups = new ArrayList<>(values.size());
+            for (List<Object> v : values) {
+                List<Object> group = new ArrayList<>(indexes.length);
+                for (int index : indexes) {
+                    group.add(v.get(index));
+                }
+                groups.add(group);
+            }
+            ((Prefetchable) map).prefetch(groups);
+        }
+    }
+
     @Override
     public void prepare(Map<String, Object> conf, TridentOperationContext context) {
         groupFactory = context.makeProjectionFactory(groupFields);
@@ -14,13 +14,15 @@ package org.apache.storm.trident.state.map;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.storm.trident.operation.ReducerAggregator;
 import org.apache.storm.trident.operation.TridentCollector;
 import org.apache.storm.trident.operation.TridentOperationContext;
+import org.apache.storm.trident.state.PrefetchingStateUpdater;
 import org.apache.storm.trident.state.ReducerValueUpdater;
-import org.apache.storm.trident.state.StateUpdater;
 import org.apache.storm.trident.state.ValueUpdater;
 import org.apache.storm.trident.tuple.ComboList;
 import org.apache.storm.trident.tuple.TridentTuple;
@@ -28,7 +30,7 @@ import org.apache.storm.trident.tuple.TridentTupleView.ProjectionFactory;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Values;
 
-public class MapReducerAggStateUpdater implements StateUpdater<MapState> {
+public class MapReducerAggStateUpdater implements PrefetchingStateUpdater<MapState> {
     //ANY CHANGE TO THIS CODE MUST BE SERIALIZABLE COMPATIBLE OR THERE WILL BE PROBLEMS
     private static final long serialVersionUID = 8667174018978959987L;
 
@@ -73,6 +75,17 @@ public class MapReducerAggStateUpdater implements StateUpdater<MapState> {
         }
     }
 
+    @Override
+    public void prefetch(MapState map, List<TridentTuple> tuples) {
+        if (map instanceof Prefetchable) {
+            Set<List<Object>> groups = new LinkedHashSet<>();
+            for (TridentTuple t : tuples) {
+                groups.add(groupFactory.create(t));
+            }
+            ((Prefetchable) map).prefetch(new ArrayList<>(groups));
+        }
+    }
+
     @Override
     public void prepare(Map<String, Object> conf, TridentOperationContext context) {
         groupFactory = context.makeProjectionFactory(groupFields);
@@ -17,7 +17,7 @@ import java.util.List;
 import org.apache.storm.trident.state.ValueUpdater;
 
 
-public class NonTransactionalMap<T> implements MapState<T> {
+public class NonTransactionalMap<T> implements MapState<T>, Prefetchable {
     IBackingMap<T> backing;
 
     protected NonTransactionalMap(IBackingMap<T> backing) {
@@ -46,6 +46,13 @@ public class NonTransactionalMap<T> implements MapState<T> {
         return ret;
     }
 
+    @Override
+    public void prefetch(List<List<Object>> keys) {
+        if (backing instanceof Prefetchable) {
+            ((Prefetchable) backing).prefetch(keys);
+        }
+    }
+
     @Override
     public void multiPut(List<List<Object>> keys, List<T> vals) {
         backing.multiPut(keys, vals);
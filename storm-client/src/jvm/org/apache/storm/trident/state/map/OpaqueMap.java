@@ -18,7 +18,7 @@ import org.apache.storm.trident.state.OpaqueValue;
 import org.apache.storm.trident.state.ValueUpdater;
 
 
-public class OpaqueMap<T> implements MapState<T> {
+public class OpaqueMap<T> implements MapState<T>, Prefetchable {
     CachedBatchReadsMap<OpaqueValue> backing;
     Long currTx;
 
@@ -82,6 +82,11 @@ public class OpaqueMap<T> implements MapState<T> {
         return ret;
     }
 
+    @Override
+    public void prefetch(List<List<Object>> keys) {
+        backing.prefetch(keys);
+    }
+
     @Override
     public void multiPut(List<List<Object>> keys, List<T> vals) {
         List<ValueUpdater> updaters = new ArrayList<ValueUpdater>(vals.size());
@@ -0,0 +1,26 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.util.List;
+
+/**
+ * A map state or backing map that can start reading keys before they are requested. Trident calls {@link #prefetch} once all the tuples
+ * of a batch have arrived, so that the reads for that batch can overlap with the commit of the batch before it.
+ */
+public interface Prefetchable {
+    /**
+     * Start reading the given keys in the background. This is only a hint; implementations may ignore it.
+     */
+    void prefetch(List<List<Object>> keys);
+}
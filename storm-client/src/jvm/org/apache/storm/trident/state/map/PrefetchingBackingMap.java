@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.storm.Config;
+import org.apache.storm.utils.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A backing map that reads keys of the next batch in the background while the current batch is being committed.
+ *
+ * <p>Prefetched values are handed out by the next {@link #multiGet} for the same keys. Every {@link #multiPut} made through this map
+ * after a prefetch was started overrides the prefetched value, so reads see the writes of earlier batches even if the background read
+ * raced with them. This assumes, as partitioned Trident state does, that no one else writes the keys owned by this task.
+ *
+ * <p>The delegate must allow a {@code multiGet} from the prefetch thread to run concurrently with a {@code multiPut} from the executor
+ * thread. All other methods must be called from the executor thread. If the delegate is an {@link IAsyncBackingMap} its own asynchronous
+ * reads are used instead of a prefetch thread. The prefetch threads are shared by all the states of the worker.
+ */
+public class PrefetchingBackingMap<T> implements IBackingMap<T>, Prefetchable {
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchingBackingMap.class);
+    private static final ExecutorService PREFETCH_POOL = SharedPoolExecutor.newSharedPool("trident-prefetch-%d");
+
+    private final IBackingMap<T> delegate;
+    private final Options options;
+    private final Map<List<Object>, Prefetched<T>> prefetched = new HashMap<>();
+    private final SharedPoolExecutor executor;
+
+    public PrefetchingBackingMap(IBackingMap<T> delegate) {
+        this(delegate, new Options());
+    }
+
+    public PrefetchingBackingMap(IBackingMap<T> delegate, Options options) {
+        this.delegate = delegate;
+        this.options = options;
+        this.executor = new SharedPoolExecutor(PREFETCH_POOL, options.prefetchThreads);
+    }
+
+    /**
+     * Wrap a backing map for prefetching if {@link Config#TOPOLOGY_TRIDENT_STATE_PREFETCH} is enabled.
+     *
+     * @return the prefetching map, or the backing map itself when prefetching is disabled
+     */
+    public static <T> IBackingMap<T> wrapIfEnabled(Map<String, Object> conf, IBackingMap<T> delegate) {
+        if (ObjectReader.getBoolean(conf.get(Config.TOPOLOGY_TRIDENT_STATE_PREFETCH), false)) {
+            return new PrefetchingBackingMap<>(delegate);
+        }
+        return delegate;
+    }
+
+    @Override
+    public void prefetch(List<List<Object>> keys) {
+        if (prefetched.size() + keys.size() > options.maxPrefetchedKeys) {
+            // Batches that failed never read their prefetched keys, don't let them pile up.
+            LOG.debug("Dropping {} prefetched keys", prefetched.size());
+            prefetched.clear();
+            if (keys.size() > options.maxPrefetchedKeys) {
+                return;
+            }
+        }
+        List<List<Object>> toFetch = new ArrayList<>();
+        List<Prefetched<T>> slots = new ArrayList<>();
+        for (List<Object> key : keys) {
+            Prefetched<T> slot = prefetched.get(key);
+            if (slot == null) {
+                slot = new Prefetched<>();
+                slot.index = toFetch.size();
+                prefetched.put(key, slot);
+                toFetch.add(key);
+                slots.add(slot);
+            }
+            slot.pendingReads++;
+        }
+        if (toFetch.isEmpty()) {
+            return;
+        }
+        Future<List<T>> future;
+        if (delegate instanceof IAsyncBackingMap) {
+            future = ((IAsyncBackingMap<T>) delegate).multiGetAsync(toFetch);
+        } else {
+            future = CompletableFuture.supplyAsync(() -> delegate.multiGet(toFetch), executor);
+        }
+        for (Prefetched<T> slot : slots) {
+            slot.future = future;
+        }
+    }
+
+    @Override
+    public List<T> multiGet(List<List<Object>> keys) {
+        List<T> ret = new ArrayList<>(keys.size());
+        List<List<Object>> toGet = new ArrayList<>();
+        List<Integer> toGetIndexes = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            List<Object> key = keys.get(i);
+            Prefetched<T> slot = prefetched.get(key);
+            if (slot != null && slot.resolve()) {
+                ret.add(slot.value);
+                if (--slot.pendingReads <= 0) {
+                    prefetched.remove(key);
+                }
+            } else {
+                if (slot != null) {
+                    prefetched.remove(key);
+                }
+                ret.add(null);
+                toGet.add(key);
+                toGetIndexes.add(i);
+            }
+        }
+        if (!toGet.isEmpty()) {
+            List<T> fetched = delegate.multiGet(toGet);
+            for (int i = 0; i < toGetIndexes.size(); i++) {
+                ret.set(toGetIndexes.get(i), fetched.get(i));
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public void multiPut(List<List<Object>> keys, List<T> vals) {
+        delegate.multiPut(keys, vals);
+        for (int i = 0; i < keys.size(); i++) {
+            Prefetched<T> slot = prefetched.get(keys.get(i));
+            if (slot != null) {
+                slot.overwrite(vals.get(i));
+            }
+        }
+    }
+
+    private static class Prefetched<T> {
+        Future<List<T>> future;
+        int index;
+        int pendingReads;
+        boolean resolved;
+        T value;
+
+        /**
+         * Wait for the background read to finish.
+         *
+         * @return true if the value is available, false if the read failed and the key must be read again
+         */
+        boolean resolve() {
+            if (resolved) {
+                return true;
+            }
+            try {
+                value = future.get().get(index);
+                resolved = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                LOG.warn("Prefetch failed, reading keys again", e.getCause());
+            }
+            return resolved;
+        }
+
+        void overwrite(T newValue) {
+            value = newValue;
+            resolved = true;
+        }
+    }
+
+    public static class Options implements Serializable {
+        /**
+         * Maximum number of reads from the delegate this map runs in the background at the same time.
+         */
+        public int prefetchThreads = 1;
+        /**
+         * Upper bound on the number of keys held for batches that have not been committed yet.
+         */
+        public int maxPrefetchedKeys = 100000;
+    }
+}
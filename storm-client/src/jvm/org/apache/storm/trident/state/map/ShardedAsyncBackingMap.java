@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Splits the keys of large {@code multiGet} and {@code multiPut} calls into requests of at most {@link Options#maxKeysPerRequest} keys
+ * and sends up to {@link Options#maxConcurrentRequests} of them to the delegate at the same time.
+ *
+ * <p>The delegate must be safe to call from several threads at once unless {@code maxConcurrentRequests} is 1, in which case the calls
+ * are made one after the other. The requests run on threads shared by all the states of the worker.
+ */
+public class ShardedAsyncBackingMap<T> implements IBackingMap<T>, IAsyncBackingMap<T> {
+    private static final ExecutorService REQUEST_POOL = SharedPoolExecutor.newSharedPool("trident-backing-map-%d");
+
+    private final IBackingMap<T> delegate;
+    private final Options options;
+    private final SharedPoolExecutor executor;
+
+    public ShardedAsyncBackingMap(IBackingMap<T> delegate, Options options) {
+        if (options.maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("maxConcurrentRequests must be positive, but was " + options.maxConcurrentRequests);
+        }
+        if (options.maxKeysPerRequest < 0) {
+            throw new IllegalArgumentException("maxKeysPerRequest must not be negative, but was " + options.maxKeysPerRequest);
+        }
+        this.delegate = delegate;
+        this.options = options;
+        this.executor = new SharedPoolExecutor(REQUEST_POOL, options.maxConcurrentRequests);
+    }
+
+    @Override
+    public CompletableFuture<List<T>> multiGetAsync(List<List<Object>> keys) {
+        List<List<List<Object>>> shards = shard(keys);
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards.size());
+        for (List<List<Object>> shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> delegate.multiGet(shard), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(ignored -> {
+                List<T> ret = new ArrayList<>(keys.size());
+                for (CompletableFuture<List<T>> future : futures) {
+                    ret.addAll(future.join());
+                }
+                return ret;
+            });
+    }
+
+    @Override
+    public CompletableFuture<Void> multiPutAsync(List<List<Object>> keys, List<T> vals) {
+        List<List<List<Object>>> keyShards = shard(keys);
+        List<List<T>> valShards = shard(vals);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(keyShards.size());
+        for (int i = 0; i < keyShards.size(); i++) {
+            List<List<Object>> keyShard = keyShards.get(i);
+            List<T> valShard = valShards.get(i);
+            futures.add(CompletableFuture.runAsync(() -> delegate.multiPut(keyShard, valShard), executor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    @Override
+    public List<T> multiGet(List<List<Object>> keys) {
+        return join(multiGetAsync(keys));
+    }
+
+    @Override
+    public void multiPut(List<List<Object>> keys, List<T> vals) {
+        join(multiPutAsync(keys, vals));
+    }
+
+    private <V> List<List<V>> shard(List<V> items) {
+        int size = options.maxKeysPerRequest == 0 ? Math.max(1, items.size()) : options.maxKeysPerRequest;
+        List<List<V>> shards = new ArrayList<>((items.size() + size - 1) / size);
+        for (int from = 0; from < items.size(); from += size) {
+            shards.add(items.subList(from, Math.min(items.size(), from + size)));
+        }
+        return shards;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // rethrow what the delegate threw, so that things like FailedException still fail the batch
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public static class Options implements Serializable {
+        /**
+         * Maximum number of requests sent to the delegate at the same time.
+         */
+        public int maxConcurrentRequests = 4;
+        /**
+         * Maximum number of keys in a single request to the delegate, 0 for no limit.
+         */
+        public int maxKeysPerRequest = 1000;
+
+        public Options withMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        public Options withMaxKeysPerRequest(int maxKeysPerRequest) {
+            this.maxKeysPerRequest = maxKeysPerRequest;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.storm.shade.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the tasks of one state on a pool shared by all the states of the worker, at most {@code maxConcurrent} of them at a time.
+ *
+ * <p>Trident never tells a state it is no longer used, so the states must not own threads. The threads of the shared pools are daemons
+ * that exit after a minute without work, and their number is bounded by the sum of the limits of the states using them.
+ */
+class SharedPoolExecutor implements Executor {
+    private static final Logger LOG = LoggerFactory.getLogger(SharedPoolExecutor.class);
+
+    private final Executor pool;
+    private final int maxConcurrent;
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private int running;
+
+    SharedPoolExecutor(Executor pool, int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive, but was " + maxConcurrent);
+        }
+        this.pool = pool;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Create a pool to share between states, its threads are started when needed.
+     *
+     * @param nameFormat the name format of the threads, see {@link ThreadFactoryBuilder#setNameFormat(String)}
+     */
+    static ExecutorService newSharedPool(String nameFormat) {
+        return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat(nameFormat)
+            .setDaemon(true)
+            .build());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        synchronized (this) {
+            pending.add(task);
+            if (running >= maxConcurrent) {
+                return;
+            }
+            running++;
+        }
+        try {
+            pool.execute(this::runPending);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                running--;
+                pending.remove(task);
+            }
+            throw e;
+        }
+    }
+
+    private void runPending() {
+        while (true) {
+            Runnable task;
+            synchronized (this) {
+                task = pending.poll();
+                if (task == null) {
+                    running--;
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // the tasks report their failures through their futures, this only keeps the other tasks of the state running
+                LOG.warn("Task of a Trident state failed", e);
+            }
+        }
+    }
+}
@@ -18,7 +18,7 @@ import org.apache.storm.trident.state.ValueUpdater;
 import org.apache.storm.trident.state.snapshot.Snapshottable;
 
 
-public class SnapshottableMap<T> implements MapState<T>, Snapshottable<T> {
+public class SnapshottableMap<T> implements MapState<T>, Snapshottable<T>, Prefetchable {
     MapState<T> delegate;
     List<List<Object>> keys;
 
@@ -37,6 +37,13 @@ public class SnapshottableMap<T> implements MapState<T>, Snapshottable<T> {
         return delegate.multiUpdate(keys, updaters);
     }
 
+    @Override
+    public void prefetch(List<List<Object>> keys) {
+        if (delegate instanceof Prefetchable) {
+            ((Prefetchable) delegate).prefetch(keys);
+        }
+    }
+
     @Override
     public void multiPut(List<List<Object>> keys, List<T> vals) {
         delegate.multiPut(keys, vals);
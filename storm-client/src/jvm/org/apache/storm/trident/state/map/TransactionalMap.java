@@ -18,7 +18,7 @@ import org.apache.storm.trident.state.TransactionalValue;
 import org.apache.storm.trident.state.ValueUpdater;
 
 
-public class TransactionalMap<T> implements MapState<T> {
+public class TransactionalMap<T> implements MapState<T>, Prefetchable {
     CachedBatchReadsMap<TransactionalValue> backing;
     Long currTx;
 
@@ -80,6 +80,11 @@ public class TransactionalMap<T> implements MapState<T> {
         return ret;
     }
 
+    @Override
+    public void prefetch(List<List<Object>> keys) {
+        backing.prefetch(keys);
+    }
+
     @Override
     public void multiPut(List<List<Object>> keys, List<T> vals) {
         List<TransactionalValue> newVals = new ArrayList<TransactionalValue>(vals.size());
@@ -13,6 +13,7 @@
 package org.apache.storm.trident.testing;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -28,12 +29,14 @@ import org.apache.storm.trident.state.ValueUpdater;
 import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
 import org.apache.storm.trident.state.map.OpaqueMap;
+import org.apache.storm.trident.state.map.Prefetchable;
+import org.apache.storm.trident.state.map.PrefetchingBackingMap;
 import org.apache.storm.trident.state.map.RemovableMapState;
 import org.apache.storm.trident.state.map.SnapshottableMap;
 import org.apache.storm.trident.state.snapshot.Snapshottable;
 import org.apache.storm.tuple.Values;
 
-public class MemoryMapState<T> implements Snapshottable<T>, ITupleCollection, MapState<T>, RemovableMapState<T> {
+public class MemoryMapState<T> implements Snapshottable<T>, ITupleCollection, MapState<T>, RemovableMapState<T>, Prefetchable {
 
     static ConcurrentHashMap<String, Map<List<Object>, Object>> dbs = new ConcurrentHashMap<String, Map<List<Object>, Object>>();
     MemoryMapStateBacking<OpaqueValue> backing;
@@ -42,8 +45,13 @@ public class MemoryMapState<T> implements Snapshottable<T>, ITupleCollection, Ma
     Long currTx = null;
 
     public MemoryMapState(String id) {
+        this(id, Collections.emptyMap());
+    }
+
+    public MemoryMapState(String id, Map<String, Object> conf) {
         backing = new MemoryMapStateBacking(id);
-        delegate = new SnapshottableMap(OpaqueMap.build(backing), new Values("$MEMORY-MAP-STATE-GLOBAL$"));
+        delegate = new SnapshottableMap(OpaqueMap.build(PrefetchingBackingMap.wrapIfEnabled(conf, backing)),
+                                        new Values("$MEMORY-MAP-STATE-GLOBAL$"));
     }
 
     @Override
@@ -96,6 +104,11 @@ public class MemoryMapState<T> implements Snapshottable<T>, ITupleCollection, Ma
         return delegate.multiGet(keys);
     }
 
+    @Override
+    public void prefetch(List<List<Object>> keys) {
+        delegate.prefetch(keys);
+    }
+
     @Override
     public void multiRemove(List<List<Object>> keys) {
         List nulls = new ArrayList();
@@ -118,7 +131,7 @@ public class MemoryMapState<T> implements Snapshottable<T>, ITupleCollection, Ma
 
         @Override
         public State makeState(Map<String, Object> conf, IMetricsContext metrics, int partitionIndex, int numPartitions) {
-            return new MemoryMapState(id + partitionIndex);
+            return new MemoryMapState(id + partitionIndex, conf);
         }
     }
 
@@ -129,7 +142,8 @@ public class MemoryMapState<T> implements Snapshottable<T>, ITupleCollection, Ma
 
         MemoryMapStateBacking(String id) {
             if (!dbs.containsKey(id)) {
-                dbs.put(id, new HashMap());
+                // prefetching reads from a background thread
+                dbs.put(id, Collections.synchronizedMap(new HashMap()));
             }
             this.db = (Map<List<Object>, T>) dbs.get(id);
         }
@@ -25,6 +25,12 @@ public interface ITridentBatchBolt extends IComponent {
 
     void finishBatch(BatchInfo batchInfo);
 
+    /**
+     * Called once all the tuples of a committing batch have been received, while the batch waits for its commit tuple.
+     */
+    default void batchReceived(BatchInfo batchInfo) {
+    }
+
     Object initBatchState(String batchGroup, Object batchId);
 
     void cleanup();
@@ -13,7 +13,6 @@
 package org.apache.storm.trident.topology;
 
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -142,6 +141,16 @@ public class TridentBoltExecutor implements IRichBolt {
         return success;
     }
 
+    private void checkReceived(TrackedBatch tracked) {
+        if (!tracked.receivedCommit && !tracked.notifiedReceived && !tracked.failed
+            && tracked.reportedTasks == tracked.condition.expectedTaskReports
+            && tracked.receivedTuples == tracked.expectedTupleCount) {
+            // everything but the commit is here, let the bolt get a head start while earlier batches commit
+            tracked.notifiedReceived = true;
+            bolt.batchReceived(tracked.info);
+        }
+    }
+
     private void checkFinish(TrackedBatch tracked, Tuple tuple, TupleType type) {
         if (tracked.failed) {
             failBatch(tracked);
@@ -228,6 +237,7 @@ public class TridentBoltExecutor implements IRichBolt {
             tracked.reportedTasks++;
             tracked.expectedTupleCount += count;
             checkFinish(tracked, tuple, t);
+            checkReceived(tracked);
         } else {
             tracked.receivedTuples++;
             boolean success = true;
@@ -235,6 +245,8 @@ public class TridentBoltExecutor implements IRichBolt {
                 bolt.execute(tracked.info, tuple);
                 if (tracked.condition.expectedTaskReports == 0) {
                     success = finishBatch(tracked, tuple);
+                } else {
+                    checkReceived(tracked);
                 }
             } catch (FailedException e) {
                 failBatch(tracked, e);
@@ -360,6 +372,7 @@ public class TridentBoltExecutor implements IRichBolt {
         Map<Integer, Integer> taskEmittedTuples = new HashMap<>();
         boolean failed = false;
         boolean receivedCommit;
+        boolean notifiedReceived = false;
         Tuple delayedAck = null;
 
         public TrackedBatch(BatchInfo info, CoordCondition condition, int attemptId) {
@@ -397,7 +410,7 @@ public class TridentBoltExecutor implements IRichBolt {
 
         @Override
         public void emitDirect(int task, String stream, Collection<Tuple> anchors, List<Object> tuple) {
-            updateTaskCounts(Arrays.asList(task));
+            updateTaskCount(task);
             delegate.emitDirect(task, stream, anchors, tuple);
         }
 
@@ -429,12 +442,16 @@ public class TridentBoltExecutor implements IRichBolt {
 
         private void updateTaskCounts(List<Integer> tasks) {
             if (currBatch != null) {
-                Map<Integer, Integer> taskEmittedTuples = currBatch.taskEmittedTuples;
                 for (Integer task : tasks) {
-                    int newCount = Utils.get(taskEmittedTuples, task, 0) + 1;
-                    taskEmittedTuples.put(task, newCount);
+                    currBatch.taskEmittedTuples.merge(task, 1, Integer::sum);
                 }
             }
         }
+
+        private void updateTaskCount(int task) {
+            if (currBatch != null) {
+                currBatch.taskEmittedTuples.merge(task, 1, Integer::sum);
+            }
+        }
     }
 }
@@ -0,0 +1,423 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.util;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe, bounded cache using the W-TinyLFU admission and eviction policy.
+ *
+ * <p>New entries enter a small LRU admission window. Entries falling out of the window compete with the least recently used
+ * entry of the main segmented LRU (probation and protected segments), and are only admitted if they have been seen more
+ * often according to a small count-min frequency sketch. This makes the cache resistant to scans: a single batch of cold
+ * keys cannot flush the hot working set the way a plain LRU does.
+ *
+ * <p>The cache is bounded by total weight. By default every entry weighs 1, which makes it a size-bounded cache.
+ */
+public class TinyLfuCache<K, V> {
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    // the sketch starts out this big and grows with the number of entries, the weight says little about how many there are
+    private static final int INITIAL_SKETCH_SIZE = 256;
+
+    private final Weigher<K, V> weigher;
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final long protectedMaxWeight;
+    private final long mainMaxWeight;
+
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private final FrequencySketch sketch;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long rejectionCount;
+
+    /**
+     * Create a cache bounded by number of entries.
+     *
+     * @param maxSize the maximum number of entries to keep
+     */
+    public TinyLfuCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * Create a cache bounded by total weight.
+     *
+     * @param maxWeight the maximum total weight of the entries to keep
+     * @param weigher computes the weight of an entry, or null to give every entry a weight of 1
+     */
+    public TinyLfuCache(long maxWeight, Weigher<K, V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive, but was " + maxWeight);
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.windowMaxWeight = Math.max(1, maxWeight * WINDOW_PERCENT / 100);
+        this.mainMaxWeight = maxWeight - windowMaxWeight;
+        this.protectedMaxWeight = mainMaxWeight * PROTECTED_PERCENT / 100;
+        this.sketch = new FrequencySketch((int) Math.min(maxWeight, INITIAL_SKETCH_SIZE));
+    }
+
+    /**
+     * Look up a key, recording a hit or a miss.
+     *
+     * @return the cached value, or null if the key is not cached
+     */
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        Entry<V> entry = window.get(key);
+        if (entry == null) {
+            entry = protectedSegment.get(key);
+        }
+        if (entry == null) {
+            entry = probation.remove(key);
+            if (entry != null) {
+                probationWeight -= entry.weight;
+                promote(key, entry);
+            }
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    /**
+     * Check whether a key is cached, without updating recency, frequency or statistics.
+     */
+    public synchronized boolean containsKey(K key) {
+        return window.containsKey(key) || probation.containsKey(key) || protectedSegment.containsKey(key);
+    }
+
+    /**
+     * Insert or replace the value for a key.
+     */
+    public synchronized void put(K key, V value) {
+        int weight = weigher == null ? 1 : weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight " + weight + " for key " + key);
+        }
+        Entry<V> existing = window.get(key);
+        if (existing != null) {
+            windowWeight += weight - existing.weight;
+            existing.update(value, weight);
+            evictFromWindow();
+            return;
+        }
+        existing = protectedSegment.get(key);
+        if (existing != null) {
+            protectedWeight += weight - existing.weight;
+            existing.update(value, weight);
+            demoteFromProtected();
+            evictFromMain();
+            return;
+        }
+        existing = probation.remove(key);
+        if (existing != null) {
+            probationWeight -= existing.weight;
+            existing.update(value, weight);
+            promote(key, existing);
+            evictFromMain();
+            return;
+        }
+        sketch.increment(key);
+        window.put(key, new Entry<>(value, weight));
+        windowWeight += weight;
+        evictFromWindow();
+        sketch.ensureCapacity(size());
+    }
+
+    /**
+     * Remove a key from the cache.
+     *
+     * @return the value that was cached, or null if there was none
+     */
+    public synchronized V remove(K key) {
+        Entry<V> entry = window.remove(key);
+        if (entry != null) {
+            windowWeight -= entry.weight;
+            return entry.value;
+        }
+        entry = probation.remove(key);
+        if (entry != null) {
+            probationWeight -= entry.weight;
+            return entry.value;
+        }
+        entry = protectedSegment.remove(key);
+        if (entry != null) {
+            protectedWeight -= entry.weight;
+            return entry.value;
+        }
+        return null;
+    }
+
+    public synchronized void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        windowWeight = 0;
+        probationWeight = 0;
+        protectedWeight = 0;
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public synchronized long weight() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Get the number of entries evicted from the cache, including candidates rejected by the admission policy.
+     */
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Get the number of entries that left the admission window but were not admitted to the main cache.
+     */
+    public synchronized long rejectionCount() {
+        return rejectionCount;
+    }
+
+    /**
+     * Get the ratio of hits to lookups, or 1.0 if there have been no lookups yet.
+     */
+    public synchronized double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    private void promote(K key, Entry<V> entry) {
+        protectedSegment.put(key, entry);
+        protectedWeight += entry.weight;
+        demoteFromProtected();
+    }
+
+    private void demoteFromProtected() {
+        Iterator<Map.Entry<K, Entry<V>>> it = protectedSegment.entrySet().iterator();
+        while (protectedWeight > protectedMaxWeight && it.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = it.next();
+            it.remove();
+            protectedWeight -= eldest.getValue().weight;
+            probation.put(eldest.getKey(), eldest.getValue());
+            probationWeight += eldest.getValue().weight;
+        }
+    }
+
+    private void evictFromWindow() {
+        Iterator<Map.Entry<K, Entry<V>>> it = window.entrySet().iterator();
+        while (windowWeight > windowMaxWeight && it.hasNext()) {
+            Map.Entry<K, Entry<V>> candidate = it.next();
+            it.remove();
+            windowWeight -= candidate.getValue().weight;
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private void admit(K key, Entry<V> candidate) {
+        if (candidate.weight > mainMaxWeight) {
+            evictionCount++;
+            rejectionCount++;
+            return;
+        }
+        if (probationWeight + protectedWeight + candidate.weight > mainMaxWeight) {
+            K victim = eldestMainKey();
+            if (victim != null && sketch.frequency(key) <= sketch.frequency(victim)) {
+                evictionCount++;
+                rejectionCount++;
+                return;
+            }
+        }
+        probation.put(key, candidate);
+        probationWeight += candidate.weight;
+        evictFromMain();
+    }
+
+    private K eldestMainKey() {
+        if (!probation.isEmpty()) {
+            return probation.keySet().iterator().next();
+        }
+        if (!protectedSegment.isEmpty()) {
+            return protectedSegment.keySet().iterator().next();
+        }
+        return null;
+    }
+
+    private void evictFromMain() {
+        evictEldest(probation, true);
+        evictEldest(protectedSegment, false);
+    }
+
+    private void evictEldest(LinkedHashMap<K, Entry<V>> segment, boolean isProbation) {
+        Iterator<Entry<V>> it = segment.values().iterator();
+        while (probationWeight + protectedWeight > mainMaxWeight && it.hasNext()) {
+            Entry<V> eldest = it.next();
+            it.remove();
+            if (isProbation) {
+                probationWeight -= eldest.weight;
+            } else {
+                protectedWeight -= eldest.weight;
+            }
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Computes the weight of a cache entry.
+     */
+    public interface Weigher<K, V> extends Serializable {
+        int weigh(K key, V value);
+    }
+
+    private static class Entry<V> {
+        V value;
+        int weight;
+
+        Entry(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+
+        void update(V value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters, periodically halved so that old popularity fades away.
+     */
+    static class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = { 0x97cb3127, 0xb4b82e1d, 0x3b6a3b61, 0x7f4a7c15 };
+        private static final int MAX_SIZE = 1 << 24;
+
+        private byte[][] table;
+        private int mask;
+        private int sampleSize;
+        private int expectedSize;
+        private int additions;
+
+        FrequencySketch(int expectedSize) {
+            int width = widthFor(expectedSize);
+            table = new byte[DEPTH][width];
+            mask = width - 1;
+            this.expectedSize = expectedSize;
+            sampleSize = 10 * Math.max(16, expectedSize);
+        }
+
+        private static int widthFor(int expectedSize) {
+            return Integer.highestOneBit(Math.max(16, expectedSize - 1)) << 3;
+        }
+
+        int width() {
+            return table[0].length;
+        }
+
+        /**
+         * Make room to count more entries. The counts so far are kept, a counter is copied to each of the counters it splits into.
+         */
+        void ensureCapacity(int size) {
+            if (size <= expectedSize || expectedSize >= MAX_SIZE) {
+                return;
+            }
+            expectedSize = (int) Math.min(MAX_SIZE, Math.max(size, 2L * expectedSize));
+            sampleSize = 10 * expectedSize;
+            int width = widthFor(expectedSize);
+            if (width > table[0].length) {
+                byte[][] grown = new byte[DEPTH][width];
+                for (int i = 0; i < DEPTH; i++) {
+                    for (int j = 0; j < width; j++) {
+                        grown[i][j] = table[i][j & mask];
+                    }
+                }
+                table = grown;
+                mask = width - 1;
+            }
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = indexOf(hash, i);
+                if (table[i][index] < MAX_COUNT) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                min = Math.min(min, table[i][indexOf(hash, i)]);
+            }
+            return min;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int depth) {
+            int h = hash * SEEDS[depth];
+            h += h >>> 16;
+            return h & mask;
+        }
+
+        private static int spread(int hash) {
+            int h = hash * 0x9e3779b9;
+            return h ^ (h >>> 17);
+        }
+    }
+}
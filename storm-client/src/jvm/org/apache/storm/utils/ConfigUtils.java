@@ -285,6 +285,13 @@ public class ConfigUtils {
         return workerRoot(conf, id) + FILE_SEPARATOR + "artifacts";
     }
 
+    /**
+     * Get the file a standby worker waits for before it starts.
+     */
+    public static String workerStandbyActivationPath(Map<String, Object> conf, String id) {
+        return workerRoot(conf, id) + FILE_SEPARATOR + "activate";
+    }
+
     public static String workerPidsRoot(Map<String, Object> conf, String id) {
         return (workerRoot(conf, id) + FILE_SEPARATOR + "pids");
     }
@@ -344,6 +351,7 @@ public class ConfigUtils {
         final String stormJarSuffix = "-stormjar.jar";
         final String stormCodeSuffix = "-stormcode.ser";
         final String stormConfSuffix = "-stormconf.ser";
+        final String stormJarChunksSuffix = "-stormjar.chunks";
 
         String ret = null;
         if (key.endsWith(stormJarSuffix)) {
@@ -352,6 +360,8 @@ public class ConfigUtils {
             ret = key.substring(0, key.length() - stormCodeSuffix.length());
         } else if (key.endsWith(stormConfSuffix)) {
             ret = key.substring(0, key.length() - stormConfSuffix.length());
+        } else if (key.endsWith(stormJarChunksSuffix)) {
+            ret = key.substring(0, key.length() - stormJarChunksSuffix.length());
         }
         return ret;
     }
@@ -360,6 +370,13 @@ public class ConfigUtils {
         return (topologyId + "-stormjar.jar");
     }
 
+    /**
+     * Get the key of the blob with the hashes of the chunks of the jar of a topology, used to download the jar from other supervisors.
+     */
+    public static String masterStormJarChunksKey(String topologyId) {
+        return (topologyId + "-stormjar.chunks");
+    }
+
     public static Map<String, Object> readYamlConfig(String name, boolean mustExist) {
         Map<String, Object> conf = Utils.findAndReadConfigFile(name, mustExist);
         ConfigValidation.validateFields(conf);
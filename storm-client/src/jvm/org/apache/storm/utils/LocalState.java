@@ -12,13 +12,21 @@
 
 package org.apache.storm.utils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
 import org.apache.storm.generated.LSApprovedWorkers;
 import org.apache.storm.generated.LSSupervisorAssignments;
 import org.apache.storm.generated.LSSupervisorId;
@@ -37,7 +45,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A simple, durable, atomic K/V database. *Very inefficient*, should only be used for occasional reads/writes. Every read/write hits disk.
+ * A simple, durable, atomic K/V database. The state last read or written is kept in memory, and is only read from disk again when a
+ * newer version of it was written by someone else.
+ *
+ * <p>By default every write stores all of the state as a new version on disk, which another process, like the supervisor reading the
+ * heartbeats of a worker, can read at any time. When the state is only used by the process that owns it, the write ahead log can be
+ * turned on instead. Writes then only append the change to a log next to the latest version, and the log is compacted into a new
+ * version after {@link #WAL_COMPACT_RECORDS} changes or {@link #WAL_COMPACT_BYTES} bytes. Changes that were only partially written to
+ * the log when the process died are dropped, the same as a version that was not completely written.
  */
 public class LocalState {
     public static final Logger LOG = LoggerFactory.getLogger(LocalState.class);
@@ -45,12 +60,38 @@ public class LocalState {
     public static final String LS_ID = "supervisor-id";
     public static final String LS_LOCAL_ASSIGNMENTS = "local-assignments";
     public static final String LS_APPROVED_WORKERS = "approved-workers";
+    public static final String LS_STANDBY_WORKERS = "standby-workers";
     public static final String LS_TOPO_HISTORY = "topo-hist";
-    private VersionedStore versionedStore;
+    static final int WAL_COMPACT_RECORDS = 1000;
+    static final long WAL_COMPACT_BYTES = 8 * 1024 * 1024;
+    private static final String WAL_SUFFIX = ".wal";
+    private static final byte WAL_PUT = 1;
+    private static final byte WAL_REMOVE = 2;
+    private final VersionedStore versionedStore;
+    private final boolean writeAheadLog;
+    // the serialized state as of cachedVersion, null until it was read
+    private Map<String, ThriftSerializedObject> cachedParts;
+    private Long cachedVersion;
+    private OutputStream walOut;
+    private int walRecords;
+    private long walBytes;
 
     public LocalState(String backingDir, boolean createBackingDir) throws IOException {
+        this(backingDir, createBackingDir, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param backingDir the directory to store the state in.
+     * @param createBackingDir whether to create the directory if it does not exist.
+     * @param writeAheadLog whether to write changes to a log instead of writing all of the state every time. Only one instance in one
+     *     process may use the directory when turned on.
+     */
+    public LocalState(String backingDir, boolean createBackingDir, boolean writeAheadLog) throws IOException {
         LOG.debug("New Local State for {}", backingDir);
         versionedStore = new VersionedStore(backingDir, createBackingDir);
+        this.writeAheadLog = writeAheadLog;
     }
 
     public synchronized Map<String, TBase> snapshot() {
@@ -70,7 +111,7 @@ public class LocalState {
     private Map<String, TBase> deserializeLatestVersion() throws IOException {
         Map<String, TBase> result = new HashMap<>();
         TDeserializer td = new TDeserializer();
-        for (Map.Entry<String, ThriftSerializedObject> ent : partialDeserializeLatestVersion(td).entrySet()) {
+        for (Map.Entry<String, ThriftSerializedObject> ent : currentParts(td).entrySet()) {
             result.put(ent.getKey(), deserialize(ent.getValue(), td));
         }
         return result;
@@ -93,14 +134,14 @@ public class LocalState {
         }
     }
 
-    private Map<String, ThriftSerializedObject> partialDeserializeLatestVersion(TDeserializer td) {
+    private Map<String, ThriftSerializedObject> deserializeVersion(Long version, TDeserializer td) {
         try {
-            String latestPath = versionedStore.mostRecentVersionPath();
             Map<String, ThriftSerializedObject> result = new HashMap<>();
-            if (latestPath != null) {
-                byte[] serialized = FileUtils.readFileToByteArray(new File(latestPath));
+            if (version != null) {
+                String path = versionedStore.versionPath(version);
+                byte[] serialized = FileUtils.readFileToByteArray(new File(path));
                 if (serialized.length == 0) {
-                    LOG.warn("LocalState file '{}' contained no data, resetting state", latestPath);
+                    LOG.warn("LocalState file '{}' contained no data, resetting state", path);
                 } else {
                     if (td == null) {
                         td = new TDeserializer();
@@ -116,17 +157,39 @@ public class LocalState {
         }
     }
 
-    private synchronized Map<String, ThriftSerializedObject> partialSnapshot(TDeserializer td) {
+    /**
+     * Get the current serialized state. The returned map is owned by this instance and must not be modified.
+     */
+    private Map<String, ThriftSerializedObject> currentParts(TDeserializer td) {
+        if (writeAheadLog && cachedParts != null) {
+            // nobody else writes to the directory, so what is in memory is the state
+            return cachedParts;
+        }
         int attempts = 0;
         while (true) {
+            Long version = null;
             try {
-                return partialDeserializeLatestVersion(td);
+                version = versionedStore.mostRecentVersion();
+                if (cachedParts == null || !Objects.equals(version, cachedVersion)) {
+                    Map<String, ThriftSerializedObject> parts = deserializeVersion(version, td);
+                    boolean complete = !writeAheadLog || version == null || replayWal(version, parts);
+                    cachedParts = parts;
+                    cachedVersion = version;
+                    if (!complete) {
+                        // so nothing is appended after the partially written record
+                        compact(parts, null, true);
+                    }
+                }
+                return cachedParts;
             } catch (Exception e) {
                 attempts++;
                 if (attempts >= 10) {
                     if (e.getCause() instanceof TProtocolException) {
                         LOG.warn("LocalState file is corrupted, resetting state.", e);
-                        return new HashMap<>();
+                        cachedParts = new HashMap<>();
+                        // with the write ahead log the next change is written as a new version instead of to the corrupted one
+                        cachedVersion = writeAheadLog ? null : version;
+                        return cachedParts;
                     }
                     throw new RuntimeException(e);
                 }
@@ -134,10 +197,9 @@ public class LocalState {
         }
     }
 
-    public TBase get(String key) {
+    public synchronized TBase get(String key) {
         TDeserializer td = new TDeserializer();
-        Map<String, ThriftSerializedObject> partial = partialSnapshot(td);
-        ThriftSerializedObject tso = partial.get(key);
+        ThriftSerializedObject tso = currentParts(td).get(key);
         TBase ret = null;
         if (tso != null) {
             ret = deserialize(tso, td);
@@ -150,10 +212,15 @@ public class LocalState {
     }
 
     public synchronized void put(String key, TBase val, boolean cleanup) {
-        Map<String, ThriftSerializedObject> curr = partialSnapshot(null);
+        Map<String, ThriftSerializedObject> curr = new HashMap<>(currentParts(null));
         TSerializer ser = new TSerializer();
-        curr.put(key, serialize(val, ser));
-        persistInternal(curr, ser, cleanup);
+        ThriftSerializedObject tso = serialize(val, ser);
+        curr.put(key, tso);
+        if (writeAheadLog) {
+            appendWal(curr, key, tso, ser, cleanup);
+        } else {
+            persistInternal(curr, ser, cleanup);
+        }
     }
 
     public void remove(String key) {
@@ -161,13 +228,20 @@ public class LocalState {
     }
 
     public synchronized void remove(String key, boolean cleanup) {
-        Map<String, ThriftSerializedObject> curr = partialSnapshot(null);
+        Map<String, ThriftSerializedObject> curr = new HashMap<>(currentParts(null));
         curr.remove(key);
-        persistInternal(curr, null, cleanup);
+        if (writeAheadLog) {
+            appendWal(curr, key, null, null, cleanup);
+        } else {
+            persistInternal(curr, null, cleanup);
+        }
     }
 
     public synchronized void cleanup(int keepVersions) throws IOException {
         versionedStore.cleanup(keepVersions);
+        if (writeAheadLog) {
+            deleteOrphanedWals();
+        }
     }
 
     public List<LSTopoHistory> getTopoHistoryList() {
@@ -228,6 +302,23 @@ public class LocalState {
         put(LS_APPROVED_WORKERS, new LSApprovedWorkers(approvedWorkers));
     }
 
+    /**
+     * Get the standby workers the supervisor started, which are not approved workers yet.
+     *
+     * @return the ports of the standby workers by worker id, or null if there are none.
+     */
+    public Map<String, Integer> getStandbyWorkers() {
+        LSApprovedWorkers lsStandbyWorkers = (LSApprovedWorkers) get(LS_STANDBY_WORKERS);
+        if (null != lsStandbyWorkers) {
+            return lsStandbyWorkers.get_approved_workers();
+        }
+        return null;
+    }
+
+    public void setStandbyWorkers(Map<String, Integer> standbyWorkers) {
+        put(LS_STANDBY_WORKERS, new LSApprovedWorkers(standbyWorkers));
+    }
+
     public LSWorkerHeartbeat getWorkerHeartBeat() {
         return (LSWorkerHeartbeat) get(LS_WORKER_HEARTBEAT);
     }
@@ -255,7 +346,8 @@ public class LocalState {
             }
             byte[] toWrite = ser.serialize(new LocalStateData(serialized));
 
-            String newPath = versionedStore.createVersion();
+            long version = versionedStore.nextVersion();
+            String newPath = versionedStore.createVersion(version);
             File file = new File(newPath);
             FileUtils.writeByteArrayToFile(file, toWrite);
             if (toWrite.length != file.length()) {
@@ -264,6 +356,8 @@ public class LocalState {
                                       + file.length() + " bytes were written.");
             }
             versionedStore.succeedVersion(newPath);
+            cachedParts = serialized;
+            cachedVersion = version;
             if (cleanup) {
                 versionedStore.cleanup(4);
             }
@@ -272,6 +366,138 @@ public class LocalState {
         }
     }
 
+    private String walPath(long version) {
+        return versionedStore.versionPath(version) + WAL_SUFFIX;
+    }
+
+    private void appendWal(Map<String, ThriftSerializedObject> updated, String key, ThriftSerializedObject tso, TSerializer ser,
+                           boolean cleanup) {
+        if (cachedVersion == null || walRecords >= WAL_COMPACT_RECORDS || walBytes >= WAL_COMPACT_BYTES) {
+            compact(updated, ser, cleanup);
+            return;
+        }
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(payload);
+            out.writeByte(tso == null ? WAL_REMOVE : WAL_PUT);
+            out.writeUTF(key);
+            if (tso != null) {
+                out.writeUTF(tso.get_name());
+                byte[] bits = tso.get_bits();
+                out.writeInt(bits.length);
+                out.write(bits);
+            }
+            out.flush();
+            byte[] bytes = payload.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            ByteBuffer record = ByteBuffer.allocate(12 + bytes.length);
+            record.putInt(bytes.length).putLong(crc.getValue()).put(bytes);
+
+            if (walOut == null) {
+                walOut = new FileOutputStream(walPath(cachedVersion), true);
+            }
+            // a single write, so a crash leaves at most a partial last record that the CRC rejects
+            walOut.write(record.array());
+            walOut.flush();
+            walRecords++;
+            walBytes += record.capacity();
+            cachedParts = updated;
+        } catch (IOException e) {
+            LOG.warn("Could not append to the write ahead log of {}, writing all of the state", versionedStore.getRoot(), e);
+            compact(updated, ser, cleanup);
+        }
+    }
+
+    private void compact(Map<String, ThriftSerializedObject> state, TSerializer ser, boolean cleanup) {
+        Long previous = cachedVersion;
+        closeWal();
+        persistInternal(state, ser, cleanup);
+        if (previous != null) {
+            // the new version has everything the log of the previous one had
+            new File(walPath(previous)).delete();
+        }
+    }
+
+    private void closeWal() {
+        if (walOut != null) {
+            try {
+                walOut.close();
+            } catch (IOException e) {
+                LOG.warn("Could not close the write ahead log of {}", versionedStore.getRoot(), e);
+            }
+            walOut = null;
+        }
+        walRecords = 0;
+        walBytes = 0;
+    }
+
+    /**
+     * Apply the log of changes to a version of the state that is read from disk. Anything after a partially written record is ignored.
+     *
+     * @return false if the log ended with a partially written record.
+     */
+    private boolean replayWal(long version, Map<String, ThriftSerializedObject> parts) throws IOException {
+        closeWal();
+        File walFile = new File(walPath(version));
+        if (!walFile.exists()) {
+            return true;
+        }
+        ByteBuffer wal = ByteBuffer.wrap(FileUtils.readFileToByteArray(walFile));
+        boolean complete = true;
+        while (wal.hasRemaining()) {
+            if (wal.remaining() < 12) {
+                complete = false;
+                break;
+            }
+            int length = wal.getInt();
+            if (length < 0 || length > wal.remaining() - 8) {
+                complete = false;
+                break;
+            }
+            long expectedCrc = wal.getLong();
+            CRC32 crc = new CRC32();
+            crc.update(wal.array(), wal.position(), length);
+            if (crc.getValue() != expectedCrc) {
+                complete = false;
+                break;
+            }
+            byte[] bytes = new byte[length];
+            wal.get(bytes);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte type = in.readByte();
+            String key = in.readUTF();
+            if (type == WAL_PUT) {
+                String name = in.readUTF();
+                byte[] bits = new byte[in.readInt()];
+                in.readFully(bits);
+                parts.put(key, new ThriftSerializedObject(name, ByteBuffer.wrap(bits)));
+            } else {
+                parts.remove(key);
+            }
+            walRecords++;
+        }
+        walBytes = wal.position();
+        if (!complete) {
+            LOG.warn("Ignoring the partially written end of {}", walFile);
+        }
+        return complete;
+    }
+
+    private void deleteOrphanedWals() {
+        File[] files = new File(versionedStore.getRoot()).listFiles((dir, name) -> name.endsWith(WAL_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            String name = f.getName();
+            String versionPath = new File(versionedStore.getRoot(), name.substring(0, name.length() - WAL_SUFFIX.length())).getPath();
+            if (!new File(versionPath).exists()) {
+                f.delete();
+            }
+        }
+    }
+
     private ThriftSerializedObject serialize(TBase o, TSerializer ser) {
         try {
             return new ThriftSerializedObject(o.getClass().getName(), ByteBuffer.wrap(ser.serialize(o)));
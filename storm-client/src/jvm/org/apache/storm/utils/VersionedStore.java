@@ -81,12 +81,7 @@ public class VersionedStore {
     }
 
     public String createVersion() throws IOException {
-        Long mostRecent = mostRecentVersion();
-        long version = Time.currentTimeMillis();
-        if (mostRecent != null && version <= mostRecent) {
-            version = mostRecent + 1;
-        }
-        return createVersion(version);
+        return createVersion(nextVersion());
     }
 
     public String createVersion(long version) throws IOException {
@@ -98,6 +93,18 @@ public class VersionedStore {
         }
     }
 
+    /**
+     * Get the version a new version of the store should have, newer than all existing versions.
+     */
+    public long nextVersion() throws IOException {
+        Long mostRecent = mostRecentVersion();
+        long version = Time.currentTimeMillis();
+        if (mostRecent != null && version <= mostRecent) {
+            version = mostRecent + 1;
+        }
+        return version;
+    }
+
     public void failVersion(String path) throws IOException {
         deleteVersion(validateAndGetVersion(path));
     }
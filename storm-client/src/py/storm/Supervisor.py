@@ -47,6 +47,17 @@ class Iface(object):
         """
         pass
 
+    def sendSupervisorAssignmentsDelta(self, assignments):
+        """
+        Send a delta of the node specific assignments to supervisor, returns false if it does not apply on top of the assignments
+        the supervisor has
+
+        Parameters:
+         - assignments
+
+        """
+        pass
+
     def getLocalAssignmentForStorm(self, id):
         """
         Get local assignment for a storm
@@ -109,6 +120,43 @@ class Client(Iface):
             raise result.aze
         return
 
+    def sendSupervisorAssignmentsDelta(self, assignments):
+        """
+        Send a delta of the node specific assignments to supervisor, returns false if it does not apply on top of the assignments
+        the supervisor has
+
+        Parameters:
+         - assignments
+
+        """
+        self.send_sendSupervisorAssignmentsDelta(assignments)
+        return self.recv_sendSupervisorAssignmentsDelta()
+
+    def send_sendSupervisorAssignmentsDelta(self, assignments):
+        self._oprot.writeMessageBegin('sendSupervisorAssignmentsDelta', TMessageType.CALL, self._seqid)
+        args = sendSupervisorAssignmentsDelta_args()
+        args.assignments = assignments
+        args.write(self._oprot)
+        self._oprot.writeMessageEnd()
+        self._oprot.trans.flush()
+
+    def recv_sendSupervisorAssignmentsDelta(self):
+        iprot = self._iprot
+        (fname, mtype, rseqid) = iprot.readMessageBegin()
+        if mtype == TMessageType.EXCEPTION:
+            x = TApplicationException()
+            x.read(iprot)
+            iprot.readMessageEnd()
+            raise x
+        result = sendSupervisorAssignmentsDelta_result()
+        result.read(iprot)
+        iprot.readMessageEnd()
+        if result.success is not None:
+            return result.success
+        if result.aze is not None:
+            raise result.aze
+        raise TApplicationException(TApplicationException.MISSING_RESULT, "sendSupervisorAssignmentsDelta failed: unknown result")
+
     def getLocalAssignmentForStorm(self, id):
         """
         Get local assignment for a storm
@@ -187,6 +235,7 @@ class Processor(Iface, TProcessor):
         self._handler = handler
         self._processMap = {}
         self._processMap["sendSupervisorAssignments"] = Processor.process_sendSupervisorAssignments
+        self._processMap["sendSupervisorAssignmentsDelta"] = Processor.process_sendSupervisorAssignmentsDelta
         self._processMap["getLocalAssignmentForStorm"] = Processor.process_getLocalAssignmentForStorm
         self._processMap["sendSupervisorWorkerHeartbeat"] = Processor.process_sendSupervisorWorkerHeartbeat
         self._on_message_begin = None
@@ -237,6 +286,32 @@ class Processor(Iface, TProcessor):
         oprot.writeMessageEnd()
         oprot.trans.flush()
 
+    def process_sendSupervisorAssignmentsDelta(self, seqid, iprot, oprot):
+        args = sendSupervisorAssignmentsDelta_args()
+        args.read(iprot)
+        iprot.readMessageEnd()
+        result = sendSupervisorAssignmentsDelta_result()
+        try:
+            result.success = self._handler.sendSupervisorAssignmentsDelta(args.assignments)
+            msg_type = TMessageType.REPLY
+        except TTransport.TTransportException:
+            raise
+        except AuthorizationException as aze:
+            msg_type = TMessageType.REPLY
+            result.aze = aze
+        except TApplicationException as ex:
+            logging.exception('TApplication exception in handler')
+            msg_type = TMessageType.EXCEPTION
+            result = ex
+        except Exception:
+            logging.exception('Unexpected exception in handler')
+            msg_type = TMessageType.EXCEPTION
+            result = TApplicationException(TApplicationException.INTERNAL_ERROR, 'Internal error')
+        oprot.writeMessageBegin("sendSupervisorAssignmentsDelta", msg_type, seqid)
+        result.write(oprot)
+        oprot.writeMessageEnd()
+        oprot.trans.flush()
+
     def process_getLocalAssignmentForStorm(self, seqid, iprot, oprot):
         args = getLocalAssignmentForStorm_args()
         args.read(iprot)
@@ -421,6 +496,143 @@ sendSupervisorAssignments_result.thrift_spec = (
 )
 
 
+class sendSupervisorAssignmentsDelta_args(object):
+    """
+    Attributes:
+     - assignments
+
+    """
+
+
+    def __init__(self, assignments=None,):
+        self.assignments = assignments
+
+    def read(self, iprot):
+        if iprot._fast_decode is not None and isinstance(iprot.trans, TTransport.CReadableTransport) and self.thrift_spec is not None:
+            iprot._fast_decode(self, iprot, [self.__class__, self.thrift_spec])
+            return
+        iprot.readStructBegin()
+        while True:
+            (fname, ftype, fid) = iprot.readFieldBegin()
+            if ftype == TType.STOP:
+                break
+            if fid == 1:
+                if ftype == TType.STRUCT:
+                    self.assignments = SupervisorAssignments()
+                    self.assignments.read(iprot)
+                else:
+                    iprot.skip(ftype)
+            else:
+                iprot.skip(ftype)
+            iprot.readFieldEnd()
+        iprot.readStructEnd()
+
+    def write(self, oprot):
+        if oprot._fast_encode is not None and self.thrift_spec is not None:
+            oprot.trans.write(oprot._fast_encode(self, [self.__class__, self.thrift_spec]))
+            return
+        oprot.writeStructBegin('sendSupervisorAssignmentsDelta_args')
+        if self.assignments is not None:
+            oprot.writeFieldBegin('assignments', TType.STRUCT, 1)
+            self.assignments.write(oprot)
+            oprot.writeFieldEnd()
+        oprot.writeFieldStop()
+        oprot.writeStructEnd()
+
+    def validate(self):
+        return
+
+    def __repr__(self):
+        L = ['%s=%r' % (key, value)
+             for key, value in self.__dict__.items()]
+        return '%s(%s)' % (self.__class__.__name__, ', '.join(L))
+
+    def __eq__(self, other):
+        return isinstance(other, self.__class__) and self.__dict__ == other.__dict__
+
+    def __ne__(self, other):
+        return not (self == other)
+all_structs.append(sendSupervisorAssignmentsDelta_args)
+sendSupervisorAssignmentsDelta_args.thrift_spec = (
+    None,  # 0
+    (1, TType.STRUCT, 'assignments', [SupervisorAssignments, None], None, ),  # 1
+)
+
+
+class sendSupervisorAssignmentsDelta_result(object):
+    """
+    Attributes:
+     - success
+     - aze
+
+    """
+
+
+    def __init__(self, success=None, aze=None,):
+        self.success = success
+        self.aze = aze
+
+    def read(self, iprot):
+        if iprot._fast_decode is not None and isinstance(iprot.trans, TTransport.CReadableTransport) and self.thrift_spec is not None:
+            iprot._fast_decode(self, iprot, [self.__class__, self.thrift_spec])
+            return
+        iprot.readStructBegin()
+        while True:
+            (fname, ftype, fid) = iprot.readFieldBegin()
+            if ftype == TType.STOP:
+                break
+            if fid == 0:
+                if ftype == TType.BOOL:
+                    self.success = iprot.readBool()
+                else:
+                    iprot.skip(ftype)
+            elif fid == 1:
+                if ftype == TType.STRUCT:
+                    self.aze = AuthorizationException()
+                    self.aze.read(iprot)
+                else:
+                    iprot.skip(ftype)
+            else:
+                iprot.skip(ftype)
+            iprot.readFieldEnd()
+        iprot.readStructEnd()
+
+    def write(self, oprot):
+        if oprot._fast_encode is not None and self.thrift_spec is not None:
+            oprot.trans.write(oprot._fast_encode(self, [self.__class__, self.thrift_spec]))
+            return
+        oprot.writeStructBegin('sendSupervisorAssignmentsDelta_result')
+        if self.success is not None:
+            oprot.writeFieldBegin('success', TType.BOOL, 0)
+            oprot.writeBool(self.success)
+            oprot.writeFieldEnd()
+        if self.aze is not None:
+            oprot.writeFieldBegin('aze', TType.STRUCT, 1)
+            self.aze.write(oprot)
+            oprot.writeFieldEnd()
+        oprot.writeFieldStop()
+        oprot.writeStructEnd()
+
+    def validate(self):
+        return
+
+    def __repr__(self):
+        L = ['%s=%r' % (key, value)
+             for key, value in self.__dict__.items()]
+        return '%s(%s)' % (self.__class__.__name__, ', '.join(L))
+
+    def __eq__(self, other):
+        return isinstance(other, self.__class__) and self.__dict__ == other.__dict__
+
+    def __ne__(self, other):
+        return not (self == other)
+all_structs.append(sendSupervisorAssignmentsDelta_result)
+sendSupervisorAssignmentsDelta_result.thrift_spec = (
+    (0, TType.BOOL, 'success', None, None, ),  # 0
+    (1, TType.STRUCT, 'aze', [AuthorizationException, None], None, ),  # 1
+)
+
+
 class getLocalAssignmentForStorm_args(object):
     """
     Attributes:
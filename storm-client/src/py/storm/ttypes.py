@@ -6524,11 +6524,12 @@ class SupervisorInfo(object):
      - version
      - resources_map
      - server_port
+     - blob_peer_port
 
     """
 
 
-    def __init__(self, time_secs=None, hostname=None, assignment_id=None, used_ports=None, meta=None, scheduler_meta=None, uptime_secs=None, version=None, resources_map=None, server_port=None,):
+    def __init__(self, time_secs=None, hostname=None, assignment_id=None, used_ports=None, meta=None, scheduler_meta=None, uptime_secs=None, version=None, resources_map=None, server_port=None, blob_peer_port=None,):
         self.time_secs = time_secs
         self.hostname = hostname
         self.assignment_id = assignment_id
@@ -6539,6 +6540,7 @@ class SupervisorInfo(object):
         self.version = version
         self.resources_map = resources_map
         self.server_port = server_port
+        self.blob_peer_port = blob_peer_port
 
     def read(self, iprot):
         if iprot._fast_decode is not None and isinstance(iprot.trans, TTransport.CReadableTransport) and self.thrift_spec is not None:
@@ -6621,6 +6623,11 @@ class SupervisorInfo(object):
                     self.server_port = iprot.readI32()
                 else:
                     iprot.skip(ftype)
+            elif fid == 11:
+                if ftype == TType.I32:
+                    self.blob_peer_port = iprot.readI32()
+                else:
+                    iprot.skip(ftype)
             else:
                 iprot.skip(ftype)
             iprot.readFieldEnd()
@@ -6685,6 +6692,10 @@ class SupervisorInfo(object):
             oprot.writeFieldBegin('server_port', TType.I32, 10)
             oprot.writeI32(self.server_port)
             oprot.writeFieldEnd()
+        if self.blob_peer_port is not None:
+            oprot.writeFieldBegin('blob_peer_port', TType.I32, 11)
+            oprot.writeI32(self.blob_peer_port)
+            oprot.writeFieldEnd()
         oprot.writeFieldStop()
         oprot.writeStructEnd()
 
@@ -9065,16 +9076,22 @@ class SupervisorAssignments(object):
     """
     Attributes:
      - storm_assignment
+     - version
+     - base_version
+     - removed_storm_ids
 
     """
 
 
     def __init__(self, storm_assignment={
-    },):
+    }, version=None, base_version=None, removed_storm_ids=None,):
         if storm_assignment is self.thrift_spec[1][4]:
             storm_assignment = {
             }
         self.storm_assignment = storm_assignment
+        self.version = version
+        self.base_version = base_version
+        self.removed_storm_ids = removed_storm_ids
 
     def read(self, iprot):
         if iprot._fast_decode is not None and isinstance(iprot.trans, TTransport.CReadableTransport) and self.thrift_spec is not None:
@@ -9097,6 +9114,26 @@ class SupervisorAssignments(object):
                     iprot.readMapEnd()
                 else:
                     iprot.skip(ftype)
+            elif fid == 2:
+                if ftype == TType.I64:
+                    self.version = iprot.readI64()
+                else:
+                    iprot.skip(ftype)
+            elif fid == 3:
+                if ftype == TType.I64:
+                    self.base_version = iprot.readI64()
+                else:
+                    iprot.skip(ftype)
+            elif fid == 4:
+                if ftype == TType.LIST:
+                    self.removed_storm_ids = []
+                    (_etype848, _size845) = iprot.readListBegin()
+                    for _i849 in range(_size845):
+                        _elem850 = iprot.readString().decode('utf-8') if sys.version_info[0] == 2 else iprot.readString()
+                        self.removed_storm_ids.append(_elem850)
+                    iprot.readListEnd()
+                else:
+                    iprot.skip(ftype)
             else:
                 iprot.skip(ftype)
             iprot.readFieldEnd()
@@ -9115,6 +9152,21 @@ class SupervisorAssignments(object):
                 viter844.write(oprot)
             oprot.writeMapEnd()
             oprot.writeFieldEnd()
+        if self.version is not None:
+            oprot.writeFieldBegin('version', TType.I64, 2)
+            oprot.writeI64(self.version)
+            oprot.writeFieldEnd()
+        if self.base_version is not None:
+            oprot.writeFieldBegin('base_version', TType.I64, 3)
+            oprot.writeI64(self.base_version)
+            oprot.writeFieldEnd()
+        if self.removed_storm_ids is not None:
+            oprot.writeFieldBegin('removed_storm_ids', TType.LIST, 4)
+            oprot.writeListBegin(TType.STRING, len(self.removed_storm_ids))
+            for iter851 in self.removed_storm_ids:
+                oprot.writeString(iter851.encode('utf-8') if sys.version_info[0] == 2 else iter851)
+            oprot.writeListEnd()
+            oprot.writeFieldEnd()
         oprot.writeFieldStop()
         oprot.writeStructEnd()
 
@@ -12871,6 +12923,7 @@ SupervisorInfo.thrift_spec = (
     (8, TType.STRING, 'version', 'UTF8', None, ),  # 8
     (9, TType.MAP, 'resources_map', (TType.STRING, 'UTF8', TType.DOUBLE, None, False), None, ),  # 9
     (10, TType.I32, 'server_port', None, None, ),  # 10
+    (11, TType.I32, 'blob_peer_port', None, None, ),  # 11
 )
 all_structs.append(NodeInfo)
 NodeInfo.thrift_spec = (
@@ -13062,6 +13115,9 @@ SupervisorAssignments.thrift_spec = (
     None,  # 0
     (1, TType.MAP, 'storm_assignment', (TType.STRING, 'UTF8', TType.STRUCT, [Assignment, None], False), {
     }, ),  # 1
+    (2, TType.I64, 'version', None, None, ),  # 2
+    (3, TType.I64, 'base_version', None, None, ),  # 3
+    (4, TType.LIST, 'removed_storm_ids', (TType.STRING, 'UTF8', False), None, ),  # 4
 )
 all_structs.append(WorkerMetricPoint)
 WorkerMetricPoint.thrift_spec = (
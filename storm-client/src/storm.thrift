@@ -495,6 +495,7 @@ struct SupervisorInfo {
     8: optional string version;
     9: optional map<string, double> resources_map;
    10: optional i32 server_port;
+   11: optional i32 blob_peer_port;
 }
 
 struct NodeInfo {
@@ -697,6 +698,11 @@ struct SupervisorWorkerHeartbeats {
 
 struct SupervisorAssignments {
   1: optional map<string, Assignment> storm_assignment = {}
+  // Set by nimbus to version the assignments of a node. When base_version is set too this is a delta on top of base_version:
+  // storm_assignment only holds the added and changed assignments and removed_storm_ids the removed ones.
+  2: optional i64 version;
+  3: optional i64 base_version;
+  4: optional list<string> removed_storm_ids;
 }
 
 struct WorkerMetricPoint {
@@ -912,6 +918,11 @@ service Supervisor {
    * Send node specific assignments to supervisor
    */
   void sendSupervisorAssignments(1: SupervisorAssignments assignments) throws (1: AuthorizationException aze);
+  /**
+   * Send a delta of the node specific assignments to supervisor, returns false if it does not apply on top of the assignments
+   * the supervisor has
+   */
+  bool sendSupervisorAssignmentsDelta(1: SupervisorAssignments assignments) throws (1: AuthorizationException aze);
   /**
    * Get local assignment for a storm
    */
@@ -23,14 +23,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import org.apache.storm.cluster.PaceMakerStateStorage;
 import org.apache.storm.generated.ClusterWorkerHeartbeat;
 import org.apache.storm.generated.HBMessage;
 import org.apache.storm.generated.HBMessageData;
 import org.apache.storm.generated.HBNodes;
 import org.apache.storm.generated.HBPulse;
+import org.apache.storm.generated.HBRecords;
 import org.apache.storm.generated.HBServerMessageType;
 import org.apache.storm.pacemaker.PacemakerClient;
 import org.apache.storm.pacemaker.PacemakerClientPool;
@@ -138,6 +142,38 @@ public class PaceMakerStateStorageFactoryTest {
         stateStorage.get_worker_hb_children("/foo", false);
     }
 
+    @Test
+    public void testGetWorkerHbChildrenData() throws Exception {
+        List<HBPulse> pulses = new ArrayList<>();
+        for (String child : Arrays.asList("node1-6700", "node2-6700")) {
+            HBPulse hbPulse = new HBPulse();
+            hbPulse.set_id("/foo/" + child);
+            hbPulse.set_details(Utils.serialize(new ClusterWorkerHeartbeat("some-storm-id", new HashMap(), 1, 1)));
+            pulses.add(hbPulse);
+        }
+        createPaceMakerStateStorage(HBServerMessageType.GET_ALL_PULSE_FOR_PATH_RESPONSE, HBMessageData.records(new HBRecords(pulses)));
+        Map<String, byte[]> children = stateStorage.get_worker_hb_children_data("/foo", false);
+        verify(clientMock).send(hbMessageCaptor.capture());
+        HBMessage sent = hbMessageCaptor.getValue();
+        Assert.assertEquals(HBServerMessageType.GET_ALL_PULSE_FOR_PATH, sent.get_type());
+        Assert.assertEquals("/foo", sent.get_data().get_path());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("node1-6700", "node2-6700")), children.keySet());
+    }
+
+    @Test
+    public void testShardServers() {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.PACEMAKER_SERVERS, Arrays.asList("pacemaker1", "pacemaker2", "pacemaker3"));
+        conf.put(Config.PACEMAKER_SHARDING_ENABLE, true);
+        PacemakerClientPool pool = new PacemakerClientPool(conf);
+        Assert.assertTrue(pool.isSharded());
+        List<String> servers = pool.getServersFor("topo-1");
+        Assert.assertEquals(new HashSet<>(Arrays.asList("pacemaker1", "pacemaker2", "pacemaker3")), new HashSet<>(servers));
+        Assert.assertEquals(3, servers.size());
+        // every client picks the same servers for a topology
+        Assert.assertEquals(servers, new PacemakerClientPool(conf).getServersFor("topo-1"));
+    }
+
     private class PacemakerClientPoolProxy extends PacemakerClientPool {
         public PacemakerClientPoolProxy() {
             super(new HashMap<>());
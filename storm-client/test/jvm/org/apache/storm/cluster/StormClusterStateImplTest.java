@@ -12,10 +12,19 @@
 
 package org.apache.storm.cluster;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import org.apache.storm.assignments.LocalAssignmentsBackendFactory;
 import org.apache.storm.callback.ZKStateChangedCallback;
+import org.apache.storm.generated.Assignment;
+import org.apache.storm.shade.org.apache.zookeeper.data.ACL;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -58,5 +67,24 @@ public class StormClusterStateImplTest {
             Mockito.verify(storage).mkdirs(path, null);
         }
     }
+
+    @Test
+    public void setAssignmentsAtOnce() {
+        Map<String, Assignment> assignments = new HashMap<>();
+        Map<String, Map<String, Object>> topoConfs = new HashMap<>();
+        for (String id : Arrays.asList("topo-1", "topo-2")) {
+            assignments.put(id, new Assignment("/tmp/" + id));
+            topoConfs.put(id, new HashMap<>());
+        }
+        state.setAssignments(assignments, topoConfs);
+
+        ArgumentCaptor<Map<String, byte[]>> data = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<Map<String, List<ACL>>> acls = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(storage).set_data_all(data.capture(), acls.capture());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(ClusterUtils.assignmentPath("topo-1"), ClusterUtils.assignmentPath("topo-2"))),
+                            data.getValue().keySet());
+        Assert.assertEquals(data.getValue().keySet(), acls.getValue().keySet());
+        Assert.assertEquals(assignments.get("topo-1"), state.assignmentInfo("topo-1", null));
+    }
 }
 
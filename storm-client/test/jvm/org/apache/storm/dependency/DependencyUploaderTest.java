@@ -51,6 +51,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -302,6 +303,31 @@ public class DependencyUploaderTest {
         verify(mockOutputStream).close();
     }
 
+    @Test
+    public void uploadFilesContentAddressed() throws Exception {
+        AtomicOutputStream mockOutputStream = mock(AtomicOutputStream.class);
+        when(mockBlobStore.getBlobMeta(anyString())).thenThrow(new KeyNotFoundException());
+        when(mockBlobStore.createBlob(anyString(), any(SettableBlobMeta.class))).thenReturn(mockOutputStream);
+        sut.setContentAddressed(true);
+
+        File mockFile = createTemporaryDummyFile();
+        List<String> keys = sut.uploadFiles(Lists.newArrayList(mockFile), false);
+        assertEquals(1, keys.size());
+        assertTrue(keys.get(0).contains("-sha256-"));
+        verify(mockBlobStore).createBlob(eq(keys.get(0)), any(SettableBlobMeta.class));
+
+        // The same jar again is not uploaded again, and is not deleted when the submission fails
+        DependencyUploader second = new DependencyUploader();
+        ClientBlobStore secondBlobStore = mock(ClientBlobStore.class);
+        second.setBlobStore(secondBlobStore);
+        second.setContentAddressed(true);
+        when(secondBlobStore.getBlobMeta(anyString())).thenReturn(new ReadableBlobMeta());
+        assertEquals(keys, second.uploadFiles(Lists.newArrayList(mockFile), true));
+        second.deleteBlobs(keys);
+        verify(secondBlobStore, never()).createBlob(anyString(), any(SettableBlobMeta.class));
+        verify(secondBlobStore, never()).deleteBlob(anyString());
+    }
+
     private File createTemporaryDummyFile() throws IOException {
         File tempFile = File.createTempFile("tempfile", ".tmp");
 
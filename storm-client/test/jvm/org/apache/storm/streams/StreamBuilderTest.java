@@ -260,4 +260,44 @@ public class StreamBuilderTest {
         StormTopology topology = streamBuilder.build();
         assertEquals(1, topology.get_bolts_size());
     }
+
+    @Test
+    public void testPartitionByKeyElidedForKeyPreservingProcessors() {
+        Stream<Integer> stream = streamBuilder.newStream(newSpout(Utils.DEFAULT_STREAM_ID), new ValueMapper<>(0), 2);
+        stream.mapToPair(x -> Pair.of(x, x))
+              .reduceByKey((x, y) -> x + y)
+              .mapValues(x -> x * 2)
+              .filter(x -> true)
+              .reduceByKey((x, y) -> 0)
+              .print();
+        StormTopology topology = streamBuilder.build();
+        assertEquals(2, topology.get_bolts_size());
+    }
+
+    @Test
+    public void testPartitionByKeyAfterKeyChange() {
+        Map<GlobalStreamId, Grouping> expected = new HashMap<>();
+        expected.put(new GlobalStreamId("bolt2", "s5"), Grouping.fields(Collections.singletonList("key")));
+        expected.put(new GlobalStreamId("bolt2", "s5__punctuation"), Grouping.all(new NullStruct()));
+        Stream<Integer> stream = streamBuilder.newStream(newSpout(Utils.DEFAULT_STREAM_ID), new ValueMapper<>(0), 2);
+        stream.mapToPair(x -> Pair.of(x, x))
+              .reduceByKey((x, y) -> x + y)
+              .mapToPair(x -> Pair.of(x.getSecond(), x.getFirst()))
+              .mapValues(x -> x * 2)
+              .reduceByKey((x, y) -> 0)
+              .print();
+        StormTopology topology = streamBuilder.build();
+        assertEquals(3, topology.get_bolts_size());
+        assertEquals(expected, topology.get_bolts().get("bolt3").get_common().get_inputs());
+    }
+
+    @Test
+    public void testUpdateStateByKeyAfterPartitionByKey() {
+        Stream<Integer> stream = streamBuilder.newStream(newSpout(Utils.DEFAULT_STREAM_ID), new ValueMapper<>(0), 2);
+        stream.mapToPair(x -> Pair.of(x, x))
+              .reduceByKey((x, y) -> x + y)
+              .updateStateByKey(0L, (state, x) -> state + x);
+        StormTopology topology = streamBuilder.build();
+        assertEquals(2, topology.get_bolts_size());
+    }
 }
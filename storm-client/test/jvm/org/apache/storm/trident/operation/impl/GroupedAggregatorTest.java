@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.operation.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.storm.Config;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.trident.operation.TridentCollector;
+import org.apache.storm.trident.operation.TridentOperationContext;
+import org.apache.storm.trident.operation.builtin.Sum;
+import org.apache.storm.trident.tuple.TridentTupleView.FreshOutputFactory;
+import org.apache.storm.tuple.Fields;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GroupedAggregatorTest {
+
+    @Test
+    public void testPartialFlushMergesDownstream() {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.TOPOLOGY_TRIDENT_PARTIAL_AGGREGATION_MAX_GROUPS, 2);
+        FreshOutputFactory inputFactory = new FreshOutputFactory(new Fields("word", "n"));
+        GroupedAggregator partial = new GroupedAggregator(new CombinerAggregatorCombineImpl(new Sum()), new Fields("word"),
+                                                          new Fields("n"), 1, true);
+        partial.prepare(conf, new TridentOperationContext((TopologyContext) null, inputFactory));
+
+        String[] words = { "a", "b", "c", "a", "b", "a" };
+        ListCollector partialOut = new ListCollector();
+        Object[] state = partial.init(1L, partialOut);
+        for (int i = 0; i < words.length; i++) {
+            partial.aggregate(state, inputFactory.create(valuesOf(words[i], i + 1L)), partialOut);
+        }
+        // every second group flushed before the batch finished, so the results of a key went out in several parts
+        Assert.assertEquals(6, partialOut.emitted.size());
+        partial.complete(state, partialOut);
+        Assert.assertEquals(6, partialOut.emitted.size());
+
+        FreshOutputFactory partialFactory = new FreshOutputFactory(new Fields("word", "sum"));
+        GroupedAggregator combine = new GroupedAggregator(new CombinerAggregatorCombineImpl(new Sum()), new Fields("word"),
+                                                          new Fields("sum"), 1);
+        combine.prepare(conf, new TridentOperationContext((TopologyContext) null, partialFactory));
+        ListCollector out = new ListCollector();
+        Object[] combineState = combine.init(1L, out);
+        for (List<Object> values : partialOut.emitted) {
+            combine.aggregate(combineState, partialFactory.create(values), out);
+        }
+        Assert.assertTrue("the combine side must not flush early", out.emitted.isEmpty());
+        combine.complete(combineState, out);
+
+        Map<Object, Object> merged = new HashMap<>();
+        for (List<Object> values : out.emitted) {
+            Assert.assertNull("duplicate result for " + values.get(0), merged.put(values.get(0), values.get(1)));
+        }
+        Map<Object, Object> expected = new HashMap<>();
+        expected.put("a", 11L);
+        expected.put("b", 7L);
+        expected.put("c", 3L);
+        Assert.assertEquals(expected, merged);
+    }
+
+    private static List<Object> valuesOf(Object... values) {
+        List<Object> ret = new ArrayList<>();
+        Collections.addAll(ret, values);
+        return ret;
+    }
+
+    private static class ListCollector implements TridentCollector {
+        final List<List<Object>> emitted = new ArrayList<>();
+
+        @Override
+        public void emit(List<Object> values) {
+            emitted.add(new ArrayList<>(values));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void reportError(Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+}
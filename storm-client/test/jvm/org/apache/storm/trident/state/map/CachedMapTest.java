@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.storm.task.IMetricsContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CachedMapTest {
+
+    private static List<Object> key(Object value) {
+        return Collections.singletonList(value);
+    }
+
+    @Test
+    public void testWeigherOnlySeesValues() {
+        Map<List<Object>, String> db = new HashMap<>();
+        db.put(key("a"), "aaaa");
+        List<List<Object>> reads = new ArrayList<>();
+        IBackingMap<String> backing = new IBackingMap<String>() {
+            @Override
+            public List<String> multiGet(List<List<Object>> keys) {
+                reads.addAll(keys);
+                List<String> ret = new ArrayList<>();
+                for (List<Object> key : keys) {
+                    ret.add(db.get(key));
+                }
+                return ret;
+            }
+
+            @Override
+            public void multiPut(List<List<Object>> keys, List<String> vals) {
+                for (int i = 0; i < keys.size(); i++) {
+                    db.put(keys.get(i), vals.get(i));
+                }
+            }
+        };
+        CachedMap<String> map = new CachedMap<>(backing, 100, (key, value) -> value.length());
+
+        // b has no value, so it is cached without asking the weigher
+        Assert.assertEquals(Arrays.asList("aaaa", null), map.multiGet(Arrays.asList(key("a"), key("b"))));
+        Assert.assertEquals(5, map.cache.weight());
+        Assert.assertEquals(Arrays.asList("aaaa", null), map.multiGet(Arrays.asList(key("a"), key("b"))));
+        Assert.assertEquals(2, reads.size());
+
+        map.multiPut(Collections.singletonList(key("b")), Collections.singletonList("bb"));
+        Assert.assertEquals(6, map.cache.weight());
+    }
+
+    @Test
+    public void testRegisterMetrics() {
+        CachedMap<String> map = new CachedMap<>(new MemoryBackingMap(), 10);
+        IMetricsContext context = mock(IMetricsContext.class);
+        map.registerMetrics(context, "cache");
+        verify(context).registerGauge(eq("cache.hitRate"), any());
+        verify(context).registerGauge(eq("cache.evictions"), any());
+        // states made without a metrics context still work
+        map.registerMetrics(null, "cache");
+    }
+
+    private static class MemoryBackingMap implements IBackingMap<String> {
+        @Override
+        public List<String> multiGet(List<List<Object>> keys) {
+            return new ArrayList<>(Collections.nCopies(keys.size(), null));
+        }
+
+        @Override
+        public void multiPut(List<List<Object>> keys, List<String> vals) {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrefetchingBackingMapTest {
+
+    private static List<Object> key(Object k) {
+        return Arrays.asList(k);
+    }
+
+    @Test
+    public void testPrefetchedValuesAreServed() {
+        CountingBackingMap backing = new CountingBackingMap();
+        backing.store.put(key("a"), 1);
+        backing.store.put(key("b"), 2);
+        PrefetchingBackingMap<Integer> map = new PrefetchingBackingMap<>(backing);
+        map.prefetch(Arrays.asList(key("a"), key("b")));
+        List<Integer> vals = map.multiGet(Arrays.asList(key("b"), key("a"), key("c")));
+        Assert.assertEquals(Arrays.asList(2, 1, null), vals);
+        // one background read for a and b, one synchronous read for c
+        Assert.assertEquals(2, backing.gets.get());
+    }
+
+    @Test
+    public void testWritesOverridePrefetchedValues() {
+        CountingBackingMap backing = new CountingBackingMap();
+        backing.store.put(key("a"), 1);
+        PrefetchingBackingMap<Integer> map = new PrefetchingBackingMap<>(backing);
+        map.prefetch(Arrays.asList(key("a")));
+        map.multiPut(Arrays.asList(key("a")), Arrays.asList(5));
+        Assert.assertEquals(Arrays.asList(5), map.multiGet(Arrays.asList(key("a"))));
+        Assert.assertEquals(Integer.valueOf(5), backing.store.get(key("a")));
+    }
+
+    @Test
+    public void testKeyPrefetchedForTwoBatches() {
+        CountingBackingMap backing = new CountingBackingMap();
+        backing.store.put(key("a"), 1);
+        PrefetchingBackingMap<Integer> map = new PrefetchingBackingMap<>(backing);
+        map.prefetch(Arrays.asList(key("a")));
+        map.prefetch(Arrays.asList(key("a")));
+        Assert.assertEquals(Arrays.asList(1), map.multiGet(Arrays.asList(key("a"))));
+        map.multiPut(Arrays.asList(key("a")), Arrays.asList(2));
+        Assert.assertEquals(Arrays.asList(2), map.multiGet(Arrays.asList(key("a"))));
+        Assert.assertEquals(1, backing.gets.get());
+    }
+
+    private static class CountingBackingMap implements IBackingMap<Integer> {
+        final Map<List<Object>, Integer> store = new HashMap<>();
+        final AtomicInteger gets = new AtomicInteger();
+
+        @Override
+        public synchronized List<Integer> multiGet(List<List<Object>> keys) {
+            gets.incrementAndGet();
+            List<Integer> ret = new ArrayList<>();
+            for (List<Object> key : keys) {
+                ret.add(store.get(key));
+            }
+            return ret;
+        }
+
+        @Override
+        public synchronized void multiPut(List<List<Object>> keys, List<Integer> vals) {
+            for (int i = 0; i < keys.size(); i++) {
+                store.put(keys.get(i), vals.get(i));
+            }
+        }
+    }
+}
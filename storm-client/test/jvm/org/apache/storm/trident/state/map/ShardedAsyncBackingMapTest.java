@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.storm.topology.FailedException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShardedAsyncBackingMapTest {
+
+    private static List<List<Object>> keys(int count) {
+        List<List<Object>> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(Arrays.asList("key" + i));
+        }
+        return keys;
+    }
+
+    @Test
+    public void testShardsKeepOrder() {
+        RecordingBackingMap backing = new RecordingBackingMap();
+        ShardedAsyncBackingMap<Integer> map = new ShardedAsyncBackingMap<>(backing,
+            new ShardedAsyncBackingMap.Options().withMaxConcurrentRequests(3).withMaxKeysPerRequest(10));
+        List<List<Object>> keys = keys(95);
+        List<Integer> vals = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            vals.add(i);
+        }
+        map.multiPut(keys, vals);
+        Assert.assertEquals(10, backing.requestSizes.size());
+        Assert.assertEquals(10, (int) Collections.max(backing.requestSizes));
+
+        backing.requestSizes.clear();
+        Assert.assertEquals(vals, map.multiGet(keys));
+        Assert.assertEquals(10, backing.requestSizes.size());
+        Assert.assertEquals(Collections.emptyList(), map.multiGet(Collections.emptyList()));
+    }
+
+    @Test(expected = FailedException.class)
+    public void testDelegateExceptionIsRethrown() {
+        RecordingBackingMap backing = new RecordingBackingMap();
+        backing.fail = true;
+        ShardedAsyncBackingMap<Integer> map = new ShardedAsyncBackingMap<>(backing, new ShardedAsyncBackingMap.Options());
+        map.multiGet(keys(5));
+    }
+
+    private static class RecordingBackingMap implements IBackingMap<Integer> {
+        final Map<List<Object>, Integer> store = new ConcurrentHashMap<>();
+        final List<Integer> requestSizes = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean fail;
+
+        @Override
+        public List<Integer> multiGet(List<List<Object>> keys) {
+            if (fail) {
+                throw new FailedException("failed on purpose");
+            }
+            requestSizes.add(keys.size());
+            List<Integer> ret = new ArrayList<>();
+            for (List<Object> key : keys) {
+                ret.add(store.get(key));
+            }
+            return ret;
+        }
+
+        @Override
+        public void multiPut(List<List<Object>> keys, List<Integer> vals) {
+            requestSizes.add(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                store.put(keys.get(i), vals.get(i));
+            }
+        }
+    }
+}
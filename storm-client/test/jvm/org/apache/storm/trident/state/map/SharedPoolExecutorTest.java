@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SharedPoolExecutorTest {
+    private static final ExecutorService POOL = SharedPoolExecutor.newSharedPool("shared-pool-test-%d");
+
+    @Test(timeout = 60_000)
+    public void testConcurrencyIsBoundedPerState() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        SharedPoolExecutor first = new SharedPoolExecutor(POOL, 2);
+        SharedPoolExecutor second = new SharedPoolExecutor(POOL, 1);
+        AtomicInteger secondRunning = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep();
+                running.decrementAndGet();
+            }, first));
+            futures.add(CompletableFuture.runAsync(() -> {
+                Assert.assertEquals(1, secondRunning.incrementAndGet());
+                sleep();
+                secondRunning.decrementAndGet();
+            }, second));
+        }
+        // a failing task does not stop the ones queued after it
+        futures.add(CompletableFuture.runAsync(() -> {
+            throw new IllegalStateException("failed");
+        }, first));
+        futures.add(CompletableFuture.runAsync(() -> { }, first));
+        for (int i = 0; i < futures.size(); i++) {
+            if (i == futures.size() - 2) {
+                Assert.assertTrue(futures.get(i).handle((ignored, e) -> e != null).join());
+            } else {
+                futures.get(i).join();
+            }
+        }
+        Assert.assertEquals(2, maxRunning.get());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testBoundedBySize() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        Assert.assertTrue(cache.size() <= 100);
+        Assert.assertEquals(cache.size(), cache.weight());
+        Assert.assertTrue(cache.evictionCount() >= 900);
+    }
+
+    @Test
+    public void testHotKeysSurviveScan() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get(i) == null) {
+                    cache.put(i, i);
+                }
+            }
+        }
+        for (int i = 1000; i < 1500; i++) {
+            cache.put(i, i);
+        }
+        int hotHits = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.containsKey(i)) {
+                hotHits++;
+            }
+        }
+        Assert.assertEquals(50, hotHits);
+        Assert.assertTrue(cache.rejectionCount() > 0);
+    }
+
+    @Test
+    public void testHitAndMissStats() {
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>(10);
+        Assert.assertNull(cache.get("a"));
+        cache.put("a", "1");
+        Assert.assertEquals("1", cache.get("a"));
+        cache.put("a", "2");
+        Assert.assertEquals("2", cache.get("a"));
+        Assert.assertEquals(2, cache.hitCount());
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertEquals(2.0 / 3, cache.hitRate(), 0.0001);
+        Assert.assertEquals("2", cache.remove("a"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testBoundedByWeight() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(1000, (key, value) -> value.length());
+        for (int i = 0; i < 500; i++) {
+            cache.put(i, "0123456789");
+        }
+        Assert.assertTrue(cache.weight() <= 1000);
+        Assert.assertEquals(cache.size() * 10L, cache.weight());
+    }
+
+    @Test
+    public void testSketchGrowsWithEntries() {
+        // a large byte budget says nothing about the number of entries, the sketch starts small
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(1L << 40, (key, value) -> value.length());
+        for (int i = 0; i < 5000; i++) {
+            cache.put(i, "0123456789");
+        }
+        Assert.assertEquals(5000, cache.size());
+
+        TinyLfuCache.FrequencySketch sketch = new TinyLfuCache.FrequencySketch(256);
+        int width = sketch.width();
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("hot");
+        }
+        sketch.ensureCapacity(10_000);
+        Assert.assertTrue(sketch.width() > width);
+        Assert.assertEquals(5, sketch.frequency("hot"));
+    }
+}
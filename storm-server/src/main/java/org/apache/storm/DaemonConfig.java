@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Map;
 import org.apache.storm.container.ResourceIsolationInterface;
 import org.apache.storm.nimbus.ITopologyActionNotifierPlugin;
+import org.apache.storm.nimbus.ITopologyAutoscaler;
 import org.apache.storm.scheduler.blacklist.reporters.IReporter;
 import org.apache.storm.scheduler.blacklist.strategies.IBlacklistStrategy;
 import org.apache.storm.scheduler.resource.strategies.priority.ISchedulingPriorityStrategy;
@@ -184,6 +185,14 @@ public class DaemonConfig implements Validated {
     @IsBoolean
     public static final String STORM_HEALTH_CHECK_FAIL_ON_TIMEOUTS = "storm.health.check.fail.on.timeouts";
 
+    /**
+     * Whether the local state of supervisors and nimbus is kept in memory and written to disk as an append only log of changes,
+     * compacted into a full copy of the state from time to time, instead of writing all of the state on every change. Versions of storm
+     * before this setting existed do not read the log, so turn it off before downgrading.
+     */
+    @IsBoolean
+    public static final String STORM_LOCAL_STATE_WAL_ENABLE = "storm.local.state.wal.enable";
+
     /**
      * This is the user that the Nimbus daemon process is running as. May be used when security is enabled to authorize actions in the
      * cluster.
@@ -214,6 +223,24 @@ public class DaemonConfig implements Validated {
     @IsPositiveNumber
     public static final String NIMBUS_MONITOR_FREQ_SECS = "nimbus.monitor.freq.secs";
 
+    /**
+     * Whether nimbus should skip a round of scheduling when nothing changed since the last one: no topology was submitted, killed or
+     * rebalanced, no executor died, no topology is missing workers and the supervisors and their free ports are the same. Topology
+     * details are then also reused across rounds until the storm base of the topology changes.
+     */
+    @IsBoolean
+    public static final String NIMBUS_INCREMENTAL_ASSIGNMENTS_ENABLE = "nimbus.incremental.assignments.enable";
+
+    /**
+     * When incremental assignments are enabled, the longest nimbus goes without running the scheduler, so that schedulers keeping
+     * state across rounds, like the blacklist scheduler, still see time go by.
+     *
+     * @see #NIMBUS_INCREMENTAL_ASSIGNMENTS_ENABLE
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String NIMBUS_INCREMENTAL_ASSIGNMENTS_FULL_ROUND_SECS = "nimbus.incremental.assignments.full.round.secs";
+
     /**
      * How often nimbus should wake the cleanup thread to clean the inbox.
      *
@@ -300,6 +327,21 @@ public class DaemonConfig implements Validated {
     @IsImplementationOfClass(implementsClass = ITopologyActionNotifierPlugin.class)
     public static final String NIMBUS_TOPOLOGY_ACTION_NOTIFIER_PLUGIN = "nimbus.topology.action.notifier.plugin.class";
 
+    /**
+     * FQCN of a class that implements {@link ITopologyAutoscaler}, which decides how many executors components get. Nimbus only autoscales
+     * the topologies that set {@link Config#TOPOLOGY_AUTOSCALE_ENABLE}, {@link org.apache.storm.nimbus.CapacityAutoscaler} scales
+     * bolts by their capacity.
+     */
+    @IsImplementationOfClass(implementsClass = ITopologyAutoscaler.class)
+    public static final String NIMBUS_TOPOLOGY_AUTOSCALER_PLUGIN = "nimbus.topology.autoscaler.plugin.class";
+
+    /**
+     * How often nimbus asks the {@link #NIMBUS_TOPOLOGY_AUTOSCALER_PLUGIN} whether to scale the topologies.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String NIMBUS_TOPOLOGY_AUTOSCALER_FREQ_SECS = "nimbus.topology.autoscaler.freq.secs";
+
     /**
      * This controls the number of working threads for distributing master assignments to supervisors.
      */
@@ -312,6 +354,41 @@ public class DaemonConfig implements Validated {
     @IsInteger
     public static final String NIMBUS_ASSIGNMENTS_SERVICE_THREAD_QUEUE_SIZE = "nimbus.assignments.service.thread.queue.size";
 
+    /**
+     * Whether nimbus sends each supervisor only the assignments that were added, changed or removed since the last assignments it
+     * sent to it, instead of all of its assignments. Supervisors that miss a delta are resynced with all of their assignments.
+     * Only enable this once all the supervisors run a version that understands the deltas.
+     */
+    @IsBoolean
+    public static final String NIMBUS_ASSIGNMENTS_DELTA_ENABLE = "nimbus.assignments.delta.enable";
+
+    /**
+     * The maximum number of topology and component stats aggregations nimbus keeps for the UI. Set to 0 to aggregate on every request.
+     */
+    @IsInteger
+    public static final String NIMBUS_AGGREGATED_STATS_CACHE_SIZE = "nimbus.aggregated.stats.cache.size";
+
+    /**
+     * How many seconds nimbus reuses a topology or component stats aggregation for the UI, unless the assignment of the topology
+     * changes. Set to 0 to aggregate on every request.
+     */
+    @IsInteger
+    public static final String NIMBUS_AGGREGATED_STATS_CACHE_TTL_SECS = "nimbus.aggregated.stats.cache.ttl.secs";
+
+    /**
+     * The number of threads nimbus updates its heartbeat cache with the worker heartbeats reported by supervisors on, so the thrift
+     * threads are not held up by it. Set to 0 to update it on the thrift threads.
+     */
+    @IsInteger
+    public static final String NIMBUS_SUPERVISOR_HEARTBEATS_THREADS = "nimbus.supervisor.heartbeats.threads";
+
+    /**
+     * The number of reports of worker heartbeats from supervisors that can wait for the threads. When it is full the report is handled
+     * on the thrift thread.
+     */
+    @IsInteger
+    public static final String NIMBUS_SUPERVISOR_HEARTBEATS_QUEUE_SIZE = "nimbus.supervisor.heartbeats.queue.size";
+
     /**
      * class controls heartbeats recovery strategy.
      */
@@ -783,6 +860,56 @@ public class DaemonConfig implements Validated {
     @IsInteger
     public static final String SUPERVISOR_BLOBSTORE_DOWNLOAD_MAX_RETRIES = "supervisor.blobstore.download.max_retries";
 
+    /**
+     * Whether supervisors download topology jars in chunks from other supervisors running the topology, instead of all of them
+     * downloading the jars from the blob store. Nimbus stores the SHA-256 of every chunk of a jar next to it, and each chunk from a
+     * peer is checked against it. The peers serve the chunks over HTTP without authentication, so only turn this on where the
+     * topology jars are not secret.
+     */
+    @IsBoolean
+    public static final String STORM_BLOB_PEER_DISTRIBUTION_ENABLE = "storm.blob.peer.distribution.enable";
+
+    /**
+     * Whether nimbus stores every chunk of a topology jar once, by its SHA-256, and supervisors keep the chunks they downloaded. Chunks
+     * that did not change since an earlier jar, of any topology, are then neither stored again by nimbus nor downloaded again by a
+     * supervisor that still has them. Nimbus stores the jar only as its chunks, and deletes chunks no topology uses anymore.
+     * Supervisors put the jar together from the chunks either way, but only keep the chunks when this is on for them too.
+     */
+    @IsBoolean
+    public static final String STORM_BLOB_CHUNK_DEDUP_ENABLE = "storm.blob.chunk.dedup.enable";
+
+    /**
+     * The average size of the chunks topology jars are split into when {@link #STORM_BLOB_PEER_DISTRIBUTION_ENABLE} or
+     * {@link #STORM_BLOB_CHUNK_DEDUP_ENABLE} is on.
+     */
+    @IsPositiveNumber
+    @IsInteger
+    public static final String STORM_BLOB_PEER_CHUNK_SIZE_BYTES = "storm.blob.peer.chunk.size.bytes";
+
+    /**
+     * The port supervisors serve chunks of topology jars to other supervisors on, 0 for any free port. Supervisors tell each other
+     * which port they use in their heartbeats, so supervisors on the same host can run with the default.
+     */
+    @IsInteger
+    @IsPositiveNumber(includeZero = true)
+    public static final String SUPERVISOR_BLOB_PEER_PORT = "supervisor.blob.peer.port";
+
+    /**
+     * How many of the supervisors running a topology download its jar from the blob store right away, for the others to download it
+     * from. Which supervisors these are is decided by hashing their ids.
+     */
+    @IsPositiveNumber
+    @IsInteger
+    public static final String SUPERVISOR_BLOB_PEER_SEEDERS = "supervisor.blob.peer.seeders";
+
+    /**
+     * How long a supervisor keeps trying to get the chunks of a topology jar from other supervisors, before it downloads the jar from
+     * the blob store.
+     */
+    @IsPositiveNumber
+    @IsInteger
+    public static final String SUPERVISOR_BLOB_PEER_TIMEOUT_SECS = "supervisor.blob.peer.timeout.secs";
+
     /**
      * A map with keys mapped to each NUMA Node on the supervisor that will be used
      * by scheduler. CPUs, memory and ports available on each NUMA node will be provided.
@@ -858,6 +985,23 @@ public class DaemonConfig implements Validated {
     @NotNull
     public static final String SUPERVISOR_WORKER_START_TIMEOUT_SECS = "supervisor.worker.start.timeout.secs";
 
+    /**
+     * Whether the supervisor should keep a standby worker JVM for every worker it launches. The standby is started with the same
+     * command as the worker, loads the classes of the topology and waits. When the worker dies the standby takes its place, instead of
+     * a new JVM being launched. Standby workers are not started when the resources of workers are isolated, because they would need
+     * resources of their own.
+     */
+    @IsBoolean
+    public static final String SUPERVISOR_WORKER_STANDBY_ENABLE = "supervisor.worker.standby.enable";
+
+    /**
+     * Whether workers should use class data sharing archives. The first worker of a topology writes an archive of the classes it loaded
+     * when it exits, and workers of the topology launched after that map the archive instead of loading the classes again. This needs
+     * workers to run on Java 13 or later, and is not used when workers run as the user that launched the topology.
+     */
+    @IsBoolean
+    public static final String SUPERVISOR_WORKER_CLASS_DATA_SHARING_ENABLE = "supervisor.worker.class.data.sharing.enable";
+
     /**
      * Whether or not the supervisor should launch workers assigned to it. Defaults to true -- and you should probably never change this
      * value. This configuration is used in the Storm unit tests.
@@ -1013,6 +1157,16 @@ public class DaemonConfig implements Validated {
     public static final String RESOURCE_AWARE_SCHEDULER_MAX_TOPOLOGY_SCHEDULING_ATTEMPTS =
         "resource.aware.scheduler.max.topology.scheduling.attempts";
 
+    /**
+     * The number of topologies the RAS will try to schedule at the same time. The default is 1, which schedules one topology at a
+     * time. With more threads topologies are scheduled in parallel against a copy of the cluster, and the results are applied in
+     * priority order. A topology whose result overlaps with the resources taken by a higher priority topology is scheduled again.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String RESOURCE_AWARE_SCHEDULER_PARALLEL_SCHEDULING_THREADS =
+        "resource.aware.scheduler.parallel.scheduling.threads";
+
     /*
      * The maximum number of states that will be searched looking for a solution in the constraint solver strategy
      */
@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.blobstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.storm.utils.ObjectReader;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.ParseException;
+
+/**
+ * The SHA-256 of every chunk of a version of a blob. Chunks are identified by their hash alone, so the same chunk can be served no matter
+ * which blob it came from, and anyone holding the manifest can check the chunks it got from someone it does not trust.
+ *
+ * <p>Chunk boundaries are picked by the content (a gear rolling hash over the last bytes), not at fixed offsets, so bytes added or
+ * removed in one place of a blob only change the chunks around that place. The entries of a jar are compressed one by one, so the chunks
+ * of the entries that did not change between two versions of a topology jar are the same and only have to be stored and moved once.
+ */
+public class BlobChunkManifest {
+    public static final String CHUNK_KEY_PREFIX = "blob-chunk-";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // Has to be the same everywhere, java.util.Random is specified to give the same numbers for the same seed.
+        Random random = new Random(0x5EEDL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final long version;
+    private final long length;
+    private final int chunkSize;
+    private final List<String> chunkHashes;
+    private final List<Integer> chunkLengths;
+    private final long[] chunkOffsets;
+
+    public BlobChunkManifest(long version, int chunkSize, List<String> chunkHashes, List<Integer> chunkLengths) {
+        if (chunkHashes.size() != chunkLengths.size()) {
+            throw new IllegalArgumentException("Got " + chunkHashes.size() + " hashes for " + chunkLengths.size() + " chunks");
+        }
+        this.version = version;
+        this.chunkSize = chunkSize;
+        this.chunkHashes = Collections.unmodifiableList(new ArrayList<>(chunkHashes));
+        this.chunkLengths = Collections.unmodifiableList(new ArrayList<>(chunkLengths));
+        chunkOffsets = new long[chunkLengths.size()];
+        long offset = 0;
+        for (int i = 0; i < chunkOffsets.length; i++) {
+            chunkOffsets[i] = offset;
+            offset += chunkLengths.get(i);
+        }
+        length = offset;
+    }
+
+    /**
+     * Compute the manifest of a blob.
+     *
+     * @param in the contents of the blob.
+     * @param version the version of the blob.
+     * @param chunkSize the average size of the chunks, chunks are between a quarter and four times that.
+     * @return the manifest.
+     * @throws IOException on any error reading the blob.
+     */
+    public static BlobChunkManifest compute(InputStream in, long version, int chunkSize) throws IOException {
+        int minSize = Math.max(1, chunkSize / 4);
+        int maxSize = (int) Math.min(Integer.MAX_VALUE - 8, chunkSize * 4L);
+        int bits = Math.max(1, 31 - Integer.numberOfLeadingZeros(chunkSize - minSize + 1));
+        // The top bits of a gear hash depend on the last 64 bytes, the bottom ones only on the last few
+        long mask = -1L << (64 - bits);
+
+        List<String> hashes = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        long hash = 0;
+        int current = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+                current++;
+                if ((current >= minSize && (hash & mask) == 0) || current >= maxSize) {
+                    digest.update(buffer, start, i + 1 - start);
+                    hashes.add(toHex(digest.digest()));
+                    lengths.add(current);
+                    start = i + 1;
+                    current = 0;
+                    hash = 0;
+                }
+            }
+            digest.update(buffer, start, read - start);
+        }
+        if (current > 0) {
+            hashes.add(toHex(digest.digest()));
+            lengths.add(current);
+        }
+        return new BlobChunkManifest(version, chunkSize, hashes, lengths);
+    }
+
+    /**
+     * Get the key a chunk is stored under in the blob store.
+     */
+    public static String chunkKey(String hash) {
+        return CHUNK_KEY_PREFIX + hash;
+    }
+
+    public static boolean isChunkKey(String key) {
+        return key != null && key.startsWith(CHUNK_KEY_PREFIX);
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static String sha256Hex(byte[] data, int offset, int length) {
+        MessageDigest digest = newDigest();
+        digest.update(data, offset, length);
+        return toHex(digest.digest());
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] ret = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            ret[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            ret[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(ret);
+    }
+
+    /**
+     * Read the manifest a topology jar blob holds instead of the jar, when nimbus stores the jar only as its chunks.
+     *
+     * @param file the downloaded jar blob.
+     * @return the manifest, or null if the file is the jar itself.
+     * @throws IOException on any error reading the file.
+     */
+    public static BlobChunkManifest readStoredAsChunks(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            // a jar starts with the magic number of a zip file, a manifest is a json object
+            if (in.read() != '{') {
+                return null;
+            }
+        }
+        return deserialize(Files.readAllBytes(file));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static BlobChunkManifest deserialize(byte[] serialized) throws IOException {
+        try {
+            Map<String, Object> data = (Map<String, Object>) JSONValue.parseWithException(new String(serialized, StandardCharsets.UTF_8));
+            List<Integer> lengths = new ArrayList<>();
+            for (Object chunkLength : (List<Object>) data.get("lengths")) {
+                lengths.add(ObjectReader.getInt(chunkLength));
+            }
+            return new BlobChunkManifest(ObjectReader.getLong(data.get("version")), ObjectReader.getInt(data.get("chunk-size")),
+                                         (List<String>) data.get("chunks"), lengths);
+        } catch (ParseException | RuntimeException e) {
+            throw new IOException("Could not read the chunk manifest", e);
+        }
+    }
+
+    public byte[] serialize() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("version", version);
+        data.put("chunk-size", chunkSize);
+        data.put("chunks", chunkHashes);
+        data.put("lengths", chunkLengths);
+        return JSONValue.toJSONString(data).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public BlobChunkManifest withVersion(long version) {
+        return new BlobChunkManifest(version, chunkSize, chunkHashes, chunkLengths);
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public List<String> getChunkHashes() {
+        return chunkHashes;
+    }
+
+    public long getChunkOffset(int index) {
+        return chunkOffsets[index];
+    }
+
+    public int getChunkLength(int index) {
+        return chunkLengths.get(index);
+    }
+}
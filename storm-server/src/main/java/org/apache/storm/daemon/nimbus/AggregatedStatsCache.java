@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.daemon.nimbus;
+
+import com.codahale.metrics.Meter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.shade.com.google.common.base.Ticker;
+import org.apache.storm.shade.com.google.common.cache.Cache;
+import org.apache.storm.shade.com.google.common.cache.CacheBuilder;
+import org.apache.storm.shade.com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.storm.thrift.TBase;
+import org.apache.storm.utils.Time;
+
+/**
+ * Cache the stats nimbus aggregates out of the executor heartbeats of a topology for the UI. An aggregation is reused for a few
+ * seconds as long as the assignment of the topology stays the same, so many users and dashboards polling the same topology neither
+ * read the heartbeats nor aggregate them more than once per window.
+ */
+public class AggregatedStatsCache {
+    private final Cache<List<Object>, VersionedStats> cache;
+    private final Meter hits;
+    private final Meter misses;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of aggregations to keep, 0 to disable caching.
+     * @param ttlSecs how long an aggregation may be reused, 0 to disable caching.
+     * @param metricsRegistry where to register the hit and miss meters.
+     */
+    public AggregatedStatsCache(int maxSize, int ttlSecs, StormMetricsRegistry metricsRegistry) {
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .expireAfterWrite(ttlSecs, TimeUnit.SECONDS)
+                                 .ticker(new Ticker() {
+                                     @Override
+                                     public long read() {
+                                         return Time.nanoTime();
+                                     }
+                                 })
+                                 .build();
+        this.hits = metricsRegistry.registerMeter("nimbus:aggregated-stats-cache-hits");
+        this.misses = metricsRegistry.registerMeter("nimbus:aggregated-stats-cache-misses");
+    }
+
+    /**
+     * Get the version of the stats of a topology, which changes whenever the assignment changes.
+     *
+     * @param exec2NodePort the assignment of the executors.
+     * @return the version.
+     */
+    public static Object version(Map<List<Long>, List<Object>> exec2NodePort) {
+        return exec2NodePort;
+    }
+
+    /**
+     * Get an aggregation, computing it if it is not cached for the given version or is too old. Only one caller computes a given
+     * key, the others wait for its result, and nothing else in the cache is locked while it does.
+     *
+     * @param key what was aggregated, starting with the topology id.
+     * @param version the version of the stats, from {@link #version(Map)}.
+     * @param aggregate computes the aggregation, reading the heartbeats it needs.
+     * @return a copy of the aggregation, which the caller may modify.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends TBase<T, ?>> T get(List<Object> key, Object version, Supplier<T> aggregate) {
+        VersionedStats cached = cache.getIfPresent(key);
+        if (cached != null && !cached.version.equals(version)) {
+            cache.asMap().remove(key, cached);
+        }
+        AtomicBoolean computed = new AtomicBoolean();
+        try {
+            cached = cache.get(key, () -> {
+                computed.set(true);
+                return new VersionedStats(version, aggregate.get());
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        if (computed.get()) {
+            misses.mark();
+        } else {
+            hits.mark();
+        }
+        return ((T) cached.value).deepCopy();
+    }
+
+    /**
+     * Drop the aggregations of a topology.
+     */
+    public void removeTopo(String topoId) {
+        cache.asMap().keySet().removeIf((key) -> topoId.equals(key.get(0)));
+    }
+
+    private static class VersionedStats {
+        private final Object version;
+        private final Object value;
+
+        VersionedStats(Object version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
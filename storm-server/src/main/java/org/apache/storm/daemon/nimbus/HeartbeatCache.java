@@ -26,6 +26,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import org.apache.storm.generated.Assignment;
 import org.apache.storm.generated.ExecutorInfo;
@@ -39,53 +43,205 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Holds a cache of heartbeats from the workers.
+ *
+ * <p>The state of the executors of a topology is kept in arrays of ints that are updated without locking, and an executor is put on a
+ * timer wheel for the time it would time out, so timing out executors only looks at the ones whose time has come, not at all of them.
  */
 public class HeartbeatCache {
     private static final Logger LOG = LoggerFactory.getLogger(HeartbeatCache.class);
-    private static final Function<String, ConcurrentHashMap<List<Integer>, ExecutorCache>> MAKE_MAP = (k) -> new ConcurrentHashMap<>();
+    private static final Function<String, TopologyCache> MAKE_CACHE = (k) -> new TopologyCache();
+    // a bucket of the timer wheel for each second, a timeout longer than that goes around the wheel more than once
+    private static final int WHEEL_SIZE = 64;
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int MAX_CHUNKS = 1024;
+
+    /**
+     * The state of a fixed number of executors, a chunk never moves so it can be updated while more are added.
+     */
+    private static class Chunk {
+        // the time the executor reported in its last heartbeat
+        private final AtomicIntegerArray reportedTimeSecs = new AtomicIntegerArray(CHUNK_SIZE);
+        // the time nimbus saw the reported time change
+        private final AtomicIntegerArray nimbusTimeSecs = new AtomicIntegerArray(CHUNK_SIZE);
+        // 1 if the executor timed out
+        private final AtomicIntegerArray timedOut = new AtomicIntegerArray(CHUNK_SIZE);
+        // 1 if the executor is on the timer wheel
+        private final AtomicIntegerArray scheduled = new AtomicIntegerArray(CHUNK_SIZE);
+    }
 
-    private static class ExecutorCache {
-        private Boolean isTimedOut;
-        private Integer nimbusTimeSecs;
-        private Integer executorReportedTimeSecs;
+    private static class TopologyCache {
+        // executor -> the index of its state in the chunks
+        private final ConcurrentHashMap<List<Integer>, Integer> slots = new ConcurrentHashMap<>();
+        private final AtomicInteger numSlots = new AtomicInteger();
+        private final AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+        private final ConcurrentLinkedQueue<Integer>[] wheel;
+        private volatile int timeoutSecs = Integer.MAX_VALUE;
+        // the wheel was turned up to this time, only changed when holding the lock of the cache
+        private volatile int expiredToSecs;
 
-        ExecutorCache(Map<String, Object> newBeat) {
-            if (newBeat != null) {
-                executorReportedTimeSecs = (Integer) newBeat.getOrDefault(ClientStatsUtil.TIME_SECS, 0);
-            } else {
-                executorReportedTimeSecs = 0;
+        @SuppressWarnings("unchecked")
+        TopologyCache() {
+            wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel[i] = new ConcurrentLinkedQueue<>();
             }
+            expiredToSecs = Time.currentTimeSecs();
+        }
+
+        private Chunk chunk(int slot) {
+            return chunks.get(slot >>> CHUNK_SHIFT);
+        }
 
-            nimbusTimeSecs = Time.currentTimeSecs();
-            isTimedOut = false;
+        private int newSlot(int reportedTimeSecs, int nowSecs) {
+            int slot = numSlots.getAndIncrement();
+            int chunkIndex = slot >>> CHUNK_SHIFT;
+            if (chunkIndex >= MAX_CHUNKS) {
+                throw new IllegalStateException("Too many executors to cache heartbeats for: " + slot);
+            }
+            if (chunks.get(chunkIndex) == null) {
+                chunks.compareAndSet(chunkIndex, null, new Chunk());
+            }
+            Chunk chunk = chunks.get(chunkIndex);
+            int i = slot & (CHUNK_SIZE - 1);
+            chunk.reportedTimeSecs.set(i, reportedTimeSecs);
+            chunk.nimbusTimeSecs.set(i, nowSecs);
+            schedule(slot, chunk, false);
+            return slot;
         }
 
-        public synchronized Boolean isTimedOut() {
-            return isTimedOut;
+        /**
+         * Put an executor on the timer wheel for the time it would time out.
+         *
+         * @param force put it on even if it is on already, e.g. because the timeout got shorter.
+         */
+        private void schedule(int slot, Chunk chunk, boolean force) {
+            int i = slot & (CHUNK_SIZE - 1);
+            if (force) {
+                chunk.scheduled.set(i, 1);
+            } else if (!chunk.scheduled.compareAndSet(i, 0, 1)) {
+                return;
+            }
+            // the part of the wheel that was turned already is not looked at until the wheel comes around again
+            long deadline = Math.max((long) chunk.nimbusTimeSecs.get(i) + timeoutSecs, (long) expiredToSecs + 1);
+            wheel[(int) (deadline & (WHEEL_SIZE - 1))].add(slot);
         }
 
-        public synchronized Integer getNimbusTimeSecs() {
-            return nimbusTimeSecs;
+        void setTimeout(int newTimeoutSecs, int nowSecs) {
+            if (newTimeoutSecs == timeoutSecs) {
+                return;
+            }
+            synchronized (this) {
+                int oldTimeoutSecs = timeoutSecs;
+                timeoutSecs = newTimeoutSecs;
+                if (newTimeoutSecs < oldTimeoutSecs) {
+                    // the executors would come up on the wheel too late
+                    for (int slot = 0; slot < numSlots.get(); slot++) {
+                        Chunk chunk = chunk(slot);
+                        if (chunk != null && !checkTimedOut(chunk, slot & (CHUNK_SIZE - 1), nowSecs)) {
+                            schedule(slot, chunk, true);
+                        }
+                    }
+                } else {
+                    // the executors that are not too old anymore are alive again until their new time comes
+                    for (int slot = 0; slot < numSlots.get(); slot++) {
+                        Chunk chunk = chunk(slot);
+                        int i = slot & (CHUNK_SIZE - 1);
+                        if (chunk != null && chunk.timedOut.get(i) == 1 && nowSecs - chunk.nimbusTimeSecs.get(i) < newTimeoutSecs) {
+                            chunk.timedOut.set(i, 0);
+                            schedule(slot, chunk, false);
+                        }
+                    }
+                }
+            }
         }
 
-        public synchronized void updateTimeout(Integer timeout) {
-            isTimedOut = Time.deltaSecs(getNimbusTimeSecs()) >= timeout;
+        void update(List<Integer> executor, Map<String, Object> newBeat, int nowSecs) {
+            int reportedTimeSecs = newBeat == null ? 0 : (Integer) newBeat.getOrDefault(ClientStatsUtil.TIME_SECS, 0);
+            Integer slot = slots.get(executor);
+            if (slot == null) {
+                slots.computeIfAbsent(executor, (k) -> newSlot(reportedTimeSecs, nowSecs));
+                return;
+            }
+            if (newBeat == null) {
+                return;
+            }
+            Chunk chunk = chunk(slot);
+            int i = slot & (CHUNK_SIZE - 1);
+            if (chunk.reportedTimeSecs.getAndSet(i, reportedTimeSecs) != reportedTimeSecs) {
+                // the time the executor timed out at is written before it is not timed out anymore, see expire
+                chunk.nimbusTimeSecs.set(i, nowSecs);
+                chunk.timedOut.set(i, 0);
+                schedule(slot, chunk, false);
+            }
         }
 
-        public synchronized void updateFromHb(Integer timeout, Map<String, Object> newBeat) {
-            if (newBeat != null) {
-                Integer newReportedTime = (Integer) newBeat.getOrDefault(ClientStatsUtil.TIME_SECS, 0);
-                if (!newReportedTime.equals(executorReportedTimeSecs)) {
-                    nimbusTimeSecs = Time.currentTimeSecs();
+        /**
+         * Turn the timer wheel up to now, and time out the executors that came up on it and did not get a new heartbeat.
+         */
+        synchronized void expire(int nowSecs) {
+            if (nowSecs <= expiredToSecs) {
+                return;
+            }
+            List<Integer> later = new ArrayList<>();
+            for (int secs = Math.max(expiredToSecs + 1, nowSecs - WHEEL_SIZE + 1); secs <= nowSecs; secs++) {
+                ConcurrentLinkedQueue<Integer> bucket = wheel[secs & (WHEEL_SIZE - 1)];
+                Integer slot;
+                while ((slot = bucket.poll()) != null) {
+                    Chunk chunk = chunk(slot);
+                    int i = slot & (CHUNK_SIZE - 1);
+                    chunk.scheduled.set(i, 0);
+                    if (!checkTimedOut(chunk, i, nowSecs)) {
+                        later.add(slot);
+                    }
                 }
-                executorReportedTimeSecs = newReportedTime;
             }
-            updateTimeout(timeout);
+            expiredToSecs = nowSecs;
+            for (Integer slot : later) {
+                schedule(slot, chunk(slot), false);
+            }
+        }
+
+        /**
+         * Time out an executor if it did not get a new heartbeat for too long.
+         *
+         * @return true if it timed out, false if it has to be looked at again later.
+         */
+        private boolean checkTimedOut(Chunk chunk, int i, int nowSecs) {
+            int nimbusTimeSecs = chunk.nimbusTimeSecs.get(i);
+            if (nowSecs - nimbusTimeSecs < timeoutSecs) {
+                return false;
+            }
+            chunk.timedOut.set(i, 1);
+            if (chunk.nimbusTimeSecs.get(i) != nimbusTimeSecs) {
+                // a heartbeat came in while it was timed out
+                chunk.timedOut.set(i, 0);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Check if an executor timed out.
+         *
+         * @return null if the executor never had a heartbeat.
+         */
+        Boolean isTimedOut(List<Integer> executor) {
+            Integer slot = slots.get(executor);
+            if (slot == null) {
+                return null;
+            }
+            return chunk(slot).timedOut.get(slot & (CHUNK_SIZE - 1)) == 1;
+        }
+
+        @Override
+        public String toString() {
+            return numSlots.get() + " executors, timeout " + timeoutSecs + " secs";
         }
     }
 
-    //Topology Id -> executor ids -> component -> stats(...)
-    private final ConcurrentHashMap<String, ConcurrentHashMap<List<Integer>, ExecutorCache>> cache;
+    //Topology Id -> executor ids -> heartbeat state
+    private final ConcurrentHashMap<String, TopologyCache> cache;
 
     /**
      * Create an empty cache.
@@ -100,7 +256,7 @@ public class HeartbeatCache {
      */
     @VisibleForTesting
     public void addEmptyTopoForTests(String topoId) {
-        cache.put(topoId, new ConcurrentHashMap<>());
+        cache.put(topoId, new TopologyCache());
     }
 
     /**
@@ -130,15 +286,16 @@ public class HeartbeatCache {
     }
 
     /**
-     * Go through all executors and time them out if needed.
+     * Time out the executors that did not get a new heartbeat for too long. Only the executors that could have timed out since the
+     * last time are looked at.
      * @param topoId the id of the topology to look at.
      * @param taskTimeoutSecs the timeout to know if they are too old.
      */
     public void timeoutOldHeartbeats(String topoId, Integer taskTimeoutSecs) {
-        Map<List<Integer>, ExecutorCache> topoCache = cache.computeIfAbsent(topoId, MAKE_MAP);
-        for (ExecutorCache ec : topoCache.values()) {
-            ec.updateTimeout(taskTimeoutSecs);
-        }
+        TopologyCache topoCache = cache.computeIfAbsent(topoId, MAKE_CACHE);
+        int nowSecs = Time.currentTimeSecs();
+        topoCache.setTimeout(taskTimeoutSecs, nowSecs);
+        topoCache.expire(nowSecs);
     }
 
     /**
@@ -150,16 +307,16 @@ public class HeartbeatCache {
      */
     public void updateFromZkHeartbeat(String topoId, Map<List<Integer>, Map<String, Object>> executorBeats,
                                       Set<List<Integer>> allExecutors, Integer timeout) {
-        Map<List<Integer>, ExecutorCache> topoCache = cache.computeIfAbsent(topoId, MAKE_MAP);
+        TopologyCache topoCache = cache.computeIfAbsent(topoId, MAKE_CACHE);
         if (executorBeats == null) {
             executorBeats = new HashMap<>();
         }
-
+        int nowSecs = Time.currentTimeSecs();
+        topoCache.setTimeout(timeout, nowSecs);
         for (List<Integer> executor : allExecutors) {
-            final Map<String, Object> newBeat = executorBeats.get(executor);
-            ExecutorCache currBeat = topoCache.computeIfAbsent(executor, (k) -> new ExecutorCache(newBeat));
-            currBeat.updateFromHb(timeout, newBeat);
+            topoCache.update(executor, executorBeats.get(executor), nowSecs);
         }
+        topoCache.expire(nowSecs);
     }
 
     /**
@@ -170,13 +327,12 @@ public class HeartbeatCache {
     public void updateHeartbeat(SupervisorWorkerHeartbeat workerHeartbeat, Integer taskTimeoutSecs) {
         Map<List<Integer>, Map<String, Object>> executorBeats = StatsUtil.convertWorkerBeats(workerHeartbeat);
         String topoId = workerHeartbeat.get_storm_id();
-        Map<List<Integer>, ExecutorCache> topoCache = cache.computeIfAbsent(topoId, MAKE_MAP);
-
+        TopologyCache topoCache = cache.computeIfAbsent(topoId, MAKE_CACHE);
+        int nowSecs = Time.currentTimeSecs();
+        topoCache.setTimeout(taskTimeoutSecs, nowSecs);
         for (ExecutorInfo executorInfo : workerHeartbeat.get_executors()) {
             List<Integer> executor = Arrays.asList(executorInfo.get_task_start(), executorInfo.get_task_end());
-            final Map<String, Object> newBeat = executorBeats.get(executor);
-            ExecutorCache currBeat = topoCache.computeIfAbsent(executor, (k) -> new ExecutorCache(newBeat));
-            currBeat.updateFromHb(taskTimeoutSecs, newBeat);
+            topoCache.update(executor, executorBeats.get(executor), nowSecs);
         }
     }
 
@@ -189,9 +345,10 @@ public class HeartbeatCache {
      * @return the set of tasks that are alive.
      */
     public Set<List<Integer>> getAliveExecutors(String topoId, Set<List<Integer>> allExecutors, Assignment assignment, int taskLaunchSecs) {
-        Map<List<Integer>, ExecutorCache> topoCache = cache.computeIfAbsent(topoId, MAKE_MAP);
+        TopologyCache topoCache = cache.computeIfAbsent(topoId, MAKE_CACHE);
         LOG.debug("Computing alive executors for {}\nExecutors: {}\nAssignment: {}\nHeartbeat cache: {}",
             topoId, allExecutors, assignment, topoCache);
+        topoCache.expire(Time.currentTimeSecs());
 
         Set<List<Integer>> ret = new HashSet<>();
         Map<List<Long>, Long> execToStartTimes = assignment.get_executor_start_time_secs();
@@ -203,9 +360,9 @@ public class HeartbeatCache {
             }
 
             Long startTime = execToStartTimes.get(longExec);
-            ExecutorCache executorCache = topoCache.get(exec);
+            Boolean executorTimedOut = topoCache.isTimedOut(exec);
             //null isTimedOut means worker never reported any heartbeat
-            boolean isTimedOut = executorCache == null ? true : executorCache.isTimedOut();
+            boolean isTimedOut = executorTimedOut == null ? true : executorTimedOut;
             Integer delta = startTime == null ? null : Time.deltaSecs(startTime.intValue());
             if (startTime != null && ((delta < taskLaunchSecs) || !isTimedOut)) {
                 ret.add(exec);
@@ -32,6 +32,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.BindException;
 import java.net.ServerSocket;
 import java.nio.ByteBuffer;
@@ -52,6 +53,9 @@ import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -66,6 +70,7 @@ import org.apache.storm.Constants;
 import org.apache.storm.DaemonConfig;
 import org.apache.storm.StormTimer;
 import org.apache.storm.blobstore.AtomicOutputStream;
+import org.apache.storm.blobstore.BlobChunkManifest;
 import org.apache.storm.blobstore.BlobStore;
 import org.apache.storm.blobstore.BlobStoreAclHandler;
 import org.apache.storm.blobstore.InputStreamWithMeta;
@@ -143,6 +148,7 @@ import org.apache.storm.generated.WorkerMetricPoint;
 import org.apache.storm.generated.WorkerMetrics;
 import org.apache.storm.generated.WorkerResources;
 import org.apache.storm.generated.WorkerSummary;
+import org.apache.storm.logging.AutoscaleAuditLogger;
 import org.apache.storm.logging.ThriftAccessLogger;
 import org.apache.storm.metric.ClusterMetricsConsumerExecutor;
 import org.apache.storm.metric.StormMetricsRegistry;
@@ -157,15 +163,18 @@ import org.apache.storm.nimbus.AssignmentDistributionService;
 import org.apache.storm.nimbus.DefaultTopologyValidator;
 import org.apache.storm.nimbus.ILeaderElector;
 import org.apache.storm.nimbus.ITopologyActionNotifierPlugin;
+import org.apache.storm.nimbus.ITopologyAutoscaler;
 import org.apache.storm.nimbus.ITopologyValidator;
 import org.apache.storm.nimbus.IWorkerHeartbeatsRecoveryStrategy;
 import org.apache.storm.nimbus.NimbusInfo;
+import org.apache.storm.nimbus.TopologyScalingInfo;
 import org.apache.storm.nimbus.WorkerHeartbeatsRecoveryStrategyFactory;
 import org.apache.storm.scheduler.Cluster;
 import org.apache.storm.scheduler.DefaultScheduler;
 import org.apache.storm.scheduler.ExecutorDetails;
 import org.apache.storm.scheduler.INimbus;
 import org.apache.storm.scheduler.IScheduler;
+import org.apache.storm.scheduler.MeasuredTraffic;
 import org.apache.storm.scheduler.SchedulerAssignment;
 import org.apache.storm.scheduler.SchedulerAssignmentImpl;
 import org.apache.storm.scheduler.SupervisorDetails;
@@ -179,6 +188,7 @@ import org.apache.storm.scheduler.resource.ResourceAwareScheduler;
 import org.apache.storm.scheduler.resource.ResourceUtils;
 import org.apache.storm.scheduler.resource.normalization.NormalizedResourceRequest;
 import org.apache.storm.scheduler.resource.normalization.ResourceMetrics;
+import org.apache.storm.scheduler.resource.strategies.scheduling.BaseResourceAwareStrategy;
 import org.apache.storm.security.INimbusCredentialPlugin;
 import org.apache.storm.security.auth.ClientAuthUtils;
 import org.apache.storm.security.auth.IAuthorizer;
@@ -195,6 +205,7 @@ import org.apache.storm.shade.com.google.common.base.Strings;
 import org.apache.storm.shade.com.google.common.collect.ImmutableMap;
 import org.apache.storm.shade.com.google.common.collect.MapDifference;
 import org.apache.storm.shade.com.google.common.collect.Maps;
+import org.apache.storm.shade.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.storm.shade.org.apache.curator.framework.CuratorFramework;
 import org.apache.storm.shade.org.apache.zookeeper.ZooDefs;
 import org.apache.storm.shade.org.apache.zookeeper.data.ACL;
@@ -313,6 +324,7 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         state.removeStorm(topoId);
         notifySupervisorsAsKilled(state, oldAssignment, nimbus.getAssignmentsDistributer(), nimbus.getMetricsRegistry());
         nimbus.heartbeatsCache.removeTopo(topoId);
+        nimbus.aggregatedStatsCache.removeTopo(topoId);
         nimbus.getIdToExecutors().getAndUpdate(new Dissoc<>(topoId));
         return null;
     };
@@ -419,6 +431,21 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
     private final Object schedLock = new Object();
     private final Object credUpdateLock = new Object();
     private final HeartbeatCache heartbeatsCache;
+    // null if the heartbeats from supervisors are handled on the thrift threads
+    private final ThreadPoolExecutor supervisorHeartbeatsExecutor;
+    private final AggregatedStatsCache aggregatedStatsCache;
+    // Traffic measured right before a topology is rebalanced, for scheduling it
+    private final Map<String, MeasuredTraffic> measuredTrafficForRebalance = new ConcurrentHashMap<>();
+    private final boolean incrementalAssignments;
+    private final long incrementalAssignmentsFullRoundNs;
+    // Topologies that changed since the last round of scheduling
+    private final Set<String> dirtyTopologies = ConcurrentHashMap.newKeySet();
+    // Topology details reused across rounds of scheduling until the storm base of the topology changes
+    private final Map<String, CachedTopologyDetails> topologyDetailsCache = new ConcurrentHashMap<>();
+    // What the last round of scheduling ran with, guarded by schedLock
+    private Set<String> lastScheduledTopologyIds;
+    private Map<String, List<Object>> lastScheduledSupervisors;
+    private long lastSchedulingRoundNs;
     private final AtomicBoolean heartbeatsReadyFlag;
     private final IWorkerHeartbeatsRecoveryStrategy heartbeatsRecoveryStrategy;
     @SuppressWarnings("deprecation")
@@ -453,6 +480,7 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
     private final LocalState topologyHistoryState;
     private final Collection<INimbusCredentialPlugin> nimbusAutocredPlugins;
     private final ITopologyActionNotifierPlugin nimbusTopologyActionNotifier;
+    private final ITopologyAutoscaler topologyAutoscaler;
     private final List<ClusterMetricsConsumerExecutor> clusterConsumerExceutors;
     private final IGroupMappingServiceProvider groupMapper;
     private final IPrincipalToLocal principalToLocal;
@@ -559,10 +587,24 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             StormCommon.mkAuthorizationHandler((String) conf.get(DaemonConfig.NIMBUS_IMPERSONATION_AUTHORIZER), conf);
         this.submittedCount = new AtomicLong(0);
         if (stormClusterState == null) {
-            stormClusterState = makeStormClusterState(conf);
+            stormClusterState = makeStormClusterState(conf, metricsRegistry);
         }
         this.stormClusterState = stormClusterState;
         this.heartbeatsCache = new HeartbeatCache();
+        int supervisorHeartbeatsThreads = ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_SUPERVISOR_HEARTBEATS_THREADS), 2);
+        if (supervisorHeartbeatsThreads > 0 && !ConfigUtils.isLocalMode(conf)) {
+            int queueSize = ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_SUPERVISOR_HEARTBEATS_QUEUE_SIZE), 1000);
+            this.supervisorHeartbeatsExecutor = new ThreadPoolExecutor(supervisorHeartbeatsThreads, supervisorHeartbeatsThreads,
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("nimbus-supervisor-heartbeats-%d").build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+            metricsRegistry.registerGauge("nimbus:supervisor-heartbeats-queue-size", () -> supervisorHeartbeatsExecutor.getQueue().size());
+        } else {
+            this.supervisorHeartbeatsExecutor = null;
+        }
+        this.aggregatedStatsCache = new AggregatedStatsCache(
+            ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_AGGREGATED_STATS_CACHE_SIZE), 1000),
+            ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_AGGREGATED_STATS_CACHE_TTL_SECS), 10), metricsRegistry);
         this.heartbeatsReadyFlag = new AtomicBoolean(false);
         this.heartbeatsRecoveryStrategy = WorkerHeartbeatsRecoveryStrategyFactory.getStrategy(conf);
         this.downloaders = fileCacheMap(conf);
@@ -600,6 +642,9 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         this.topoCache = topoCache;
         this.assignmentsDistributer = AssignmentDistributionService.getInstance(conf, this.scheduler);
         this.idToSchedStatus = new AtomicReference<>(new HashMap<>());
+        this.incrementalAssignments = ObjectReader.getBoolean(conf.get(DaemonConfig.NIMBUS_INCREMENTAL_ASSIGNMENTS_ENABLE), false);
+        this.incrementalAssignmentsFullRoundNs = TimeUnit.SECONDS.toNanos(
+            ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_INCREMENTAL_ASSIGNMENTS_FULL_ROUND_SECS), 60));
         this.nodeIdToResources = new AtomicReference<>(new HashMap<>());
         this.idToResources = new AtomicReference<>(new HashMap<>());
         this.idToWorkerResources = new AtomicReference<>(new HashMap<>());
@@ -608,6 +653,7 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         this.topologyHistoryState = ServerConfigUtils.nimbusTopoHistoryState(conf);
         this.nimbusAutocredPlugins = ClientAuthUtils.getNimbusAutoCredPlugins(conf);
         this.nimbusTopologyActionNotifier = createTopologyActionNotifier(conf);
+        this.topologyAutoscaler = createTopologyAutoscaler(conf);
         this.clusterConsumerExceutors = makeClusterMetricsConsumerExecutors(conf);
         if (groupMapper == null) {
             groupMapper = ClientAuthUtils.getGroupMappingServiceProviderPlugin(conf);
@@ -723,6 +769,21 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         return ret;
     }
 
+    private static ITopologyAutoscaler createTopologyAutoscaler(Map<String, Object> conf) {
+        String clazz = (String) conf.get(DaemonConfig.NIMBUS_TOPOLOGY_AUTOSCALER_PLUGIN);
+        ITopologyAutoscaler ret = null;
+        if (clazz != null && !clazz.isEmpty()) {
+            ret = ReflectionUtils.newInstance(clazz);
+            try {
+                ret.prepare(conf);
+            } catch (Exception e) {
+                LOG.warn("Ignoring exception, Could not initialize {}", clazz, e);
+                ret = null;
+            }
+        }
+        return ret;
+    }
+
     @SuppressWarnings("unchecked")
     private static List<ClusterMetricsConsumerExecutor> makeClusterMetricsConsumerExecutors(Map<String, Object> conf) {
         Collection<Map<String, Object>> consumers = (Collection<Map<String, Object>>) conf.get(
@@ -1427,6 +1488,19 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                     }
                 });
 
+            if (topologyAutoscaler != null) {
+                timer.scheduleRecurring(0, ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_TOPOLOGY_AUTOSCALER_FREQ_SECS), 60),
+                    () -> {
+                        try {
+                            if (isLeader()) {
+                                autoscaleTopologies();
+                            }
+                        } catch (Exception e) {
+                            LOG.warn("Failed to autoscale topologies", e);
+                        }
+                    });
+            }
+
             metricsRegistry.registerGauge("nimbus:total-available-memory-non-negative", () -> nodeIdToResources.get().values()
                     .parallelStream()
                     .mapToDouble(supervisorResources -> Math.max(supervisorResources.getAvailableMem(), 0))
@@ -1529,8 +1603,12 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         return ret;
     }
 
-    private static IStormClusterState makeStormClusterState(Map<String, Object> conf) throws Exception {
-        return ClusterUtils.mkStormClusterState(conf, new ClusterStateContext(DaemonType.NIMBUS, conf));
+    private static IStormClusterState makeStormClusterState(Map<String, Object> conf, StormMetricsRegistry metricsRegistry)
+        throws Exception {
+        ClusterStateContext context = new ClusterStateContext(DaemonType.NIMBUS, conf);
+        IStormClusterState ret = ClusterUtils.mkStormClusterState(conf, context);
+        metricsRegistry.registerAll(context.getMetrics());
+        return ret;
     }
 
     private static List<Integer> asIntExec(List<Long> exec) {
@@ -1583,21 +1661,18 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
     }
 
     /**
-     * Pick out assignments for a specific host from all assignments.  This could include multiple NUMA
-     * supervisors on an individual host.
+     * Group all assignments by the hosts they are assigned to, in a single pass over the assignments. A host could
+     * include multiple NUMA supervisors.
      * @param assignmentMap stormId -> assignment map
-     * @param hostname        hostname
-     * @return stormId -> assignment map for the node
+     * @return hostname -> stormId -> assignment map for the host
      */
-    private static Map<String, Assignment> assignmentsForHost(Map<String, Assignment> assignmentMap, String hostname) {
-        Map<String, Assignment> ret = new HashMap<>();
-
-        assignmentMap.entrySet().stream().filter(assignmentEntry -> assignmentEntry.getValue().get_node_host().values()
-                .contains(hostname))
-                .forEach(assignmentEntry -> {
-                    ret.put(assignmentEntry.getKey(), assignmentEntry.getValue());
-                });
-
+    private static Map<String, Map<String, Assignment>> assignmentsByHost(Map<String, Assignment> assignmentMap) {
+        Map<String, Map<String, Assignment>> ret = new HashMap<>();
+        for (Entry<String, Assignment> assignmentEntry : assignmentMap.entrySet()) {
+            for (String hostname : new HashSet<>(assignmentEntry.getValue().get_node_host().values())) {
+                ret.computeIfAbsent(hostname, (host) -> new HashMap<>()).put(assignmentEntry.getKey(), assignmentEntry.getValue());
+            }
+        }
         return ret;
     }
 
@@ -1634,12 +1709,13 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                                                      AssignmentDistributionService service, Map<String, String> nodeHost,
                                                      Map<String, SupervisorDetails> supervisorDetails,
                                                      StormMetricsRegistry metricsRegistry) {
+        Map<String, Map<String, Assignment>> hostAssignments = assignmentsByHost(assignments);
         for (Map.Entry<String, String> nodeEntry : nodeHost.entrySet()) {
             try {
                 String nodeId = nodeEntry.getKey();
                 String hostname = nodeEntry.getValue();
                 SupervisorAssignments supervisorAssignments = new SupervisorAssignments();
-                supervisorAssignments.set_storm_assignment(assignmentsForHost(assignments, hostname));
+                supervisorAssignments.set_storm_assignment(hostAssignments.getOrDefault(hostname, new HashMap<>()));
                 SupervisorDetails details = supervisorDetails.get(nodeId);
                 Integer serverPort = details != null ? details.getServerPort() : null;
                 service.addAssignmentsForNode(nodeId, nodeEntry.getValue(), serverPort, supervisorAssignments, metricsRegistry);
@@ -1750,6 +1826,8 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
 
     void doRebalance(String topoId, StormBase stormBase) throws Exception {
         RebalanceOptions rbo = stormBase.get_topology_action_options().get_rebalance_options();
+        // taken out of the conf overrides before they are stored with the topology conf
+        final Boolean inPlaceOverride = takeRebalanceInPlaceOverride(rbo);
         StormBase updated = new StormBase();
         updated.set_topology_action_options(null);
         updated.set_component_debug(Collections.emptyMap());
@@ -1764,7 +1842,275 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         stormClusterState.updateStorm(topoId, updated);
         updateBlobStore(topoId, rbo, ServerUtils.principalNameToSubject(rbo.get_principal()));
         idToExecutors.getAndUpdate(new Dissoc<>(topoId)); // remove the executors cache to let it recompute.
-        mkAssignments(topoId);
+        // the conf or resources may have changed without the base changing
+        topologyDetailsCache.remove(topoId);
+        // an in place rebalance keeps the current assignment, so only the workers of moved executors restart
+        boolean inPlace = inPlaceOverride != null ? inPlaceOverride : isRebalanceInPlace(topoId);
+        if (inPlace && !canRebalanceInPlace(rbo)) {
+            LOG.info("Rebalancing {} from scratch, an in place rebalance can only change the number of executors", topoId);
+            inPlace = false;
+        }
+        String scratchTopoId = inPlace ? null : topoId;
+        MeasuredTraffic traffic = measureTraffic(topoId);
+        if (traffic == null) {
+            mkAssignments(scratchTopoId);
+            return;
+        }
+        Assignment previousAssignment = stormClusterState.assignmentInfo(topoId, null);
+        measuredTrafficForRebalance.put(topoId, traffic);
+        try {
+            mkAssignments(scratchTopoId);
+        } finally {
+            measuredTrafficForRebalance.remove(topoId);
+        }
+        logTrafficChange(topoId, traffic, previousAssignment, stormClusterState.assignmentInfo(topoId, null));
+    }
+
+    /**
+     * Remove {@link Config#TOPOLOGY_REBALANCE_IN_PLACE} from the configuration overrides of a rebalance, so that it only applies to
+     * this rebalance and is not written to the configuration of the topology.
+     *
+     * @param rbo the options of the rebalance.
+     * @return whether the rebalance asked to be in place, null if it did not say.
+     */
+    static Boolean takeRebalanceInPlaceOverride(RebalanceOptions rbo) {
+        if (!rbo.is_set_topology_conf_overrides()) {
+            return null;
+        }
+        Map<String, Object> confOverrides = Utils.parseJson(rbo.get_topology_conf_overrides());
+        if (!confOverrides.containsKey(Config.TOPOLOGY_REBALANCE_IN_PLACE)) {
+            return null;
+        }
+        Object inPlace = confOverrides.remove(Config.TOPOLOGY_REBALANCE_IN_PLACE);
+        rbo.set_topology_conf_overrides(confOverrides.isEmpty() ? null : JSONValue.toJSONString(confOverrides));
+        return ObjectReader.getBoolean(inPlace, false);
+    }
+
+    /**
+     * An in place rebalance keeps the slots of the executors that are still assigned, so it can only honor a change of the number of
+     * executors. Fewer workers, new resources or a new configuration could require moving the executors that stay, which only a
+     * rebalance from scratch does.
+     *
+     * @param rbo the options of the rebalance, without {@link Config#TOPOLOGY_REBALANCE_IN_PLACE} in its configuration overrides.
+     * @return whether the rebalance can keep the current assignment.
+     */
+    static boolean canRebalanceInPlace(RebalanceOptions rbo) {
+        Map<String, Map<String, Double>> resourceOverrides = rbo.get_topology_resources_overrides();
+        String confOverrides = rbo.get_topology_conf_overrides();
+        return !rbo.is_set_num_workers()
+            && (resourceOverrides == null || resourceOverrides.isEmpty())
+            && (confOverrides == null || confOverrides.isEmpty());
+    }
+
+    private boolean isRebalanceInPlace(String topoId) {
+        try {
+            Map<String, Object> topoConf = readTopoConfAsNimbus(topoId, topoCache);
+            return ObjectReader.getBoolean(topoConf.get(Config.TOPOLOGY_REBALANCE_IN_PLACE), false);
+        } catch (Exception e) {
+            LOG.warn("Could not read the configuration of {}, rebalancing it from scratch", topoId, e);
+            return false;
+        }
+    }
+
+    private void autoscaleTopologies() throws Exception {
+        double availableCpu = 0.0;
+        double availableMemory = 0.0;
+        for (SupervisorResources resources : nodeIdToResources.get().values()) {
+            availableCpu += Math.max(resources.getAvailableCpu(), 0.0);
+            availableMemory += Math.max(resources.getAvailableMem(), 0.0);
+        }
+        for (Entry<String, StormBase> entry : stormClusterState.topologyBases().entrySet()) {
+            String topoId = entry.getKey();
+            StormBase base = entry.getValue();
+            if (base.get_status() != TopologyStatus.ACTIVE) {
+                continue;
+            }
+            Map<String, Integer> numExecutors = null;
+            try {
+                Map<String, Object> topoConf = Utils.merge(conf, readTopoConfAsNimbus(topoId, topoCache));
+                if (!ObjectReader.getBoolean(topoConf.get(Config.TOPOLOGY_AUTOSCALE_ENABLE), false)) {
+                    continue;
+                }
+                TopologyScalingInfo info = getTopologyScalingInfo(topoId, base, topoConf, availableCpu, availableMemory);
+                if (info == null) {
+                    continue;
+                }
+                Map<String, Integer> changes = topologyAutoscaler.autoscale(info);
+                if (changes == null || changes.isEmpty()) {
+                    continue;
+                }
+                numExecutors = new HashMap<>();
+                for (Entry<String, Integer> change : changes.entrySet()) {
+                    String comp = change.getKey();
+                    Integer current = info.getComponentToExecutors().get(comp);
+                    Integer numTasks = info.getComponentToTasks().get(comp);
+                    if (current == null || numTasks == null || change.getValue() == null) {
+                        LOG.warn("Ignoring the autoscaling of unknown component {} of {}", comp, topoId);
+                        continue;
+                    }
+                    int target = Math.max(1, Math.min(change.getValue(), numTasks));
+                    if (target != current) {
+                        numExecutors.put(comp, target);
+                        AutoscaleAuditLogger.logScaling(topoId, comp, current, target, info.getComponentToCapacity().get(comp));
+                    }
+                }
+                if (numExecutors.isEmpty()) {
+                    continue;
+                }
+                RebalanceOptions options = new RebalanceOptions();
+                options.set_wait_secs(0);
+                options.set_num_executors(numExecutors);
+                validateNumExecutors(base.get_name(), readStormTopologyAsNimbus(topoId, topoCache), options);
+                // nimbus rebalances on behalf of the owner of the topology, the same as the owner calling rebalance
+                if (base.is_set_principal()) {
+                    options.set_principal(base.get_principal());
+                }
+                transition(topoId, TopologyActions.REBALANCE, options, true);
+                notifyTopologyActionListener(base.get_name(), "autoscale");
+            } catch (Exception e) {
+                LOG.warn("Failed to autoscale topology {}", topoId, e);
+                if (numExecutors != null && !numExecutors.isEmpty()) {
+                    AutoscaleAuditLogger.logFailure(topoId, numExecutors, e);
+                }
+            }
+        }
+    }
+
+    private TopologyScalingInfo getTopologyScalingInfo(String topoId, StormBase base, Map<String, Object> topoConf,
+                                                       double availableCpu, double availableMemory) throws Exception {
+        Assignment assignment = stormClusterState.assignmentInfo(topoId, null);
+        if (assignment == null) {
+            return null;
+        }
+        StormTopology topology = readStormTopologyAsNimbus(topoId, topoCache);
+        Map<String, Map<String, Object>> componentConfs = new HashMap<>();
+        for (Entry<String, SpoutSpec> spout : topology.get_spouts().entrySet()) {
+            componentConfs.put(spout.getKey(), Utils.parseJson(spout.getValue().get_common().get_json_conf()));
+        }
+        for (Entry<String, Bolt> bolt : topology.get_bolts().entrySet()) {
+            componentConfs.put(bolt.getKey(), Utils.parseJson(bolt.getValue().get_common().get_json_conf()));
+        }
+
+        Map<String, Integer> componentToExecutors = new HashMap<>();
+        for (Entry<String, Integer> entry : base.get_component_executors().entrySet()) {
+            if (!Utils.isSystemId(entry.getKey())) {
+                componentToExecutors.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Map<Integer, String> taskToComponent = StormCommon.stormTaskInfo(topology, topoConf);
+        Map<String, Integer> componentToTasks = new HashMap<>();
+        for (String comp : taskToComponent.values()) {
+            if (componentToExecutors.containsKey(comp)) {
+                componentToTasks.merge(comp, 1, Integer::sum);
+            }
+        }
+
+        Map<String, Double> componentToCapacity = new HashMap<>();
+        Map<List<Integer>, Map<String, Object>> beats =
+            StatsUtil.convertExecutorBeats(stormClusterState.executorBeats(topoId, assignment.get_executor_node_port()));
+        for (Entry<List<Integer>, Map<String, Object>> entry : beats.entrySet()) {
+            String comp = taskToComponent.get(entry.getKey().get(0));
+            if (comp != null && topology.get_bolts().containsKey(comp) && componentToExecutors.containsKey(comp)) {
+                componentToCapacity.merge(comp, StatsUtil.computeExecutorCapacity(entry.getValue()), Math::max);
+            }
+        }
+
+        Map<String, Double> componentToExecutorCpu = new HashMap<>();
+        Map<String, Double> componentToExecutorMemory = new HashMap<>();
+        // Not getTopologyDetails, the details it caches belong to the scheduling rounds that run under the schedLock
+        TopologyDetails td = readTopologyDetails(topoId, base);
+        for (Entry<ExecutorDetails, String> entry : td.getExecutorToComponent().entrySet()) {
+            String comp = entry.getValue();
+            Double cpu = td.getTotalCpuReqTask(entry.getKey());
+            Double memory = td.getTotalMemReqTask(entry.getKey());
+            if (componentToExecutors.containsKey(comp) && cpu != null && memory != null) {
+                componentToExecutorCpu.putIfAbsent(comp, cpu);
+                componentToExecutorMemory.putIfAbsent(comp, memory);
+            }
+        }
+        return new TopologyScalingInfo(topoId, base.get_name(), topoConf, componentConfs, componentToExecutors, componentToTasks,
+                                       componentToCapacity, componentToExecutorCpu, componentToExecutorMemory, availableCpu,
+                                       availableMemory);
+    }
+
+    /**
+     * Measure the tuples sent between the components of a topology over the last 10 minutes, if it asked to be scheduled by traffic.
+     *
+     * @param topoId the topology to measure.
+     * @return the measured traffic, or null if the topology does not use it or it could not be measured.
+     */
+    private MeasuredTraffic measureTraffic(String topoId) {
+        try {
+            Map<String, Object> topoConf = readTopoConfAsNimbus(topoId, topoCache);
+            Assignment assignment = stormClusterState.assignmentInfo(topoId, null);
+            if (!BaseResourceAwareStrategy.isOrderByTraffic(topoConf) || assignment == null) {
+                return null;
+            }
+            StormTopology topology = readStormTopologyAsNimbus(topoId, topoCache);
+            Map<Integer, String> taskToComponent = StormCommon.stormTaskInfo(topology, topoConf);
+            Map<List<Integer>, Map<String, Object>> beats =
+                StatsUtil.convertExecutorBeats(stormClusterState.executorBeats(topoId, assignment.get_executor_node_port()));
+            // component -> stream -> tuples per second
+            Map<String, Map<String, Double>> streamRates = new HashMap<>();
+            for (Entry<List<Integer>, Map<String, Object>> entry : beats.entrySet()) {
+                String component = taskToComponent.get(entry.getKey().get(0));
+                Map<String, Object> heartbeat = entry.getValue();
+                Map stats = (Map) heartbeat.get("stats");
+                int window = Math.min(ObjectReader.getInt(heartbeat.get("uptime"), 0), StatsUtil.TEN_MIN_IN_SECONDS);
+                if (component == null || stats == null || window <= 0) {
+                    continue;
+                }
+                Map<String, Long> transferred = StatsUtil.thriftifyExecutorStats(stats).get_transferred()
+                    .get(StatsUtil.TEN_MIN_IN_SECONDS_STR);
+                if (transferred != null) {
+                    Map<String, Double> componentStreamRates = streamRates.computeIfAbsent(component, (k) -> new HashMap<>());
+                    transferred.forEach((stream, count) -> componentStreamRates.merge(stream, (double) count / window, Double::sum));
+                }
+            }
+            MeasuredTraffic traffic = MeasuredTraffic.fromStreamRates(topology, streamRates);
+            LOG.debug("Measured traffic of topology {}: {}", topoId, traffic);
+            return traffic;
+        } catch (Exception e) {
+            LOG.warn("Failed to measure the traffic of topology {}, rebalancing without it", topoId, e);
+            return null;
+        }
+    }
+
+    private void logTrafficChange(String topoId, MeasuredTraffic traffic, Assignment before, Assignment after) {
+        try {
+            Map<String, Object> topoConf = readTopoConfAsNimbus(topoId, topoCache);
+            Map<Integer, String> taskToComponent = StormCommon.stormTaskInfo(readStormTopologyAsNimbus(topoId, topoCache), topoConf);
+            double[] remoteBefore = estimateRemoteTraffic(traffic, taskToComponent, before);
+            double[] remoteAfter = estimateRemoteTraffic(traffic, taskToComponent, after);
+            LOG.info("Rebalanced topology {} with {} tuples/s measured between components. Expected tuples/s between workers {} -> {},"
+                    + " between nodes {} -> {}", topoId, String.format("%.1f", traffic.getTotalRate()),
+                String.format("%.1f", remoteBefore[0]), String.format("%.1f", remoteAfter[0]),
+                String.format("%.1f", remoteBefore[1]), String.format("%.1f", remoteAfter[1]));
+        } catch (Exception e) {
+            LOG.warn("Failed to estimate the traffic between workers of topology {}", topoId, e);
+        }
+    }
+
+    /**
+     * Estimate the tuples per second sent between workers and between nodes with an assignment.
+     *
+     * @return the tuples per second between workers and the tuples per second between nodes.
+     */
+    private static double[] estimateRemoteTraffic(MeasuredTraffic traffic, Map<Integer, String> taskToComponent, Assignment assignment) {
+        Map<ExecutorDetails, String> execToComp = new HashMap<>();
+        Map<ExecutorDetails, WorkerSlot> execToSlot = new HashMap<>();
+        if (assignment != null) {
+            for (Entry<List<Long>, NodeInfo> entry : assignment.get_executor_node_port().entrySet()) {
+                ExecutorDetails exec = new ExecutorDetails(entry.getKey().get(0).intValue(), entry.getKey().get(1).intValue());
+                NodeInfo nodeInfo = entry.getValue();
+                execToComp.put(exec, taskToComponent.get(exec.getStartTask()));
+                execToSlot.put(exec, new WorkerSlot(nodeInfo.get_node(), nodeInfo.get_port_iterator().next()));
+            }
+        }
+        return new double[] {
+            traffic.getCrossWorkerRate(execToComp, execToSlot),
+            traffic.getCrossNodeRate(execToComp, execToSlot)
+        };
     }
 
     private String toTopoId(String topoName) throws NotAliveException {
@@ -1817,18 +2163,119 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         Subject subject = getSubject();
         IStormClusterState clusterState = stormClusterState;
         BlobStore store = blobStore;
+        List<String> dependencyJars = topology.get_dependency_jars();
+        if (dependencyJars != null) {
+            for (String key : dependencyJars) {
+                // Dependency jars can be shared between topologies, make sure one was not deleted since the client found it
+                try {
+                    store.getBlobMeta(key, NIMBUS_SUBJECT);
+                } catch (KeyNotFoundException e) {
+                    throw new WrappedInvalidTopologyException("Dependency jar " + key + " was deleted, please submit the topology again");
+                }
+            }
+        }
         String jarKey = ConfigUtils.masterStormJarKey(topoId);
-        if (tmpJarLocation != null) {
+        if (tmpJarLocation != null && ObjectReader.getBoolean(conf.get(DaemonConfig.STORM_BLOB_CHUNK_DEDUP_ENABLE), false)) {
+            storeJarAsChunks(conf, topoId, tmpJarLocation, subject);
+        } else if (tmpJarLocation != null) {
             //in local mode there is no jar
             try (FileInputStream fin = new FileInputStream(tmpJarLocation)) {
                 store.createBlob(jarKey, fin, new SettableBlobMeta(BlobStoreAclHandler.DEFAULT), subject);
             }
+            if (ObjectReader.getBoolean(conf.get(DaemonConfig.STORM_BLOB_PEER_DISTRIBUTION_ENABLE), false)) {
+                createJarChunksBlob(conf, topoId, tmpJarLocation, subject);
+            }
         }
 
         topoCache.addTopoConf(topoId, subject, topoConf);
         topoCache.addTopology(topoId, subject, topology);
     }
 
+    /**
+     * Store the hashes of the chunks of the jar of a topology, so supervisors can download the jar from each other. Supervisors download
+     * the jar from the blob store if this fails, so it does not fail the submission.
+     */
+    private void createJarChunksBlob(Map<String, Object> conf, String topoId, String jarLocation, Subject subject) {
+        int chunkSize = ObjectReader.getInt(conf.get(DaemonConfig.STORM_BLOB_PEER_CHUNK_SIZE_BYTES), 4 * 1024 * 1024);
+        try (FileInputStream fin = new FileInputStream(jarLocation)) {
+            long jarVersion = blobStore.getBlobMeta(ConfigUtils.masterStormJarKey(topoId), subject).get_version();
+            BlobChunkManifest manifest = BlobChunkManifest.compute(fin, jarVersion, chunkSize);
+            blobStore.createBlob(ConfigUtils.masterStormJarChunksKey(topoId), manifest.serialize(),
+                                 new SettableBlobMeta(BlobStoreAclHandler.DEFAULT), subject);
+        } catch (Exception e) {
+            LOG.warn("Could not store the chunks of the jar of {}, supervisors will download it from the blob store", topoId, e);
+        }
+    }
+
+    /**
+     * Store the jar of a topology only as its chunks, storing every chunk that is not stored yet, so no jar is stored twice. The jar blob
+     * holds the manifest of the jar instead of the jar (see {@link BlobChunkManifest#readStoredAsChunks}), and supervisors put the jar
+     * together from the chunks. Called with the submitLock held, so chunks are not cleaned up while this runs.
+     */
+    private void storeJarAsChunks(Map<String, Object> conf, String topoId, String jarLocation, Subject subject) throws Exception {
+        int chunkSize = ObjectReader.getInt(conf.get(DaemonConfig.STORM_BLOB_PEER_CHUNK_SIZE_BYTES), 4 * 1024 * 1024);
+        BlobChunkManifest manifest;
+        try (FileInputStream fin = new FileInputStream(jarLocation)) {
+            manifest = BlobChunkManifest.compute(fin, 0, chunkSize);
+        }
+        createChunkBlobs(manifest, jarLocation);
+        String jarKey = ConfigUtils.masterStormJarKey(topoId);
+        blobStore.createBlob(jarKey, manifest.serialize(), new SettableBlobMeta(BlobStoreAclHandler.DEFAULT), subject);
+        long jarVersion = blobStore.getBlobMeta(jarKey, subject).get_version();
+        blobStore.createBlob(ConfigUtils.masterStormJarChunksKey(topoId), manifest.withVersion(jarVersion).serialize(),
+                             new SettableBlobMeta(BlobStoreAclHandler.DEFAULT), subject);
+    }
+
+    private void createChunkBlobs(BlobChunkManifest manifest, String jarLocation) throws Exception {
+        Set<String> stored = blobStore.filterAndListKeys((key) -> BlobChunkManifest.isChunkKey(key) ? key : null);
+        long newBytes = 0;
+        try (RandomAccessFile jar = new RandomAccessFile(jarLocation, "r")) {
+            for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+                String key = BlobChunkManifest.chunkKey(manifest.getChunkHashes().get(i));
+                if (stored.add(key)) {
+                    byte[] chunk = new byte[manifest.getChunkLength(i)];
+                    jar.seek(manifest.getChunkOffset(i));
+                    jar.readFully(chunk);
+                    blobStore.createBlob(key, chunk, new SettableBlobMeta(BlobStoreAclHandler.DEFAULT), NIMBUS_SUBJECT);
+                    newBytes += chunk.length;
+                }
+            }
+        }
+        LOG.info("Stored {} of {} bytes of the jar as new chunks", newBytes, manifest.getLength());
+    }
+
+    /**
+     * Delete the chunks of jars that no stored topology uses anymore.
+     *
+     * @param toClean the topologies that are cleaned up, their chunks are not used anymore.
+     */
+    private void cleanupChunkBlobs(Set<String> toClean) {
+        BlobStore store = blobStore;
+        Set<String> inUse = new HashSet<>();
+        for (String topoId : store.storedTopoIds()) {
+            if (toClean.contains(topoId)) {
+                continue;
+            }
+            try {
+                byte[] manifest = store.readBlob(ConfigUtils.masterStormJarChunksKey(topoId), NIMBUS_SUBJECT);
+                for (String hash : BlobChunkManifest.deserialize(manifest).getChunkHashes()) {
+                    inUse.add(BlobChunkManifest.chunkKey(hash));
+                }
+            } catch (KeyNotFoundException e) {
+                // The topology has no chunks
+            } catch (Exception e) {
+                LOG.warn("Could not read the chunks of {}, not cleaning up chunks", topoId, e);
+                return;
+            }
+        }
+        for (String key : store.filterAndListKeys((key) -> BlobChunkManifest.isChunkKey(key) ? key : null)) {
+            if (!inUse.contains(key)) {
+                LOG.debug("Removing chunk {}", key);
+                rmBlobKey(store, key, stormClusterState);
+            }
+        }
+    }
+
     private void updateTopologyResources(String topoId, Map<String, Map<String, Double>> resourceOverrides, Subject subject)
         throws AuthorizationException, IOException, KeyNotFoundException {
         StormTopology topo = topoCache.readTopology(topoId, subject);
@@ -1903,6 +2350,27 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                  minReplicationCount, topoId, confCount, codeCount, jarCount);
     }
 
+    /**
+     * Get the details of a topology for scheduling. With incremental assignments the details read in an earlier round are reused
+     * as long as the storm base of the topology is the same, otherwise the topology is marked as changed.
+     */
+    private TopologyDetails getTopologyDetails(String topoId, StormBase base) throws KeyNotFoundException,
+        AuthorizationException, IOException, InvalidTopologyException {
+        if (!incrementalAssignments) {
+            return readTopologyDetails(topoId, base);
+        }
+        CachedTopologyDetails cached = topologyDetailsCache.get(topoId);
+        if (cached == null || !cached.base.equals(base)) {
+            TopologyDetails td = readTopologyDetails(topoId, base);
+            // readTopologyDetails may have fixed up the base, so cache it afterwards
+            cached = new CachedTopologyDetails(base.deepCopy(), td);
+            topologyDetailsCache.put(topoId, cached);
+            dirtyTopologies.add(topoId);
+        }
+        cached.details.setMeasuredTraffic(measuredTrafficForRebalance.get(topoId));
+        return cached.details;
+    }
+
     private TopologyDetails readTopologyDetails(String topoId, StormBase base) throws KeyNotFoundException,
         AuthorizationException, IOException, InvalidTopologyException {
         assert (base != null);
@@ -1922,8 +2390,10 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             executorsToComponent.put(execDetails, entry.getValue());
         }
 
-        return new TopologyDetails(topoId, topoConf, topo, base.get_num_workers(), executorsToComponent,
+        TopologyDetails td = new TopologyDetails(topoId, topoConf, topo, base.get_num_workers(), executorsToComponent,
             base.get_launch_time_secs(), base.get_owner());
+        td.setMeasuredTraffic(measuredTrafficForRebalance.get(topoId));
+        return td;
     }
 
     private void updateHeartbeatsFromZkHeartbeat(String topoId, Set<List<Integer>> allExecutors, Assignment existingAssignment) {
@@ -1958,10 +2428,12 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
     }
 
     private void updateCachedHeartbeatsFromSupervisor(SupervisorWorkerHeartbeats workerHeartbeats) {
+        // the timeout of a topology is looked up once for all of its workers on the supervisor
+        Map<String, Integer> heartbeatTimeoutSecs = new HashMap<>();
         for (SupervisorWorkerHeartbeat hb : workerHeartbeats.get_worker_heartbeats()) {
             String topoId = hb.get_storm_id();
-            int heartbeatTimeoutSecs = getTopologyHeartbeatTimeoutSecs(topoId);
-            updateCachedHeartbeatsFromWorker(hb, heartbeatTimeoutSecs);
+            int timeoutSecs = heartbeatTimeoutSecs.computeIfAbsent(topoId, this::getTopologyHeartbeatTimeoutSecs);
+            updateCachedHeartbeatsFromWorker(hb, timeoutSecs);
         }
         if (!heartbeatsReadyFlag.get() && !Strings.isNullOrEmpty(workerHeartbeats.get_supervisor_id())) {
             heartbeatsRecoveryStrategy.reportNodeId(workerHeartbeats.get_supervisor_id());
@@ -2156,16 +2628,16 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
     /**
      * Read supervisor details/exclude the dead slots.
      *
+     * @param superInfos                  the supervisors read from the cluster state
      * @param superToDeadPorts            dead ports on the supervisor
      * @param topologies                  all of the topologies
      * @param missingAssignmentTopologies topologies that need assignments
      * @return a map: {supervisor-id SupervisorDetails}
      */
-    private Map<String, SupervisorDetails> readAllSupervisorDetails(Map<String, Set<Long>> superToDeadPorts,
+    private Map<String, SupervisorDetails> readAllSupervisorDetails(Map<String, SupervisorInfo> superInfos,
+                                                                    Map<String, Set<Long>> superToDeadPorts,
                                                                     Topologies topologies, Collection<String> missingAssignmentTopologies) {
         Map<String, SupervisorDetails> ret = new HashMap<>();
-        IStormClusterState state = stormClusterState;
-        Map<String, SupervisorInfo> superInfos = state.allSupervisorInfo();
         List<SupervisorDetails> superDetails = new ArrayList<>();
         for (Entry<String, SupervisorInfo> entry : superInfos.entrySet()) {
             SupervisorInfo info = entry.getValue();
@@ -2228,6 +2700,30 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         return res.intValue();
     }
 
+    /**
+     * Summarize the supervisors the scheduler is built from, to tell if any changed between rounds of scheduling without asking
+     * the INimbus for the slots of every supervisor.
+     */
+    static Map<String, List<Object>> summarizeSupervisors(Map<String, SupervisorInfo> superInfos,
+                                                          Map<String, Set<Long>> superToDeadPorts) {
+        Map<String, List<Object>> ret = new HashMap<>();
+        for (Entry<String, SupervisorInfo> entry : superInfos.entrySet()) {
+            SupervisorInfo info = entry.getValue();
+            Set<Long> deadPorts = superToDeadPorts.get(entry.getKey());
+            ret.put(entry.getKey(), Arrays.asList(info.get_hostname(),
+                                                  info.is_set_meta() ? new TreeSet<>(info.get_meta()) : Collections.emptySet(),
+                                                  info.is_set_scheduler_meta() ? info.get_scheduler_meta() : Collections.emptyMap(),
+                                                  info.is_set_resources_map() ? info.get_resources_map() : Collections.emptyMap(),
+                                                  deadPorts == null ? Collections.emptySet() : new TreeSet<>(deadPorts)));
+        }
+        return ret;
+    }
+
+    /**
+     * Compute the new assignments of all topologies.
+     *
+     * @return the new assignments, or null if incremental assignments are enabled and nothing changed since the last round.
+     */
     private Map<String, SchedulerAssignment> computeNewSchedulerAssignments(Map<String, Assignment> existingAssignments,
                                                                             Topologies topologies, Map<String, StormBase> bases,
                                                                             String scratchTopologyId)
@@ -2260,13 +2756,33 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                 missingAssignmentTopologies.add(id);
             }
         }
+        Map<String, SupervisorInfo> superInfos = stormClusterState.allSupervisorInfo();
+        Map<String, List<Object>> supervisorSummaries = null;
+        Set<String> dirty = null;
+        if (incrementalAssignments) {
+            supervisorSummaries = summarizeSupervisors(superInfos, supervisorToDeadPorts);
+            dirty = new HashSet<>(dirtyTopologies);
+            if (scratchTopologyId == null && missingAssignmentTopologies.isEmpty() && dirty.isEmpty()
+                && new HashSet<>(topologies.getAllIds()).equals(lastScheduledTopologyIds)
+                && supervisorSummaries.equals(lastScheduledSupervisors)
+                && Time.nanoTime() - lastSchedulingRoundNs < incrementalAssignmentsFullRoundNs) {
+                LOG.debug("Nothing changed since the last round of scheduling, skipping it");
+                return null;
+            }
+        }
         Map<String, SupervisorDetails> supervisors =
-            readAllSupervisorDetails(supervisorToDeadPorts, topologies, missingAssignmentTopologies);
+            readAllSupervisorDetails(superInfos, supervisorToDeadPorts, topologies, missingAssignmentTopologies);
         Cluster cluster = new Cluster(inimbus, resourceMetrics, supervisors, topoToSchedAssignment, topologies, conf);
         cluster.setStatusMap(idToSchedStatus.get());
 
         schedulingStartTimeNs.set(Time.nanoTime());
         scheduler.schedule(topologies, cluster);
+        if (incrementalAssignments) {
+            dirtyTopologies.removeAll(dirty);
+            lastScheduledTopologyIds = new HashSet<>(topologies.getAllIds());
+            lastScheduledSupervisors = supervisorSummaries;
+            lastSchedulingRoundNs = Time.nanoTime();
+        }
         //Get and set the start time before getting current time in order to avoid potential race with the longest-scheduling-time-ms gauge
         final Long startTime = schedulingStartTimeNs.getAndSet(null);
         long elapsed = Time.nanoTime() - startTime;
@@ -2396,15 +2912,18 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                     String id = entry.getKey();
                     StormBase base = entry.getValue();
                     try {
-                        tds.put(id, readTopologyDetails(id, base));
+                        tds.put(id, getTopologyDetails(id, base));
                     } catch (KeyNotFoundException e) {
                         //A race happened and it is probably not running
                         it.remove();
                     }
                 }
+                topologyDetailsCache.keySet().retainAll(bases.keySet());
             }
             List<String> assignedTopologyIds = state.assignments(null);
             Map<String, Assignment> existingAssignments = new HashMap<>();
+            Map<String, Assignment> ownerSetAssignments = new HashMap<>();
+            Map<String, Map<String, Object>> ownerSetConfs = new HashMap<>();
             for (String id : assignedTopologyIds) {
                 //for the topology which wants rebalance (specified by the scratchTopoId)
                 // we exclude its assignment, meaning that all the slots occupied by its assignment
@@ -2415,12 +2934,14 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                         TopologyDetails td = tds.get(id);
                         if (td != null) {
                             currentAssignment.set_owner(td.getTopologySubmitter());
-                            state.setAssignment(id, currentAssignment, td.getConf());
+                            ownerSetAssignments.put(id, currentAssignment);
+                            ownerSetConfs.put(id, td.getConf());
                         }
                     }
                     existingAssignments.put(id, currentAssignment);
                 }
             }
+            state.setAssignments(ownerSetAssignments, ownerSetConfs);
 
             // make the new assignments for topologies
             lockingMkAssignments(existingAssignments, bases, scratchTopoId, assignedTopologyIds, state, tds);
@@ -2438,6 +2959,10 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         synchronized (schedLock) {
             Map<String, SchedulerAssignment> newSchedulerAssignments =
                     computeNewSchedulerAssignments(existingAssignments, topologies, bases, scratchTopoId);
+            if (newSchedulerAssignments == null) {
+                // nothing changed, so the existing assignments stand
+                return;
+            }
 
             Map<String, Map<List<Long>, List<Object>>> topologyToExecutorToNodePort =
                     computeTopoToExecToNodePort(newSchedulerAssignments, assignedTopologyIds);
@@ -2525,6 +3050,8 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
 
             //tasks figure out what tasks to talk to by looking at topology at runtime
             // only log/set when there's been a change to the assignment
+            Map<String, Assignment> changedAssignments = new HashMap<>();
+            Map<String, Map<String, Object>> changedConfs = new HashMap<>();
             for (Entry<String, Assignment> entry : newAssignments.entrySet()) {
                 String topoId = entry.getKey();
                 Assignment assignment = entry.getValue();
@@ -2534,9 +3061,11 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                     LOG.debug("Assignment for {} hasn't changed", topoId);
                 } else {
                     LOG.info("Setting new assignment for topology id {}: {}", topoId, assignment);
-                    state.setAssignment(topoId, assignment, td.getConf());
+                    changedAssignments.put(topoId, assignment);
+                    changedConfs.put(topoId, td.getConf());
                 }
             }
+            state.setAssignments(changedAssignments, changedConfs);
 
             //grouping assignment by node to see the nodes diff, then notify nodes/supervisors to synchronize its owned assignment
             //because the number of existing assignments is small for every scheduling round,
@@ -2550,6 +3079,7 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             }
             notifySupervisorsAssignments(newAssignments, assignmentsDistributer, totalAssignmentsChangedNodes,
                                         basicSupervisorDetailsMap, getMetricsRegistry());
+            assignmentsDistributer.retainNodes(basicSupervisorDetailsMap.keySet());
 
             Map<String, Collection<WorkerSlot>> addedSlots = new HashMap<>();
             for (Entry<String, Assignment> entry : newAssignments.entrySet()) {
@@ -2739,6 +3269,10 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
 
     @VisibleForTesting
     public void rmDependencyJarsInTopology(String topoId) {
+        rmDependencyJarsInTopology(topoId, Collections.emptySet());
+    }
+
+    private void rmDependencyJarsInTopology(String topoId, Set<String> stillUsed) {
         try {
             BlobStore store = blobStore;
             IStormClusterState state = stormClusterState;
@@ -2747,6 +3281,10 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             LOG.info("Removing dependency jars from blobs - {}", dependencyJars);
             if (dependencyJars != null && !dependencyJars.isEmpty()) {
                 for (String key : dependencyJars) {
+                    if (stillUsed.contains(key)) {
+                        LOG.info("Not removing dependency jar {}, other topologies use it", key);
+                        continue;
+                    }
                     rmBlobKey(store, key, state);
                 }
             }
@@ -2771,6 +3309,7 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             //Just go on and try to delte the others
         }
         rmBlobKey(store, ConfigUtils.masterStormJarKey(topoId), state);
+        rmBlobKey(store, ConfigUtils.masterStormJarChunksKey(topoId), state);
     }
 
     @VisibleForTesting
@@ -2789,22 +3328,55 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         synchronized (submitLock) {
             toClean = topoIdsToClean(state, blobStore, this.conf);
         }
-        if (toClean != null) {
+        if (toClean != null && !toClean.isEmpty()) {
+            LOG.info("Cleaning up {}", toClean);
+            state.teardownTopologies(toClean);
+            // The dependency jars and chunks of a topology being submitted are stored and checked under the submitLock
+            synchronized (submitLock) {
+                Set<String> dependencyJarsInUse = dependencyJarsInUse(toClean);
+                if (dependencyJarsInUse != null) {
+                    for (String topoId : toClean) {
+                        rmDependencyJarsInTopology(topoId, dependencyJarsInUse);
+                    }
+                }
+                if (ObjectReader.getBoolean(conf.get(DaemonConfig.STORM_BLOB_CHUNK_DEDUP_ENABLE), false)) {
+                    cleanupChunkBlobs(toClean);
+                }
+            }
             for (String topoId : toClean) {
-                LOG.info("Cleaning up {}", topoId);
-                state.teardownHeartbeats(topoId);
-                state.teardownTopologyErrors(topoId);
-                state.removeAllPrivateWorkerKeys(topoId);
-                state.removeBackpressure(topoId);
-                rmDependencyJarsInTopology(topoId);
                 forceDeleteTopoDistDir(topoId);
                 rmTopologyKeys(topoId);
                 heartbeatsCache.removeTopo(topoId);
+                aggregatedStatsCache.removeTopo(topoId);
                 idToExecutors.getAndUpdate(new Dissoc<>(topoId));
             }
         }
     }
 
+    /**
+     * Get the dependency jars of all stored topologies, except the ones that are cleaned up.
+     *
+     * @return the dependency jars, or null if the dependency jars of a topology could not be read, so none can be removed.
+     */
+    private Set<String> dependencyJarsInUse(Set<String> toClean) {
+        Set<String> ret = new HashSet<>();
+        for (String topoId : blobStore.storedTopoIds()) {
+            if (toClean.contains(topoId)) {
+                continue;
+            }
+            try {
+                List<String> dependencyJars = readStormTopologyAsNimbus(topoId, topoCache).get_dependency_jars();
+                if (dependencyJars != null) {
+                    ret.addAll(dependencyJars);
+                }
+            } catch (Exception e) {
+                LOG.warn("Could not read the dependency jars of {}, not removing dependency jars", topoId, e);
+                return null;
+            }
+        }
+        return ret;
+    }
+
     /**
      * Deletes topologies from history older than mins minutes.
      *
@@ -3071,6 +3643,11 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
 
     private CommonTopoInfo getCommonTopoInfo(String topoId, String operation) throws NotAliveException,
             AuthorizationException, IOException, InvalidTopologyException {
+        return getCommonTopoInfo(topoId, operation, true);
+    }
+
+    private CommonTopoInfo getCommonTopoInfo(String topoId, String operation, boolean readBeats) throws NotAliveException,
+            AuthorizationException, IOException, InvalidTopologyException {
         CommonTopoInfo ret = new CommonTopoInfo();
         ret.topoConf = tryReadTopoConf(topoId, topoCache);
         ret.topoName = (String) ret.topoConf.get(Config.TOPOLOGY_NAME);
@@ -3086,16 +3663,20 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             ret.launchTimeSecs = 0;
         }
         ret.assignment = state.assignmentInfo(topoId, null);
-        //get it from cluster state/zookeeper every time to collect the UI stats, may replace it with other StateStore later
-        ret.beats = ret.assignment != null ? StatsUtil.convertExecutorBeats(state.executorBeats(topoId,
-                                                                                                ret.assignment
-                                                                                                    .get_executor_node_port())) :
-            Collections
-            .emptyMap();
+        if (readBeats) {
+            ret.beats = readExecutorBeats(topoId, ret.assignment);
+        }
         ret.allComponents = new HashSet<>(ret.taskToComponent.values());
         return ret;
     }
     
+    private Map<List<Integer>, Map<String, Object>> readExecutorBeats(String topoId, Assignment assignment) {
+        //get it from cluster state/zookeeper every time to collect the UI stats, may replace it with other StateStore later
+        return assignment != null
+            ? StatsUtil.convertExecutorBeats(stormClusterState.executorBeats(topoId, assignment.get_executor_node_port()))
+            : Collections.emptyMap();
+    }
+
     @VisibleForTesting
     public boolean awaitLeadership(long timeout, TimeUnit timeUnit) throws InterruptedException {
         return leaderElector.awaitLeadership(timeout, timeUnit);
@@ -3400,26 +3981,7 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             // Set principal in RebalanceOptions to nil because users are not suppose to set this
             options.set_principal(null);
             // check if executor counts are correctly specified
-            StormTopology stormTopology = tryReadTopologyFromName(topoName);
-            Set<String> comps = new TreeSet<>();
-            comps.addAll(stormTopology.get_spouts().keySet());
-            comps.addAll(stormTopology.get_bolts().keySet());
-            Map<String, Integer> execOverrides = options.is_set_num_executors() ? options.get_num_executors() : Collections.emptyMap();
-            for (Map.Entry<String, Integer> e: execOverrides.entrySet()) {
-                String comp = e.getKey();
-                // validate non-system component ids
-                if (!Utils.isSystemId(comp) && !comps.contains(comp)) {
-                    throw new WrappedInvalidTopologyException(
-                            String.format("Invalid component %s for topology %s, valid values are %s",
-                                    comp, topoName, String.join(",", comps))
-                    );
-                }
-                // validate executor count for component
-                Integer value = e.getValue();
-                if (value == null || value <= 0) {
-                    throw new WrappedInvalidTopologyException("Number of executors must be greater than 0");
-                }
-            }
+            validateNumExecutors(topoName, tryReadTopologyFromName(topoName), options);
             if (options.is_set_topology_conf_overrides()) {
                 Map<String, Object> topoConfigOverrides = Utils.parseJson(options.get_topology_conf_overrides());
                 //Clean up some things the user should not set.  (Not a security issue, just might confuse the topology)
@@ -3450,6 +4012,29 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         }
     }
 
+    private static void validateNumExecutors(String topoName, StormTopology stormTopology, RebalanceOptions options)
+        throws WrappedInvalidTopologyException {
+        Set<String> comps = new TreeSet<>();
+        comps.addAll(stormTopology.get_spouts().keySet());
+        comps.addAll(stormTopology.get_bolts().keySet());
+        Map<String, Integer> execOverrides = options.is_set_num_executors() ? options.get_num_executors() : Collections.emptyMap();
+        for (Map.Entry<String, Integer> e: execOverrides.entrySet()) {
+            String comp = e.getKey();
+            // validate non-system component ids
+            if (!Utils.isSystemId(comp) && !comps.contains(comp)) {
+                throw new WrappedInvalidTopologyException(
+                        String.format("Invalid component %s for topology %s, valid values are %s",
+                                comp, topoName, String.join(",", comps))
+                );
+            }
+            // validate executor count for component
+            Integer value = e.getValue();
+            if (value == null || value <= 0) {
+                throw new WrappedInvalidTopologyException("Number of executors must be greater than 0");
+            }
+        }
+    }
+
     @Override
     public void setLogConfig(String topoId, LogConfig config) throws TException {
         try {
@@ -4244,11 +4829,11 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         throws NotAliveException, AuthorizationException, TException {
         try {
             getTopologyPageInfoCalls.mark();
-            CommonTopoInfo common = getCommonTopoInfo(topoId, "getTopologyPageInfo");
+            // the heartbeats are only read when the stats are not cached
+            CommonTopoInfo common = getCommonTopoInfo(topoId, "getTopologyPageInfo", false);
             String topoName = common.topoName;
             IStormClusterState state = stormClusterState;
             Assignment assignment = common.assignment;
-            Map<List<Integer>, Map<String, Object>> beats = common.beats;
             Map<Integer, String> taskToComp = common.taskToComponent;
             StormTopology topology = common.topology;
             StormBase base = common.base;
@@ -4257,38 +4842,43 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             }
             String owner = base.get_owner();
             Map<WorkerSlot, WorkerResources> workerToResources = getWorkerResourcesForTopology(topoId);
-            List<WorkerSummary> workerSummaries = null;
             Map<List<Long>, List<Object>> exec2NodePort = new HashMap<>();
             if (assignment != null) {
                 Map<List<Long>, NodeInfo> execToNodeInfo = assignment.get_executor_node_port();
-                Map<String, String> nodeToHost = assignment.get_node_host();
                 for (Entry<List<Long>, NodeInfo> entry : execToNodeInfo.entrySet()) {
                     NodeInfo ni = entry.getValue();
                     List<Object> nodePort = Arrays.asList(ni.get_node(), ni.get_port_iterator().next());
                     exec2NodePort.put(entry.getKey(), nodePort);
                 }
-
-                workerSummaries = StatsUtil.aggWorkerStats(topoId,
-                                                           topoName,
-                                                           taskToComp,
-                                                           beats,
-                                                           exec2NodePort,
-                                                           nodeToHost,
-                                                           workerToResources,
-                                                           includeSys,
-                                                           true, //this is the topology page, so we know the user is authorized
-                                                           null,
-                                                           owner);
             }
 
-            TopologyPageInfo topoPageInfo = StatsUtil.aggTopoExecsStats(topoId,
-                                                                        exec2NodePort,
+            TopologyPageInfo topoPageInfo = aggregatedStatsCache.get(Arrays.asList(topoId, window, includeSys),
+                AggregatedStatsCache.version(exec2NodePort),
+                () -> {
+                    Map<List<Integer>, Map<String, Object>> beats = readExecutorBeats(topoId, assignment);
+                    TopologyPageInfo aggregated = StatsUtil.aggTopoExecsStats(topoId,
+                                                                              exec2NodePort,
+                                                                              taskToComp,
+                                                                              beats,
+                                                                              topology,
+                                                                              window,
+                                                                              includeSys,
+                                                                              state);
+                    if (assignment != null) {
+                        aggregated.set_workers(StatsUtil.aggWorkerStats(topoId,
+                                                                        topoName,
                                                                         taskToComp,
                                                                         beats,
-                                                                        topology,
-                                                                        window,
+                                                                        exec2NodePort,
+                                                                        assignment.get_node_host(),
+                                                                        workerToResources,
                                                                         includeSys,
-                                                                        state);
+                                                                        true, //this is the topology page, so we know the user is authorized
+                                                                        null,
+                                                                        owner));
+                    }
+                    return aggregated;
+                });
 
             if (topology.is_set_storm_version()) {
                 topoPageInfo.set_storm_version(topology.get_storm_version());
@@ -4300,9 +4890,6 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             addSpoutAggStats(topoPageInfo, topology, topoConf);
             addBoltAggStats(topoPageInfo, topology, topoConf, includeSys);
 
-            if (workerSummaries != null) {
-                topoPageInfo.set_workers(workerSummaries);
-            }
             if (base.is_set_owner()) {
                 topoPageInfo.set_owner(base.get_owner());
             }
@@ -4556,7 +5143,8 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         throws NotAliveException, AuthorizationException, TException {
         try {
             getComponentPageInfoCalls.mark();
-            CommonTopoInfo info = getCommonTopoInfo(topoId, "getComponentPageInfo");
+            // the heartbeats are only read when the stats are not cached
+            CommonTopoInfo info = getCommonTopoInfo(topoId, "getComponentPageInfo", false);
             if (info.base == null) {
                 throw new WrappedNotAliveException(topoId);
             }
@@ -4581,8 +5169,10 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
                 nodeToHost = Collections.emptyMap();
             }
 
-            ComponentPageInfo compPageInfo = StatsUtil.aggCompExecsStats(exec2HostPort, info.taskToComponent, info.beats, window,
-                                                                         includeSys, topoId, topology, componentId);
+            ComponentPageInfo compPageInfo = aggregatedStatsCache.get(Arrays.asList(topoId, window, includeSys, componentId),
+                AggregatedStatsCache.version(exec2NodePort),
+                () -> StatsUtil.aggCompExecsStats(exec2HostPort, info.taskToComponent, readExecutorBeats(topoId, assignment), window,
+                                                  includeSys, topoId, topology, componentId));
             if (compPageInfo.get_component_type() == ComponentType.SPOUT) {
                 NormalizedResourceRequest spoutResources = ResourceUtils.getSpoutResources(topology, topoConf, componentId);
                 if (spoutResources == null) {
@@ -4977,7 +5567,17 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         checkAuthorization(null, null, "sendSupervisorWorkerHeartbeats");
         try {
             if (isLeader()) {
-                updateCachedHeartbeatsFromSupervisor(heartbeats);
+                if (supervisorHeartbeatsExecutor != null) {
+                    supervisorHeartbeatsExecutor.execute(() -> {
+                        try {
+                            updateCachedHeartbeatsFromSupervisor(heartbeats);
+                        } catch (Exception e) {
+                            LOG.warn("Exception when updating heartbeats from node {}", heartbeats.get_supervisor_id(), e);
+                        }
+                    });
+                } else {
+                    updateCachedHeartbeatsFromSupervisor(heartbeats);
+                }
             }
         } catch (Exception e) {
             LOG.debug("Exception when update heartbeats for node {} heartbeats report.",
@@ -5016,6 +5616,9 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
         try {
             LOG.info("Shutting down master");
             timer.close();
+            if (supervisorHeartbeatsExecutor != null) {
+                supervisorHeartbeatsExecutor.shutdownNow();
+            }
             stormClusterState.disconnect();
             downloaders.cleanup();
             uploaders.cleanup();
@@ -5030,6 +5633,9 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
             if (actionNotifier != null) {
                 actionNotifier.cleanup();
             }
+            if (topologyAutoscaler != null) {
+                topologyAutoscaler.cleanup();
+            }
             zkClient.close();
             if (metricsStore != null) {
                 metricsStore.close();
@@ -5157,6 +5763,16 @@ public class Nimbus implements Iface, Shutdownable, DaemonCommon {
 
     }
 
+    private static class CachedTopologyDetails {
+        private final StormBase base;
+        private final TopologyDetails details;
+
+        CachedTopologyDetails(StormBase base, TopologyDetails details) {
+            this.base = base;
+            this.details = details;
+        }
+    }
+
     private static class CommonTopoInfo {
         public Map<String, Object> topoConf;
         public String topoName;
@@ -21,6 +21,7 @@ package org.apache.storm.daemon.supervisor;
 import static org.apache.storm.daemon.nimbus.Nimbus.MIN_VERSION_SUPPORT_RPC_HEARTBEAT;
 import static org.apache.storm.utils.Utils.OR;
 
+import com.codahale.metrics.Meter;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -68,6 +69,10 @@ public class BasicContainer extends Container {
     static final TopoMetaLruCache TOPO_META_CACHE = new TopoMetaLruCache();
     private static final Logger LOG = LoggerFactory.getLogger(BasicContainer.class);
     private static final Joiner CPJ = Joiner.on(File.pathSeparator).skipNulls();
+    private static final String CDS_ARCHIVE_PREFIX = "worker-";
+    private static final String CDS_ARCHIVE_SUFFIX = ".jsa";
+    // A worker writes its class data sharing archive when it exits, this is how long it is given to finish
+    private static final long CDS_ARCHIVE_WRITE_MS = 60_000;
     protected final LocalState localState;
     protected final String profileCmd;
     protected final String stormHome = System.getProperty(ConfigUtils.STORM_HOME);
@@ -79,6 +84,16 @@ public class BasicContainer extends Container {
     protected volatile boolean exitedEarly = false;
     protected volatile long memoryLimitMb;
     protected volatile long memoryLimitExceededStart = -1;
+    private final StormMetricsRegistry metricsRegistry;
+    private final boolean standbyEnabled;
+    private final boolean classDataSharingEnabled;
+    private final Meter numStandbyWorkersActivated;
+    // the worker waiting to take the place of the worker of this container, or null
+    private BasicContainer standby;
+    // true while this container is the standby of another one
+    private volatile boolean isStandby = false;
+    // the container this standby took the worker of, so its process exit is reported there
+    private volatile BasicContainer activatedFor = null;
 
     /**
      * Create a new BasicContainer.
@@ -181,6 +196,13 @@ public class BasicContainer extends Container {
             WorkerResources resources = assignment.get_resources();
             memoryLimitMb = calculateMemoryLimit(resources, getMemOnHeap(resources));
         }
+
+        this.metricsRegistry = metricsRegistry;
+        standbyEnabled = ObjectReader.getBoolean(conf.get(DaemonConfig.SUPERVISOR_WORKER_STANDBY_ENABLE), false)
+            && (resourceIsolationManager == null || !resourceIsolationManager.isResourceManaged());
+        classDataSharingEnabled = ObjectReader.getBoolean(conf.get(DaemonConfig.SUPERVISOR_WORKER_CLASS_DATA_SHARING_ENABLE), false)
+            && !runAsUser;
+        numStandbyWorkersActivated = metricsRegistry.registerMeter("supervisor:num-standby-workers-activated");
     }
 
     private static void removeWorkersOn(Map<String, Integer> workerToPort, int port) {
@@ -223,8 +245,19 @@ public class BasicContainer extends Container {
         }
     }
 
+    @Override
+    public void cleanUp() throws IOException {
+        discardStandby();
+        super.cleanUp();
+    }
+
     @Override
     public void cleanUpForRestart() throws IOException {
+        if (isStandby) {
+            //A standby was never approved, and must not remove the approved worker of the port
+            super.cleanUpForRestart();
+            return;
+        }
         String origWorkerId = workerId;
         super.cleanUpForRestart();
         synchronized (localState) {
@@ -245,11 +278,131 @@ public class BasicContainer extends Container {
         type.assertFull();
         //We are launching it now...
         type = ContainerType.LAUNCH;
+        if (activateStandby()) {
+            return;
+        }
         createNewWorkerId();
         setup();
         launch();
     }
 
+    /**
+     * Start a standby worker that waits to take the place of the worker of this container.
+     */
+    private void startStandby() {
+        discardStandby();
+        BasicContainer next = null;
+        try {
+            next = newStandbyContainer(Utils.uuid());
+            next.isStandby = true;
+            //Recorded before it is launched, so a supervisor that restarts can kill it
+            setStandbyWorker(next.workerId, true);
+            next.setup();
+            next.launch();
+            standby = next;
+        } catch (Exception e) {
+            LOG.warn("Could not start a standby worker for {} on port {}", topologyId, port, e);
+            discard(next);
+        }
+    }
+
+    /**
+     * Make the container of a standby worker for the same assignment and port as this one.
+     *
+     * @param workerId the id of the standby worker.
+     * @return the container.
+     *
+     * @throws IOException on any error.
+     */
+    protected BasicContainer newStandbyContainer(String workerId) throws IOException {
+        return new BasicContainer(ContainerType.LAUNCH, conf, supervisorId, supervisorPort, port, assignment, resourceIsolationManager,
+            localState, workerId, metricsRegistry, containerMemoryTracker, topoConf, ops, profileCmd);
+    }
+
+    /**
+     * Let the standby worker take the place of the worker of this container, which is dead.
+     *
+     * @return true if it did, false if there is no standby worker that is ready.
+     */
+    private boolean activateStandby() throws IOException {
+        BasicContainer next = standby;
+        standby = null;
+        if (next == null) {
+            return false;
+        }
+        //A standby that has not written its pid yet is still starting, it is no faster than a new worker
+        if (next.exitedEarly || next.areAllProcessesDead()) {
+            LOG.info("Standby worker {} on port {} is not ready, launching a new worker", next.workerId, port);
+            discard(next);
+            return false;
+        }
+        synchronized (localState) {
+            Map<String, Integer> workerToPort = localState.getApprovedWorkers();
+            if (workerToPort == null) {
+                workerToPort = new HashMap<>(1);
+            }
+            removeWorkersOn(workerToPort, port);
+            workerToPort.put(next.workerId, port);
+            localState.setApprovedWorkers(workerToPort);
+            setStandbyWorker(next.workerId, false);
+        }
+        workerId = next.workerId;
+        memoryLimitMb = next.memoryLimitMb;
+        next.activatedFor = this;
+        exitedEarly = next.exitedEarly;
+        writeLogMetadata(getWorkerUser());
+        ops.dump(new File(ConfigUtils.workerStandbyActivationPath(conf, workerId)), "");
+        numStandbyWorkersActivated.mark();
+        LOG.info("Activated standby worker {} on port {}", workerId, port);
+        startStandby();
+        return true;
+    }
+
+    /**
+     * Add a standby worker of this port to the local state, or remove it.
+     */
+    private void setStandbyWorker(String standbyWorkerId, boolean add) {
+        synchronized (localState) {
+            Map<String, Integer> standbyWorkers = localState.getStandbyWorkers();
+            if (standbyWorkers == null) {
+                standbyWorkers = new HashMap<>(1);
+            }
+            boolean changed = add ? standbyWorkers.put(standbyWorkerId, port) == null : standbyWorkers.remove(standbyWorkerId) != null;
+            if (changed) {
+                localState.setStandbyWorkers(standbyWorkers);
+            }
+        }
+    }
+
+    private void discardStandby() {
+        BasicContainer next = standby;
+        standby = null;
+        discard(next);
+    }
+
+    private static void discard(BasicContainer standby) {
+        if (standby == null) {
+            return;
+        }
+        String standbyWorkerId = standby.workerId;
+        try {
+            LOG.info("Discarding standby worker {}", standbyWorkerId);
+            standby.forceKill();
+            standby.cleanUpForRestart();
+            standby.setStandbyWorker(standbyWorkerId, false);
+        } catch (Exception e) {
+            LOG.warn("Could not discard standby worker {}", standbyWorkerId, e);
+        }
+    }
+
+    @Override
+    protected void writeLogMetadata(String user) throws IOException {
+        //The metadata is for the worker that is running, a standby writes it when it is activated
+        if (!isStandby) {
+            super.writeLogMetadata(user);
+        }
+    }
+
     @Override
     public boolean didMainProcessExit() {
         return exitedEarly;
@@ -646,6 +799,10 @@ public class BasicContainer extends Container {
         commandList.add("-Dstorm.conf.file=" + topoConfFile);
         commandList.add("-Dstorm.options=" + stormOptions);
         commandList.add("-Djava.io.tmpdir=" + workerTmpDir);
+        commandList.addAll(getClassDataSharingParams(stormRoot));
+        if (isStandby) {
+            commandList.add("-Dworker.standby=true");
+        }
         commandList.addAll(classPathParams);
         commandList.add(getWorkerMain(topoVersion));
         commandList.add(topologyId);
@@ -667,6 +824,45 @@ public class BasicContainer extends Container {
         return commandList;
     }
 
+    /**
+     * Get the options for the worker to use the class data sharing archive of the topology, or to write one when it exits if there is
+     * none yet. Archives are named after the time the topology jar was written, so an updated jar gets a new archive.
+     *
+     * @param stormRoot the root dist dir for the topology
+     * @return the options, empty if class data sharing is not enabled.
+     *
+     * @throws IOException on any error.
+     */
+    private List<String> getClassDataSharingParams(String stormRoot) throws IOException {
+        if (!classDataSharingEnabled) {
+            return Collections.emptyList();
+        }
+        File dir = new File(ConfigUtils.workerArtifactsRoot(conf, topologyId));
+        long jarTime = new File(ConfigUtils.supervisorStormJarPath(stormRoot)).lastModified();
+        File archive = new File(dir, CDS_ARCHIVE_PREFIX + Long.toHexString(jarTime) + CDS_ARCHIVE_SUFFIX);
+        File[] files = dir.listFiles((d, name) -> name.startsWith(CDS_ARCHIVE_PREFIX) && name.contains(CDS_ARCHIVE_SUFFIX));
+        if (files != null) {
+            long writtenBefore = Time.currentTimeMillis() - CDS_ARCHIVE_WRITE_MS;
+            for (File file : files) {
+                if (!file.getName().startsWith(archive.getName())) {
+                    //From a jar that was replaced
+                    ops.deleteIfExists(file);
+                } else if (!file.equals(archive) && file.lastModified() < writtenBefore) {
+                    //Written by a worker when it exited, use the first one and drop the others
+                    if (!archive.exists()) {
+                        ops.moveFile(file, archive);
+                    } else {
+                        ops.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+        if (archive.exists()) {
+            return Arrays.asList("-Xshare:auto", "-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        }
+        return Collections.singletonList("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath() + "." + workerId);
+    }
+
     @Override
     public boolean isMemoryLimitViolated(LocalAssignment withUpdatedLimits) throws IOException {
         if (super.isMemoryLimitViolated(withUpdatedLimits)) {
@@ -851,6 +1047,9 @@ public class BasicContainer extends Container {
         ProcessExitCallback processExitCallback = new ProcessExitCallback(logPrefix);
         resourceIsolationManager.launchWorkerProcess(getWorkerUser(), topologyId, topoConf, port, workerId,
             commandList, topEnvironment, logPrefix, processExitCallback, new File(workerDir));
+        if (standbyEnabled && !isStandby) {
+            startStandby();
+        }
     }
 
     private static class TopologyMetaData {
@@ -951,7 +1150,14 @@ public class BasicContainer extends Container {
         @Override
         public void call(int exitCode) {
             LOG.info("{} exited with code: {}", logPrefix, exitCode);
-            exitedEarly = true;
+            BasicContainer container = activatedFor;
+            if (container != null) {
+                container.exitedEarly = true;
+                container.mainProcessExited();
+            } else {
+                exitedEarly = true;
+                mainProcessExited();
+            }
         }
     }
 }
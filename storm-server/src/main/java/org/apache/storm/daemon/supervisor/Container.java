@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -89,6 +90,11 @@ public abstract class Container implements Killable {
     private Timer.Context shutdownTimer = null;
     protected boolean runAsUser;
     private String cachedUser;
+    // the heartbeats of the worker, kept so they are only read from disk when the worker wrote a new one
+    private LocalState heartbeatState;
+    private String heartbeatStateWorkerId;
+    // run when the main process of the worker exits
+    private volatile Runnable processExitListener;
 
     /**
      * Create a new Container.
@@ -217,8 +223,11 @@ public abstract class Container implements Killable {
      * @throws IOException on any error
      */
     public LSWorkerHeartbeat readHeartbeat() throws IOException {
-        LocalState localState = ConfigUtils.workerState(conf, workerId);
-        LSWorkerHeartbeat hb = localState.getWorkerHeartBeat();
+        if (heartbeatState == null || !Objects.equals(workerId, heartbeatStateWorkerId)) {
+            heartbeatState = ConfigUtils.workerState(conf, workerId);
+            heartbeatStateWorkerId = workerId;
+        }
+        LSWorkerHeartbeat hb = heartbeatState.getWorkerHeartBeat();
         LOG.trace("{}: Reading heartbeat {}", workerId, hb);
         return hb;
     }
@@ -561,6 +570,26 @@ public abstract class Container implements Killable {
      */
     public abstract boolean didMainProcessExit();
 
+    /**
+     * Set what to run when the main process of the worker exits, so the exit is handled right away and not only when the container is
+     * looked at again. This is best effort too, it is only run if the exit is noticed.
+     *
+     * @param listener what to run.
+     */
+    public void setProcessExitListener(Runnable listener) {
+        processExitListener = listener;
+    }
+
+    /**
+     * Called when the main process of the worker exited.
+     */
+    protected void mainProcessExited() {
+        Runnable listener = processExitListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
     /**
      * Run a profiling request.
      *
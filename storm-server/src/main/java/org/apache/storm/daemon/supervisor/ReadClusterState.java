@@ -103,7 +103,12 @@ public class ReadClusterState implements Runnable, AutoCloseable {
         }
 
         try {
-            Collection<String> detachedRunningWorkers = SupervisorUtils.supervisorWorkerIds(superConf);
+            Collection<String> detachedRunningWorkers = new HashSet<>(SupervisorUtils.supervisorWorkerIds(superConf));
+            // Standby workers are not bound to a slot after a restart, the slots start new ones
+            Map<String, Integer> standbyWorkers = localState.getStandbyWorkers();
+            if (standbyWorkers != null) {
+                detachedRunningWorkers.addAll(standbyWorkers.keySet());
+            }
             for (Slot slot : slots.values()) {
                 String workerId = slot.getWorkerId();
                 // We ignore workers that are still bound to a slot, which is monitored by a supervisor
@@ -115,6 +120,9 @@ public class ReadClusterState implements Runnable, AutoCloseable {
                 LOG.info("Killing detached workers {}", detachedRunningWorkers);
                 supervisor.killWorkers(detachedRunningWorkers, launcher);
             }
+            if (standbyWorkers != null && !standbyWorkers.isEmpty()) {
+                localState.setStandbyWorkers(new HashMap<>());
+            }
         } catch (Exception e) {
             LOG.warn("Error trying to clean up old workers", e);
         }
@@ -132,20 +140,17 @@ public class ReadClusterState implements Runnable, AutoCloseable {
     @Override
     public synchronized void run() {
         try {
-            List<String> stormIds = stormClusterState.assignments(null);
             Map<String, Assignment> assignmentsSnapshot = getAssignmentsSnapshot(stormClusterState);
+            localizer.updateBlobPeers(assignmentId, assignmentsSnapshot, stormClusterState);
 
             Map<Integer, LocalAssignment> allAssignments = readAssignments(assignmentsSnapshot);
             if (allAssignments == null) {
                 //Something odd happened try again later
                 return;
             }
-            Map<String, List<ProfileRequest>> topoIdToProfilerActions = getProfileActions(stormClusterState, stormIds);
-
             HashSet<Integer> assignedPorts = new HashSet<>();
             LOG.debug("Synchronizing supervisor");
             LOG.debug("All assignment: {}", allAssignments);
-            LOG.debug("Topology Ids -> Profiler Actions {}", topoIdToProfilerActions);
             for (Integer port : allAssignments.keySet()) {
                 if (supervisor.confirmAssigned(port)) {
                     assignedPorts.add(port);
@@ -155,6 +160,20 @@ public class ReadClusterState implements Runnable, AutoCloseable {
             supervisor.assigned(allPorts);
             allPorts.addAll(slots.keySet());
 
+            // the slots start on their new assignments right away, the profiler requests are read while they do
+            for (Integer port : allPorts) {
+                Slot slot = slots.get(port);
+                if (slot == null) {
+                    slot = mkSlot(port);
+                    slots.put(port, slot);
+                    slot.start();
+                }
+                slot.setNewAssignment(allAssignments.get(port));
+            }
+
+            List<String> stormIds = stormClusterState.assignments(null);
+            Map<String, List<ProfileRequest>> topoIdToProfilerActions = getProfileActions(stormClusterState, stormIds);
+            LOG.debug("Topology Ids -> Profiler Actions {}", topoIdToProfilerActions);
             Map<Integer, Set<TopoProfileAction>> filtered = new HashMap<>();
             for (Entry<String, List<ProfileRequest>> entry : topoIdToProfilerActions.entrySet()) {
                 String topoId = entry.getKey();
@@ -175,14 +194,7 @@ public class ReadClusterState implements Runnable, AutoCloseable {
             }
 
             for (Integer port : allPorts) {
-                Slot slot = slots.get(port);
-                if (slot == null) {
-                    slot = mkSlot(port);
-                    slots.put(port, slot);
-                    slot.start();
-                }
-                slot.setNewAssignment(allAssignments.get(port));
-                slot.addProfilerActions(filtered.get(port));
+                slots.get(port).addProfilerActions(filtered.get(port));
             }
 
         } catch (Exception e) {
@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
@@ -67,6 +68,8 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
     }
 
     private static final long ONE_SEC_IN_NANO = TimeUnit.NANOSECONDS.convert(1, TimeUnit.SECONDS);
+    // how often to look if the processes of a killed container died
+    private static final long PROCESS_DEATH_POLL_MS = 100;
     private final AtomicReference<LocalAssignment> newAssignment = new AtomicReference<>();
     private final AtomicReference<Set<TopoProfileAction>> profiling = new AtomicReference<>(new HashSet<>());
 
@@ -139,6 +142,9 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
         // because Timer is not being compared in #equals or #equivalent, meaning newAssignment always equals to currAssignment.
         // Therefore the timer in newAssignment won't be invoked
         this.dynamicState = new DynamicState(currentAssignment, container, this.newAssignment.get(), slotMetrics);
+        if (container != null) {
+            container.setProcessExitListener(staticState::signal);
+        }
         if (MachineState.RUNNING == dynamicState.state) {
             //We are running so we should recover the blobs.
             staticState.localizer.recoverRunningTopology(currentAssignment, port, this);
@@ -162,6 +168,11 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
         return dynamicState;
     }
 
+    @VisibleForTesting
+    StaticState getStaticState() {
+        return staticState;
+    }
+
     @VisibleForTesting
     static boolean forSameTopology(LocalAssignment a, LocalAssignment b) {
         if (a == null && b == null) {
@@ -372,7 +383,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
         }
 
         if (!isDead) {
-            Time.sleep(staticState.killSleepMs);
+            staticState.waitForProcessesToDie(dynamicState.container, staticState.killSleepMs);
         }
         return next;
     }
@@ -547,8 +558,8 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
             }
             // release the reference on all blobs associated with this topology.
             staticState.localizer.releaseSlotFor(dynamicState.pendingLocalization, staticState.port);
-            // we wait for 3 seconds
-            Time.sleepSecs(3);
+            // we wait for 3 seconds, unless the assignment changes
+            staticState.waitForEvent(3000);
             //Try again, or go to empty if assignment has been nulled
             return prepareForNewAssignmentNoWorkersRunning(dynamicState
                 .withPendingLocalization(null, null),
@@ -642,7 +653,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
 
         LOG.info("SLOT {} force kill and wait...", staticState.port);
         dynamicState.container.forceKill();
-        Time.sleep(staticState.killSleepMs);
+        staticState.waitForProcessesToDie(dynamicState.container, staticState.killSleepMs);
         return dynamicState;
     }
 
@@ -677,7 +688,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
             throw new RuntimeException("Not all processes in " + dynamicState.container + " exited after 120 seconds");
         }
         dynamicState.container.forceKill();
-        Time.sleep(staticState.killSleepMs);
+        staticState.waitForProcessesToDie(dynamicState.container, staticState.killSleepMs);
         return dynamicState;
     }
 
@@ -717,7 +728,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
             throw new RuntimeException("Not all processes in " + dynamicState.container + " exited after 120 seconds");
         }
         dynamicState.container.forceKill();
-        Time.sleep(staticState.killSleepMs);
+        staticState.waitForProcessesToDie(dynamicState.container, staticState.killSleepMs);
         return dynamicState;
     }
 
@@ -742,6 +753,8 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
             long hbAgeMs = (Time.currentTimeSecs() - hb.get_time_secs()) * 1000;
             long hbTimeoutMs = getHbTimeoutMs(staticState, dynamicState);
             if (hbAgeMs <= hbTimeoutMs) {
+                staticState.slotMetrics.workerLaunchToActive.update(Time.currentTimeMillis() - dynamicState.startTime,
+                                                                    TimeUnit.MILLISECONDS);
                 return dynamicState.withState(MachineState.RUNNING);
             }
         }
@@ -768,7 +781,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
             //Kill the container and restart it
             return killContainerFor(KillReason.BLOB_CHANGED, dynamicState, staticState);
         }
-        Time.sleep(1000);
+        staticState.waitForEvent(1000);
         return dynamicState;
     }
 
@@ -882,7 +895,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
 
         dynamicState.container.processMetrics(staticState.metricsExec, staticState.metricsProcessor);
 
-        Time.sleep(staticState.monitorFreqMs);
+        staticState.waitForEvent(staticState.monitorFreqMs);
         return dynamicState;
     }
 
@@ -906,7 +919,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
         }
         //Drop the change notifications we are not running anything right now
         dynamicState = drainAllChangingBlobs(dynamicState);
-        Time.sleep(1000);
+        staticState.waitForEvent(1000);
         return dynamicState;
     }
 
@@ -943,9 +956,12 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
      * @param newAssignment the new assignment for this slot to run, null to run nothing
      */
     public final void setNewAssignment(LocalAssignment newAssignment) {
-        this.newAssignment.set(newAssignment == null
+        LocalAssignment old = this.newAssignment.getAndSet(newAssignment == null
                 ? null
                 : new TimerDecoratedAssignment(newAssignment, staticState.slotMetrics.workerLaunchDuration));
+        if (!Objects.equals(old, newAssignment)) {
+            staticState.signal();
+        }
     }
 
     @Override
@@ -954,6 +970,7 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
         //This is called async so lets assume that it is something we care about
         try {
             changingBlobs.put(new BlobChanging(assignment, blob, go.getLatch()));
+            staticState.signal();
         } catch (InterruptedException e) {
             throw new RuntimeException("This should not have happened, but it did (the queue is unbounded)", e);
         }
@@ -1065,6 +1082,9 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
                     saveNewAssignment(nextState.newAssignment);
                     nextState = nextState.withCurrentAssignment(nextState.container, nextState.newAssignment);
                 }
+                if (nextState.container != null && nextState.container != dynamicState.container) {
+                    nextState.container.setProcessExitListener(staticState::signal);
+                }
 
                 // clean up the profiler actions that are not being processed
                 Set<TopoProfileAction> removed = new HashSet<>(origProfileActions);
@@ -1156,6 +1176,9 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
         public final OnlyLatestExecutor<Integer> metricsExec;
         public final WorkerMetricsProcessor metricsProcessor;
         public final SlotMetrics slotMetrics;
+        private final Object eventLock = new Object();
+        // something the slot waits on happened since it last waited
+        private boolean eventPending = false;
 
         StaticState(AsyncLocalizer localizer, long hbTimeoutMs, long firstHbTimeoutMs,
                     long killSleepMs, long monitorFreqMs,
@@ -1180,6 +1203,57 @@ public class Slot extends Thread implements AutoCloseable, BlobChangingCallback
             this.metricsProcessor = metricsProcessor;
             this.slotMetrics = slotMetrics;
         }
+
+        /**
+         * Wake up the slot, because something it waits on happened: the assignment changed, a blob is changing or the worker exited.
+         */
+        void signal() {
+            synchronized (eventLock) {
+                eventPending = true;
+                eventLock.notifyAll();
+            }
+        }
+
+        /**
+         * Wait until something the slot waits on happens, or until the time is up.
+         *
+         * @param ms the longest time to wait for.
+         */
+        void waitForEvent(long ms) throws InterruptedException {
+            if (Time.isSimulating()) {
+                // simulated time only moves when the slot sleeps
+                Time.sleep(ms);
+                return;
+            }
+            synchronized (eventLock) {
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ms);
+                long left = ms;
+                while (!eventPending && left > 0) {
+                    eventLock.wait(left);
+                    left = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+                }
+                eventPending = false;
+            }
+        }
+
+        /**
+         * Wait until all of the processes of a container died, or until the time is up.
+         *
+         * @param container the container that was killed.
+         * @param ms the longest time to wait for.
+         */
+        void waitForProcessesToDie(Container container, long ms) throws InterruptedException, IOException {
+            if (Time.isSimulating()) {
+                Time.sleep(ms);
+                return;
+            }
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ms);
+            long left = ms;
+            while (left > 0 && !container.areAllProcessesDead()) {
+                waitForEvent(Math.min(left, PROCESS_DEATH_POLL_MS));
+                left = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+            }
+        }
     }
 
     static class DynamicState {
@@ -29,6 +29,8 @@ class SlotMetrics {
     final Meter numWorkerStartTimedOut;
     final Map<Slot.KillReason, Meter> numWorkersKilledFor;
     final Timer workerLaunchDuration;
+    //From the time a worker process is launched, or a standby worker is activated, until it heartbeats
+    final Timer workerLaunchToActive;
     final Map<Slot.MachineState, Meter> transitionIntoState;
     //This also tracks how many times worker transitioning out of a state
     final Map<Slot.MachineState, Timer> timeSpentInState;
@@ -39,6 +41,7 @@ class SlotMetrics {
         numWorkersKilledFor = Collections.unmodifiableMap(EnumUtil.toEnumMap(Slot.KillReason.class,
             killReason -> metricsRegistry.registerMeter("supervisor:num-workers-killed-" + killReason.toString())));
         workerLaunchDuration = metricsRegistry.registerTimer("supervisor:worker-launch-duration");
+        workerLaunchToActive = metricsRegistry.registerTimer("supervisor:worker-launch-to-active-duration");
         transitionIntoState = Collections.unmodifiableMap(EnumUtil.toEnumMap(Slot.MachineState.class,
             machineState -> metricsRegistry.registerMeter("supervisor:num-worker-transitions-into-" + machineState.toString())));
         timeSpentInState = Collections.unmodifiableMap(EnumUtil.toEnumMap(Slot.MachineState.class,
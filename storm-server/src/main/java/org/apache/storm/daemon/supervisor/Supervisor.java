@@ -114,6 +114,8 @@ public class Supervisor implements DaemonCommon, AutoCloseable {
     private volatile boolean active;
     private EventManager eventManager;
     private ReadClusterState readState;
+    // version of the last assignments accepted from nimbus, deltas only apply on top of it
+    private long assignmentsVersion = -1;
     private ThriftServer thriftServer;
     //used for local cluster heartbeating
     private Nimbus.Iface localNimbus;
@@ -264,6 +266,13 @@ public class Supervisor implements DaemonCommon, AutoCloseable {
         return supervisorPort;
     }
 
+    /**
+     * Get the port chunks of topology jars are served to other supervisors on, or null if they are not.
+     */
+    public Integer getBlobPeerPort() {
+        return asyncLocalizer.getBlobPeerPort();
+    }
+
     public String getHostName() {
         return hostName;
     }
@@ -410,11 +419,23 @@ public class Supervisor implements DaemonCommon, AutoCloseable {
                 throws AuthorizationException, TException {
                 checkAuthorization("sendSupervisorAssignments");
                 LOG.info("Got an assignments from master, will start to sync with assignments: {}", assignments);
+                if (!acceptAssignments(assignments)) {
+                    throw new TException("Assignments delta on top of version " + assignments.get_base_version()
+                                         + " does not apply, need a full resync");
+                }
                 SynchronizeAssignments syn = new SynchronizeAssignments(getSupervisor(), assignments,
                     getReadClusterState());
                 getEventManger().add(syn);
             }
 
+            @Override
+            public boolean sendSupervisorAssignmentsDelta(SupervisorAssignments assignments)
+                throws AuthorizationException, TException {
+                checkAuthorization("sendSupervisorAssignmentsDelta");
+                LOG.info("Got an assignments delta from master, will start to sync with assignments: {}", assignments);
+                return getSupervisor().sendSupervisorAssignments(assignments);
+            }
+
             @Override
             public Assignment getLocalAssignmentForStorm(String id)
                 throws NotAliveException, AuthorizationException, TException {
@@ -473,17 +494,39 @@ public class Supervisor implements DaemonCommon, AutoCloseable {
     }
 
     /**
-     * Used for local cluster assignments distribution.
+     * Check whether assignments pushed by nimbus can be applied, and if so remember their version. A delta only applies on top of
+     * the version it was computed from, nimbus has to resend all the assignments of this node otherwise.
      *
      * @param assignments {@link SupervisorAssignments}
+     * @return false if the assignments are a delta on top of a version this supervisor does not have.
      */
-    public void sendSupervisorAssignments(SupervisorAssignments assignments) {
+    synchronized boolean acceptAssignments(SupervisorAssignments assignments) {
+        if (assignments.is_set_base_version() && assignments.get_base_version() != assignmentsVersion) {
+            LOG.info("Rejecting assignments delta on top of version {}, the current version is {}",
+                     assignments.get_base_version(), assignmentsVersion);
+            return false;
+        }
+        assignmentsVersion = assignments.is_set_version() ? assignments.get_version() : -1;
+        return true;
+    }
+
+    /**
+     * Sync with assignments pushed by nimbus, used for local cluster assignments distribution too.
+     *
+     * @param assignments {@link SupervisorAssignments}
+     * @return false if the assignments are a delta that does not apply to this supervisor, nimbus has to send all of them then.
+     */
+    public boolean sendSupervisorAssignments(SupervisorAssignments assignments) {
         //for local test
         if (Time.isSimulating() && !(Boolean) conf.get(DaemonConfig.SUPERVISOR_ENABLE)) {
-            return;
+            return true;
+        }
+        if (!acceptAssignments(assignments)) {
+            return false;
         }
         SynchronizeAssignments syn = new SynchronizeAssignments(this, assignments, readState);
         eventManager.add(syn);
+        return true;
     }
 
     @Override
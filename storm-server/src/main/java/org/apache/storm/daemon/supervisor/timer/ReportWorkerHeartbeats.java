@@ -13,6 +13,7 @@
 package org.apache.storm.daemon.supervisor.timer;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.storm.daemon.supervisor.Supervisor;
@@ -36,6 +37,8 @@ public class ReportWorkerHeartbeats implements Runnable {
 
     private Supervisor supervisor;
     private Map<String, Object> conf;
+    // worker id -> the time of the heartbeat of the worker the master got last
+    private Map<String, Integer> reportedTimeSecs = new HashMap<>();
 
     public ReportWorkerHeartbeats(Map<String, Object> conf, Supervisor supervisor) {
         this.conf = conf;
@@ -44,31 +47,44 @@ public class ReportWorkerHeartbeats implements Runnable {
 
     @Override
     public void run() {
-        SupervisorWorkerHeartbeats supervisorWorkerHeartbeats = getAndResetWorkerHeartbeats();
-        reportWorkerHeartbeats(supervisorWorkerHeartbeats);
-    }
-
-    private SupervisorWorkerHeartbeats getAndResetWorkerHeartbeats() {
         Map<String, LSWorkerHeartbeat> localHeartbeats;
         try {
             localHeartbeats = SupervisorUtils.readWorkerHeartbeats(this.conf);
-            return getSupervisorWorkerHeartbeatsFromLocal(localHeartbeats);
         } catch (Exception e) {
             LOG.error("Read local worker heartbeats error, skipping heartbeats for this round, msg:{}", e.getMessage());
-            return null;
+            return;
+        }
+        Map<String, Integer> timeSecs = new HashMap<>();
+        SupervisorWorkerHeartbeats supervisorWorkerHeartbeats = getSupervisorWorkerHeartbeatsFromLocal(localHeartbeats, timeSecs);
+        if (reportWorkerHeartbeats(supervisorWorkerHeartbeats)) {
+            reportedTimeSecs = timeSecs;
         }
     }
 
-    private SupervisorWorkerHeartbeats getSupervisorWorkerHeartbeatsFromLocal(Map<String, LSWorkerHeartbeat> localHeartbeats) {
+    /**
+     * Get the heartbeats of the workers to report, a heartbeat the master already got is left out because it does not tell it anything
+     * new, the executors of a worker are only timed out when its heartbeat does not change.
+     *
+     * @param localHeartbeats worker id -> the heartbeat the worker wrote.
+     * @param timeSecs filled in with worker id -> the time of the heartbeat of the worker.
+     */
+    private SupervisorWorkerHeartbeats getSupervisorWorkerHeartbeatsFromLocal(Map<String, LSWorkerHeartbeat> localHeartbeats,
+                                                                              Map<String, Integer> timeSecs) {
         SupervisorWorkerHeartbeats supervisorWorkerHeartbeats = new SupervisorWorkerHeartbeats();
 
         List<SupervisorWorkerHeartbeat> heartbeatList = new ArrayList<>();
 
-        for (LSWorkerHeartbeat lsWorkerHeartbeat : localHeartbeats.values()) {
+        for (Map.Entry<String, LSWorkerHeartbeat> entry : localHeartbeats.entrySet()) {
+            LSWorkerHeartbeat lsWorkerHeartbeat = entry.getValue();
             // local worker heartbeat can be null cause some error/exception
             if (null == lsWorkerHeartbeat) {
                 continue;
             }
+            timeSecs.put(entry.getKey(), lsWorkerHeartbeat.get_time_secs());
+            Integer reported = reportedTimeSecs.get(entry.getKey());
+            if (reported != null && reported == lsWorkerHeartbeat.get_time_secs()) {
+                continue;
+            }
 
             SupervisorWorkerHeartbeat supervisorWorkerHeartbeat = new SupervisorWorkerHeartbeat();
             supervisorWorkerHeartbeat.set_storm_id(lsWorkerHeartbeat.get_topology_id());
@@ -82,28 +98,32 @@ public class ReportWorkerHeartbeats implements Runnable {
         return supervisorWorkerHeartbeats;
     }
 
-    private void reportWorkerHeartbeats(SupervisorWorkerHeartbeats supervisorWorkerHeartbeats) {
-        if (supervisorWorkerHeartbeats == null) {
-            // error/exception thrown, just skip
-            return;
-        }
+    /**
+     * Report the heartbeats to the master.
+     *
+     * @return true if the master got them.
+     */
+    private boolean reportWorkerHeartbeats(SupervisorWorkerHeartbeats supervisorWorkerHeartbeats) {
         if (supervisor.getStormClusterState().isPacemakerStateStore()) {
             LOG.debug("Worker are using pacemaker to send worker heartbeats so skip reporting by supervisor.");
-            return;
+            return false;
         }
         // if it is local mode, just get the local nimbus instance and set the heartbeats
         if (ConfigUtils.isLocalMode(conf)) {
             try {
                 this.supervisor.getLocalNimbus().sendSupervisorWorkerHeartbeats(supervisorWorkerHeartbeats);
+                return true;
             } catch (TException tex) {
                 LOG.error("Send local supervisor heartbeats error", tex);
             }
         } else {
             try (NimbusClient master = NimbusClient.getConfiguredClient(conf)) {
                 master.getClient().sendSupervisorWorkerHeartbeats(supervisorWorkerHeartbeats);
+                return true;
             } catch (Exception t) {
                 LOG.error("Send worker heartbeats to master exception", t);
             }
         }
+        return false;
     }
 }
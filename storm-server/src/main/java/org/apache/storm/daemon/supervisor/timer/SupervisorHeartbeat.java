@@ -69,6 +69,7 @@ public class SupervisorHeartbeat implements Runnable {
         Map<String, Double> totalSupervisorResources = mkSupervisorCapacities(conf);
         NormalizedResourceOffer totalSupervisorNormalizedResources = new NormalizedResourceOffer(totalSupervisorResources);
        
+        Integer blobPeerPort = supervisor.getBlobPeerPort();
         Map<String, SupervisorInfo> result = new HashMap();
 
         if (validatedNumaMap != null) {
@@ -80,6 +81,9 @@ public class SupervisorHeartbeat implements Runnable {
                         supervisor.getAssignmentId() + ServerConstants.NUMA_ID_SEPARATOR + numaMapEntry.getKey()
                 );
                 supervisorInfo.set_server_port(supervisor.getThriftServerPort());
+                if (blobPeerPort != null) {
+                    supervisorInfo.set_blob_peer_port(blobPeerPort);
+                }
 
                 Map<String, Object> numaMap = (Map<String, Object>) numaMapEntry.getValue();
                 List numaPortList = ((List<Integer>) numaMap.get(ServerConstants.NUMA_PORTS)).stream()
@@ -110,6 +114,9 @@ public class SupervisorHeartbeat implements Runnable {
             supervisorInfo.set_hostname(supervisor.getHostName());
             supervisorInfo.set_assignment_id(supervisor.getAssignmentId());
             supervisorInfo.set_server_port(supervisor.getThriftServerPort());
+            if (blobPeerPort != null) {
+                supervisorInfo.set_blob_peer_port(blobPeerPort);
+            }
             supervisorInfo.set_used_ports(allUsedPorts);
             supervisorInfo.set_meta(allPortList);
             supervisorInfo.set_scheduler_meta((Map<String, String>) conf.get(DaemonConfig.SUPERVISOR_SCHEDULER_META));
@@ -75,11 +75,29 @@ public class SynchronizeAssignments implements Runnable {
         clusterState.syncRemoteAssignments(serAssignments);
     }
 
+    private static void applyAssignmentsDeltaToLocal(IStormClusterState clusterState, SupervisorAssignments delta) {
+        Map<String, Assignment> assignments = clusterState.assignmentsInfo();
+        if (delta.is_set_removed_storm_ids()) {
+            assignments.keySet().removeAll(delta.get_removed_storm_ids());
+        }
+        if (delta.is_set_storm_assignment()) {
+            assignments.putAll(delta.get_storm_assignment());
+        }
+        Map<String, byte[]> serAssignments = new HashMap<>();
+        for (Map.Entry<String, Assignment> entry : assignments.entrySet()) {
+            serAssignments.put(entry.getKey(), Utils.serialize(entry.getValue()));
+        }
+        clusterState.syncRemoteAssignments(serAssignments);
+    }
+
     @Override
     public void run() {
         // first sync assignments to local, then sync processes.
         if (null == assignments) {
             getAssignmentsFromMaster(this.supervisor.getConf(), this.supervisor.getStormClusterState(), this.supervisor.getAssignmentId());
+        } else if (assignments.is_set_base_version()) {
+            // a delta on top of what nimbus sent before, the supervisor made sure it applies when it was received
+            applyAssignmentsDeltaToLocal(this.supervisor.getStormClusterState(), assignments);
         } else {
             assignedAssignmentsToLocal(this.supervisor.getStormClusterState(), Collections.singletonList(assignments));
         }
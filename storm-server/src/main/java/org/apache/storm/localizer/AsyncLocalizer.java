@@ -46,8 +46,10 @@ import java.util.function.Supplier;
 import org.apache.storm.Config;
 import org.apache.storm.DaemonConfig;
 import org.apache.storm.blobstore.ClientBlobStore;
+import org.apache.storm.cluster.IStormClusterState;
 import org.apache.storm.daemon.supervisor.AdvancedFSOps;
 import org.apache.storm.daemon.supervisor.SupervisorUtils;
+import org.apache.storm.generated.Assignment;
 import org.apache.storm.generated.AuthorizationException;
 import org.apache.storm.generated.KeyNotFoundException;
 import org.apache.storm.generated.LocalAssignment;
@@ -102,6 +104,8 @@ public class AsyncLocalizer implements AutoCloseable {
     private final long cacheCleanupPeriod;
     private final long updateBlobPeriod;
     private final StormMetricsRegistry metricsRegistry;
+    private final PeerBlobDistributor peerDistributor;
+    private final BlobChunkCache chunkCache;
     // cleanup
     @VisibleForTesting
     protected long cacheTargetSize;
@@ -142,6 +146,17 @@ public class AsyncLocalizer implements AutoCloseable {
 
         symlinksDisabled = (boolean) conf.getOrDefault(Config.DISABLE_SYMLINKS, false);
         blobPending = new ConcurrentHashMap<>();
+
+        if (!isLocalMode && ObjectReader.getBoolean(conf.get(DaemonConfig.STORM_BLOB_PEER_DISTRIBUTION_ENABLE), false)) {
+            peerDistributor = new PeerBlobDistributor(conf, metricsRegistry);
+        } else {
+            peerDistributor = null;
+        }
+        if (!isLocalMode && ObjectReader.getBoolean(conf.get(DaemonConfig.STORM_BLOB_CHUNK_DEDUP_ENABLE), false)) {
+            chunkCache = new BlobChunkCache(localBaseDir.resolve("chunks"), fsOps, metricsRegistry);
+        } else {
+            chunkCache = null;
+        }
     }
 
     public AsyncLocalizer(Map<String, Object> conf, StormMetricsRegistry metricsRegistry) throws IOException {
@@ -155,7 +170,7 @@ public class AsyncLocalizer implements AutoCloseable {
                 try {
                     return new LocallyCachedTopologyBlob(topologyId, isLocalMode, conf, fsOps,
                                                       LocallyCachedTopologyBlob.TopologyBlobType
-                                                          .TOPO_JAR, owner, metricsRegistry);
+                                                          .TOPO_JAR, owner, metricsRegistry, peerDistributor, chunkCache);
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
@@ -169,7 +184,7 @@ public class AsyncLocalizer implements AutoCloseable {
                 try {
                     return new LocallyCachedTopologyBlob(topologyId, isLocalMode, conf, fsOps,
                                                       LocallyCachedTopologyBlob.TopologyBlobType
-                                                          .TOPO_CODE, owner, metricsRegistry);
+                                                          .TOPO_CODE, owner, metricsRegistry, null, null);
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
@@ -183,7 +198,7 @@ public class AsyncLocalizer implements AutoCloseable {
                 try {
                     return new LocallyCachedTopologyBlob(topologyId, isLocalMode, conf, fsOps,
                                                       LocallyCachedTopologyBlob.TopologyBlobType
-                                                          .TOPO_CONF, owner, metricsRegistry);
+                                                          .TOPO_CONF, owner, metricsRegistry, null, null);
                 } catch (IOException e) {
                     throw new RuntimeException(e);
                 }
@@ -363,6 +378,31 @@ public class AsyncLocalizer implements AutoCloseable {
     public void close() throws InterruptedException {
         downloadExecService.shutdown();
         taskExecService.shutdown();
+        if (peerDistributor != null) {
+            peerDistributor.close();
+        }
+    }
+
+    /**
+     * Update which supervisors topology jars can be fetched from.
+     *
+     * @param assignmentId the assignment id of this supervisor.
+     * @param assignments all of the assignments in the cluster.
+     * @param clusterState the cluster state to read the ports of the other supervisors from.
+     */
+    public void updateBlobPeers(String assignmentId, Map<String, Assignment> assignments, IStormClusterState clusterState) {
+        if (peerDistributor != null) {
+            peerDistributor.updatePeers(assignmentId, assignments, clusterState);
+        }
+    }
+
+    /**
+     * Get the port this supervisor serves chunks of topology jars to other supervisors on.
+     *
+     * @return the port, or null if jars are not fetched from peers.
+     */
+    public Integer getBlobPeerPort() {
+        return peerDistributor == null ? null : peerDistributor.getPort();
     }
 
     private List<LocalResource> getLocalResources(PortAndAssignment pna) throws IOException {
@@ -635,6 +675,9 @@ public class AsyncLocalizer implements AutoCloseable {
             }
 
             toClean.addResources(topologyBlobs);
+            if (chunkCache != null) {
+                toClean.addResources(chunkCache.getChunks());
+            }
             try (ClientBlobStore store = getClientBlobStore()) {
                 toClean.cleanup(store);
             }
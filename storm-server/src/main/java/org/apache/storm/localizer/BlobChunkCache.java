@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.localizer;
+
+import com.codahale.metrics.Meter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.storm.blobstore.BlobChunkManifest;
+import org.apache.storm.blobstore.ClientBlobStore;
+import org.apache.storm.daemon.supervisor.AdvancedFSOps;
+import org.apache.storm.generated.AuthorizationException;
+import org.apache.storm.generated.KeyNotFoundException;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The chunks of topology jars this supervisor has, so a new jar is put together from the chunks that are here already and only the
+ * others are downloaded. The chunks are cleaned up with the rest of the blobs once no topology jar on this supervisor is made of them.
+ */
+public class BlobChunkCache {
+    private static final Logger LOG = LoggerFactory.getLogger(BlobChunkCache.class);
+
+    private final Path dir;
+    private final AdvancedFSOps fsOps;
+    private final StormMetricsRegistry metricsRegistry;
+    // blob key of the chunk -> chunk
+    private final ConcurrentHashMap<String, LocallyCachedChunk> chunks = new ConcurrentHashMap<>();
+    private final Meter bytesReused;
+    private final Meter bytesDownloaded;
+
+    public BlobChunkCache(Path dir, AdvancedFSOps fsOps, StormMetricsRegistry metricsRegistry) throws IOException {
+        this.dir = dir;
+        this.fsOps = fsOps;
+        this.metricsRegistry = metricsRegistry;
+        bytesReused = metricsRegistry.registerMeter("supervisor:topology-jar-bytes-reused");
+        bytesDownloaded = metricsRegistry.registerMeter("supervisor:topology-jar-bytes-from-chunks");
+        fsOps.forceMkdir(dir);
+        try (DirectoryStream<Path> children = fsOps.newDirectoryStream(dir)) {
+            for (Path child : children) {
+                String fileName = child.getFileName().toString();
+                if (LocallyCachedChunk.isChunkFileName(fileName)) {
+                    getChunk(fileName);
+                } else {
+                    // a chunk that was not completely downloaded
+                    fsOps.deleteIfExists(child.toFile());
+                }
+            }
+        }
+        LOG.info("Found {} chunks in {}", chunks.size(), dir);
+    }
+
+    private LocallyCachedChunk getChunk(String hash) {
+        return chunks.computeIfAbsent(BlobChunkManifest.chunkKey(hash), (key) -> new LocallyCachedChunk(hash, dir, fsOps, metricsRegistry));
+    }
+
+    /**
+     * Get all of the chunks, to clean them up.
+     */
+    public ConcurrentHashMap<String, LocallyCachedChunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Mark which chunks the jar of a topology is made of, the chunks of the jar it had before may be cleaned up.
+     *
+     * @param topologyId the topology.
+     * @param manifest the manifest of the jar of the topology, or null if it does not have a jar here anymore.
+     */
+    public void use(String topologyId, BlobChunkManifest manifest) {
+        Set<String> keys = new HashSet<>();
+        if (manifest != null) {
+            for (String hash : manifest.getChunkHashes()) {
+                String key = BlobChunkManifest.chunkKey(hash);
+                keys.add(key);
+                LocallyCachedChunk chunk;
+                do {
+                    chunk = getChunk(hash);
+                    chunk.addTopology(topologyId);
+                    // try again if the chunk was cleaned up before it was marked
+                } while (chunks.get(key) != chunk);
+            }
+        }
+        for (LocallyCachedChunk chunk : chunks.values()) {
+            if (!keys.contains(chunk.getKey())) {
+                chunk.removeTopology(topologyId);
+            }
+        }
+    }
+
+    /**
+     * Get the chunks of a jar that are not here.
+     *
+     * @return the indexes of the missing chunks in the manifest.
+     */
+    public List<Integer> missing(BlobChunkManifest manifest) {
+        List<Integer> ret = new ArrayList<>();
+        for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+            if (!getChunk(manifest.getChunkHashes().get(i)).isFullyDownloaded()) {
+                ret.add(i);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Write the chunks of a jar that are here to a file.
+     *
+     * @param manifest the manifest of the jar.
+     * @param dest the file to write to.
+     * @param missing the indexes of the chunks that are not here, other chunks that are not here anymore are added to it.
+     * @param peerDistributor to serve the chunks to peers from the file, or null.
+     */
+    public void copyTo(BlobChunkManifest manifest, Path dest, List<Integer> missing, PeerBlobDistributor peerDistributor)
+        throws IOException {
+        Set<Integer> skip = new HashSet<>(missing);
+        long reused = 0;
+        try (RandomAccessFile out = new RandomAccessFile(dest.toFile(), "rw")) {
+            out.setLength(manifest.getLength());
+            for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+                if (skip.contains(i)) {
+                    continue;
+                }
+                LocallyCachedChunk chunk = getChunk(manifest.getChunkHashes().get(i));
+                synchronized (chunk) {
+                    if (!chunk.isFullyDownloaded()) {
+                        missing.add(i);
+                        continue;
+                    }
+                    chunk.copyTo(out, manifest.getChunkOffset(i));
+                }
+                reused += manifest.getChunkLength(i);
+                if (peerDistributor != null) {
+                    peerDistributor.addChunk(chunk.getHash(), dest, manifest.getChunkOffset(i), manifest.getChunkLength(i));
+                }
+            }
+        }
+        bytesReused.mark(reused);
+    }
+
+    /**
+     * Download chunks of a jar from the blob store and write them to a file.
+     *
+     * @param store the blob store to download the chunks from.
+     * @param manifest the manifest of the jar.
+     * @param dest the file to write to.
+     * @param indexes the indexes of the chunks to download.
+     * @param peerDistributor to serve the chunks to peers from the file, or null.
+     * @throws KeyNotFoundException if a chunk is not in the blob store.
+     */
+    public void download(ClientBlobStore store, BlobChunkManifest manifest, Path dest, List<Integer> indexes,
+                         PeerBlobDistributor peerDistributor) throws IOException, KeyNotFoundException, AuthorizationException {
+        long downloaded = 0;
+        try (RandomAccessFile out = new RandomAccessFile(dest.toFile(), "rw")) {
+            for (int i : indexes) {
+                LocallyCachedChunk chunk = getChunk(manifest.getChunkHashes().get(i));
+                synchronized (chunk) {
+                    if (!chunk.isFullyDownloaded()) {
+                        chunk.commitNewVersion(chunk.fetchUnzipToTemp(store));
+                        downloaded += manifest.getChunkLength(i);
+                    }
+                    chunk.copyTo(out, manifest.getChunkOffset(i));
+                }
+                if (peerDistributor != null) {
+                    peerDistributor.addChunk(chunk.getHash(), dest, manifest.getChunkOffset(i), manifest.getChunkLength(i));
+                }
+            }
+        }
+        bytesDownloaded.mark(downloaded);
+    }
+
+    /**
+     * Keep the chunks of a jar that was not put together from chunks.
+     *
+     * @param manifest the manifest of the jar.
+     * @param file the jar.
+     */
+    public void storeAll(BlobChunkManifest manifest, Path file) throws IOException {
+        for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+            LocallyCachedChunk chunk = getChunk(manifest.getChunkHashes().get(i));
+            synchronized (chunk) {
+                if (!chunk.isFullyDownloaded()) {
+                    if (chunk.storeFrom(file, manifest.getChunkOffset(i), manifest.getChunkLength(i))) {
+                        chunk.commitNewVersion(LocallyCachedChunk.CHUNK_VERSION);
+                    } else {
+                        LOG.warn("{} does not match the chunk manifest, not keeping its chunks", file);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
@@ -33,6 +34,7 @@ import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -44,8 +46,10 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
 import org.apache.storm.Config;
+import org.apache.storm.blobstore.BlobChunkManifest;
 import org.apache.storm.blobstore.ClientBlobStore;
 import org.apache.storm.daemon.supervisor.IAdvancedFSOps;
+import org.apache.storm.dependency.DependencyBlobStoreUtils;
 import org.apache.storm.generated.AuthorizationException;
 import org.apache.storm.generated.KeyNotFoundException;
 import org.apache.storm.generated.ReadableBlobMeta;
@@ -271,6 +275,11 @@ public class LocalizedResource extends LocallyCachedBlob {
         );
 
         Path finalLocation = downloadMeta.getDownloadPath();
+        String contentHash = DependencyBlobStoreUtils.getContentHash(key);
+        if (contentHash != null) {
+            // Topologies of other users can share the jar, so it has to be what its key says it is, whoever uploaded it
+            checkContentHash(finalLocation, contentHash);
+        }
         if (shouldUncompress) {
             Path downloadFile = finalLocation;
             finalLocation = constructBlobWithVersionFileName(baseDir, getKey(), downloadMeta.getVersion());
@@ -281,6 +290,22 @@ public class LocalizedResource extends LocallyCachedBlob {
         return downloadMeta.getVersion();
     }
 
+    private void checkContentHash(Path file, String expected) throws IOException {
+        MessageDigest digest = BlobChunkManifest.newDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String actual = BlobChunkManifest.toHex(digest.digest());
+        if (!expected.equals(actual)) {
+            Files.deleteIfExists(file);
+            throw new IOException("The content of " + getKey() + " has the SHA-256 " + actual + ", it was changed after it was uploaded");
+        }
+    }
+
     @Override
     protected void commitNewVersion(long version) throws IOException {
         String key = getKey();
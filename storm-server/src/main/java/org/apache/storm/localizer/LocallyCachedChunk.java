@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.localizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.storm.blobstore.BlobChunkManifest;
+import org.apache.storm.blobstore.ClientBlobStore;
+import org.apache.storm.daemon.supervisor.AdvancedFSOps;
+import org.apache.storm.generated.AuthorizationException;
+import org.apache.storm.generated.KeyNotFoundException;
+import org.apache.storm.metric.StormMetricsRegistry;
+
+/**
+ * A chunk of one or more topology jars, stored under its SHA-256. A chunk never changes, so there is only one version of it. It is used as
+ * long as a topology jar the supervisor has is made of it.
+ */
+public class LocallyCachedChunk extends LocallyCachedBlob {
+    static final long CHUNK_VERSION = 1;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final String hash;
+    private final Path path;
+    private final Path tempPath;
+    private final AdvancedFSOps fsOps;
+    // the ids of the topologies with a jar made of this chunk
+    private final Set<String> topologies = ConcurrentHashMap.newKeySet();
+
+    LocallyCachedChunk(String hash, Path dir, AdvancedFSOps fsOps, StormMetricsRegistry metricsRegistry) {
+        super("chunk " + hash, BlobChunkManifest.chunkKey(hash), metricsRegistry);
+        this.hash = hash;
+        this.path = dir.resolve(hash);
+        this.tempPath = dir.resolve(hash + TEMP_SUFFIX);
+        this.fsOps = fsOps;
+    }
+
+    static boolean isChunkFileName(String fileName) {
+        return fileName.length() == 64 && fileName.chars().allMatch((c) -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'));
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    synchronized void addTopology(String topologyId) {
+        topologies.add(topologyId);
+        touch();
+    }
+
+    void removeTopology(String topologyId) {
+        if (topologies.remove(topologyId)) {
+            touch();
+        }
+    }
+
+    @Override
+    public boolean isUsed() {
+        return !topologies.isEmpty() || super.isUsed();
+    }
+
+    @Override
+    public long getLocalVersion() {
+        return isFullyDownloaded() ? CHUNK_VERSION : NOT_DOWNLOADED_VERSION;
+    }
+
+    @Override
+    public long getRemoteVersion(ClientBlobStore store) {
+        return CHUNK_VERSION;
+    }
+
+    @Override
+    public long fetchUnzipToTemp(ClientBlobStore store) throws IOException, KeyNotFoundException, AuthorizationException {
+        fsOps.forceMkdir(tempPath.getParent());
+        fetch(store, getKey(), (v) -> tempPath, fsOps::getOutputStream);
+        MessageDigest digest = BlobChunkManifest.newDigest();
+        try (InputStream in = Files.newInputStream(tempPath)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        if (!hash.equals(BlobChunkManifest.toHex(digest.digest()))) {
+            fsOps.deleteIfExists(tempPath.toFile());
+            throw new IOException("Chunk " + hash + " from the blob store does not match its hash");
+        }
+        return CHUNK_VERSION;
+    }
+
+    /**
+     * Store the chunk from a part of a file.
+     *
+     * @return true if it was stored, false if that part of the file does not match the hash.
+     */
+    boolean storeFrom(Path file, long offset, int length) throws IOException {
+        byte[] data = new byte[length];
+        try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+            in.seek(offset);
+            in.readFully(data);
+        }
+        if (!hash.equals(BlobChunkManifest.sha256Hex(data, 0, length))) {
+            return false;
+        }
+        fsOps.forceMkdir(tempPath.getParent());
+        try (OutputStream out = fsOps.getOutputStream(tempPath.toFile())) {
+            out.write(data);
+        }
+        return true;
+    }
+
+    @Override
+    protected void commitNewVersion(long version) throws IOException {
+        if (isFullyDownloaded()) {
+            fsOps.deleteIfExists(tempPath.toFile());
+        } else {
+            fsOps.moveFile(tempPath.toFile(), path.toFile());
+        }
+    }
+
+    /**
+     * Copy the chunk into a file.
+     */
+    void copyTo(RandomAccessFile out, long offset) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        out.seek(offset);
+        out.write(data);
+    }
+
+    @Override
+    public void cleanupOrphanedData() throws IOException {
+        fsOps.deleteIfExists(tempPath.toFile());
+    }
+
+    @Override
+    public void completelyRemove() throws IOException {
+        fsOps.deleteIfExists(tempPath.toFile());
+        fsOps.deleteIfExists(path.toFile());
+    }
+
+    @Override
+    public long getSizeOnDisk() {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean isFullyDownloaded() {
+        return Files.exists(path);
+    }
+
+    @Override
+    public String toString() {
+        return "LOCAL CHUNK " + hash;
+    }
+}
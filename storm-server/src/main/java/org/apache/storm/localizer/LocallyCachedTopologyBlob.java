@@ -16,13 +16,16 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -30,7 +33,9 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.storm.blobstore.BlobChunkManifest;
 import org.apache.storm.blobstore.ClientBlobStore;
+import org.apache.storm.blobstore.InputStreamWithMeta;
 import org.apache.storm.daemon.supervisor.AdvancedFSOps;
 import org.apache.storm.generated.AuthorizationException;
 import org.apache.storm.generated.KeyNotFoundException;
@@ -58,16 +63,22 @@ public class LocallyCachedTopologyBlob extends LocallyCachedBlob {
     private volatile long version = NOT_DOWNLOADED_VERSION;
     private volatile long size = 0;
     private final Map<String, Object> conf;
+    private final PeerBlobDistributor peerDistributor;
+    private final BlobChunkCache chunkCache;
+    private volatile BlobChunkManifest chunkManifest;
 
     /**
      * Create a new LocallyCachedBlob.
      * @param topologyId the ID of the topology.
      * @param type the type of the blob.
      * @param owner the name of the user that owns this blob.
+     * @param peerDistributor to get the blob from other supervisors, or null to always download it from the blob store.
+     * @param chunkCache to put the blob together from the chunks that are here already, or null to always download all of it.
      */
     protected LocallyCachedTopologyBlob(final String topologyId, final boolean isLocalMode, final Map<String, Object> conf,
                                         final AdvancedFSOps fsOps, final TopologyBlobType type,
-                                        String owner, StormMetricsRegistry metricsRegistry) throws IOException {
+                                        String owner, StormMetricsRegistry metricsRegistry,
+                                        PeerBlobDistributor peerDistributor, BlobChunkCache chunkCache) throws IOException {
         super(topologyId + " " + type.getFileName(), type.getKey(topologyId), metricsRegistry);
         this.topologyId = topologyId;
         this.type = type;
@@ -75,6 +86,8 @@ public class LocallyCachedTopologyBlob extends LocallyCachedBlob {
         this.fsOps = fsOps;
         this.owner = owner;
         this.conf = conf;
+        this.peerDistributor = peerDistributor;
+        this.chunkCache = chunkCache;
         topologyBasicBlobsRootDir = Paths.get(ConfigUtils.supervisorStormDistRoot(conf, topologyId));
         readVersion();
         updateSizeOnDisk();
@@ -163,13 +176,48 @@ public class LocallyCachedTopologyBlob extends LocallyCachedBlob {
             return LOCAL_MODE_JAR_VERSION;
         }
 
-
-        DownloadMeta downloadMeta = fetch(store, type.getKey(topologyId),
-            v -> {
-                Path path = topologyBasicBlobsRootDir.resolve(type.getTempFileName(v));
+        DownloadMeta downloadMeta = null;
+        BlobChunkManifest manifest = null;
+        if (peerDistributor != null || chunkCache != null) {
+            manifest = readChunkManifest(store);
+            if (manifest != null && manifest.getVersion() != store.getBlobMeta(type.getKey(topologyId)).get_version()) {
+                LOG.info("The chunk manifest for {} is out of date, not using it", topologyId);
+                manifest = null;
+            }
+            if (manifest != null) {
+                Path path = topologyBasicBlobsRootDir.resolve(type.getTempFileName(manifest.getVersion()));
                 fsOps.forceMkdir(path.getParent());
-                return path;
-            }, fsOps::getOutputStream);
+                if (fetchChunks(store, manifest, path, false)) {
+                    downloadMeta = new DownloadMeta(path, manifest.getVersion());
+                }
+            }
+        }
+        chunkManifest = manifest;
+
+        if (downloadMeta == null) {
+            final BlobChunkManifest published = manifest;
+            downloadMeta = fetch(store, type.getKey(topologyId),
+                v -> {
+                    Path path = topologyBasicBlobsRootDir.resolve(type.getTempFileName(v));
+                    fsOps.forceMkdir(path.getParent());
+                    return path;
+                },
+                peerDistributor == null ? fsOps::getOutputStream
+                    : f -> peerDistributor.publishing(fsOps.getOutputStream(f), f.toPath(), published));
+            if (type == TopologyBlobType.TOPO_JAR) {
+                BlobChunkManifest stored = BlobChunkManifest.readStoredAsChunks(downloadMeta.getDownloadPath());
+                if (stored != null) {
+                    // nimbus stores the jar only as its chunks, the blob is the manifest of the jar
+                    chunkManifest = stored.withVersion(downloadMeta.getVersion());
+                    try (RandomAccessFile out = new RandomAccessFile(downloadMeta.getDownloadPath().toFile(), "rw")) {
+                        out.setLength(0);
+                    }
+                    if (!fetchChunks(store, chunkManifest, downloadMeta.getDownloadPath(), true)) {
+                        throw new IOException("Could not download the chunks of the jar for " + topologyId);
+                    }
+                }
+            }
+        }
 
         Path tmpLocation = downloadMeta.getDownloadPath();
 
@@ -181,6 +229,83 @@ public class LocallyCachedTopologyBlob extends LocallyCachedBlob {
         return downloadMeta.getVersion();
     }
 
+    private BlobChunkManifest readChunkManifest(ClientBlobStore store) {
+        String key = ConfigUtils.masterStormJarChunksKey(topologyId);
+        try (InputStreamWithMeta in = store.getBlob(key)) {
+            return BlobChunkManifest.deserialize(IOUtils.toByteArray(in));
+        } catch (KeyNotFoundException e) {
+            LOG.debug("No chunk manifest for {}", topologyId);
+        } catch (Exception e) {
+            LOG.warn("Could not read the chunk manifest for {}", topologyId, e);
+        }
+        return null;
+    }
+
+    /**
+     * Put the jar together from the chunks that are here already, and the others from peers or the blob store.
+     *
+     * @param storedAsChunks true if nimbus stores the jar only as its chunks, so the chunks are downloaded from the blob store even
+     *     without a chunk cache.
+     * @return true if the jar was put together, false if it has to be downloaded from the blob store.
+     */
+    private boolean fetchChunks(ClientBlobStore store, BlobChunkManifest manifest, Path dest, boolean storedAsChunks)
+        throws IOException, AuthorizationException {
+        List<Integer> missing = new ArrayList<>();
+        if (chunkCache != null) {
+            chunkCache.use(topologyId, manifest);
+            missing.addAll(chunkCache.missing(manifest));
+            chunkCache.copyTo(manifest, dest, missing, peerDistributor);
+        } else {
+            for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+                missing.add(i);
+            }
+        }
+        if (!missing.isEmpty() && peerDistributor != null && !peerDistributor.shouldSeed(topologyId)) {
+            peerDistributor.fetchFromPeers(topologyId, manifest, dest, missing);
+        }
+        if (!missing.isEmpty() && chunkCache != null) {
+            try {
+                chunkCache.download(store, manifest, dest, missing, peerDistributor);
+                missing.clear();
+            } catch (KeyNotFoundException e) {
+                LOG.warn("A chunk of the jar for {} is not in the blob store, downloading all of the jar", topologyId, e);
+            }
+        }
+        if (!missing.isEmpty() && chunkCache == null && storedAsChunks) {
+            try {
+                downloadChunks(store, manifest, dest, missing);
+                missing.clear();
+            } catch (KeyNotFoundException e) {
+                LOG.warn("A chunk of the jar for {} is not in the blob store", topologyId, e);
+            }
+        }
+        return missing.isEmpty();
+    }
+
+    /**
+     * Download chunks of the jar from the blob store straight into the jar, without keeping them.
+     */
+    private void downloadChunks(ClientBlobStore store, BlobChunkManifest manifest, Path dest, List<Integer> indexes)
+        throws IOException, KeyNotFoundException, AuthorizationException {
+        try (RandomAccessFile out = new RandomAccessFile(dest.toFile(), "rw")) {
+            for (int i : indexes) {
+                String hash = manifest.getChunkHashes().get(i);
+                byte[] data;
+                try (InputStreamWithMeta in = store.getBlob(BlobChunkManifest.chunkKey(hash))) {
+                    data = IOUtils.toByteArray(in);
+                }
+                if (data.length != manifest.getChunkLength(i) || !hash.equals(BlobChunkManifest.sha256Hex(data, 0, data.length))) {
+                    throw new IOException("Chunk " + hash + " from the blob store does not match its hash");
+                }
+                out.seek(manifest.getChunkOffset(i));
+                out.write(data);
+                if (peerDistributor != null) {
+                    peerDistributor.addChunk(hash, dest, manifest.getChunkOffset(i), manifest.getChunkLength(i));
+                }
+            }
+        }
+    }
+
     protected void extractDirFromJar(String jarpath, String dir, Path dest) throws IOException {
         LOG.debug("EXTRACTING {} from {} and placing it at {}", dir, jarpath, dest);
         if (!Files.exists(dest)) {
@@ -249,6 +374,19 @@ public class LocallyCachedTopologyBlob extends LocallyCachedBlob {
         FileUtils.write(versionFile.toFile(), Long.toString(newVersion), "UTF8");
         this.version = newVersion;
         updateSizeOnDisk();
+        BlobChunkManifest manifest = chunkManifest;
+        if (manifest != null && manifest.getVersion() != newVersion) {
+            manifest = null;
+        }
+        if (chunkCache != null) {
+            if (manifest != null) {
+                chunkCache.storeAll(manifest, dest);
+            }
+            chunkCache.use(topologyId, manifest);
+        }
+        if (peerDistributor != null) {
+            peerDistributor.committed(tempLoc, dest, manifest);
+        }
         LOG.debug("New version of {} - {} committed {}", topologyId, type, newVersion);
     }
 
@@ -282,6 +420,9 @@ public class LocallyCachedTopologyBlob extends LocallyCachedBlob {
 
     @Override
     public void completelyRemove() throws IOException {
+        if (chunkCache != null) {
+            chunkCache.use(topologyId, null);
+        }
         removeAll(type.getFileName());
         if (type.needsExtraction()) {
             removeAll(type.getExtractionDir());
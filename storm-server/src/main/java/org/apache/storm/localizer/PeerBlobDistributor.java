@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.localizer;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import org.apache.storm.DaemonConfig;
+import org.apache.storm.blobstore.BlobChunkManifest;
+import org.apache.storm.cluster.IStormClusterState;
+import org.apache.storm.generated.Assignment;
+import org.apache.storm.generated.SupervisorInfo;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.utils.ObjectReader;
+import org.apache.storm.utils.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lets the supervisors running a topology get the chunks of its jar from each other instead of all of them downloading the whole jar
+ * from nimbus at the same time. Nimbus stores the SHA-256 of every chunk next to the jar (see {@link BlobChunkManifest}), so chunks can
+ * come from any supervisor and are checked before they are used.
+ *
+ * <p>A few supervisors of every topology, picked the same way by all of them, are seeders: they download the jar from the blob store
+ * like before and serve every chunk as soon as it is downloaded and checked. The others fetch the chunks from any supervisor of the
+ * topology that has them, serving what they already have to the rest. A supervisor that could not get every chunk from its peers
+ * within {@link DaemonConfig#SUPERVISOR_BLOB_PEER_TIMEOUT_SECS} downloads the jar from the blob store instead.
+ *
+ * <p>Every supervisor advertises the port it serves chunks on in its {@link SupervisorInfo}, so several supervisors can run on the same
+ * host. A peer is asked for a chunk only once it could have it: every round a chunk is asked from a few peers at most, and a peer that
+ * did not have a few chunks is left alone for the rest of the round.
+ */
+public class PeerBlobDistributor implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(PeerBlobDistributor.class);
+    private static final int SERVER_THREADS = 4;
+    private static final int CONNECT_TIMEOUT_MS = 5_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+    private static final long RETRY_DELAY_MS = 1_000;
+    private static final int MAX_PEERS_PER_CHUNK = 2;
+    private static final int MAX_MISSES_PER_PEER = 4;
+
+    private final PeerBlobServer server;
+    private final int peerPort;
+    private final int seeders;
+    private final long timeoutMs;
+    private final Meter bytesFromPeers;
+    private final Meter bytesFromBlobStore;
+    private final Histogram peerFetchingRate;
+    private volatile String myNodeId;
+    // topology id -> the node ids of all of the supervisors running it
+    private volatile Map<String, Set<String>> topologyNodes = Collections.emptyMap();
+    // topology id -> node id -> host of all of the other supervisors running it
+    private volatile Map<String, Map<String, String>> topologyPeers = Collections.emptyMap();
+    // node id -> the port the supervisor serves chunks on, null if it does not say
+    private volatile Function<String, Integer> peerPorts = (node) -> null;
+
+    public PeerBlobDistributor(Map<String, Object> conf, StormMetricsRegistry metricsRegistry) throws IOException {
+        peerPort = ObjectReader.getInt(conf.get(DaemonConfig.SUPERVISOR_BLOB_PEER_PORT), 0);
+        seeders = ObjectReader.getInt(conf.get(DaemonConfig.SUPERVISOR_BLOB_PEER_SEEDERS), 3);
+        timeoutMs = ObjectReader.getInt(conf.get(DaemonConfig.SUPERVISOR_BLOB_PEER_TIMEOUT_SECS), 120) * 1000L;
+        bytesFromPeers = metricsRegistry.registerMeter("supervisor:topology-jar-bytes-from-peers");
+        bytesFromBlobStore = metricsRegistry.registerMeter("supervisor:topology-jar-bytes-from-blobstore");
+        peerFetchingRate = metricsRegistry.registerHistogram("supervisor:topology-jar-peer-fetching-rate-MB/s");
+        server = new PeerBlobServer(peerPort, SERVER_THREADS, metricsRegistry);
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    /**
+     * Update which supervisors run which topologies.
+     *
+     * @param myNodeId the assignment id of this supervisor.
+     * @param assignments all of the assignments in the cluster.
+     * @param clusterState where to read the ports the other supervisors serve chunks on from, only when fetching a jar.
+     */
+    public void updatePeers(String myNodeId, Map<String, Assignment> assignments, IStormClusterState clusterState) {
+        Map<String, Set<String>> nodes = new HashMap<>();
+        Map<String, Map<String, String>> peers = new HashMap<>();
+        for (Map.Entry<String, Assignment> entry : assignments.entrySet()) {
+            Map<String, String> nodeHosts = entry.getValue().get_node_host();
+            if (nodeHosts == null) {
+                continue;
+            }
+            nodes.put(entry.getKey(), new TreeSet<>(nodeHosts.keySet()));
+            Map<String, String> hosts = new HashMap<>(nodeHosts);
+            hosts.remove(myNodeId);
+            peers.put(entry.getKey(), hosts);
+        }
+        this.myNodeId = myNodeId;
+        topologyNodes = nodes;
+        topologyPeers = peers;
+        peerPorts = (node) -> {
+            SupervisorInfo info = clusterState.supervisorInfo(node);
+            return info != null && info.is_set_blob_peer_port() ? info.get_blob_peer_port() : null;
+        };
+    }
+
+    void setPeers(String topologyId, Map<String, String> nodeHosts, Function<String, Integer> ports) {
+        Map<String, Map<String, String>> peers = new HashMap<>(topologyPeers);
+        peers.put(topologyId, nodeHosts);
+        topologyPeers = peers;
+        peerPorts = ports;
+    }
+
+    /**
+     * Check if this supervisor should download the jar of a topology from the blob store right away.
+     */
+    public boolean shouldSeed(String topologyId) {
+        String me = myNodeId;
+        Set<String> nodes = topologyNodes.get(topologyId);
+        Map<String, String> peers = topologyPeers.get(topologyId);
+        if (me == null || nodes == null || peers == null || peers.isEmpty()) {
+            return true;
+        }
+        List<String> sorted = new ArrayList<>(nodes);
+        sorted.sort(Comparator.comparingInt((String node) -> (node + topologyId).hashCode()).thenComparing(node -> node));
+        return sorted.indexOf(me) < seeders;
+    }
+
+    /**
+     * Fetch all of the chunks of a jar from peers, serving every chunk to other peers as soon as it is here.
+     *
+     * @param topologyId the topology the jar is for.
+     * @param manifest the manifest of the jar.
+     * @param dest where to write the jar to.
+     * @return true if the whole jar was fetched, false if the peers did not have it in time.
+     * @throws IOException on any error writing the jar.
+     */
+    public boolean fetchFromPeers(String topologyId, BlobChunkManifest manifest, Path dest) throws IOException {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+            missing.add(i);
+        }
+        return fetchFromPeers(topologyId, manifest, dest, missing);
+    }
+
+    /**
+     * Fetch some of the chunks of a jar from peers, serving every chunk to other peers as soon as it is here.
+     *
+     * @param topologyId the topology the jar is for.
+     * @param manifest the manifest of the jar.
+     * @param dest where to write the jar to.
+     * @param missing the indexes of the chunks to fetch, the chunks that were fetched are removed from it.
+     * @return true if all of the chunks were fetched, false if the peers did not have them in time.
+     * @throws IOException on any error writing the jar.
+     */
+    public boolean fetchFromPeers(String topologyId, BlobChunkManifest manifest, Path dest, List<Integer> missing) throws IOException {
+        Map<String, String> peers = topologyPeers.get(topologyId);
+        if (missing.isEmpty() || peers == null || peers.isEmpty()) {
+            return missing.isEmpty();
+        }
+        // In a different order on every supervisor, so they have different chunks to give to each other early on.
+        Collections.shuffle(missing);
+        long deadline = Time.currentTimeMillis() + timeoutMs;
+        long startTime = Time.nanoTime();
+        long totalRead = 0;
+        Map<String, String> addresses = new HashMap<>();
+        boolean success = false;
+        try (RandomAccessFile out = new RandomAccessFile(dest.toFile(), "rw")) {
+            out.setLength(manifest.getLength());
+            while (true) {
+                List<String> shuffledPeers = resolvePeers(peers, addresses);
+                Collections.shuffle(shuffledPeers);
+                Map<String, Integer> misses = new HashMap<>();
+                int next = 0;
+                Iterator<Integer> it = missing.iterator();
+                while (it.hasNext() && !shuffledPeers.isEmpty()) {
+                    int index = it.next();
+                    String hash = manifest.getChunkHashes().get(index);
+                    int length = manifest.getChunkLength(index);
+                    // spread the chunks over the peers, and only ask a few of them for each chunk
+                    for (int tries = 0; tries < MAX_PEERS_PER_CHUNK && !shuffledPeers.isEmpty(); tries++) {
+                        long remainingMs = deadline - Time.currentTimeMillis();
+                        if (remainingMs <= 0) {
+                            return timedOut(topologyId, manifest, missing);
+                        }
+                        next = next % shuffledPeers.size();
+                        String peer = shuffledPeers.get(next);
+                        byte[] data = fetchChunk(peer, hash, length, remainingMs);
+                        if (data != null) {
+                            out.seek(manifest.getChunkOffset(index));
+                            out.write(data);
+                            server.addChunk(hash, dest, manifest.getChunkOffset(index), length);
+                            totalRead += length;
+                            it.remove();
+                            next++;
+                            break;
+                        }
+                        if (misses.merge(peer, 1, Integer::sum) >= MAX_MISSES_PER_PEER) {
+                            shuffledPeers.remove(next);
+                        } else {
+                            next++;
+                        }
+                    }
+                }
+                if (missing.isEmpty()) {
+                    break;
+                }
+                if (Time.currentTimeMillis() >= deadline) {
+                    return timedOut(topologyId, manifest, missing);
+                }
+                Time.sleep(RETRY_DELAY_MS);
+                peers = topologyPeers.getOrDefault(topologyId, peers);
+            }
+            success = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while fetching the jar for " + topologyId + " from peers", e);
+        } finally {
+            bytesFromPeers.mark(totalRead);
+            if (!success) {
+                // the jar is downloaded again from the blob store, do not serve it while it is overwritten
+                server.removeChunks(dest);
+            }
+        }
+        long duration = Time.nanoTime() - startTime;
+        peerFetchingRate.update(Math.round(((double) totalRead * 1e3) / Math.max(duration, 1)));
+        LOG.info("Fetched {} bytes of the jar for {} from peers", totalRead, topologyId);
+        return true;
+    }
+
+    private static boolean timedOut(String topologyId, BlobChunkManifest manifest, List<Integer> missing) {
+        LOG.info("Peers did not have {} of {} chunks of the jar for {} in time", missing.size(), manifest.getChunkHashes().size(),
+                 topologyId);
+        return false;
+    }
+
+    /**
+     * Get the host:port of the peers, looking up the port of every peer only once per jar.
+     */
+    private List<String> resolvePeers(Map<String, String> nodeHosts, Map<String, String> addresses) {
+        List<String> ret = new ArrayList<>();
+        for (Map.Entry<String, String> nodeHost : nodeHosts.entrySet()) {
+            String address = addresses.computeIfAbsent(nodeHost.getKey(), (node) -> {
+                Integer port = null;
+                try {
+                    port = peerPorts.apply(node);
+                } catch (RuntimeException e) {
+                    LOG.debug("Could not read the port {} serves chunks on", node, e);
+                }
+                if (port == null) {
+                    // a supervisor that does not say uses the port from the config, unless that is picked at random
+                    port = peerPort;
+                }
+                return port > 0 ? nodeHost.getValue() + ":" + port : null;
+            });
+            if (address != null) {
+                ret.add(address);
+            }
+        }
+        return ret;
+    }
+
+    boolean isServing(String hash) {
+        return server.hasChunk(hash);
+    }
+
+    /**
+     * Serve a chunk that was checked against its hash.
+     */
+    public void addChunk(String hash, Path file, long offset, int length) {
+        server.addChunk(hash, file, offset, length);
+    }
+
+    private byte[] fetchChunk(String peer, String hash, int length, long timeoutMs) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL("http://" + peer + PeerBlobServer.CHUNK_PATH + hash).openConnection();
+            // a timeout of 0 waits forever
+            connection.setConnectTimeout((int) Math.max(1, Math.min(CONNECT_TIMEOUT_MS, timeoutMs)));
+            connection.setReadTimeout((int) Math.max(1, Math.min(READ_TIMEOUT_MS, timeoutMs)));
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return null;
+            }
+            byte[] data = new byte[length];
+            int filled = 0;
+            try (InputStream in = connection.getInputStream()) {
+                int read;
+                while (filled < length && (read = in.read(data, filled, length - filled)) >= 0) {
+                    filled += read;
+                }
+                if (filled != length || in.read() >= 0) {
+                    LOG.warn("Chunk {} from {} has the wrong size", hash, peer);
+                    return null;
+                }
+            }
+            if (!hash.equals(BlobChunkManifest.sha256Hex(data, 0, length))) {
+                LOG.warn("Chunk {} from {} does not match its hash", hash, peer);
+                return null;
+            }
+            return data;
+        } catch (IOException e) {
+            LOG.debug("Could not fetch chunk {} from {}", hash, peer, e);
+            return null;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Wrap the stream a jar is downloaded from the blob store to, to serve every chunk as soon as it is downloaded.
+     *
+     * @param out the stream to wrap.
+     * @param path the file the stream writes to.
+     * @param manifest the manifest of the jar, or null if there is none.
+     * @return the wrapped stream.
+     */
+    public OutputStream publishing(OutputStream out, Path path, BlobChunkManifest manifest) {
+        return new PublishingOutputStream(out, path, manifest);
+    }
+
+    /**
+     * A jar was moved to its final location, serve it from there.
+     */
+    public void committed(Path tempPath, Path dest, BlobChunkManifest manifest) {
+        server.removeChunks(tempPath);
+        server.removeChunks(dest);
+        if (manifest != null) {
+            server.addChunks(manifest, dest);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+
+    private class PublishingOutputStream extends FilterOutputStream {
+        private final Path path;
+        private final BlobChunkManifest manifest;
+        private final MessageDigest digest = BlobChunkManifest.newDigest();
+        private long position = 0;
+        private int index = 0;
+
+        PublishingOutputStream(OutputStream out, Path path, BlobChunkManifest manifest) {
+            super(out);
+            this.path = path;
+            this.manifest = manifest;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{ (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesFromBlobStore.mark(len);
+            if (manifest == null) {
+                return;
+            }
+            while (len > 0 && index < manifest.getChunkHashes().size()) {
+                long chunkEnd = manifest.getChunkOffset(index) + manifest.getChunkLength(index);
+                int toDigest = (int) Math.min(len, chunkEnd - position);
+                digest.update(b, off, toDigest);
+                position += toDigest;
+                off += toDigest;
+                len -= toDigest;
+                if (position == chunkEnd) {
+                    publish();
+                }
+            }
+        }
+
+        private void publish() throws IOException {
+            String hash = BlobChunkManifest.toHex(digest.digest());
+            if (hash.equals(manifest.getChunkHashes().get(index))) {
+                // The chunk has to be on disk before a peer can ask for it
+                out.flush();
+                server.addChunk(hash, path, manifest.getChunkOffset(index), manifest.getChunkLength(index));
+            }
+            index++;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.localizer;
+
+import com.codahale.metrics.Meter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.storm.blobstore.BlobChunkManifest;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.shade.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves the chunks of blobs this supervisor has to other supervisors, by their SHA-256: {@code GET /chunk/<sha256>}. Every chunk is
+ * checked against its hash before it is sent, so a file that changed since the chunk was added is never served.
+ */
+public class PeerBlobServer implements AutoCloseable {
+    static final String CHUNK_PATH = "/chunk/";
+    private static final Logger LOG = LoggerFactory.getLogger(PeerBlobServer.class);
+
+    private final ConcurrentHashMap<String, ChunkLocation> chunks = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Meter servedBytes;
+
+    /**
+     * Start serving chunks.
+     *
+     * @param port the port to listen on, 0 for any free port.
+     * @param threads the number of chunks that can be served at the same time.
+     * @param metricsRegistry the registry for the metrics of the server.
+     * @throws IOException if the server could not be started.
+     */
+    public PeerBlobServer(int port, int threads, StormMetricsRegistry metricsRegistry) throws IOException {
+        servedBytes = metricsRegistry.registerMeter("supervisor:blob-peer-served-bytes");
+        executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("PeerBlobServer - %d").build());
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(CHUNK_PATH, this::serveChunk);
+        server.setExecutor(executor);
+        server.start();
+        LOG.info("Serving blob chunks to peers on port {}", getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Serve a chunk from a file.
+     */
+    public void addChunk(String hash, Path file, long offset, int length) {
+        chunks.put(hash, new ChunkLocation(file, offset, length));
+    }
+
+    /**
+     * Serve all of the chunks of a complete file.
+     */
+    public void addChunks(BlobChunkManifest manifest, Path file) {
+        for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+            addChunk(manifest.getChunkHashes().get(i), file, manifest.getChunkOffset(i), manifest.getChunkLength(i));
+        }
+    }
+
+    /**
+     * Stop serving the chunks of a file, because it is moved or deleted.
+     */
+    public void removeChunks(Path file) {
+        chunks.values().removeIf((location) -> location.file.equals(file));
+    }
+
+    public boolean hasChunk(String hash) {
+        return chunks.containsKey(hash);
+    }
+
+    private void serveChunk(HttpExchange exchange) throws IOException {
+        try {
+            String hash = exchange.getRequestURI().getPath().substring(CHUNK_PATH.length());
+            byte[] data = readChunk(hash);
+            if (data == null) {
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, data.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(data);
+            }
+            servedBytes.mark(data.length);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] readChunk(String hash) {
+        ChunkLocation location = chunks.get(hash);
+        if (location == null) {
+            return null;
+        }
+        byte[] data = new byte[location.length];
+        try (RandomAccessFile file = new RandomAccessFile(location.file.toFile(), "r")) {
+            file.seek(location.offset);
+            file.readFully(data);
+        } catch (IOException e) {
+            LOG.debug("Could not read chunk {} from {}", hash, location.file, e);
+            chunks.remove(hash, location);
+            return null;
+        }
+        if (!hash.equals(BlobChunkManifest.sha256Hex(data, 0, data.length))) {
+            LOG.debug("Chunk {} in {} changed", hash, location.file);
+            chunks.remove(hash, location);
+            return null;
+        }
+        return data;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static class ChunkLocation {
+        private final Path file;
+        private final long offset;
+        private final int length;
+
+        ChunkLocation(Path file, long offset, int length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
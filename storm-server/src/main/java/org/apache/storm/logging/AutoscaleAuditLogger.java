@@ -0,0 +1,30 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.logging;
+
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class AutoscaleAuditLogger {
+    private static final Logger LOG = LoggerFactory.getLogger(AutoscaleAuditLogger.class);
+
+    public static void logScaling(String topoId, String component, int fromExecutors, int toExecutors, Double capacity) {
+        LOG.info("Autoscale topology: {} component: {} executors: {} -> {} capacity: {}",
+                 topoId, component, fromExecutors, toExecutors, capacity == null ? "n/a" : String.format("%.3f", capacity));
+    }
+
+    public static void logFailure(String topoId, Map<String, Integer> numExecutors, Exception e) {
+        LOG.info("Autoscale topology: {} executors: {} failed: {}", topoId, numExecutors, e.toString());
+    }
+}
@@ -14,17 +14,24 @@ package org.apache.storm.nimbus;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.storm.Constants;
 import org.apache.storm.DaemonConfig;
 import org.apache.storm.daemon.supervisor.Supervisor;
+import org.apache.storm.generated.Assignment;
 import org.apache.storm.generated.SupervisorAssignments;
 import org.apache.storm.metric.StormMetricsRegistry;
 import org.apache.storm.scheduler.INodeAssignmentSentCallBack;
@@ -42,7 +49,11 @@ import org.slf4j.LoggerFactory;
  * <p>We support multiple working threads to distribute assignment, every thread has a queue buffer.
  *
  * <p>Master will shuffle its node request to the queues, if the target queue is full, we just discard the request,
- * let the supervisors sync instead.
+ * let the supervisors sync instead. A request older than the last one sent to the same node is discarded too.
+ *
+ * <p>With {@link DaemonConfig#NIMBUS_ASSIGNMENTS_DELTA_ENABLE} the assignments of every node are versioned, and a node is only
+ * sent the assignments that were added, changed or removed since the version it was sent last. A node that can not apply a
+ * delta, or that failed to receive one, is sent all of its assignments again.
  *
  * <p>Caution: this class is not thread safe.
  *
@@ -91,6 +102,23 @@ public class AssignmentDistributionService implements Closeable {
     private boolean isLocalMode = false; // boolean cache for local mode decision
     private INodeAssignmentSentCallBack sendAssignmentCallback;
 
+    /**
+     * Whether to send nodes deltas of their assignments.
+     */
+    private boolean deltaEnabled = false;
+    /**
+     * Orders the requests, so an older request is not sent after a newer one for the same node.
+     */
+    private final AtomicLong nextSequence = new AtomicLong();
+    /**
+     * Versions of the assignments sent, seeded with the time so they do not repeat after a nimbus restart or failover.
+     */
+    private final AtomicLong nextVersion = new AtomicLong(Time.currentTimeMillis());
+    /**
+     * What was sent to every node.
+     */
+    private final Map<String, NodeState> nodeStates = new ConcurrentHashMap<>();
+
     /**
      * Factory method for initialize a instance.
      * @param conf config.
@@ -116,6 +144,7 @@ public class AssignmentDistributionService implements Closeable {
 
         this.threadsNum = ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_ASSIGNMENTS_SERVICE_THREADS), 10);
         this.queueSize = ObjectReader.getInt(conf.get(DaemonConfig.NIMBUS_ASSIGNMENTS_SERVICE_THREAD_QUEUE_SIZE), 100);
+        this.deltaEnabled = ObjectReader.getBoolean(conf.get(DaemonConfig.NIMBUS_ASSIGNMENTS_DELTA_ENABLE), false);
 
         this.assignmentsQueue = new HashMap<>();
         for (int i = 0; i < threadsNum; i++) {
@@ -165,7 +194,7 @@ public class AssignmentDistributionService implements Closeable {
             }
 
             boolean success = nextQueue().offer(NodeAssignments.getInstance(node, host, serverPort,
-                                                assignments, metricsRegistry), 5L, TimeUnit.SECONDS);
+                                                assignments, metricsRegistry, nextSequence.getAndIncrement()), 5L, TimeUnit.SECONDS);
             if (!success) {
                 LOG.warn("Discard an assignment distribution for node {} because the target sub queue is full.", node);
             }
@@ -176,6 +205,15 @@ public class AssignmentDistributionService implements Closeable {
         }
     }
 
+    /**
+     * Forget what was sent to the nodes that left the cluster. A node that comes back is sent all of its assignments.
+     *
+     * @param nodes the ids of the nodes in the cluster.
+     */
+    public void retainNodes(Set<String> nodes) {
+        nodeStates.keySet().retainAll(nodes);
+    }
+
     public void addLocalSupervisor(Supervisor supervisor) {
         this.localSupervisors.put(supervisor.getId(), supervisor);
     }
@@ -222,19 +260,22 @@ public class AssignmentDistributionService implements Closeable {
         private Integer serverPort;
         private SupervisorAssignments assignments;
         private StormMetricsRegistry metricsRegistry;
+        private long sequence;
 
         private NodeAssignments(String node, String host, Integer serverPort, SupervisorAssignments assignments,
-                                StormMetricsRegistry metricsRegistry) {
+                                StormMetricsRegistry metricsRegistry, long sequence) {
             this.node = node;
             this.host = host;
             this.serverPort = serverPort;
             this.assignments = assignments;
             this.metricsRegistry = metricsRegistry;
+            this.sequence = sequence;
         }
 
         public static NodeAssignments getInstance(String node, String host, Integer serverPort,
-                                                  SupervisorAssignments assignments, StormMetricsRegistry metricsRegistry) {
-            return new NodeAssignments(node, host, serverPort, assignments, metricsRegistry);
+                                                  SupervisorAssignments assignments, StormMetricsRegistry metricsRegistry,
+                                                  long sequence) {
+            return new NodeAssignments(node, host, serverPort, assignments, metricsRegistry, sequence);
         }
 
         //supervisor assignment id/supervisor id
@@ -257,6 +298,70 @@ public class AssignmentDistributionService implements Closeable {
         public StormMetricsRegistry getMetricsRegistry() {
             return metricsRegistry;
         }
+
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * The assignments a node was sent last, to version them and compute deltas. All access has to be synchronized on the instance.
+     */
+    static class NodeState {
+        private long lastSequence = -1;
+        private long version;
+        // null when the node has to be sent all of its assignments
+        private Map<String, Assignment> assignments;
+
+        /**
+         * Get what to send to the node to bring it to the given assignments.
+         *
+         * @param target all the assignments of the node.
+         * @param nextVersion where to take the version of the assignments from.
+         * @return all the assignments or a delta on top of what the node was sent last, null if nothing changed.
+         */
+        SupervisorAssignments nextAssignments(Map<String, Assignment> target, AtomicLong nextVersion) {
+            SupervisorAssignments ret = new SupervisorAssignments();
+            if (assignments == null) {
+                ret.set_storm_assignment(target);
+            } else {
+                Map<String, Assignment> changed = new HashMap<>();
+                for (Map.Entry<String, Assignment> entry : target.entrySet()) {
+                    if (!entry.getValue().equals(assignments.get(entry.getKey()))) {
+                        changed.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                List<String> removed = new ArrayList<>();
+                for (String stormId : assignments.keySet()) {
+                    if (!target.containsKey(stormId)) {
+                        removed.add(stormId);
+                    }
+                }
+                if (changed.isEmpty() && removed.isEmpty()) {
+                    return null;
+                }
+                ret.set_storm_assignment(changed);
+                ret.set_removed_storm_ids(removed);
+                ret.set_base_version(version);
+            }
+            ret.set_version(nextVersion.incrementAndGet());
+            return ret;
+        }
+
+        /**
+         * Record that the node received assignments.
+         */
+        void sent(SupervisorAssignments sent, Map<String, Assignment> target) {
+            version = sent.get_version();
+            assignments = target;
+        }
+
+        /**
+         * Send the node all of its assignments next time.
+         */
+        void reset() {
+            assignments = null;
+        }
     }
 
     /**
@@ -289,12 +394,63 @@ public class AssignmentDistributionService implements Closeable {
         }
 
         private void sendAssignmentsToNode(NodeAssignments assignments) {
+            NodeState state = service.nodeStates.computeIfAbsent(assignments.getNode(), (node) -> new NodeState());
+            synchronized (state) {
+                if (assignments.getSequence() < state.lastSequence) {
+                    LOG.debug("Discard an assignment distribution for node {} because newer assignments were sent.",
+                              assignments.getNode());
+                    return;
+                }
+                state.lastSequence = assignments.getSequence();
+                if (!service.deltaEnabled) {
+                    sendAssignmentsToNode(assignments, assignments.getAssignments(), true);
+                    return;
+                }
+
+                Map<String, Assignment> target = assignments.getAssignments().get_storm_assignment();
+                if (target == null) {
+                    target = Collections.emptyMap();
+                }
+                SupervisorAssignments toSend = state.nextAssignments(target, service.nextVersion);
+                if (toSend == null) {
+                    LOG.debug("Assignments for node {} haven't changed", assignments.getNode());
+                    return;
+                }
+                if (toSend.is_set_base_version()) {
+                    if (sendAssignmentsToNode(assignments, toSend, false)) {
+                        state.sent(toSend, target);
+                        return;
+                    }
+                    LOG.info("Sending all assignments to node {} after it did not take a delta", assignments.getNode());
+                    state.reset();
+                    toSend = state.nextAssignments(target, service.nextVersion);
+                }
+                if (sendAssignmentsToNode(assignments, toSend, true)) {
+                    state.sent(toSend, target);
+                } else {
+                    state.reset();
+                }
+            }
+        }
+
+        /**
+         * Send assignments to a node.
+         *
+         * @param assignments the node to send to.
+         * @param toSend what to send.
+         * @param reportFailure whether to report a failure to the callback, a failed delta is retried with all assignments.
+         * @return true if the node received the assignments.
+         */
+        private boolean sendAssignmentsToNode(NodeAssignments assignments, SupervisorAssignments toSend, boolean reportFailure) {
             if (this.service.isLocalMode) {
                 //local node
                 Supervisor supervisor = this.service.localSupervisors.get(assignments.getNode());
                 if (supervisor != null) {
-                    supervisor.sendSupervisorAssignments(assignments.getAssignments());
+                    if (!supervisor.sendSupervisorAssignments(toSend)) {
+                        return rejected(assignments, toSend, reportFailure);
+                    }
                     service.sendAssignmentCallback.nodeAssignmentSent(assignments.getNode(), true);
+                    return true;
                 } else {
                     LOG.error("Can not find node {} for assignments distribution", assignments.getNode());
                     service.sendAssignmentCallback.nodeAssignmentSent(assignments.getNode(), false);
@@ -305,18 +461,40 @@ public class AssignmentDistributionService implements Closeable {
                 try (SupervisorClient client = SupervisorClient.getConfiguredClient(service.getConf(),
                                                                                     assignments.getHost(), assignments.getServerPort())) {
                     try {
-                        client.getIface().sendSupervisorAssignments(assignments.getAssignments());
+                        if (toSend.is_set_base_version()) {
+                            if (!client.getIface().sendSupervisorAssignmentsDelta(toSend)) {
+                                return rejected(assignments, toSend, reportFailure);
+                            }
+                        } else {
+                            client.getIface().sendSupervisorAssignments(toSend);
+                        }
                         service.sendAssignmentCallback.nodeAssignmentSent(assignments.getNode(), true);
+                        return true;
                     } catch (Exception e) {
                         assignments.getMetricsRegistry().getMeter(Constants.NIMBUS_SEND_ASSIGNMENT_EXCEPTIONS).mark();
                         LOG.error("Exception when trying to send assignments to node {}: {}", assignments.getNode(), e.getMessage());
-                        service.sendAssignmentCallback.nodeAssignmentSent(assignments.getNode(), false);
+                        if (reportFailure) {
+                            service.sendAssignmentCallback.nodeAssignmentSent(assignments.getNode(), false);
+                        }
+                        return false;
                     }
                 } catch (Throwable e) {
                     //just ignore any error/exception.
                     LOG.error("Exception to create supervisor client for node {}: {}", assignments.getNode(), e.getMessage());
+                    return false;
                 }
             }
         }
+
+        /**
+         * A node that can not apply a delta is expected after it or nimbus restarted, it is not an error.
+         */
+        private boolean rejected(NodeAssignments assignments, SupervisorAssignments toSend, boolean reportFailure) {
+            LOG.info("Node {} did not take the assignments delta on top of version {}", assignments.getNode(), toSend.get_base_version());
+            if (reportFailure) {
+                service.sendAssignmentCallback.nodeAssignmentSent(assignments.getNode(), false);
+            }
+            return false;
+        }
     }
 }
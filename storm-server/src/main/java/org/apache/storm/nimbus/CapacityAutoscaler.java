@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.nimbus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.storm.Config;
+import org.apache.storm.utils.ObjectReader;
+import org.apache.storm.utils.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scales bolts by their capacity, the fraction of the time their busiest executor spends executing tuples. A bolt gets more executors
+ * once its capacity stayed above {@link Config#TOPOLOGY_AUTOSCALE_CAPACITY_HIGH} for {@link Config#TOPOLOGY_AUTOSCALE_EVALUATIONS}
+ * evaluations in a row, and fewer once it stayed below {@link Config#TOPOLOGY_AUTOSCALE_CAPACITY_LOW} as long. The new number of
+ * executors aims for a capacity in the middle of the two, within {@link Config#TOPOLOGY_AUTOSCALE_MIN_EXECUTORS} and
+ * {@link Config#TOPOLOGY_AUTOSCALE_MAX_EXECUTORS}, and only adds as many executors as the free resources of the cluster fit. After
+ * scaling a topology a component is left alone for its {@link Config#TOPOLOGY_AUTOSCALE_COOLDOWN_SECS}. All of the settings can be set per
+ * component.
+ */
+public class CapacityAutoscaler implements ITopologyAutoscaler {
+    private static final Logger LOG = LoggerFactory.getLogger(CapacityAutoscaler.class);
+
+    private final Map<String, TopologyState> topologyStates = new ConcurrentHashMap<>();
+
+    @Override
+    public void prepare(Map<String, Object> conf) {
+        //NOOP
+    }
+
+    @Override
+    public Map<String, Integer> autoscale(TopologyScalingInfo info) {
+        TopologyState state = topologyStates.computeIfAbsent(info.getTopologyId(), (id) -> new TopologyState());
+        double availableCpu = info.getAvailableCpu();
+        double availableMemory = info.getAvailableMemory();
+        long now = Time.currentTimeMillis();
+        Map<String, Integer> ret = new HashMap<>();
+        for (Map.Entry<String, Double> entry : info.getComponentToCapacity().entrySet()) {
+            String comp = entry.getKey();
+            double capacity = entry.getValue();
+            Integer current = info.getComponentToExecutors().get(comp);
+            Integer numTasks = info.getComponentToTasks().get(comp);
+            if (current == null || numTasks == null) {
+                continue;
+            }
+            double high = ObjectReader.getDouble(get(info, comp, Config.TOPOLOGY_AUTOSCALE_CAPACITY_HIGH), 0.8);
+            double low = ObjectReader.getDouble(get(info, comp, Config.TOPOLOGY_AUTOSCALE_CAPACITY_LOW), 0.3);
+            int evaluations = ObjectReader.getInt(get(info, comp, Config.TOPOLOGY_AUTOSCALE_EVALUATIONS), 3);
+            int min = Math.max(1, ObjectReader.getInt(get(info, comp, Config.TOPOLOGY_AUTOSCALE_MIN_EXECUTORS), 1));
+            int max = Math.min(numTasks, ObjectReader.getInt(get(info, comp, Config.TOPOLOGY_AUTOSCALE_MAX_EXECUTORS), numTasks));
+
+            int overloaded = capacity > high ? state.overloaded.merge(comp, 1, Integer::sum) : resetCount(state.overloaded, comp);
+            int idle = capacity < low ? state.idle.merge(comp, 1, Integer::sum) : resetCount(state.idle, comp);
+            int cooldownSecs = ObjectReader.getInt(get(info, comp, Config.TOPOLOGY_AUTOSCALE_COOLDOWN_SECS), 600);
+            if (state.lastScaledMs != null && now - state.lastScaledMs < TimeUnit.SECONDS.toMillis(cooldownSecs)) {
+                continue;
+            }
+            // aim for the middle of the band, so the new parallelism does not immediately trigger the opposite action
+            int desired = (int) Math.ceil(current * capacity / ((high + low) / 2));
+            int target = current;
+            if (overloaded >= evaluations && current < max) {
+                target = Math.min(max, Math.max(current + 1, desired));
+                double cpu = info.getComponentToExecutorCpu().getOrDefault(comp, 0.0);
+                double memory = info.getComponentToExecutorMemory().getOrDefault(comp, 0.0);
+                while (target > current && ((target - current) * cpu > availableCpu || (target - current) * memory > availableMemory)) {
+                    target--;
+                }
+                if (target == current) {
+                    LOG.info("{} of {} needs more executors but the cluster does not have the resources for them", comp,
+                             info.getTopologyName());
+                    continue;
+                }
+                availableCpu -= (target - current) * cpu;
+                availableMemory -= (target - current) * memory;
+            } else if (idle >= evaluations && current > min) {
+                target = Math.max(min, Math.min(current - 1, desired));
+            }
+            if (target != current) {
+                ret.put(comp, target);
+            }
+        }
+
+        if (ret.isEmpty()) {
+            return ret;
+        }
+        state.lastScaledMs = now;
+        // the stats start over after a rebalance, so do the evaluations
+        state.overloaded.clear();
+        state.idle.clear();
+        return ret;
+    }
+
+    @Override
+    public void cleanup() {
+        topologyStates.clear();
+    }
+
+    private static Object get(TopologyScalingInfo info, String comp, String key) {
+        Map<String, Object> compConf = info.getComponentConfs().get(comp);
+        if (compConf != null && compConf.containsKey(key)) {
+            return compConf.get(key);
+        }
+        return info.getTopologyConf().get(key);
+    }
+
+    private static int resetCount(Map<String, Integer> counts, String comp) {
+        counts.remove(comp);
+        return 0;
+    }
+
+    private static class TopologyState {
+        // component -> number of evaluations in a row the component was over or under its capacity targets
+        private final Map<String, Integer> overloaded = new HashMap<>();
+        private final Map<String, Integer> idle = new HashMap<>();
+        private Long lastScaledMs = null;
+    }
+}
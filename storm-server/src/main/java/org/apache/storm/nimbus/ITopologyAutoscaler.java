@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.nimbus;
+
+import java.util.Map;
+
+/**
+ * A plugin interface that lets nimbus change the parallelism of topologies on its own. Nimbus periodically passes the state of every
+ * active topology that enabled {@link org.apache.storm.Config#TOPOLOGY_AUTOSCALE_ENABLE} to the plugin, and rebalances the topology
+ * to the executor counts the plugin returns.
+ */
+public interface ITopologyAutoscaler {
+
+    /**
+     * Called once during nimbus initialization.
+     */
+    void prepare(Map<String, Object> conf);
+
+    /**
+     * Decide whether to change the number of executors of the components of a topology.
+     *
+     * @param info the current state of the topology.
+     * @return component id -> new number of executors for the components to change, empty to leave the topology as it is.
+     */
+    Map<String, Integer> autoscale(TopologyScalingInfo info);
+
+    /**
+     * Called during shutdown.
+     */
+    void cleanup();
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.nimbus;
+
+import java.util.Map;
+
+/**
+ * What nimbus knows about a topology when asking an {@link ITopologyAutoscaler} to scale it. Only the components of the user are
+ * included, system components can not be scaled.
+ */
+public class TopologyScalingInfo {
+    private final String topologyId;
+    private final String topologyName;
+    private final Map<String, Object> topologyConf;
+    private final Map<String, Map<String, Object>> componentConfs;
+    private final Map<String, Integer> componentToExecutors;
+    private final Map<String, Integer> componentToTasks;
+    private final Map<String, Double> componentToCapacity;
+    private final Map<String, Double> componentToExecutorCpu;
+    private final Map<String, Double> componentToExecutorMemory;
+    private final double availableCpu;
+    private final double availableMemory;
+
+    /**
+     * Constructor.
+     *
+     * @param topologyId the id of the topology.
+     * @param topologyName the name of the topology.
+     * @param topologyConf the configuration of the topology.
+     * @param componentConfs component id -> the configuration of the component, overriding the topology configuration.
+     * @param componentToExecutors component id -> current number of executors.
+     * @param componentToTasks component id -> number of tasks, the most executors a component can have.
+     * @param componentToCapacity component id -> the highest capacity of an executor of the bolt over the last 10 minutes.
+     * @param componentToExecutorCpu component id -> the CPU an executor of the component requests.
+     * @param componentToExecutorMemory component id -> the memory in MB an executor of the component requests.
+     * @param availableCpu the CPU not used on the cluster.
+     * @param availableMemory the memory in MB not used on the cluster.
+     */
+    public TopologyScalingInfo(String topologyId, String topologyName, Map<String, Object> topologyConf,
+                               Map<String, Map<String, Object>> componentConfs, Map<String, Integer> componentToExecutors,
+                               Map<String, Integer> componentToTasks, Map<String, Double> componentToCapacity,
+                               Map<String, Double> componentToExecutorCpu, Map<String, Double> componentToExecutorMemory,
+                               double availableCpu, double availableMemory) {
+        this.topologyId = topologyId;
+        this.topologyName = topologyName;
+        this.topologyConf = topologyConf;
+        this.componentConfs = componentConfs;
+        this.componentToExecutors = componentToExecutors;
+        this.componentToTasks = componentToTasks;
+        this.componentToCapacity = componentToCapacity;
+        this.componentToExecutorCpu = componentToExecutorCpu;
+        this.componentToExecutorMemory = componentToExecutorMemory;
+        this.availableCpu = availableCpu;
+        this.availableMemory = availableMemory;
+    }
+
+    public String getTopologyId() {
+        return topologyId;
+    }
+
+    public String getTopologyName() {
+        return topologyName;
+    }
+
+    public Map<String, Object> getTopologyConf() {
+        return topologyConf;
+    }
+
+    public Map<String, Map<String, Object>> getComponentConfs() {
+        return componentConfs;
+    }
+
+    public Map<String, Integer> getComponentToExecutors() {
+        return componentToExecutors;
+    }
+
+    public Map<String, Integer> getComponentToTasks() {
+        return componentToTasks;
+    }
+
+    /**
+     * Get the capacity of the bolts, the fraction of the time their busiest executor spent executing tuples. Spouts are not included.
+     */
+    public Map<String, Double> getComponentToCapacity() {
+        return componentToCapacity;
+    }
+
+    public Map<String, Double> getComponentToExecutorCpu() {
+        return componentToExecutorCpu;
+    }
+
+    public Map<String, Double> getComponentToExecutorMemory() {
+        return componentToExecutorMemory;
+    }
+
+    public double getAvailableCpu() {
+        return availableCpu;
+    }
+
+    public double getAvailableMemory() {
+        return availableMemory;
+    }
+}
@@ -16,18 +16,23 @@ import com.codahale.metrics.ExponentiallyDecayingReservoir;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import org.apache.storm.Config;
 import org.apache.storm.generated.HBMessage;
 import org.apache.storm.generated.HBMessageData;
 import org.apache.storm.generated.HBNodes;
 import org.apache.storm.generated.HBPulse;
+import org.apache.storm.generated.HBRecords;
 import org.apache.storm.generated.HBServerMessageType;
 import org.apache.storm.metric.StormMetricsRegistry;
 import org.apache.storm.shade.uk.org.lidalia.sysoutslf4j.context.SysOutOverSLF4J;
 import org.apache.storm.utils.ConfigUtils;
+import org.apache.storm.utils.ObjectReader;
 import org.apache.storm.utils.Utils;
 import org.apache.storm.utils.VersionInfo;
 import org.slf4j.Logger;
@@ -42,11 +47,17 @@ public class Pacemaker implements IServerMessageHandler {
     private final Meter meterTotalSentSize;
     private final Histogram histogramHeartbeatSize;
     private final Map<String, byte[]> heartbeats;
+    // the heartbeats by the path they are under, the topology of a worker heartbeat, so the heartbeats under a path are found quickly
+    private final ConcurrentHashMap<String, Map<String, byte[]>> heartbeatsByParent;
     private final Map<String, Object> conf;
+    // the pulses returned for a path at once are limited to this, so the response is not too big for the client
+    private final int maxAllPulseSize;
 
     public Pacemaker(Map<String, Object> conf, StormMetricsRegistry metricsRegistry) {
         heartbeats = new ConcurrentHashMap<>();
+        heartbeatsByParent = new ConcurrentHashMap<>();
         this.conf = conf;
+        this.maxAllPulseSize = ObjectReader.getInt(conf.get(Config.PACEMAKER_THRIFT_MESSAGE_SIZE_MAX), 10485760) / 2;
         this.meterSendPulseCount = metricsRegistry.registerMeter("pacemaker:send-pulse-count");
         this.meterTotalReceivedSize = metricsRegistry.registerMeter("pacemaker:total-receive-size");
         this.meterGetPulseCount = metricsRegistry.registerMeter("pacemaker:get-pulse=count");
@@ -132,12 +143,45 @@ public class Pacemaker implements IServerMessageHandler {
         meterTotalReceivedSize.mark(details.length);
         histogramHeartbeatSize.update(details.length);
         heartbeats.put(id, details);
+        String parent = parentOf(id);
+        if (parent != null) {
+            heartbeatsByParent.compute(parent, (p, pulses) -> {
+                Map<String, byte[]> ret = pulses == null ? new ConcurrentHashMap<>() : pulses;
+                ret.put(id, details);
+                return ret;
+            });
+        }
         return new HBMessage(HBServerMessageType.SEND_PULSE_RESPONSE, null);
     }
 
+    private static String parentOf(String id) {
+        int end = id.lastIndexOf('/');
+        return end < 0 ? null : id.substring(0, end);
+    }
+
     private HBMessage getAllPulseForPath(String path, boolean authenticated) {
+        LOG.debug("Getting all pulses for path {}", path);
         if (authenticated) {
-            return new HBMessage(HBServerMessageType.GET_ALL_PULSE_FOR_PATH_RESPONSE, null);
+            String parent = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+            Map<String, byte[]> children = heartbeatsByParent.getOrDefault(parent, Collections.emptyMap());
+            List<HBPulse> pulses = new ArrayList<>();
+            long size = 0;
+            for (Map.Entry<String, byte[]> entry : children.entrySet()) {
+                byte[] details = entry.getValue();
+                size += details.length;
+                if (size > maxAllPulseSize) {
+                    // Too big for one response, the client gets the pulses one at a time instead.
+                    LOG.debug("The pulses for path {} are too big to return at once", path);
+                    return new HBMessage(HBServerMessageType.GET_ALL_PULSE_FOR_PATH_RESPONSE, null);
+                }
+                HBPulse hbPulse = new HBPulse();
+                hbPulse.set_id(entry.getKey());
+                hbPulse.set_details(details);
+                pulses.add(hbPulse);
+            }
+            meterGetPulseCount.mark(pulses.size());
+            meterTotalSentSize.mark(size);
+            return new HBMessage(HBServerMessageType.GET_ALL_PULSE_FOR_PATH_RESPONSE, HBMessageData.records(new HBRecords(pulses)));
         } else {
             return notAuthorized();
         }
@@ -198,6 +242,13 @@ public class Pacemaker implements IServerMessageHandler {
     private HBMessage deletePulseId(String path) {
         LOG.debug("Deleting Pulse for id [ {} ].", path);
         heartbeats.remove(path);
+        String parent = parentOf(path);
+        if (parent != null) {
+            heartbeatsByParent.computeIfPresent(parent, (p, pulses) -> {
+                pulses.remove(path);
+                return pulses.isEmpty() ? null : pulses;
+            });
+        }
         return new HBMessage(HBServerMessageType.DELETE_PULSE_ID_RESPONSE, null);
     }
 
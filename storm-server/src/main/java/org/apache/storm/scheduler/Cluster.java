@@ -81,6 +81,10 @@ public class Cluster implements ISchedulingState {
     private final Map<String, Map<String, Double>> nodeToScheduledOffHeapNodeMemoryCache;   // node -> topologyId -> double
     private final Map<String, Set<WorkerSlot>> nodeToUsedSlotsCache;
     private final Map<String, NormalizedResourceRequest> totalResourcesPerNodeCache = new HashMap<>();
+    // changes every time the resources scheduled on a node change, see getNodeResourcesVersion
+    private final Map<String, Long> nodeToResourcesVersion = new HashMap<>();
+    private long resourcesVersion = 0;
+    private long minResourcesVersion = 0;
     /**
      * Snapshot of cluster total resources (cpu, memory, generic).
      */
@@ -721,7 +725,7 @@ public class Cluster implements ISchedulingState {
         double sharedOffHeapNodeMemory = calculateSharedOffHeapNodeMemory(nodeId, td);
         assignment.setTotalSharedOffHeapNodeMemory(nodeId, sharedOffHeapNodeMemory);
         updateCachesForWorkerSlot(slot, resources, topologyId, sharedOffHeapNodeMemory);
-        totalResourcesPerNodeCache.remove(slot.getNodeId());
+        nodeResourcesChanged(slot.getNodeId());
     }
 
     /**
@@ -828,7 +832,7 @@ public class Cluster implements ISchedulingState {
             }
         }
         //Invalidate the cache as something on the node changed
-        totalResourcesPerNodeCache.remove(nodeId);
+        nodeResourcesChanged(nodeId);
     }
 
     /**
@@ -913,6 +917,8 @@ public class Cluster implements ISchedulingState {
         }
         assignments.clear();
         totalResourcesPerNodeCache.clear();
+        nodeToResourcesVersion.clear();
+        minResourcesVersion = ++resourcesVersion;
         nodeToScheduledResourcesCache.values().forEach(Map::clear);
         nodeToUsedSlotsCache.values().forEach(Set::clear);
         for (SchedulerAssignment assignment : newAssignments.values()) {
@@ -1113,6 +1119,22 @@ public class Cluster implements ISchedulingState {
         nodeToUsedSlotsCache.computeIfAbsent(nodeId, Cluster::makeSet).add(workerSlot);
     }
 
+    private void nodeResourcesChanged(String nodeId) {
+        totalResourcesPerNodeCache.remove(nodeId);
+        nodeToResourcesVersion.put(nodeId, ++resourcesVersion);
+    }
+
+    /**
+     * Get a number that changes every time the resources scheduled on a node change. Callers can compare it with an earlier value to
+     * tell whether something they derived from the resources of the node is still current.
+     *
+     * @param nodeId the id of the node
+     * @return the version of the resources scheduled on the node
+     */
+    public long getNodeResourcesVersion(String nodeId) {
+        return nodeToResourcesVersion.getOrDefault(nodeId, minResourcesVersion);
+    }
+
     public ResourceMetrics getResourceMetrics() {
         return resourceMetrics;
     }
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.storm.generated.Bolt;
+import org.apache.storm.generated.GlobalStreamId;
+import org.apache.storm.generated.StormTopology;
+
+/**
+ * The number of tuples per second sent between the components of a running topology, as reported by its executors.
+ *
+ * <p>Rates are only known per component, so the executors of a component are assumed to share its traffic evenly, as they would
+ * with a shuffle grouping.
+ */
+public class MeasuredTraffic {
+    // component -> component it sends to -> tuples per second
+    private final Map<String, Map<String, Double>> rates = new HashMap<>();
+    // component -> components it sends to or receives from
+    private final Map<String, Set<String>> neighbors = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param rates component -> component it sends to -> tuples per second.
+     */
+    public MeasuredTraffic(Map<String, Map<String, Double>> rates) {
+        rates.forEach((from, toRates) -> toRates.forEach((to, rate) -> {
+            if (rate > 0) {
+                this.rates.computeIfAbsent(from, (k) -> new HashMap<>()).put(to, rate);
+                neighbors.computeIfAbsent(from, (k) -> new HashSet<>()).add(to);
+                neighbors.computeIfAbsent(to, (k) -> new HashSet<>()).add(from);
+            }
+        }));
+    }
+
+    /**
+     * Attribute the transfer rates of the streams of a topology to the components subscribed to them. The rate of a stream with
+     * several subscribers is split evenly between them. Streams no user component subscribes to, like those of the system
+     * components, are left out.
+     *
+     * @param topology the user topology.
+     * @param streamRates component -> stream -> tuples per second transferred.
+     * @return the traffic between the components.
+     */
+    public static MeasuredTraffic fromStreamRates(StormTopology topology, Map<String, Map<String, Double>> streamRates) {
+        Map<GlobalStreamId, List<String>> subscribers = new HashMap<>();
+        if (topology.is_set_bolts()) {
+            for (Map.Entry<String, Bolt> bolt : topology.get_bolts().entrySet()) {
+                for (GlobalStreamId input : bolt.getValue().get_common().get_inputs().keySet()) {
+                    subscribers.computeIfAbsent(input, (k) -> new ArrayList<>()).add(bolt.getKey());
+                }
+            }
+        }
+        Map<String, Map<String, Double>> rates = new HashMap<>();
+        streamRates.forEach((comp, streams) -> streams.forEach((stream, rate) -> {
+            List<String> targets = subscribers.getOrDefault(new GlobalStreamId(comp, stream), Collections.emptyList());
+            for (String target : targets) {
+                rates.computeIfAbsent(comp, (k) -> new HashMap<>()).merge(target, rate / targets.size(), Double::sum);
+            }
+        }));
+        return new MeasuredTraffic(rates);
+    }
+
+    public boolean isEmpty() {
+        return rates.isEmpty();
+    }
+
+    /**
+     * Get the tuples per second sent from one component to another.
+     */
+    public double getRate(String fromComp, String toComp) {
+        return rates.getOrDefault(fromComp, Collections.emptyMap()).getOrDefault(toComp, 0.0);
+    }
+
+    /**
+     * Get the tuples per second sent between two components, in both directions.
+     */
+    public double getRateBetween(String comp1, String comp2) {
+        if (comp1.equals(comp2)) {
+            return getRate(comp1, comp1);
+        }
+        return getRate(comp1, comp2) + getRate(comp2, comp1);
+    }
+
+    /**
+     * Get the components a component sends tuples to or receives tuples from, possibly including itself.
+     */
+    public Set<String> getNeighbors(String comp) {
+        return neighbors.getOrDefault(comp, Collections.emptySet());
+    }
+
+    /**
+     * Get the tuples per second a component sends and receives.
+     */
+    public double getTotalRate(String comp) {
+        double total = 0.0;
+        for (String neighbor : getNeighbors(comp)) {
+            total += getRateBetween(comp, neighbor);
+        }
+        return total;
+    }
+
+    /**
+     * Get the tuples per second sent between all components.
+     */
+    public double getTotalRate() {
+        double total = 0.0;
+        for (Map<String, Double> toRates : rates.values()) {
+            for (double rate : toRates.values()) {
+                total += rate;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Estimate the tuples per second that would be sent between different workers with the given assignment.
+     *
+     * @param execToComp the component of each executor.
+     * @param execToSlot the worker each executor is assigned to.
+     * @return the estimated tuples per second sent between workers.
+     */
+    public double getCrossWorkerRate(Map<ExecutorDetails, String> execToComp, Map<ExecutorDetails, WorkerSlot> execToSlot) {
+        return getRemoteRate(execToComp, execToSlot);
+    }
+
+    /**
+     * Estimate the tuples per second that would be sent between different nodes with the given assignment.
+     *
+     * @param execToComp the component of each executor.
+     * @param execToSlot the worker each executor is assigned to.
+     * @return the estimated tuples per second sent between nodes.
+     */
+    public double getCrossNodeRate(Map<ExecutorDetails, String> execToComp, Map<ExecutorDetails, WorkerSlot> execToSlot) {
+        Map<ExecutorDetails, String> execToNode = new HashMap<>();
+        execToSlot.forEach((exec, slot) -> execToNode.put(exec, slot.getNodeId()));
+        return getRemoteRate(execToComp, execToNode);
+    }
+
+    private <L> double getRemoteRate(Map<ExecutorDetails, String> execToComp, Map<ExecutorDetails, L> execToLocation) {
+        // component -> location -> number of executors of the component there
+        Map<String, Map<L, Integer>> compLocationCnts = new HashMap<>();
+        Map<String, Integer> compCnts = new HashMap<>();
+        execToLocation.forEach((exec, location) -> {
+            String comp = execToComp.get(exec);
+            if (comp != null) {
+                compLocationCnts.computeIfAbsent(comp, (k) -> new HashMap<>()).merge(location, 1, Integer::sum);
+                compCnts.merge(comp, 1, Integer::sum);
+            }
+        });
+        double remoteRate = 0.0;
+        for (Map.Entry<String, Map<String, Double>> fromEntry : rates.entrySet()) {
+            String from = fromEntry.getKey();
+            if (!compCnts.containsKey(from)) {
+                continue;
+            }
+            for (Map.Entry<String, Double> toEntry : fromEntry.getValue().entrySet()) {
+                String to = toEntry.getKey();
+                if (!compCnts.containsKey(to)) {
+                    continue;
+                }
+                Map<L, Integer> toLocationCnts = compLocationCnts.get(to);
+                long localPairs = 0;
+                for (Map.Entry<L, Integer> fromLocation : compLocationCnts.get(from).entrySet()) {
+                    localPairs += (long) fromLocation.getValue() * toLocationCnts.getOrDefault(fromLocation.getKey(), 0);
+                }
+                long allPairs = (long) compCnts.get(from) * compCnts.get(to);
+                remoteRate += toEntry.getValue() * (allPairs - localPairs) / allPairs;
+            }
+        }
+        return remoteRate;
+    }
+
+    @Override
+    public String toString() {
+        return rates.toString();
+    }
+}
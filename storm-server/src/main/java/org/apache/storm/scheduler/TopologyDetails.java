@@ -59,6 +59,8 @@ public class TopologyDetails {
     private Integer topologyPriority;
     // Only contains user topology specific executors
     private Map<String, Component> userTopologyComponentsMap;
+    // Traffic measured while the topology was running, only set when it is rebalanced
+    private MeasuredTraffic measuredTraffic;
 
     public TopologyDetails(String topologyId, Map<String, Object> topologyConf, StormTopology topology, int numWorkers, String owner) {
         this(topologyId, topologyConf, topology, numWorkers, null, 0, owner);
@@ -108,6 +110,19 @@ public class TopologyDetails {
         return topology;
     }
 
+    /**
+     * Get the traffic between components measured before the topology was rebalanced.
+     *
+     * @return the measured traffic, or null if it was not measured.
+     */
+    public MeasuredTraffic getMeasuredTraffic() {
+        return measuredTraffic;
+    }
+
+    public void setMeasuredTraffic(MeasuredTraffic measuredTraffic) {
+        this.measuredTraffic = measuredTraffic;
+    }
+
     public Map<ExecutorDetails, String> getExecutorToComponent() {
         return executorToComponent;
     }
@@ -21,6 +21,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -31,9 +32,11 @@ import org.apache.storm.Config;
 import org.apache.storm.DaemonConfig;
 import org.apache.storm.metric.StormMetricsRegistry;
 import org.apache.storm.scheduler.Cluster;
+import org.apache.storm.scheduler.ExecutorDetails;
 import org.apache.storm.scheduler.IScheduler;
 import org.apache.storm.scheduler.SchedulerAssignment;
 import org.apache.storm.scheduler.SingleTopologyCluster;
+import org.apache.storm.scheduler.SupervisorDetails;
 import org.apache.storm.scheduler.Topologies;
 import org.apache.storm.scheduler.TopologyDetails;
 import org.apache.storm.scheduler.WorkerSlot;
@@ -60,9 +63,14 @@ public class ResourceAwareScheduler implements IScheduler {
     private int maxSchedulingAttempts;
     private int schedulingTimeoutSeconds;
     private ExecutorService backgroundScheduling;
+    private int parallelSchedulingThreads;
+    private ExecutorService speculativeScheduling;
     private Map<String, Set<String>> evictedTopologiesMap;   // topoId : toposEvicted
     private Meter schedulingTimeoutMeter;
     private Meter internalErrorMeter;
+    private Meter speculativeHitMeter;
+    private Meter speculativeConflictMeter;
+    private Meter speculativeMissMeter;
     private SchedulerConfigCache<Map<String, Map<String, Double>>> schedulerConfigCache;
 
     private static void markFailedTopology(User u, Cluster c, TopologyDetails td, String message) {
@@ -85,6 +93,9 @@ public class ResourceAwareScheduler implements IScheduler {
         this.conf = conf;
         schedulingTimeoutMeter = metricsRegistry.registerMeter("nimbus:num-scheduling-timeouts");
         internalErrorMeter = metricsRegistry.registerMeter("nimbus:scheduler-internal-errors");
+        speculativeHitMeter = metricsRegistry.registerMeter("nimbus:num-speculative-scheduling-hits");
+        speculativeConflictMeter = metricsRegistry.registerMeter("nimbus:num-speculative-scheduling-conflicts");
+        speculativeMissMeter = metricsRegistry.registerMeter("nimbus:num-speculative-scheduling-misses");
         schedulingPriorityStrategy = ReflectionUtils.newInstance(
             (String) conf.get(DaemonConfig.RESOURCE_AWARE_SCHEDULER_PRIORITY_STRATEGY));
         configLoader = ConfigLoaderFactoryService.createConfigLoader(conf);
@@ -93,6 +104,11 @@ public class ResourceAwareScheduler implements IScheduler {
         schedulingTimeoutSeconds = ObjectReader.getInt(
                 conf.get(DaemonConfig.SCHEDULING_TIMEOUT_SECONDS_PER_TOPOLOGY), 60);
         backgroundScheduling = Executors.newFixedThreadPool(1);
+        parallelSchedulingThreads = ObjectReader.getInt(
+            conf.get(DaemonConfig.RESOURCE_AWARE_SCHEDULER_PARALLEL_SCHEDULING_THREADS), 1);
+        if (parallelSchedulingThreads > 1) {
+            speculativeScheduling = Executors.newFixedThreadPool(parallelSchedulingThreads);
+        }
         evictedTopologiesMap = new HashMap<>();
 
         schedulerConfigCache = new SchedulerConfigCache<>(conf, this::loadConfig);
@@ -103,6 +119,9 @@ public class ResourceAwareScheduler implements IScheduler {
     public void cleanup() {
         LOG.info("Cleanup ResourceAwareScheduler scheduler");
         backgroundScheduling.shutdown();
+        if (speculativeScheduling != null) {
+            speculativeScheduling.shutdown();
+        }
     }
 
     @Override
@@ -123,18 +142,147 @@ public class ResourceAwareScheduler implements IScheduler {
         // clear tmpEvictedTopologiesMap at the beginning of each round of scheduling
         // move it to evictedTopologiesMap at the end of this round of scheduling
         Map<String, Set<String>> tmpEvictedTopologiesMap = new HashMap<>();
+        Map<String, SpeculativeSchedule> speculativeSchedules = scheduleSpeculatively(orderedTopologies, cluster);
+        // topologies that were evicted since the speculative schedules were started
+        Set<String> changedTopologies = new HashSet<>();
         for (TopologyDetails td : orderedTopologies) {
             if (!cluster.needsSchedulingRas(td)) {
                 //cluster forgets about its previous status, so if it is scheduled just leave it.
                 cluster.setStatusIfAbsent(td.getId(), "Fully Scheduled");
             } else {
                 User submitter = userMap.get(td.getTopologySubmitter());
-                scheduleTopology(td, cluster, submitter, orderedTopologies, tmpEvictedTopologiesMap);
+                SpeculativeSchedule speculative = speculativeSchedules.remove(td.getId());
+                if (speculative == null || !commitSpeculativeSchedule(td, cluster, speculative, changedTopologies)) {
+                    scheduleTopology(td, cluster, submitter, orderedTopologies, tmpEvictedTopologiesMap);
+                    changedTopologies.addAll(tmpEvictedTopologiesMap.getOrDefault(td.getId(), Collections.emptySet()));
+                }
             }
         }
+        for (SpeculativeSchedule speculative : speculativeSchedules.values()) {
+            speculative.result.cancel(true);
+        }
         evictedTopologiesMap = tmpEvictedTopologiesMap;
     }
 
+    /**
+     * Start scheduling every topology that needs it in the background, each against its own copy of the cluster as it is now.
+     * Nothing is returned if parallel scheduling is disabled or there is at most one topology to schedule.
+     */
+    private Map<String, SpeculativeSchedule> scheduleSpeculatively(List<TopologyDetails> orderedTopologies, Cluster cluster) {
+        Map<String, SpeculativeSchedule> ret = new HashMap<>();
+        if (speculativeScheduling == null) {
+            return ret;
+        }
+        List<TopologyDetails> toSchedule = orderedTopologies.stream()
+            .filter(cluster::needsSchedulingRas)
+            .collect(Collectors.toList());
+        if (toSchedule.size() < 2) {
+            return ret;
+        }
+        for (TopologyDetails td : toSchedule) {
+            IStrategy rasStrategy;
+            try {
+                rasStrategy = newStrategy(td);
+            } catch (RuntimeException e) {
+                // reported when the topology is scheduled on its own
+                continue;
+            }
+            // the copies are made here, as the cluster must not be read from several threads at once
+            SingleTopologyCluster workingState = new SingleTopologyCluster(cluster, td.getId());
+            Future<SchedulingResult> result = speculativeScheduling.submit(() -> rasStrategy.schedule(workingState, td));
+            ret.put(td.getId(), new SpeculativeSchedule(workingState, result));
+        }
+        LOG.debug("Scheduling {} topologies speculatively with {} threads", ret.size(), parallelSchedulingThreads);
+        return ret;
+    }
+
+    /**
+     * Apply the result of scheduling a topology speculatively, unless it failed, the topology was evicted since it was started, or
+     * it no longer fits on the cluster as it is now.
+     *
+     * @return true if the topology was scheduled, false if it still needs to be scheduled
+     */
+    private boolean commitSpeculativeSchedule(TopologyDetails td, Cluster cluster, SpeculativeSchedule speculative,
+                                              Set<String> changedTopologies) {
+        SchedulingResult result;
+        try {
+            result = speculative.result.get(schedulingTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.debug("Speculative scheduling of {} did not complete", td.getId(), e);
+            speculative.result.cancel(true);
+            speculativeMissMeter.mark();
+            return false;
+        }
+        SchedulerAssignment assignment = speculative.workingState.getAssignmentById(td.getId());
+        if (result == null || !result.isSuccess() || assignment == null) {
+            speculativeMissMeter.mark();
+            return false;
+        }
+        if (changedTopologies.contains(td.getId()) || !new TopologySchedulingResources(cluster, td).canSchedule()) {
+            LOG.debug("Speculative schedule of {} conflicts with higher priority topologies, scheduling it again", td.getId());
+            speculativeConflictMeter.mark();
+            return false;
+        }
+        //A copy of cluster that only gets committed back to cluster if every slot still fits
+        SingleTopologyCluster workingState = new SingleTopologyCluster(cluster, td.getId());
+        if (!reassign(workingState, td, assignment)) {
+            LOG.debug("Speculative schedule of {} no longer fits the cluster, scheduling it again", td.getId());
+            speculativeConflictMeter.mark();
+            return false;
+        }
+        cluster.updateFrom(workingState);
+        cluster.setStatus(td.getId(), "Running - " + result.getMessage());
+        speculativeHitMeter.mark();
+        return true;
+    }
+
+    /**
+     * Replace the assignment of a topology, checking every slot against what is still free on the cluster.
+     *
+     * @return true if every slot was free and no node ends up with more resources scheduled than it has
+     */
+    private static boolean reassign(Cluster workingState, TopologyDetails td, SchedulerAssignment assignment) {
+        workingState.unassign(td.getId());
+        Set<String> nodeIds = new HashSet<>();
+        for (Map.Entry<WorkerSlot, Collection<ExecutorDetails>> entry : assignment.getSlotToExecutors().entrySet()) {
+            WorkerSlot slot = entry.getKey();
+            SupervisorDetails sd = workingState.getSupervisorById(slot.getNodeId());
+            if (sd == null || workingState.isSlotOccupied(slot) || !workingState.getAssignablePorts(sd).contains(slot.getPort())) {
+                return false;
+            }
+            try {
+                workingState.assign(slot, td.getId(), entry.getValue());
+            } catch (RuntimeException e) {
+                LOG.debug("Could not assign {} to {}", td.getId(), slot, e);
+                return false;
+            }
+            nodeIds.add(slot.getNodeId());
+        }
+        for (String nodeId : nodeIds) {
+            NormalizedResourceOffer available = new NormalizedResourceOffer(workingState.getSupervisorById(nodeId).getTotalResources());
+            if (available.remove(workingState.getAllScheduledResourcesForNode(nodeId))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private IStrategy newStrategy(TopologyDetails td) {
+        String strategy = (String) td.getConf().get(Config.TOPOLOGY_SCHEDULER_STRATEGY);
+        if (strategy.startsWith("backtype.storm")) {
+            // Storm support to launch workers of older version.
+            // If the config of TOPOLOGY_SCHEDULER_STRATEGY comes from the older version, replace the package name.
+            strategy = strategy.replace("backtype.storm", "org.apache.storm");
+            LOG.debug("Replaced backtype.storm with org.apache.storm for Config.TOPOLOGY_SCHEDULER_STRATEGY");
+        }
+        IStrategy rasStrategy = ReflectionUtils.newSchedulerStrategyInstance(strategy, conf);
+        rasStrategy.prepare(conf);
+        return rasStrategy;
+    }
+
     private void scheduleTopology(TopologyDetails td, Cluster cluster, final User topologySubmitter,
                                   List<TopologyDetails> orderedTopologies, Map<String, Set<String>> tmpEvictedTopologiesMap) {
         //A copy of cluster that we can modify, but does not get committed back to cluster unless scheduling succeeds
@@ -143,15 +291,7 @@ public class ResourceAwareScheduler implements IScheduler {
         IStrategy rasStrategy = null;
         String strategyConf = (String) td.getConf().get(Config.TOPOLOGY_SCHEDULER_STRATEGY);
         try {
-            String strategy = (String) td.getConf().get(Config.TOPOLOGY_SCHEDULER_STRATEGY);
-            if (strategy.startsWith("backtype.storm")) {
-                // Storm support to launch workers of older version.
-                // If the config of TOPOLOGY_SCHEDULER_STRATEGY comes from the older version, replace the package name.
-                strategy = strategy.replace("backtype.storm", "org.apache.storm");
-                LOG.debug("Replaced backtype.storm with org.apache.storm for Config.TOPOLOGY_SCHEDULER_STRATEGY");
-            }
-            rasStrategy = ReflectionUtils.newSchedulerStrategyInstance(strategy, conf);
-            rasStrategy.prepare(conf);
+            rasStrategy = newStrategy(td);
         } catch (DisallowedStrategyException e) {
             markFailedTopology(topologySubmitter, cluster, td,
                                "Unsuccessful in scheduling - " + e.getAttemptedClass()
@@ -280,6 +420,19 @@ public class ResourceAwareScheduler implements IScheduler {
     }
 
 
+    /*
+     * A topology being scheduled in the background against a copy of the cluster.
+     */
+    private static class SpeculativeSchedule {
+        final SingleTopologyCluster workingState;
+        final Future<SchedulingResult> result;
+
+        SpeculativeSchedule(SingleTopologyCluster workingState, Future<SchedulingResult> result) {
+            this.workingState = workingState;
+            this.result = result;
+        }
+    }
+
     /*
      * Class for tracking resources for scheduling a topology.
      *
@@ -31,14 +31,22 @@ public class SchedulingResult {
     //error message returned is something went wrong
     private final String errorMessage;
 
-    private SchedulingResult(SchedulingStatus status, String message, String errorMessage) {
+    //statistics of the search for a solution, null if the strategy did not search
+    private final SearchStats searchStats;
+
+    private SchedulingResult(SchedulingStatus status, String message, String errorMessage, SearchStats searchStats) {
         this.status = status;
         this.message = message;
         this.errorMessage = errorMessage;
+        this.searchStats = searchStats;
     }
 
     public static SchedulingResult failure(SchedulingStatus status, String errorMessage) {
-        return new SchedulingResult(status, null, errorMessage);
+        return failure(status, errorMessage, null);
+    }
+
+    public static SchedulingResult failure(SchedulingStatus status, String errorMessage, SearchStats searchStats) {
+        return new SchedulingResult(status, null, errorMessage, searchStats);
     }
 
     public static SchedulingResult success() {
@@ -46,7 +54,11 @@ public class SchedulingResult {
     }
 
     public static SchedulingResult success(String message) {
-        return new SchedulingResult(SchedulingStatus.SUCCESS, message, null);
+        return success(message, null);
+    }
+
+    public static SchedulingResult success(String message, SearchStats searchStats) {
+        return new SchedulingResult(SchedulingStatus.SUCCESS, message, null, searchStats);
     }
 
     public SchedulingStatus getStatus() {
@@ -61,6 +73,10 @@ public class SchedulingResult {
         return this.errorMessage;
     }
 
+    public SearchStats getSearchStats() {
+        return this.searchStats;
+    }
+
     public boolean isSuccess() {
         return SchedulingStatus.isStatusSuccess(this.status);
     }
@@ -79,4 +95,59 @@ public class SchedulingResult {
         }
         return ret;
     }
+
+    /**
+     * Statistics of a backtracking search for a solution, which may have been split into several branches searched in parallel.
+     */
+    public static class SearchStats {
+        private final long statesSearched;
+        private final long backtracks;
+        private final long elapsedMs;
+        private final int branches;
+        private final int branchesSearched;
+
+        public SearchStats(long statesSearched, long backtracks, long elapsedMs, int branches, int branchesSearched) {
+            this.statesSearched = statesSearched;
+            this.backtracks = backtracks;
+            this.elapsedMs = elapsedMs;
+            this.branches = branches;
+            this.branchesSearched = branchesSearched;
+        }
+
+        public long getStatesSearched() {
+            return statesSearched;
+        }
+
+        public long getBacktracks() {
+            return backtracks;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        /**
+         * Get the number of branches the search was split into, 1 for a search that was not split.
+         */
+        public int getBranches() {
+            return branches;
+        }
+
+        /**
+         * Get the number of branches that were searched, either completely or until a solution was found or a limit was hit.
+         */
+        public int getBranchesSearched() {
+            return branchesSearched;
+        }
+
+        public double getStatesPerSecond() {
+            return elapsedMs == 0 ? statesSearched * 1000.0 : statesSearched * 1000.0 / elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d states traversed in %d ms (%.0f states/s), backtracked %d times, %d of %d branches searched",
+                statesSearched, elapsedMs, getStatesPerSecond(), backtracks, branchesSearched, branches);
+        }
+    }
 }
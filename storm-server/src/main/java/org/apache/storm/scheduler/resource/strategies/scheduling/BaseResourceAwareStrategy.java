@@ -32,6 +32,7 @@ import org.apache.storm.DaemonConfig;
 import org.apache.storm.daemon.Acker;
 import org.apache.storm.scheduler.Cluster;
 import org.apache.storm.scheduler.ExecutorDetails;
+import org.apache.storm.scheduler.MeasuredTraffic;
 import org.apache.storm.scheduler.SchedulerAssignment;
 import org.apache.storm.scheduler.TopologyDetails;
 import org.apache.storm.scheduler.WorkerSlot;
@@ -41,9 +42,11 @@ import org.apache.storm.scheduler.resource.SchedulingResult;
 import org.apache.storm.scheduler.resource.SchedulingStatus;
 import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.ExecSorterByConnectionCount;
 import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.ExecSorterByProximity;
+import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.ExecSorterByTraffic;
 import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.IExecSorter;
 import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.INodeSorter;
 import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.NodeSorter;
+import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.NodeSorterByTraffic;
 import org.apache.storm.utils.ObjectReader;
 import org.apache.storm.utils.Time;
 import org.slf4j.Logger;
@@ -82,7 +85,7 @@ public abstract class BaseResourceAwareStrategy implements IStrategy {
     protected Map<String, Set<ExecutorDetails>> compToExecs;
     protected Map<ExecutorDetails, String> execToComp;
     protected boolean orderExecutorsByProximity;
-    private long maxSchedulingTimeMs;
+    protected long maxSchedulingTimeMs;
 
     // Instance variables from Cluster and TopologyDetails.
     Set<ExecutorDetails> unassignedExecutors;
@@ -189,10 +192,17 @@ public abstract class BaseResourceAwareStrategy implements IStrategy {
         LOG.debug("The max state search that will be used by topology {} is {}", topologyDetails.getId(), maxStateSearch);
 
         searcherState = createSearcherState();
-        setNodeSorter(new NodeSorter(cluster, topologyDetails, nodeSortType));
-        setExecSorter(orderExecutorsByProximity
-                ? new ExecSorterByProximity(topologyDetails)
-                : new ExecSorterByConnectionCount(topologyDetails));
+        MeasuredTraffic measuredTraffic = topologyDetails.getMeasuredTraffic();
+        if (measuredTraffic != null && !measuredTraffic.isEmpty()) {
+            setNodeSorter(new NodeSorterByTraffic(cluster, topologyDetails, new NodeSorter(cluster, topologyDetails, nodeSortType),
+                measuredTraffic));
+            setExecSorter(new ExecSorterByTraffic(topologyDetails, measuredTraffic));
+        } else {
+            setNodeSorter(new NodeSorter(cluster, topologyDetails, nodeSortType));
+            setExecSorter(orderExecutorsByProximity
+                    ? new ExecSorterByProximity(topologyDetails)
+                    : new ExecSorterByConnectionCount(topologyDetails));
+        }
 
         logClusterInfo();
     }
@@ -239,6 +249,10 @@ public abstract class BaseResourceAwareStrategy implements IStrategy {
         return ObjectReader.getBoolean(topoConf.get(Config.TOPOLOGY_RAS_ORDER_EXECUTORS_BY_PROXIMITY_NEEDS), false);
     }
 
+    public static boolean isOrderByTraffic(Map<String, Object> topoConf) {
+        return ObjectReader.getBoolean(topoConf.get(Config.TOPOLOGY_RAS_ORDER_EXECUTORS_BY_TRAFFIC), false);
+    }
+
     /**
      * Create an instance of {@link SchedulingSearcherState}. This method is called by
      * {@link #prepareForScheduling(Cluster, TopologyDetails)} and depends on variables initialized therein prior.
@@ -14,14 +14,27 @@ package org.apache.storm.scheduler.resource.strategies.scheduling;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.storm.Config;
 import org.apache.storm.scheduler.Cluster;
 import org.apache.storm.scheduler.ExecutorDetails;
 import org.apache.storm.scheduler.SchedulerAssignment;
+import org.apache.storm.scheduler.SingleTopologyCluster;
 import org.apache.storm.scheduler.TopologyDetails;
 import org.apache.storm.scheduler.WorkerSlot;
 import org.apache.storm.scheduler.resource.RasNode;
@@ -30,6 +43,10 @@ import org.apache.storm.scheduler.resource.SchedulingResult;
 import org.apache.storm.scheduler.resource.SchedulingStatus;
 import org.apache.storm.scheduler.resource.strategies.scheduling.sorter.ExecSorterByConstraintSeverity;
 import org.apache.storm.shade.com.google.common.annotations.VisibleForTesting;
+import org.apache.storm.shade.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.storm.utils.ObjectReader;
+import org.apache.storm.utils.ReflectionUtils;
+import org.apache.storm.utils.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +59,33 @@ public class ConstraintSolverStrategy extends BaseResourceAwareStrategy {
      */
     private ConstraintSolverConfig constraintSolverConfig;
 
+    /**
+     * Set on the strategies searching a single branch of a parallel search, which only place {@link #branchExec} on the nodes
+     * {@link #branchNodeIds} and count the states they search in {@link #branchStatesSearched}, shared by all the branches.
+     * See {@link #scheduleInParallel(int)}.
+     */
+    private ExecutorDetails branchExec;
+    private Set<String> branchNodeIds;
+    private AtomicInteger branchStatesSearched;
+    /**
+     * The threads searching the branches of a parallel search, only set while {@link #scheduleInParallel(int)} runs.
+     */
+    private ExecutorService searchers;
+
+    @Override
+    public SchedulingResult schedule(Cluster cluster, TopologyDetails td) {
+        int searchThreads = ObjectReader.getInt(td.getConf().get(Config.TOPOLOGY_RAS_CONSTRAINT_SEARCH_THREADS), 1);
+        if (searchThreads <= 1 || branchNodeIds != null) {
+            return super.schedule(cluster, td);
+        }
+        prepareForScheduling(cluster, td);
+        SchedulingResult earlyResult = checkSchedulingFeasibility();
+        if (earlyResult != null) {
+            return earlyResult;
+        }
+        return scheduleInParallel(searchThreads);
+    }
+
     @Override
     protected void prepareForScheduling(Cluster cluster, TopologyDetails topologyDetails) {
         super.prepareForScheduling(cluster, topologyDetails);
@@ -49,6 +93,9 @@ public class ConstraintSolverStrategy extends BaseResourceAwareStrategy {
         // populate additional instance variables
         constraintSolverConfig = new ConstraintSolverConfig(topologyDetails);
         setExecSorter(new ExecSorterByConstraintSeverity(cluster, topologyDetails));
+        if (branchStatesSearched != null) {
+            searcherState.shareStatesSearched(branchStatesSearched);
+        }
     }
 
     @Override
@@ -69,6 +116,9 @@ public class ConstraintSolverStrategy extends BaseResourceAwareStrategy {
      */
     @Override
     protected boolean isExecAssignmentToWorkerValid(ExecutorDetails exec, WorkerSlot worker) {
+        if (branchNodeIds != null && exec.equals(branchExec) && !branchNodeIds.contains(worker.getNodeId())) {
+            return false;
+        }
         if (!super.isExecAssignmentToWorkerValid(exec, worker)) {
             return false;
         }
@@ -103,6 +153,174 @@ public class ConstraintSolverStrategy extends BaseResourceAwareStrategy {
         return true;
     }
 
+    /**
+     * Search for a solution with several threads. The nodes the first executor could be placed on are split into one branch per
+     * thread: each of the first branches places it on one of the best sorted nodes, the last branch on any of the others. Every
+     * branch searches its own copy of the cluster, made when a thread picks the branch up, and all of them count their states
+     * against the same state search limit. Once a branch finds a solution the ones still searching are interrupted.
+     *
+     * @param searchThreads the number of branches to search at the same time.
+     * @return the result of the branch that found a solution, or a failure if none did.
+     */
+    private SchedulingResult scheduleInParallel(int searchThreads) {
+        List<ExecutorDetails> orderedExecutors = execSorter.sortExecutors(unassignedExecutors);
+        List<ExecutorDetails> execsToBranchOn = new ArrayList<>(orderedExecutors);
+        execsToBranchOn.removeAll(searcherState.getUnassignedAckers());
+        List<String> candidateNodeIds = new ArrayList<>();
+        if (!execsToBranchOn.isEmpty()) {
+            for (String nodeId : nodeSorter.sortAllNodes(execsToBranchOn.get(0))) {
+                RasNode node = nodes.getNodeById(nodeId);
+                if (node != null && node.couldEverFit(execsToBranchOn.get(0), topologyDetails)) {
+                    candidateNodeIds.add(nodeId);
+                }
+            }
+        }
+        if (candidateNodeIds.size() <= 1) {
+            return scheduleExecutorsOnNodes(orderedExecutors, null);
+        }
+        int numBranches = Math.min(searchThreads, candidateNodeIds.size());
+        ExecutorDetails firstExec = execsToBranchOn.get(0);
+        AtomicInteger statesSearchedByBranches = new AtomicInteger();
+        List<ConstraintSolverStrategy> branchStrategies = new ArrayList<>(numBranches);
+        try {
+            for (int i = 0; i < numBranches; i++) {
+                ConstraintSolverStrategy branchStrategy = ReflectionUtils.newInstance(getClass());
+                branchStrategy.prepare(config);
+                branchStrategy.branchExec = firstExec;
+                branchStrategy.branchNodeIds = i < numBranches - 1
+                    ? Collections.singleton(candidateNodeIds.get(i))
+                    : new HashSet<>(candidateNodeIds.subList(i, candidateNodeIds.size()));
+                branchStrategy.branchStatesSearched = statesSearchedByBranches;
+                branchStrategies.add(branchStrategy);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot create {} to search branches for topology {}, searching with a single thread",
+                getClass().getName(), topoName, e);
+            return scheduleExecutorsOnNodes(orderedExecutors, null);
+        }
+        // computed lazily, do it before the branches share it
+        topologyDetails.getUserTopolgyComponents();
+
+        Branch solution = null;
+        long statesSearched = 0;
+        long backtracks = 0;
+        int branchesSearched = 0;
+        searchers = newSearchers(numBranches);
+        try {
+            ExecutorCompletionService<Branch> branches = new ExecutorCompletionService<>(searchers);
+            AtomicBoolean solved = new AtomicBoolean(false);
+            for (ConstraintSolverStrategy branchStrategy : branchStrategies) {
+                branches.submit(() -> branchStrategy.searchBranch(cluster, topologyDetails, solved));
+            }
+            long deadlineMs = searcherState.getStartTimeMillis() + maxSchedulingTimeMs;
+            for (int i = 0; i < numBranches && solution == null; i++) {
+                long remainingMs = deadlineMs - Time.currentTimeMillis();
+                Future<Branch> done = remainingMs > 0 ? branches.poll(remainingMs, TimeUnit.MILLISECONDS) : null;
+                if (done == null) {
+                    LOG.warn("Time limit exceeded searching {} branches for topology {}", numBranches, topoName);
+                    break;
+                }
+                Branch branch;
+                try {
+                    branch = done.get();
+                } catch (ExecutionException e) {
+                    LOG.error("Failed to search a branch for topology {}", topoName, e.getCause());
+                    continue;
+                }
+                if (branch == null) {
+                    continue;
+                }
+                branchesSearched++;
+                SchedulingResult.SearchStats branchStats = branch.result == null ? null : branch.result.getSearchStats();
+                if (branchStats != null) {
+                    statesSearched += branchStats.getStatesSearched();
+                    backtracks += branchStats.getBacktracks();
+                }
+                if (branch.result != null && branch.result.isSuccess()) {
+                    solution = branch;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            shutdownSearchers();
+        }
+
+        SchedulingResult.SearchStats searchStats = new SchedulingResult.SearchStats(statesSearched, backtracks,
+            Time.currentTimeMillis() - searcherState.getStartTimeMillis(), numBranches, branchesSearched);
+        LOG.info("Topology {} parallel search with {} threads: {}", topoName, searchThreads, searchStats);
+        if (solution == null) {
+            return SchedulingResult.failure(SchedulingStatus.FAIL_NOT_ENOUGH_RESOURCES,
+                "Cannot schedule by " + getClass().getSimpleName() + " (" + searchStats + ")", searchStats);
+        }
+        String topoId = topologyDetails.getId();
+        SchedulerAssignment assignment = solution.cluster.getAssignmentById(topoId);
+        cluster.unassign(topoId);
+        if (assignment != null) {
+            cluster.assign(assignment, false);
+        }
+        return SchedulingResult.success("Fully Scheduled by " + getClass().getSimpleName() + " (" + searchStats + ")", searchStats);
+    }
+
+    /**
+     * Create the pool the branches of a parallel search run in, one thread per branch.
+     */
+    private ExecutorService newSearchers(int threads) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("ConstraintSolverStrategy-search-" + topoName + "-%d")
+            .setDaemon(true)
+            .build();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads), threadFactory);
+    }
+
+    /**
+     * Interrupt the branches still searching and wait for them to stop, even if this thread is interrupted, as they use the
+     * strategies and topology of this search.
+     */
+    private void shutdownSearchers() {
+        searchers.shutdownNow();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    if (!searchers.awaitTermination(1, TimeUnit.MINUTES)) {
+                        LOG.warn("Branches searching topology {} did not stop", topoName);
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            searchers = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Search the branch of this strategy on a copy of the cluster.
+     *
+     * @param cluster the cluster of the parallel search, only read while it is copied.
+     * @return the branch searched, or null if it was skipped because another branch already found a solution.
+     */
+    private Branch searchBranch(Cluster cluster, TopologyDetails td, AtomicBoolean solved) {
+        if (solved.get() || Thread.currentThread().isInterrupted()) {
+            return null;
+        }
+        Branch branch;
+        // the cluster must not be read from several threads at once
+        synchronized (cluster) {
+            branch = new Branch(new SingleTopologyCluster(cluster, td.getId()));
+        }
+        branch.result = schedule(branch.cluster, td);
+        if (branch.result != null && branch.result.isSuccess()) {
+            solved.set(true);
+        }
+        return branch;
+    }
+
     /**
      * Determines if a scheduling is valid and all constraints are satisfied (for use in testing).
      * This is done in three steps.
@@ -261,4 +479,13 @@ public class ConstraintSolverStrategy extends BaseResourceAwareStrategy {
         }
         return true;
     }
+
+    private static class Branch {
+        final Cluster cluster;
+        SchedulingResult result;
+
+        Branch(Cluster cluster) {
+            this.cluster = cluster;
+        }
+    }
 }
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.storm.Config;
@@ -63,6 +64,8 @@ public class SchedulingSearcherState {
     // Metrics
     // How many states searched so far.
     private int statesSearched = 0;
+    // How many states searched so far by all the searches sharing the limit, null if this search has the limit to itself.
+    private AtomicInteger sharedStatesSearched;
     // Number of times we had to backtrack.
     private int numBacktrack = 0;
     // Current state
@@ -134,8 +137,20 @@ public class SchedulingSearcherState {
         }
     }
 
+    /**
+     * Count the states searched against a limit shared with other searches, like the branches of a parallel search.
+     *
+     * @param sharedStatesSearched the number of states searched by all of the searches sharing the limit.
+     */
+    public void shareStatesSearched(AtomicInteger sharedStatesSearched) {
+        this.sharedStatesSearched = sharedStatesSearched;
+    }
+
     public void incStatesSearched() {
         statesSearched++;
+        if (sharedStatesSearched != null) {
+            sharedStatesSearched.incrementAndGet();
+        }
         if (statesSearched % 1_000 == 0) {
             LOG.debug("Topology {} States Searched: {}", topoName, statesSearched);
             LOG.debug("Topology {} backtrack: {}", topoName, numBacktrack);
@@ -187,7 +202,8 @@ public class SchedulingSearcherState {
     }
 
     public boolean areSearchLimitsExceeded() {
-        return statesSearched > maxStatesSearched || Time.currentTimeMillis() > maxEndTimeMs;
+        int searched = sharedStatesSearched == null ? statesSearched : sharedStatesSearched.get();
+        return searched > maxStatesSearched || Time.currentTimeMillis() > maxEndTimeMs;
     }
 
     public SchedulingSearcherState nextExecutor() {
@@ -433,18 +449,19 @@ public class SchedulingSearcherState {
 
     public SchedulingResult createSchedulingResult(boolean success, String schedulerClassSimpleName) {
         String msg;
+        long elapsedMs = Time.currentTimeMillis() - this.getStartTimeMillis();
+        SchedulingResult.SearchStats searchStats = new SchedulingResult.SearchStats(this.getStatesSearched(), this.getNumBacktrack(),
+                elapsedMs, 1, 1);
         if (success) {
             msg = String.format("Fully Scheduled by %s (%d states traversed in %d ms, backtracked %d times)",
-                    schedulerClassSimpleName, this.getStatesSearched(),
-                    Time.currentTimeMillis() - this.getStartTimeMillis(), this.getNumBacktrack());
-            return SchedulingResult.success(msg);
+                    schedulerClassSimpleName, this.getStatesSearched(), elapsedMs, this.getNumBacktrack());
+            return SchedulingResult.success(msg, searchStats);
         } else {
             msg = String.format("Cannot schedule by %s (%d states traversed in %d ms, backtracked %d times, %d of %d executors scheduled)",
-                    schedulerClassSimpleName, this.getStatesSearched(),
-                    Time.currentTimeMillis() - this.getStartTimeMillis(), this.getNumBacktrack(),
+                    schedulerClassSimpleName, this.getStatesSearched(), elapsedMs, this.getNumBacktrack(),
                     this.getExecIndex(), this.getExecSize());
             this.logNodeCompAssignments();
-            return SchedulingResult.failure(SchedulingStatus.FAIL_NOT_ENOUGH_RESOURCES, msg);
+            return SchedulingResult.failure(SchedulingStatus.FAIL_NOT_ENOUGH_RESOURCES, msg, searchStats);
         }
     }
 
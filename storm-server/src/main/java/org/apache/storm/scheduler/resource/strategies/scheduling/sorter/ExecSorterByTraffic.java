@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.scheduler.resource.strategies.scheduling.sorter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.apache.storm.scheduler.ExecutorDetails;
+import org.apache.storm.scheduler.MeasuredTraffic;
+import org.apache.storm.scheduler.TopologyDetails;
+
+public class ExecSorterByTraffic implements IExecSorter {
+
+    protected TopologyDetails topologyDetails;
+    protected MeasuredTraffic traffic;
+    private final IExecSorter fallback;
+
+    public ExecSorterByTraffic(TopologyDetails topologyDetails, MeasuredTraffic traffic) {
+        this.topologyDetails = topologyDetails;
+        this.traffic = traffic;
+        this.fallback = new ExecSorterByConnectionCount(topologyDetails);
+    }
+
+    /**
+     * Order executors so that executors of components exchanging the most tuples are scheduled one after the other, which puts them
+     * in the same worker, or at least on the same node, when they fit. Components are taken in descending order of the tuples they
+     * send and receive. After each executor of a component, executors of each of its neighbors are added, the neighbor it exchanges
+     * the most tuples with first, spread evenly over the executors of the component. Executors of components without measured traffic
+     * are added last, in the order of {@link ExecSorterByConnectionCount}.
+     *
+     * @param unassignedExecutors an unmodifiable set of executors that need to be scheduled.
+     * @return a list of executors in sorted order for scheduling.
+     */
+    @Override
+    public List<ExecutorDetails> sortExecutors(Set<ExecutorDetails> unassignedExecutors) {
+        List<ExecutorDetails> fallbackOrder = fallback.sortExecutors(unassignedExecutors);
+        Map<ExecutorDetails, String> execToComp = topologyDetails.getExecutorToComponent();
+        Map<String, Queue<ExecutorDetails>> compToExecsToSchedule = new HashMap<>();
+        for (ExecutorDetails exec : fallbackOrder) {
+            String comp = execToComp.get(exec);
+            if (comp != null) {
+                compToExecsToSchedule.computeIfAbsent(comp, (k) -> new LinkedList<>()).add(exec);
+            }
+        }
+
+        List<String> sortedComponents = new ArrayList<>(compToExecsToSchedule.keySet());
+        sortedComponents.removeIf((comp) -> traffic.getTotalRate(comp) <= 0.0);
+        sortedComponents.sort(Comparator.comparingDouble((String comp) -> traffic.getTotalRate(comp)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+
+        LinkedHashSet<ExecutorDetails> orderedExecutorSet = new LinkedHashSet<>();
+        for (String currComp : sortedComponents) {
+            List<String> sortedNeighbors = new ArrayList<>(traffic.getNeighbors(currComp));
+            sortedNeighbors.remove(currComp);
+            sortedNeighbors.sort(Comparator.comparingDouble((String comp) -> traffic.getRateBetween(currComp, comp)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+            Queue<ExecutorDetails> currCompExecsToSched = compToExecsToSchedule.get(currComp);
+            while (!currCompExecsToSched.isEmpty()) {
+                orderedExecutorSet.add(currCompExecsToSched.poll());
+                for (String neighbor : sortedNeighbors) {
+                    Queue<ExecutorDetails> neighborExecsToSched = compToExecsToSchedule.get(neighbor);
+                    if (neighborExecsToSched == null) {
+                        continue;
+                    }
+                    // take a share of the neighbor executors, so they are spread over the executors of this component
+                    int cnt = (neighborExecsToSched.size() + currCompExecsToSched.size()) / (currCompExecsToSched.size() + 1);
+                    for (int i = 0; i < cnt && !neighborExecsToSched.isEmpty(); i++) {
+                        orderedExecutorSet.add(neighborExecsToSched.poll());
+                    }
+                }
+            }
+        }
+
+        // add executors not in sorted list - which may be system executors or have no measured traffic
+        orderedExecutorSet.addAll(fallbackOrder);
+        return new LinkedList<>(orderedExecutorSet);
+    }
+}
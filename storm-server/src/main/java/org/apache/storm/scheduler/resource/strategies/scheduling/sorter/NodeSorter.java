@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -70,6 +71,10 @@ public class NodeSorter implements INodeSorter {
     protected List<String> favoredNodeIds;
     protected List<String> unFavoredNodeIds;
 
+    // Sorted racks and nodes, kept across calls until the resources of a node they were computed from change.
+    private final Map<String, RackCache> rackCaches = new HashMap<>();
+    private final Map<Object, TreeSet<ObjectResourcesItem>> sortedRacksCache = new HashMap<>();
+
     /**
      * Initialize for the default implementation node sorting.
      *
@@ -494,7 +499,6 @@ public class NodeSorter implements INodeSorter {
     }
 
     private class LazyNodeSorting implements Iterable<String> {
-        private final Map<String, AtomicInteger> perNodeScheduledCount = new HashMap<>();
         private final TreeSet<ObjectResourcesItem> sortedRacks;
         private final Map<String, TreeSet<ObjectResourcesItem>> cachedNodes = new HashMap<>();
         private final ExecutorDetails exec;
@@ -505,23 +509,12 @@ public class NodeSorter implements INodeSorter {
             skippedNodeIds.addAll(favoredNodeIds);
             skippedNodeIds.addAll(unFavoredNodeIds);
             skippedNodeIds.addAll(greyListedSupervisorIds);
-
-            String topoId = topologyDetails.getId();
-            SchedulerAssignment assignment = cluster.getAssignmentById(topoId);
-            if (assignment != null) {
-                for (Map.Entry<WorkerSlot, Collection<ExecutorDetails>> entry :
-                    assignment.getSlotToExecutors().entrySet()) {
-                    String superId = entry.getKey().getNodeId();
-                    perNodeScheduledCount.computeIfAbsent(superId, (sid) -> new AtomicInteger(0))
-                        .getAndAdd(entry.getValue().size());
-                }
-            }
             sortedRacks = sortRacks(exec);
         }
 
         private TreeSet<ObjectResourcesItem> getSortedNodesFor(String rackId) {
-            return cachedNodes.computeIfAbsent(rackId,
-                (rid) -> sortNodes(rackIdToNodes.getOrDefault(rid, Collections.emptyList()), exec, rid, perNodeScheduledCount));
+            return cachedNodes.computeIfAbsent(rackId, (rid) -> getRackCache(rid).sortedNodes.computeIfAbsent(sortKey(exec),
+                (key) -> sortNodes(rackIdToNodes.getOrDefault(rid, Collections.emptyList()), exec, rid, getScheduledExecCntByNodeId())));
         }
 
         @Override
@@ -535,21 +528,40 @@ public class NodeSorter implements INodeSorter {
         return new LazyNodeSorting(exec);
     }
 
+    /**
+     * Only the resources an executor requests change how it ranks racks and nodes, and all executors of a component request the same
+     * resources, so sorts done for one executor can be reused for the others of the same component.
+     */
+    private Object sortKey(ExecutorDetails exec) {
+        if (exec == null || nodeSortType == BaseResourceAwareStrategy.NodeSortType.DEFAULT_RAS) {
+            return null;
+        }
+        String comp = topologyDetails.getExecutorToComponent().get(exec);
+        return comp == null ? exec : comp;
+    }
+
+    /**
+     * Get the cached state of a rack, dropping what was computed from nodes whose resources changed since.
+     */
+    private RackCache getRackCache(String rackId) {
+        RackCache rackCache = rackCaches.get(rackId);
+        if (rackCache == null || !rackCache.isCurrent()) {
+            rackCache = new RackCache(rackId);
+            rackCaches.put(rackId, rackCache);
+            // the resources of the rack count towards the overall resources used to rank every rack
+            sortedRacksCache.clear();
+        }
+        return rackCache;
+    }
+
     private ObjectResourcesSummary createClusterSummarizedResources() {
         ObjectResourcesSummary clusterResourcesSummary = new ObjectResourcesSummary("Cluster");
 
-        //This is the first time so initialize the resources.
-        for (Map.Entry<String, List<String>> entry : networkTopography.entrySet()) {
-            String rackId = entry.getKey();
-            List<String> nodeHosts = entry.getValue();
-            ObjectResourcesItem rack = new ObjectResourcesItem(rackId);
-            for (String nodeHost : nodeHosts) {
-                for (RasNode node : hostnameToNodes(nodeHost)) {
-                    rack.availableResources.add(node.getTotalAvailableResources());
-                    rack.totalResources.add(node.getTotalAvailableResources());
-                }
-            }
-            clusterResourcesSummary.addObjectResourcesItem(rack);
+        for (String rackId : networkTopography.keySet()) {
+            ObjectResourcesItem rack = getRackCache(rackId).resources;
+            // sorting may modify the resources of the items, so hand out copies
+            clusterResourcesSummary.addObjectResourcesItem(new ObjectResourcesItem(rackId,
+                new NormalizedResourceOffer(rack.availableResources), new NormalizedResourceOffer(rack.totalResources), 0, 0));
         }
 
         LOG.debug(
@@ -559,6 +571,21 @@ public class NodeSorter implements INodeSorter {
         return clusterResourcesSummary;
     }
 
+    private Map<String, AtomicInteger> getScheduledExecCntByNodeId() {
+        String topoId = topologyDetails.getId();
+        SchedulerAssignment assignment = cluster.getAssignmentById(topoId);
+        Map<String, AtomicInteger> scheduledCount = new HashMap<>();
+        if (assignment != null) {
+            for (Map.Entry<WorkerSlot, Collection<ExecutorDetails>> entry :
+                assignment.getSlotToExecutors().entrySet()) {
+                String superId = entry.getKey().getNodeId();
+                scheduledCount.computeIfAbsent(superId, (sid) -> new AtomicInteger(0))
+                    .getAndAdd(entry.getValue().size());
+            }
+        }
+        return scheduledCount;
+    }
+
     private Map<String, AtomicInteger> getScheduledExecCntByRackId() {
         String topoId = topologyDetails.getId();
         SchedulerAssignment assignment = cluster.getAssignmentById(topoId);
@@ -594,9 +621,13 @@ public class NodeSorter implements INodeSorter {
     public TreeSet<ObjectResourcesItem> sortRacks(ExecutorDetails exec) {
 
         final ObjectResourcesSummary clusterResourcesSummary = createClusterSummarizedResources();
+        TreeSet<ObjectResourcesItem> sortedRacks = sortedRacksCache.get(sortKey(exec));
+        if (sortedRacks != null) {
+            return sortedRacks;
+        }
         final Map<String, AtomicInteger> scheduledCount = getScheduledExecCntByRackId();
 
-        return sortObjectResources(
+        sortedRacks = sortObjectResources(
             clusterResourcesSummary,
             exec,
             (rackId) -> {
@@ -606,6 +637,8 @@ public class NodeSorter implements INodeSorter {
                 }
                 return count.get();
             });
+        sortedRacksCache.put(sortKey(exec), sortedRacks);
+        return sortedRacks;
     }
 
     /**
@@ -618,6 +651,44 @@ public class NodeSorter implements INodeSorter {
         return hostnameToNodes.getOrDefault(hostname, Collections.emptyList());
     }
 
+    /**
+     * The resources of a rack and the sorted nodes in it, along with the versions of the node resources they were computed from.
+     * Nodes are only sorted again once the resources of a node in the rack change, which for a topology being scheduled is usually a
+     * handful of racks at a time.
+     */
+    private class RackCache {
+        private final List<RasNode> nodes;
+        private final long[] versions;
+        private final ObjectResourcesItem resources;
+        private final Map<Object, TreeSet<ObjectResourcesItem>> sortedNodes = new HashMap<>();
+
+        RackCache(String rackId) {
+            resources = new ObjectResourcesItem(rackId);
+            Set<RasNode> rackNodes = new LinkedHashSet<>(rackIdToNodes.getOrDefault(rackId, Collections.emptyList()));
+            for (String nodeHost : networkTopography.getOrDefault(rackId, Collections.emptyList())) {
+                for (RasNode node : hostnameToNodes(nodeHost)) {
+                    resources.availableResources.add(node.getTotalAvailableResources());
+                    resources.totalResources.add(node.getTotalAvailableResources());
+                    rackNodes.add(node);
+                }
+            }
+            nodes = new ArrayList<>(rackNodes);
+            versions = new long[nodes.size()];
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = cluster.getNodeResourcesVersion(nodes.get(i).getId());
+            }
+        }
+
+        boolean isCurrent() {
+            for (int i = 0; i < versions.length; i++) {
+                if (versions[i] != cluster.getNodeResourcesVersion(nodes.get(i).getId())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * interface for calculating the number of existing executors scheduled on a object (rack or node).
      */
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.scheduler.resource.strategies.scheduling.sorter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.storm.scheduler.Cluster;
+import org.apache.storm.scheduler.ExecutorDetails;
+import org.apache.storm.scheduler.MeasuredTraffic;
+import org.apache.storm.scheduler.SchedulerAssignment;
+import org.apache.storm.scheduler.TopologyDetails;
+import org.apache.storm.scheduler.WorkerSlot;
+import org.apache.storm.scheduler.resource.strategies.scheduling.ObjectResourcesItem;
+import org.apache.storm.shade.com.google.common.collect.Iterators;
+
+/**
+ * Puts the nodes hosting executors an executor is expected to exchange the most tuples with first, most tuples first, followed by
+ * the remaining nodes in the order of another {@link INodeSorter}. Grey listed nodes are never moved to the front.
+ */
+public class NodeSorterByTraffic implements INodeSorter {
+    private final Cluster cluster;
+    private final TopologyDetails topologyDetails;
+    private final INodeSorter delegate;
+    private final MeasuredTraffic traffic;
+
+    public NodeSorterByTraffic(Cluster cluster, TopologyDetails topologyDetails, INodeSorter delegate, MeasuredTraffic traffic) {
+        this.cluster = cluster;
+        this.topologyDetails = topologyDetails;
+        this.delegate = delegate;
+        this.traffic = traffic;
+    }
+
+    @Override
+    public TreeSet<ObjectResourcesItem> sortRacks(ExecutorDetails exec) {
+        return delegate.sortRacks(exec);
+    }
+
+    @Override
+    public Iterable<String> sortAllNodes(ExecutorDetails exec) {
+        Iterable<String> delegateNodes = delegate.sortAllNodes(exec);
+        List<String> preferredNodes = getPreferredNodes(exec);
+        if (preferredNodes.isEmpty()) {
+            return delegateNodes;
+        }
+        Set<String> preferredNodeSet = new HashSet<>(preferredNodes);
+        return () -> Iterators.concat(preferredNodes.iterator(),
+            Iterators.filter(delegateNodes.iterator(), (nodeId) -> !preferredNodeSet.contains(nodeId)));
+    }
+
+    /**
+     * Get the nodes hosting executors of this topology that exchange tuples with the executor, sorted by the tuples per second they
+     * are expected to exchange in descending order.
+     */
+    private List<String> getPreferredNodes(ExecutorDetails exec) {
+        Map<ExecutorDetails, String> execToComp = topologyDetails.getExecutorToComponent();
+        String comp = exec == null ? null : execToComp.get(exec);
+        SchedulerAssignment assignment = cluster.getAssignmentById(topologyDetails.getId());
+        if (comp == null || assignment == null || traffic.getNeighbors(comp).isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Set<ExecutorDetails>> compToExecs = topologyDetails.getComponentToExecutors();
+        int compExecCnt = compToExecs.get(comp).size();
+        Set<String> greyListedNodes = new HashSet<>(cluster.getGreyListedSupervisors());
+        Map<String, Double> nodeToRate = new HashMap<>();
+        for (Map.Entry<ExecutorDetails, WorkerSlot> entry : assignment.getExecutorToSlot().entrySet()) {
+            String otherComp = execToComp.get(entry.getKey());
+            String nodeId = entry.getValue().getNodeId();
+            if (otherComp == null || greyListedNodes.contains(nodeId)) {
+                continue;
+            }
+            double rate = traffic.getRateBetween(comp, otherComp);
+            if (rate > 0.0) {
+                // the executors of each component are assumed to share its traffic evenly
+                nodeToRate.merge(nodeId, rate / compExecCnt / compToExecs.get(otherComp).size(), Double::sum);
+            }
+        }
+        List<String> ret = new ArrayList<>(nodeToRate.keySet());
+        ret.sort(Comparator.comparingDouble((String nodeId) -> nodeToRate.get(nodeId)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+        return ret;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.scheduler.simulator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.storm.daemon.StormCommon;
+import org.apache.storm.generated.ClusterSummary;
+import org.apache.storm.generated.ComponentCommon;
+import org.apache.storm.generated.ExecutorSummary;
+import org.apache.storm.generated.InvalidTopologyException;
+import org.apache.storm.generated.Nimbus;
+import org.apache.storm.generated.StormTopology;
+import org.apache.storm.generated.SupervisorSummary;
+import org.apache.storm.generated.TopologyInfo;
+import org.apache.storm.generated.TopologySummary;
+import org.apache.storm.scheduler.Cluster;
+import org.apache.storm.scheduler.ExecutorDetails;
+import org.apache.storm.scheduler.INimbus;
+import org.apache.storm.scheduler.SchedulerAssignment;
+import org.apache.storm.scheduler.SupervisorDetails;
+import org.apache.storm.scheduler.Topologies;
+import org.apache.storm.scheduler.TopologyDetails;
+import org.apache.storm.scheduler.WorkerSlot;
+import org.apache.storm.scheduler.resource.normalization.ResourceMetrics;
+import org.apache.storm.thrift.TException;
+import org.apache.storm.utils.Time;
+import org.apache.storm.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A point in time copy of the supervisors, topologies and assignments of a cluster, which can be written to a file and turned back
+ * into a {@link Cluster} to replay scheduling offline.
+ */
+public class ClusterSnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterSnapshot.class);
+
+    private final List<SupervisorSnapshot> supervisorSnapshots = new ArrayList<>();
+    private final List<TopologySnapshot> topologySnapshots = new ArrayList<>();
+    // rack -> hosts, null if the racks should be resolved with the network topography plugin of the replaying config.
+    private Map<String, List<String>> networkTopography;
+
+    /**
+     * Take a snapshot of an in memory cluster.
+     *
+     * @param cluster the cluster to copy.
+     * @return the snapshot.
+     */
+    public static ClusterSnapshot fromCluster(Cluster cluster) {
+        ClusterSnapshot ret = new ClusterSnapshot();
+        for (SupervisorDetails sd : cluster.getSupervisors().values()) {
+            List<Integer> ports = new ArrayList<>();
+            for (Number port : sd.getAllPorts()) {
+                ports.add(port.intValue());
+            }
+            ret.supervisorSnapshots.add(new SupervisorSnapshot(sd.getId(), sd.getHost(), ports,
+                sd.getTotalResources().toNormalizedMap()));
+        }
+        for (TopologyDetails td : cluster.getTopologies()) {
+            Map<List<Integer>, String> execToComp = new HashMap<>();
+            td.getExecutorToComponent().forEach((exec, comp) -> execToComp.put(toList(exec), comp));
+            Map<String, Map<Integer, List<List<Integer>>>> assignment = new HashMap<>();
+            SchedulerAssignment sa = cluster.getAssignmentById(td.getId());
+            if (sa != null) {
+                sa.getExecutorToSlot().forEach((exec, slot) -> assignment.computeIfAbsent(slot.getNodeId(), (k) -> new HashMap<>())
+                    .computeIfAbsent(slot.getPort(), (k) -> new ArrayList<>()).add(toList(exec)));
+            }
+            ret.topologySnapshots.add(new TopologySnapshot(td.getId(), td.getConf(), td.getTopology(), td.getNumWorkers(),
+                td.getLaunchTime(), td.getTopologySubmitter(), execToComp, assignment));
+        }
+        ret.networkTopography = new HashMap<>(cluster.getNetworkTopography());
+        return ret;
+    }
+
+    /**
+     * Take a snapshot of a running cluster through the thrift API of nimbus. The executors of topologies without an assignment are
+     * computed from the parallelism hints of their components, the same way nimbus does when a topology is submitted.
+     *
+     * @param client the nimbus client.
+     * @return the snapshot.
+     */
+    public static ClusterSnapshot fromNimbus(Nimbus.Iface client) throws TException, InvalidTopologyException {
+        ClusterSnapshot ret = new ClusterSnapshot();
+        ClusterSummary summary = client.getClusterInfo();
+        Map<String, SupervisorSnapshot> hostToSupervisor = new HashMap<>();
+        Map<SupervisorSnapshot, Integer> supervisorToNumSlots = new HashMap<>();
+        for (SupervisorSummary sup : summary.get_supervisors()) {
+            SupervisorSnapshot snapshot = new SupervisorSnapshot(sup.get_supervisor_id(), sup.get_host(), new ArrayList<>(),
+                sup.get_total_resources());
+            ret.supervisorSnapshots.add(snapshot);
+            supervisorToNumSlots.put(snapshot, sup.get_num_workers());
+            hostToSupervisor.putIfAbsent(sup.get_host(), snapshot);
+        }
+        int now = Time.currentTimeSecs();
+        for (TopologySummary topoSummary : summary.get_topologies()) {
+            String topoId = topoSummary.get_id();
+            Map<String, Object> topoConf = Utils.parseJson(client.getTopologyConf(topoId));
+            StormTopology topology = client.getUserTopology(topoId);
+            TopologyInfo info = client.getTopologyInfo(topoId);
+            Map<List<Integer>, String> execToComp = new HashMap<>();
+            Map<String, Map<Integer, List<List<Integer>>>> assignment = new HashMap<>();
+            for (ExecutorSummary exec : info.get_executors()) {
+                List<Integer> execKey = Arrays.asList(exec.get_executor_info().get_task_start(), exec.get_executor_info().get_task_end());
+                execToComp.put(execKey, exec.get_component_id());
+                SupervisorSnapshot sup = hostToSupervisor.get(exec.get_host());
+                if (sup == null) {
+                    LOG.warn("Executor {} of {} is on {}, which has no supervisor", execKey, topoId, exec.get_host());
+                    continue;
+                }
+                if (!sup.ports.contains(exec.get_port())) {
+                    sup.ports.add(exec.get_port());
+                }
+                assignment.computeIfAbsent(sup.id, (k) -> new HashMap<>())
+                    .computeIfAbsent(exec.get_port(), (k) -> new ArrayList<>()).add(execKey);
+            }
+            if (execToComp.isEmpty()) {
+                execToComp = computeExecutorToComponent(topology, topoConf);
+            }
+            ret.topologySnapshots.add(new TopologySnapshot(topoId, topoConf, topology, topoSummary.get_num_workers(),
+                now - topoSummary.get_uptime_secs(), topoSummary.get_owner(), execToComp, assignment));
+        }
+        // The summary only has the number of slots of a supervisor, so the ports no worker uses are made up.
+        supervisorToNumSlots.forEach((sup, numSlots) -> {
+            for (int port = 6700; sup.ports.size() < numSlots; port++) {
+                if (!sup.ports.contains(port)) {
+                    sup.ports.add(port);
+                }
+            }
+        });
+        return ret;
+    }
+
+    private static Map<List<Integer>, String> computeExecutorToComponent(StormTopology topology, Map<String, Object> topoConf)
+        throws InvalidTopologyException {
+        Map<String, Object> totalConf = new HashMap<>(Utils.readStormConfig());
+        totalConf.putAll(topoConf);
+        Map<String, Object> components = StormCommon.allComponents(StormCommon.systemTopology(totalConf, topology));
+        Map<String, List<Integer>> compToTasks = Utils.reverseMap(StormCommon.stormTaskInfo(topology, totalConf));
+        Map<List<Integer>, String> ret = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : compToTasks.entrySet()) {
+            List<Integer> tasks = entry.getValue();
+            tasks.sort(null);
+            Object component = components.get(entry.getKey());
+            ComponentCommon common = component == null ? null : StormCommon.getComponentCommon(component);
+            int numExecutors = common != null && common.is_set_parallelism_hint() ? common.get_parallelism_hint() : 1;
+            for (List<Integer> partition : Utils.partitionFixed(numExecutors, tasks)) {
+                ret.put(Arrays.asList(partition.get(0), partition.get(partition.size() - 1)), entry.getKey());
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Read a snapshot written by {@link #write(File)}.
+     */
+    public static ClusterSnapshot read(File file) throws IOException {
+        return Utils.javaDeserialize(Files.readAllBytes(file.toPath()), ClusterSnapshot.class);
+    }
+
+    public void write(File file) throws IOException {
+        Files.write(file.toPath(), Utils.javaSerialize(this));
+    }
+
+    public Map<String, SupervisorDetails> getSupervisors() {
+        Map<String, SupervisorDetails> ret = new HashMap<>();
+        for (SupervisorSnapshot sup : supervisorSnapshots) {
+            ret.put(sup.id, new SupervisorDetails(sup.id, sup.host, null, sup.ports, sup.totalResources));
+        }
+        return ret;
+    }
+
+    /**
+     * Get the topologies of the snapshot.
+     *
+     * @param confOverrides settings to put into the configuration of every topology, like the scheduling strategy to use.
+     * @return the topologies.
+     */
+    public Topologies getTopologies(Map<String, Object> confOverrides) {
+        Map<String, TopologyDetails> ret = new HashMap<>();
+        for (TopologySnapshot topo : topologySnapshots) {
+            Map<String, Object> topoConf = new HashMap<>(topo.conf);
+            topoConf.putAll(confOverrides);
+            Map<ExecutorDetails, String> execToComp = new HashMap<>();
+            topo.executorToComponent.forEach((exec, comp) -> execToComp.put(toExecutor(exec), comp));
+            ret.put(topo.id, new TopologyDetails(topo.id, topoConf, Utils.thriftDeserialize(StormTopology.class, topo.topology),
+                topo.numWorkers, execToComp, topo.launchTime, topo.owner));
+        }
+        return new Topologies(ret);
+    }
+
+    /**
+     * Build a cluster out of the snapshot.
+     *
+     * @param inimbus the INimbus the cluster should use.
+     * @param resourceMetrics the resource metrics the cluster should use.
+     * @param topologies the topologies, as returned by {@link #getTopologies(Map)}.
+     * @param conf the daemon configuration.
+     * @param withAssignments true to keep the assignments of the snapshot, false to have every topology scheduled from scratch.
+     * @return the cluster.
+     */
+    public Cluster toCluster(INimbus inimbus, ResourceMetrics resourceMetrics, Topologies topologies, Map<String, Object> conf,
+                             boolean withAssignments) {
+        Cluster cluster = new Cluster(inimbus, resourceMetrics, getSupervisors(), new HashMap<>(), topologies, conf);
+        if (networkTopography != null) {
+            cluster.setNetworkTopography(networkTopography);
+        }
+        if (withAssignments) {
+            for (TopologySnapshot topo : topologySnapshots) {
+                topo.assignment.forEach((nodeId, portToExecs) -> portToExecs.forEach((port, execs) -> {
+                    Collection<ExecutorDetails> executors = new ArrayList<>();
+                    for (List<Integer> exec : execs) {
+                        executors.add(toExecutor(exec));
+                    }
+                    cluster.assign(new WorkerSlot(nodeId, port), topo.id, executors);
+                }));
+            }
+        }
+        return cluster;
+    }
+
+    public int getNumSupervisors() {
+        return supervisorSnapshots.size();
+    }
+
+    public int getNumTopologies() {
+        return topologySnapshots.size();
+    }
+
+    private static List<Integer> toList(ExecutorDetails exec) {
+        return Arrays.asList(exec.getStartTask(), exec.getEndTask());
+    }
+
+    private static ExecutorDetails toExecutor(List<Integer> exec) {
+        return new ExecutorDetails(exec.get(0), exec.get(1));
+    }
+
+    private static class SupervisorSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String id;
+        private final String host;
+        private final List<Integer> ports;
+        private final Map<String, Double> totalResources;
+
+        SupervisorSnapshot(String id, String host, List<Integer> ports, Map<String, Double> totalResources) {
+            this.id = id;
+            this.host = host;
+            this.ports = new ArrayList<>(ports);
+            this.totalResources = totalResources == null ? new HashMap<>() : new HashMap<>(totalResources);
+        }
+    }
+
+    private static class TopologySnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String id;
+        private final HashMap<String, Object> conf;
+        // the thrift serialized user topology
+        private final byte[] topology;
+        private final int numWorkers;
+        private final int launchTime;
+        private final String owner;
+        // [start task, end task] -> component
+        private final Map<List<Integer>, String> executorToComponent;
+        // node -> port -> [start task, end task]
+        private final Map<String, Map<Integer, List<List<Integer>>>> assignment;
+
+        TopologySnapshot(String id, Map<String, Object> conf, StormTopology topology, int numWorkers, int launchTime, String owner,
+                         Map<List<Integer>, String> executorToComponent, Map<String, Map<Integer, List<List<Integer>>>> assignment) {
+            this.id = id;
+            this.conf = new HashMap<>(conf);
+            this.topology = Utils.thriftSerialize(topology);
+            this.numWorkers = numWorkers;
+            this.launchTime = launchTime;
+            this.owner = owner;
+            this.executorToComponent = executorToComponent;
+            this.assignment = assignment;
+        }
+    }
+}
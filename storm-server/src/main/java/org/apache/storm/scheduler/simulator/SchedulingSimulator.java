@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.scheduler.simulator;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.storm.Config;
+import org.apache.storm.DaemonConfig;
+import org.apache.storm.daemon.nimbus.Nimbus;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.scheduler.Cluster;
+import org.apache.storm.scheduler.DefaultScheduler;
+import org.apache.storm.scheduler.IScheduler;
+import org.apache.storm.scheduler.SchedulerAssignment;
+import org.apache.storm.scheduler.Topologies;
+import org.apache.storm.scheduler.resource.normalization.ResourceMetrics;
+import org.apache.storm.utils.ConfigUtils;
+import org.apache.storm.utils.NimbusClient;
+import org.apache.storm.utils.ReflectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays scheduling of a {@link ClusterSnapshot} offline with any scheduler and strategy, to benchmark scheduling changes against
+ * the state of a real cluster. Every round starts over from the snapshot with a newly prepared scheduler, so rounds are independent
+ * measurements of the same scheduling problem.
+ *
+ * <p>Usage: {@code SchedulingSimulator capture <file>} writes a snapshot of the cluster the configured nimbus runs, and
+ * {@code SchedulingSimulator replay <file> [-n rounds] [--from-scratch] [--scheduler class] [--strategy class]} replays it.
+ */
+public class SchedulingSimulator {
+    private static final Logger LOG = LoggerFactory.getLogger(SchedulingSimulator.class);
+
+    private final Map<String, Object> conf;
+    private final ClusterSnapshot snapshot;
+    private final Map<String, Object> topoConfOverrides;
+
+    /**
+     * Constructor.
+     *
+     * @param conf the daemon configuration, {@link DaemonConfig#STORM_SCHEDULER} picks the scheduler.
+     * @param snapshot the cluster to schedule.
+     * @param topoConfOverrides settings to put into the configuration of every topology, like
+     *     {@link Config#TOPOLOGY_SCHEDULER_STRATEGY}.
+     */
+    public SchedulingSimulator(Map<String, Object> conf, ClusterSnapshot snapshot, Map<String, Object> topoConfOverrides) {
+        this.conf = conf;
+        this.snapshot = snapshot;
+        this.topoConfOverrides = topoConfOverrides;
+    }
+
+    /**
+     * Run scheduling rounds.
+     *
+     * @param numRounds the number of rounds to run.
+     * @param fromScratch true to drop the assignments of the snapshot, so every topology has to be scheduled.
+     * @return the outcome of the rounds.
+     */
+    public SimulationReport run(int numRounds, boolean fromScratch) {
+        SimulationReport report = new SimulationReport();
+        for (int i = 0; i < numRounds; i++) {
+            StormMetricsRegistry metricsRegistry = new StormMetricsRegistry();
+            IScheduler scheduler = makeScheduler();
+            scheduler.prepare(conf, metricsRegistry);
+            try {
+                Topologies topologies = snapshot.getTopologies(topoConfOverrides);
+                Cluster cluster = snapshot.toCluster(new Nimbus.StandaloneINimbus(), new ResourceMetrics(metricsRegistry), topologies,
+                    conf, !fromScratch);
+                Map<String, SchedulerAssignment> before = new HashMap<>(cluster.getAssignments());
+                long start = System.nanoTime();
+                scheduler.schedule(topologies, cluster);
+                long schedulingTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                SimulationReport.Round round = report.addRound(schedulingTimeMs, before, cluster, conf);
+                LOG.info("Round {}: {}", i, round);
+            } finally {
+                scheduler.cleanup();
+            }
+        }
+        return report;
+    }
+
+    private IScheduler makeScheduler() {
+        String schedClass = (String) conf.get(DaemonConfig.STORM_SCHEDULER);
+        if (schedClass != null) {
+            return ReflectionUtils.newInstance(schedClass);
+        }
+        return new DefaultScheduler();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: capture <file> | replay <file> [-n rounds] [--from-scratch] "
+                + "[--scheduler class] [--strategy class]");
+        }
+        Map<String, Object> conf = ConfigUtils.readStormConfig();
+        File file = new File(args[1]);
+        if ("capture".equals(args[0])) {
+            try (NimbusClient client = NimbusClient.getConfiguredClient(conf)) {
+                ClusterSnapshot snapshot = ClusterSnapshot.fromNimbus(client.getClient());
+                snapshot.write(file);
+                System.out.println("Wrote " + snapshot.getNumSupervisors() + " supervisors and " + snapshot.getNumTopologies()
+                    + " topologies to " + file);
+            }
+            return;
+        } else if (!"replay".equals(args[0])) {
+            throw new IllegalArgumentException("Unsupported command " + args[0] + " only capture or replay is supported.");
+        }
+
+        int numRounds = 1;
+        boolean fromScratch = false;
+        Map<String, Object> topoConfOverrides = new HashMap<>();
+        for (int i = 2; i < args.length; i++) {
+            String arg = args[i];
+            if ("-n".equals(arg) || "--rounds".equals(arg)) {
+                numRounds = Integer.parseInt(args[++i]);
+            } else if ("--from-scratch".equals(arg)) {
+                fromScratch = true;
+            } else if ("--scheduler".equals(arg)) {
+                conf.put(DaemonConfig.STORM_SCHEDULER, args[++i]);
+            } else if ("--strategy".equals(arg)) {
+                topoConfOverrides.put(Config.TOPOLOGY_SCHEDULER_STRATEGY, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unsupported argument " + arg);
+            }
+        }
+        ClusterSnapshot snapshot = ClusterSnapshot.read(file);
+        System.out.println("Replaying " + snapshot.getNumSupervisors() + " supervisors and " + snapshot.getNumTopologies()
+            + " topologies from " + file);
+        System.out.print(new SchedulingSimulator(conf, snapshot, topoConfOverrides).run(numRounds, fromScratch));
+    }
+}
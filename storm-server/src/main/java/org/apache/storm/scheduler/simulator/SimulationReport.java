@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.scheduler.simulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.storm.Config;
+import org.apache.storm.scheduler.Cluster;
+import org.apache.storm.scheduler.ExecutorDetails;
+import org.apache.storm.scheduler.SchedulerAssignment;
+import org.apache.storm.scheduler.SupervisorResources;
+import org.apache.storm.scheduler.TopologyDetails;
+import org.apache.storm.scheduler.WorkerSlot;
+import org.apache.storm.utils.ObjectReader;
+
+/**
+ * The outcome of the scheduling rounds run by a {@link SchedulingSimulator}.
+ */
+public class SimulationReport {
+    private final List<Round> rounds = new ArrayList<>();
+
+    /**
+     * Measure the outcome of a scheduling round.
+     *
+     * @param schedulingTimeMs how long the scheduler took.
+     * @param before the assignments before scheduling.
+     * @param cluster the cluster after scheduling.
+     * @param conf the daemon configuration, used to decide which nodes are fragmented the same way nimbus does.
+     * @return the round that was added.
+     */
+    public Round addRound(long schedulingTimeMs, Map<String, SchedulerAssignment> before, Cluster cluster, Map<String, Object> conf) {
+        Round round = new Round(schedulingTimeMs);
+        for (TopologyDetails td : cluster.getTopologies()) {
+            SchedulerAssignment after = cluster.getAssignmentById(td.getId());
+            if (after != null && cluster.getUnassignedExecutors(td).isEmpty()) {
+                round.scheduledTopologies++;
+                Set<String> nodes = new HashSet<>();
+                for (WorkerSlot slot : after.getSlots()) {
+                    nodes.add(slot.getNodeId());
+                }
+                round.workersUsed += after.getSlots().size();
+                round.nodesUsed += nodes.size();
+            } else {
+                round.unscheduledTopologies++;
+            }
+            SchedulerAssignment old = before.get(td.getId());
+            if (old != null) {
+                int moved = 0;
+                for (Map.Entry<ExecutorDetails, WorkerSlot> entry : old.getExecutorToSlot().entrySet()) {
+                    if (after == null || !entry.getValue().equals(after.getExecutorToSlot().get(entry.getKey()))) {
+                        moved++;
+                    }
+                }
+                round.movedExecutors += moved;
+                if (after == null || after.getExecutorToSlot().size() < old.getExecutorToSlot().size()) {
+                    round.evictedTopologies++;
+                }
+            }
+        }
+
+        double minMemory = ObjectReader.getDouble(conf.get(Config.TOPOLOGY_COMPONENT_RESOURCES_ONHEAP_MEMORY_MB), 256.0)
+            + ObjectReader.getDouble(conf.get(Config.TOPOLOGY_ACKER_RESOURCES_ONHEAP_MEMORY_MB), 128.0);
+        double minCpu = ObjectReader.getDouble(conf.get(Config.TOPOLOGY_COMPONENT_CPU_PCORE_PERCENT), 50.0)
+            + ObjectReader.getDouble(conf.get(Config.TOPOLOGY_ACKER_CPU_PCORE_PERCENT), 50.0);
+        for (SupervisorResources resources : cluster.getSupervisorsResourcesMap().values()) {
+            double availableMem = resources.getAvailableMem();
+            double availableCpu = resources.getAvailableCpu();
+            if (minMemory > availableMem || minCpu > availableCpu) {
+                round.fragmentedMemory += Math.max(availableMem, 0.0);
+                round.fragmentedCpu += Math.max(availableCpu, 0.0);
+            }
+        }
+        rounds.add(round);
+        return round;
+    }
+
+    public List<Round> getRounds() {
+        return Collections.unmodifiableList(rounds);
+    }
+
+    public long getMinSchedulingTimeMs() {
+        return rounds.stream().mapToLong(Round::getSchedulingTimeMs).min().orElse(0);
+    }
+
+    public long getMaxSchedulingTimeMs() {
+        return rounds.stream().mapToLong(Round::getSchedulingTimeMs).max().orElse(0);
+    }
+
+    public double getAvgSchedulingTimeMs() {
+        return rounds.stream().mapToLong(Round::getSchedulingTimeMs).average().orElse(0.0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d rounds, scheduling time min/avg/max: %d/%.1f/%d ms%n",
+            rounds.size(), getMinSchedulingTimeMs(), getAvgSchedulingTimeMs(), getMaxSchedulingTimeMs()));
+        for (int i = 0; i < rounds.size(); i++) {
+            sb.append("round ").append(i).append(": ").append(rounds.get(i)).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The outcome of a single scheduling round.
+     */
+    public static class Round {
+        private final long schedulingTimeMs;
+        private int scheduledTopologies;
+        private int unscheduledTopologies;
+        private int evictedTopologies;
+        private int movedExecutors;
+        private int workersUsed;
+        private int nodesUsed;
+        private double fragmentedMemory;
+        private double fragmentedCpu;
+
+        Round(long schedulingTimeMs) {
+            this.schedulingTimeMs = schedulingTimeMs;
+        }
+
+        public long getSchedulingTimeMs() {
+            return schedulingTimeMs;
+        }
+
+        /**
+         * Get the number of topologies with all of their executors assigned.
+         */
+        public int getScheduledTopologies() {
+            return scheduledTopologies;
+        }
+
+        public int getUnscheduledTopologies() {
+            return unscheduledTopologies;
+        }
+
+        /**
+         * Get the number of topologies that lost some or all of the executors assigned before the round.
+         */
+        public int getEvictedTopologies() {
+            return evictedTopologies;
+        }
+
+        /**
+         * Get the number of executors assigned before the round that are now in another worker or not assigned at all.
+         */
+        public int getMovedExecutors() {
+            return movedExecutors;
+        }
+
+        /**
+         * Get the average number of workers of the scheduled topologies.
+         */
+        public double getAvgWorkersPerTopology() {
+            return scheduledTopologies == 0 ? 0.0 : (double) workersUsed / scheduledTopologies;
+        }
+
+        /**
+         * Get the average number of nodes the scheduled topologies are spread over.
+         */
+        public double getAvgNodesPerTopology() {
+            return scheduledTopologies == 0 ? 0.0 : (double) nodesUsed / scheduledTopologies;
+        }
+
+        /**
+         * Get the memory in MB left on nodes that can not fit another executor.
+         */
+        public double getFragmentedMemory() {
+            return fragmentedMemory;
+        }
+
+        /**
+         * Get the CPU left on nodes that can not fit another executor.
+         */
+        public double getFragmentedCpu() {
+            return fragmentedCpu;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d ms, %d scheduled, %d unscheduled, %d evicted, %d executors moved, "
+                    + "%.2f workers/topology, %.2f nodes/topology, fragmented %.0f MB, %.0f PCore CPUs",
+                schedulingTimeMs, scheduledTopologies, unscheduledTopologies, evictedTopologies, movedExecutors,
+                getAvgWorkersPerTopology(), getAvgNodesPerTopology(), fragmentedMemory, fragmentedCpu);
+        }
+    }
+}
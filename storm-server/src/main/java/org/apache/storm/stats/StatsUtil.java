@@ -1608,6 +1608,20 @@ public class StatsUtil {
         }
     }
 
+    /**
+     * Compute the capacity of a executor from its heartbeat, as converted by {@link #convertExecutorBeats(Map)}.
+     *
+     * @param beat the heartbeat of the executor.
+     * @return the capacity of the executor, 0 for spouts.
+     */
+    public static double computeExecutorCapacity(Map<String, Object> beat) {
+        Map stats = ClientStatsUtil.getMapByKey(beat, STATS);
+        if (stats == null || !ClientStatsUtil.BOLT.equals(stats.get(TYPE))) {
+            return 0.0;
+        }
+        return computeAggCapacity(stats, getByKeyOr0(beat, ClientStatsUtil.UPTIME).intValue());
+    }
+
     /**
      * filter ExecutorSummary whose stats is null.
      *
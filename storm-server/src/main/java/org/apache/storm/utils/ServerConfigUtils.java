@@ -152,10 +152,12 @@ public class ServerConfigUtils {
     }
 
     public LocalState supervisorStateImpl(Map<String, Object> conf) throws IOException {
-        return new LocalState((ConfigUtils.supervisorLocalDir(conf) + FILE_SEPARATOR + "localstate"),  true);
+        return new LocalState((ConfigUtils.supervisorLocalDir(conf) + FILE_SEPARATOR + "localstate"), true,
+                              ObjectReader.getBoolean(conf.get(DaemonConfig.STORM_LOCAL_STATE_WAL_ENABLE), false));
     }
 
     public LocalState nimbusTopoHistoryStateImpl(Map<String, Object> conf) throws IOException {
-        return new LocalState((masterLocalDir(conf) + FILE_SEPARATOR + "history"), true);
+        return new LocalState((masterLocalDir(conf) + FILE_SEPARATOR + "history"), true,
+                              ObjectReader.getBoolean(conf.get(DaemonConfig.STORM_LOCAL_STATE_WAL_ENABLE), false));
     }
 }
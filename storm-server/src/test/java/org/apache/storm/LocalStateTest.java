@@ -15,12 +15,15 @@ package org.apache.storm;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.commons.io.FileUtils;
 import org.apache.storm.generated.GlobalStreamId;
 import org.apache.storm.testing.TmpPath;
 import org.apache.storm.utils.LocalState;
+import org.apache.storm.utils.VersionedStore;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -90,4 +93,53 @@ public class LocalStateTest {
             }
         }
     }
+
+    @Test
+    public void testWriteAheadLog() throws IOException {
+        try (TmpPath tmp_dir = new TmpPath()) {
+            String dir = tmp_dir.getPath();
+            LocalState ls = new LocalState(dir, true, true);
+            ls.put("a", new GlobalStreamId("a", "a"));
+            for (int i = 0; i < 10; i++) {
+                ls.put("b", new GlobalStreamId("b", "" + i));
+            }
+            ls.put("c", new GlobalStreamId("c", "c"));
+            ls.remove("c");
+            VersionedStore store = new VersionedStore(dir, false);
+            Assert.assertEquals("changes go to the log", 1, store.getAllVersions().size());
+
+            Map<String, GlobalStreamId> expected = new HashMap<>();
+            expected.put("a", new GlobalStreamId("a", "a"));
+            expected.put("b", new GlobalStreamId("b", "9"));
+            Assert.assertEquals(expected, ls.snapshot());
+            Assert.assertEquals(expected, new LocalState(dir, false, true).snapshot());
+
+            for (int i = 0; i < 1500; i++) {
+                ls.put("b", new GlobalStreamId("b", "" + i));
+            }
+            Assert.assertTrue("the log is compacted", store.getAllVersions().size() > 1);
+            Assert.assertEquals(new GlobalStreamId("b", "1499"), new LocalState(dir, false, true).get("b"));
+        }
+    }
+
+    @Test
+    public void testPartiallyWrittenLog() throws IOException {
+        try (TmpPath tmp_dir = new TmpPath()) {
+            String dir = tmp_dir.getPath();
+            LocalState ls = new LocalState(dir, true, true);
+            ls.put("a", new GlobalStreamId("a", "a"));
+            ls.put("b", new GlobalStreamId("b", "b"));
+            File wal = new File(new VersionedStore(dir, false).mostRecentVersionPath() + ".wal");
+            Files.write(wal.toPath(), new byte[]{0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+            LocalState recovered = new LocalState(dir, false, true);
+            Assert.assertEquals(new GlobalStreamId("b", "b"), recovered.get("b"));
+            recovered.put("c", new GlobalStreamId("c", "c"));
+            Map<String, GlobalStreamId> expected = new HashMap<>();
+            expected.put("a", new GlobalStreamId("a", "a"));
+            expected.put("b", new GlobalStreamId("b", "b"));
+            expected.put("c", new GlobalStreamId("c", "c"));
+            Assert.assertEquals(expected, new LocalState(dir, false, true).snapshot());
+        }
+    }
 }
@@ -13,8 +13,11 @@
 package org.apache.storm;
 
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.storm.generated.HBMessage;
 import org.apache.storm.generated.HBMessageData;
@@ -113,7 +116,25 @@ public class PacemakerTest {
 
         Assert.assertEquals(mid, goodResponse.get_message_id());
         Assert.assertEquals(HBServerMessageType.GET_ALL_PULSE_FOR_PATH_RESPONSE, goodResponse.get_type());
-        Assert.assertNull(goodResponse.get_data());
+        Assert.assertTrue(goodResponse.get_data().get_records().get_pulses().isEmpty());
+    }
+
+    @Test
+    public void testServerGetAllPulseForPathWithPulses() throws UnsupportedEncodingException {
+        makeNode(handler, "/some-root-path/foo");
+        makeNode(handler, "/some-root-path/bar");
+        makeNode(handler, "/some-root-path/bar/baz");
+        makeNode(handler, "/some-other-path/boo");
+        messageWithRandId(HBServerMessageType.GET_ALL_PULSE_FOR_PATH, HBMessageData.path("/some-root-path"));
+        HBMessage response = handler.handleMessage(hbMessage, true);
+        Assert.assertEquals(HBServerMessageType.GET_ALL_PULSE_FOR_PATH_RESPONSE, response.get_type());
+
+        Set<String> ids = new HashSet<>();
+        for (HBPulse pulse : response.get_data().get_records().get_pulses()) {
+            ids.add(pulse.get_id());
+            Assert.assertEquals("nothing", new String(pulse.get_details(), "UTF-8"));
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("/some-root-path/foo", "/some-root-path/bar")), ids);
     }
 
     @Test
@@ -214,6 +235,15 @@ public class PacemakerTest {
         Assert.assertEquals(mid, response.get_message_id());
         Assert.assertEquals(HBServerMessageType.GET_ALL_NODES_FOR_PATH_RESPONSE, response.get_type());
         Assert.assertFalse(pulseIds.contains("foo"));
+
+        messageWithRandId(HBServerMessageType.GET_ALL_PULSE_FOR_PATH, HBMessageData.path("/some-root/DELETE_PULSE_ID/"));
+        response = handler.handleMessage(hbMessage, true);
+        Set<String> ids = new HashSet<>();
+        for (HBPulse pulse : response.get_data().get_records().get_pulses()) {
+            ids.add(pulse.get_id());
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("/some-root/DELETE_PULSE_ID/bar", "/some-root/DELETE_PULSE_ID/baz",
+                                                        "/some-root/DELETE_PULSE_ID/boo")), ids);
     }
 
     private void messageWithRandId(HBServerMessageType type, HBMessageData data) {
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.blobstore;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.apache.storm.testing.TmpPath;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BlobChunkManifestTest {
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    public void testChunks() throws Exception {
+        byte[] data = data(100_000);
+        BlobChunkManifest manifest = BlobChunkManifest.compute(new ByteArrayInputStream(data), 5, 4096);
+        assertEquals(100_000, manifest.getLength());
+        assertTrue(manifest.getChunkHashes().size() > 1);
+        long offset = 0;
+        for (int i = 0; i < manifest.getChunkHashes().size(); i++) {
+            assertEquals(offset, manifest.getChunkOffset(i));
+            int length = manifest.getChunkLength(i);
+            assertTrue(length <= 4 * 4096);
+            assertTrue(length >= 1024 || i == manifest.getChunkHashes().size() - 1);
+            assertEquals(BlobChunkManifest.sha256Hex(data, (int) offset, length), manifest.getChunkHashes().get(i));
+            offset += length;
+        }
+
+        BlobChunkManifest read = BlobChunkManifest.deserialize(manifest.serialize());
+        assertEquals(5, read.getVersion());
+        assertEquals(4096, read.getChunkSize());
+        assertEquals(100_000, read.getLength());
+        assertEquals(manifest.getChunkHashes(), read.getChunkHashes());
+        assertEquals(manifest.getChunkLength(3), read.getChunkLength(3));
+    }
+
+    @Test
+    public void testInsertKeepsMostChunks() throws Exception {
+        byte[] data = data(200_000);
+        byte[] changed = new byte[data.length + 10];
+        System.arraycopy(data, 0, changed, 0, 1000);
+        System.arraycopy(data, 1000, changed, 1010, data.length - 1000);
+        BlobChunkManifest before = BlobChunkManifest.compute(new ByteArrayInputStream(data), 1, 4096);
+        BlobChunkManifest after = BlobChunkManifest.compute(new ByteArrayInputStream(changed), 2, 4096);
+
+        Set<String> shared = new HashSet<>(before.getChunkHashes());
+        shared.retainAll(after.getChunkHashes());
+        assertTrue("Only " + shared.size() + " of " + before.getChunkHashes().size() + " chunks are the same",
+                   shared.size() >= before.getChunkHashes().size() - 3);
+    }
+
+    @Test
+    public void testStoredAsChunks() throws Exception {
+        byte[] data = data(20_000);
+        data[0] = 'P';
+        BlobChunkManifest manifest = BlobChunkManifest.compute(new ByteArrayInputStream(data), 0, 4096);
+        try (TmpPath tmp = new TmpPath()) {
+            Path dir = Files.createDirectories(tmp.getFile().toPath());
+            Path jar = Files.write(dir.resolve("stormjar.jar"), data);
+            assertNull(BlobChunkManifest.readStoredAsChunks(jar));
+
+            Path stored = Files.write(dir.resolve("stored.jar"), manifest.serialize());
+            BlobChunkManifest read = BlobChunkManifest.readStoredAsChunks(stored).withVersion(7);
+            assertEquals(7, read.getVersion());
+            assertEquals(manifest.getChunkHashes(), read.getChunkHashes());
+            assertEquals(20_000, read.getLength());
+        }
+    }
+
+    @Test
+    public void testChunkKeys() {
+        String key = BlobChunkManifest.chunkKey("abc");
+        assertTrue(BlobChunkManifest.isChunkKey(key));
+        assertFalse(BlobChunkManifest.isChunkKey("topo-1-stormjar.jar"));
+    }
+}
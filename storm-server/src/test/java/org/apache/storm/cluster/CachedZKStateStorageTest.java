@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.cluster;
+
+import static org.apache.storm.AssertLoop.assertLoop;
+import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.curator.test.TestingServer;
+import org.apache.storm.shade.org.apache.curator.framework.CuratorFramework;
+import org.apache.storm.shade.org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.storm.shade.org.apache.curator.retry.ExponentialBackoffRetry;
+import org.junit.Test;
+
+public class CachedZKStateStorageTest {
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testReadsFromMirror() throws Exception {
+        try (TestingServer server = new TestingServer();
+             CuratorFramework zk = CuratorFrameworkFactory.newClient(server.getConnectString(), new ExponentialBackoffRetry(1000, 3))) {
+            zk.start();
+            zk.create().creatingParentsIfNeeded().forPath("/assignments/topo-1", bytes("one"));
+            IStateStorage delegate = mock(IStateStorage.class);
+            when(delegate.register(any())).thenReturn("callback-id");
+            CachedZKStateStorage storage = new CachedZKStateStorage(delegate, zk, CachedZKStateStorage.NIMBUS_SUBTREES);
+            try {
+                List<String> changed = new CopyOnWriteArrayList<>();
+                storage.register((type, path) -> changed.add(type + " " + path));
+                assertLoop((s) -> Collections.singletonList("topo-1").equals(storage.get_children("/assignments", false)), storage);
+
+                assertArrayEquals(bytes("one"), storage.get_data("/assignments/topo-1", true));
+                verify(delegate, never()).get_data(anyString(), anyBoolean());
+
+                // The watch fires once the mirror sees the change
+                zk.setData().forPath("/assignments/topo-1", bytes("two"));
+                assertLoop((c) -> changed.contains("NodeDataChanged /assignments/topo-1"), changed);
+                assertArrayEquals(bytes("two"), storage.get_data("/assignments/topo-1", false));
+
+                // A node written through the storage is read from ZooKeeper until the mirror sees the write
+                storage.set_data("/assignments/topo-2", bytes("three"), null);
+                storage.get_data("/assignments/topo-2", false);
+                verify(delegate).get_data("/assignments/topo-2", false);
+            } finally {
+                storage.close();
+            }
+        }
+    }
+
+    @Test
+    public void testSupervisorOnlyMirrorsAssignments() throws Exception {
+        try (TestingServer server = new TestingServer();
+             CuratorFramework zk = CuratorFrameworkFactory.newClient(server.getConnectString(), new ExponentialBackoffRetry(1000, 3))) {
+            zk.start();
+            zk.create().creatingParentsIfNeeded().forPath("/assignments/topo-1", bytes("one"));
+            zk.create().creatingParentsIfNeeded().forPath("/storms/topo-1", bytes("base"));
+            IStateStorage delegate = mock(IStateStorage.class);
+            CachedZKStateStorage storage = new CachedZKStateStorage(delegate, zk, CachedZKStateStorage.SUPERVISOR_SUBTREES);
+            try {
+                assertLoop((s) -> Collections.singletonList("topo-1").equals(storage.get_children("/assignments", false)), storage);
+                assertArrayEquals(bytes("one"), storage.get_data("/assignments/topo-1", false));
+
+                storage.get_data("/storms/topo-1", false);
+                verify(delegate).get_data("/storms/topo-1", false);
+            } finally {
+                storage.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.cluster;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.curator.test.TestingServer;
+import org.apache.storm.Config;
+import org.apache.storm.shade.org.apache.curator.framework.api.CuratorEvent;
+import org.apache.storm.shade.org.apache.zookeeper.KeeperException;
+import org.apache.storm.shade.org.apache.zookeeper.data.ACL;
+import org.apache.storm.utils.Utils;
+import org.junit.Test;
+
+public class ZKStateStorageTest {
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> conf(TestingServer server, int maxOutstanding) {
+        Map<String, Object> conf = Utils.readStormConfig();
+        conf.put(Config.STORM_ZOOKEEPER_SERVERS, Collections.singletonList("127.0.0.1"));
+        conf.put(Config.STORM_ZOOKEEPER_PORT, server.getPort());
+        conf.put(Config.STORM_ZOOKEEPER_ROOT, "/storm");
+        conf.put(Config.STORM_ZOOKEEPER_BATCH_WRITES_ENABLE, true);
+        conf.put(Config.STORM_ZOOKEEPER_BATCH_MAX_OUTSTANDING, maxOutstanding);
+        return conf;
+    }
+
+    private static Map<String, List<ACL>> noAcls(Map<String, byte[]> pathToData) {
+        Map<String, List<ACL>> ret = new HashMap<>();
+        for (String path : pathToData.keySet()) {
+            ret.put(path, null);
+        }
+        return ret;
+    }
+
+    @Test
+    public void testBatchWritesAreSplitIntoTransactions() throws Exception {
+        try (TestingServer server = new TestingServer()) {
+            Map<String, Object> conf = conf(server, 64);
+            ClusterStateContext context = new ClusterStateContext(DaemonType.NIMBUS, conf);
+            ZKStateStorage storage = new ZKStateStorage(conf, conf, context);
+            try {
+                storage.set_data("/assignments/topo-1", bytes("old"), null);
+                Map<String, byte[]> pathToData = new LinkedHashMap<>();
+                for (int i = 1; i <= 4; i++) {
+                    byte[] data = new byte[200 * 1024];
+                    Arrays.fill(data, (byte) i);
+                    pathToData.put("/assignments/topo-" + i, data);
+                }
+                storage.set_data_all(pathToData, noAcls(pathToData));
+
+                // 800KB in transactions of at most 512KB, the node that existed is updated and the others are created
+                assertEquals(2, context.getMetrics().timer("zookeeper:transaction-duration").getCount());
+                for (Map.Entry<String, byte[]> entry : pathToData.entrySet()) {
+                    assertArrayEquals(entry.getKey(), entry.getValue(), storage.get_data(entry.getKey(), false));
+                }
+
+                List<String> toDelete = new ArrayList<>(pathToData.keySet());
+                toDelete.add("/assignments/not-there");
+                storage.delete_node_all(toDelete);
+                assertTrue(storage.get_children("/assignments", false).isEmpty());
+            } finally {
+                storage.close();
+            }
+        }
+    }
+
+    @Test
+    public void testTransactionFallsBackWhenNodesChange() throws Exception {
+        try (TestingServer server = new TestingServer()) {
+            Map<String, Object> conf = conf(server, 64);
+            ClusterStateContext context = new ClusterStateContext(DaemonType.NIMBUS, conf);
+            ZKStateStorage storage = spy(new ZKStateStorage(conf, conf, context));
+            try {
+                storage.set_data("/assignments/created", bytes("created by someone else"), null);
+                // what the storage saw before the transaction is out of date, as if other writers changed the nodes in the meantime
+                doAnswer((invocation) -> {
+                    Map<String, Integer> exists = new HashMap<>();
+                    exists.put("/assignments/created", KeeperException.Code.NONODE.intValue());
+                    exists.put("/assignments/deleted", KeeperException.Code.OK.intValue());
+                    return exists;
+                }).when(storage).inBackground(any(), any());
+
+                Map<String, byte[]> pathToData = new HashMap<>();
+                pathToData.put("/assignments/created", bytes("one"));
+                pathToData.put("/assignments/deleted", bytes("two"));
+                storage.set_data_all(pathToData, noAcls(pathToData));
+
+                // the transaction failed with NODEEXISTS or NONODE, and the nodes were written one at a time
+                assertArrayEquals(bytes("one"), storage.get_data("/assignments/created", false));
+                assertArrayEquals(bytes("two"), storage.get_data("/assignments/deleted", false));
+            } finally {
+                storage.close();
+            }
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void testOutstandingRequestsAreBounded() throws Exception {
+        ExecutorService zkThreads = Executors.newFixedThreadPool(8);
+        try (TestingServer server = new TestingServer()) {
+            Map<String, Object> conf = conf(server, 2);
+            ZKStateStorage storage = new ZKStateStorage(conf, conf, new ClusterStateContext(DaemonType.NIMBUS, conf));
+            try {
+                CuratorEvent ok = mock(CuratorEvent.class);
+                when(ok.getResultCode()).thenReturn(KeeperException.Code.OK.intValue());
+                AtomicInteger outstanding = new AtomicInteger();
+                AtomicInteger maxOutstanding = new AtomicInteger();
+                List<String> paths = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    paths.add("/assignments/topo-" + i);
+                }
+                Map<String, Integer> results = storage.inBackground(paths, (path, callback) -> {
+                    maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+                    zkThreads.submit(() -> {
+                        Thread.sleep(5);
+                        outstanding.decrementAndGet();
+                        callback.processResult(null, ok);
+                        return null;
+                    });
+                });
+                assertEquals(20, results.size());
+                assertTrue("max outstanding " + maxOutstanding.get(), maxOutstanding.get() <= 2);
+
+                // a request that fails to be sent gives its permit back
+                try {
+                    storage.inBackground(Collections.singletonList("/assignments/fails"), (path, callback) -> {
+                        throw new IllegalStateException("not connected");
+                    });
+                    fail("the request must fail");
+                } catch (IllegalStateException e) {
+                    // expected
+                }
+                Map<String, byte[]> pathToData = new HashMap<>();
+                pathToData.put("/assignments/topo-1", bytes("one"));
+                pathToData.put("/assignments/topo-2", bytes("two"));
+                pathToData.put("/assignments/topo-3", bytes("three"));
+                storage.set_data_all(pathToData, noAcls(pathToData));
+                assertArrayEquals(bytes("three"), storage.get_data("/assignments/topo-3", false));
+                storage.delete_node_all(pathToData.keySet());
+                assertNull(storage.get_data("/assignments/topo-3", false));
+                assertFalse(storage.node_exists("/assignments/topo-1", false));
+            } finally {
+                storage.close();
+            }
+        } finally {
+            zkThreads.shutdownNow();
+            zkThreads.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
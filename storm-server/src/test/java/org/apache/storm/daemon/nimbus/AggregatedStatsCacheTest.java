@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.daemon.nimbus;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.storm.generated.TopologyPageInfo;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.utils.Time;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AggregatedStatsCacheTest {
+
+    private static Map<List<Long>, List<Object>> assignedTo(String node) {
+        Map<List<Long>, List<Object>> exec2NodePort = new HashMap<>();
+        exec2NodePort.put(Arrays.asList(1L, 1L), Arrays.asList(node, 6700L));
+        return exec2NodePort;
+    }
+
+    @Test
+    public void testReuseWithinTtlUntilAssignmentChanges() {
+        try (Time.SimulatedTime t = new Time.SimulatedTime()) {
+            AggregatedStatsCache cache = new AggregatedStatsCache(10, 10, new StormMetricsRegistry());
+            List<Object> key = Arrays.asList("topo-1", ":all-time", false);
+            AtomicInteger aggregations = new AtomicInteger();
+
+            TopologyPageInfo first = cache.get(key, AggregatedStatsCache.version(assignedTo("node")), () -> {
+                aggregations.incrementAndGet();
+                return new TopologyPageInfo("topo-1");
+            });
+            // callers get a copy they can modify
+            first.set_name("modified");
+            Time.advanceTimeSecs(5);
+            TopologyPageInfo second = cache.get(key, AggregatedStatsCache.version(assignedTo("node")), () -> {
+                aggregations.incrementAndGet();
+                return new TopologyPageInfo("topo-1");
+            });
+            Assert.assertEquals(1, aggregations.get());
+            Assert.assertFalse(second.is_set_name());
+
+            Time.advanceTimeSecs(6);
+            cache.get(key, AggregatedStatsCache.version(assignedTo("node")), () -> {
+                aggregations.incrementAndGet();
+                return new TopologyPageInfo("topo-1");
+            });
+            Assert.assertEquals(2, aggregations.get());
+
+            cache.get(key, AggregatedStatsCache.version(assignedTo("other-node")), () -> {
+                aggregations.incrementAndGet();
+                return new TopologyPageInfo("topo-1");
+            });
+            Assert.assertEquals(3, aggregations.get());
+
+            cache.removeTopo("topo-1");
+            cache.get(key, AggregatedStatsCache.version(assignedTo("other-node")), () -> {
+                aggregations.incrementAndGet();
+                return new TopologyPageInfo("topo-1");
+            });
+            Assert.assertEquals(4, aggregations.get());
+        }
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneAggregation() throws Exception {
+        AggregatedStatsCache cache = new AggregatedStatsCache(10, 10, new StormMetricsRegistry());
+        Object version = AggregatedStatsCache.version(assignedTo("node"));
+        List<Object> key = Arrays.asList("topo-1", ":all-time", false);
+        AtomicInteger aggregations = new AtomicInteger();
+        CountDownLatch aggregating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<TopologyPageInfo> slow = callers.submit(() -> cache.get(key, version, () -> {
+                aggregations.incrementAndGet();
+                aggregating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return new TopologyPageInfo("topo-1");
+            }));
+            Assert.assertTrue(aggregating.await(10, TimeUnit.SECONDS));
+            Future<TopologyPageInfo> waiting = callers.submit(() -> cache.get(key, version, () -> {
+                aggregations.incrementAndGet();
+                return new TopologyPageInfo("topo-1");
+            }));
+
+            // other topologies are not held up by the slow aggregation
+            TopologyPageInfo other = cache.get(Arrays.asList("topo-2", ":all-time", false), version,
+                () -> new TopologyPageInfo("topo-2"));
+            Assert.assertEquals("topo-2", other.get_id());
+            Assert.assertFalse(waiting.isDone());
+
+            release.countDown();
+            Assert.assertEquals("topo-1", slow.get(10, TimeUnit.SECONDS).get_id());
+            Assert.assertEquals("topo-1", waiting.get(10, TimeUnit.SECONDS).get_id());
+            Assert.assertEquals(1, aggregations.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.daemon.nimbus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.storm.generated.Assignment;
+import org.apache.storm.generated.ExecutorInfo;
+import org.apache.storm.generated.SupervisorWorkerHeartbeat;
+import org.apache.storm.utils.Time;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeartbeatCacheTest {
+    private static final String TOPO_ID = "topo-1";
+    private static final int TIMEOUT_SECS = 30;
+
+    private static SupervisorWorkerHeartbeat beat(int timeSecs, int... tasks) {
+        SupervisorWorkerHeartbeat ret = new SupervisorWorkerHeartbeat();
+        ret.set_storm_id(TOPO_ID);
+        ret.set_time_secs(timeSecs);
+        for (int task : tasks) {
+            ret.add_to_executors(new ExecutorInfo(task, task));
+        }
+        return ret;
+    }
+
+    private static Assignment assignment(Set<List<Integer>> executors) {
+        Map<List<Long>, Long> startTimes = new HashMap<>();
+        for (List<Integer> executor : executors) {
+            startTimes.put(Arrays.asList(executor.get(0).longValue(), executor.get(1).longValue()), 0L);
+        }
+        Assignment ret = new Assignment();
+        ret.set_executor_start_time_secs(startTimes);
+        return ret;
+    }
+
+    @Test
+    public void testTimeout() {
+        try (Time.SimulatedTime t = new Time.SimulatedTime()) {
+            Time.advanceTimeSecs(100);
+            Set<List<Integer>> executors = new HashSet<>(Arrays.asList(Arrays.asList(1, 1), Arrays.asList(2, 2)));
+            Assignment assignment = assignment(executors);
+            HeartbeatCache cache = new HeartbeatCache();
+            cache.updateHeartbeat(beat(1, 1, 2), TIMEOUT_SECS);
+
+            Time.advanceTimeSecs(TIMEOUT_SECS - 1);
+            cache.updateHeartbeat(beat(2, 1), TIMEOUT_SECS);
+            cache.timeoutOldHeartbeats(TOPO_ID, TIMEOUT_SECS);
+            Assert.assertEquals(executors, cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+
+            Time.advanceTimeSecs(1);
+            cache.timeoutOldHeartbeats(TOPO_ID, TIMEOUT_SECS);
+            Assert.assertEquals(Collections.singleton(Arrays.asList(1, 1)), cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+
+            // goes around the timer wheel more than once
+            Time.advanceTimeSecs(TIMEOUT_SECS - 2);
+            cache.updateHeartbeat(beat(3, 2), TIMEOUT_SECS);
+            Assert.assertEquals(executors, cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+            Time.advanceTimeSecs(200);
+            Assert.assertEquals(Collections.emptySet(), cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+        }
+    }
+
+    @Test
+    public void testShorterTimeout() {
+        try (Time.SimulatedTime t = new Time.SimulatedTime()) {
+            Set<List<Integer>> executors = Collections.singleton(Arrays.asList(1, 1));
+            Assignment assignment = assignment(executors);
+            HeartbeatCache cache = new HeartbeatCache();
+            cache.updateFromZkHeartbeat(TOPO_ID, null, executors, 1000);
+            Time.advanceTimeSecs(TIMEOUT_SECS);
+            cache.timeoutOldHeartbeats(TOPO_ID, 1000);
+            Assert.assertEquals(executors, cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+            cache.timeoutOldHeartbeats(TOPO_ID, TIMEOUT_SECS);
+            Assert.assertEquals(Collections.emptySet(), cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+        }
+    }
+
+    @Test
+    public void testLongerTimeout() {
+        try (Time.SimulatedTime t = new Time.SimulatedTime()) {
+            Set<List<Integer>> executors = Collections.singleton(Arrays.asList(1, 1));
+            Assignment assignment = assignment(executors);
+            HeartbeatCache cache = new HeartbeatCache();
+            cache.updateFromZkHeartbeat(TOPO_ID, null, executors, TIMEOUT_SECS);
+            Time.advanceTimeSecs(TIMEOUT_SECS);
+            cache.timeoutOldHeartbeats(TOPO_ID, TIMEOUT_SECS);
+            Assert.assertEquals(Collections.emptySet(), cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+
+            // not too old for the longer timeout, and it still times out once that is over
+            cache.timeoutOldHeartbeats(TOPO_ID, 2 * TIMEOUT_SECS);
+            Assert.assertEquals(executors, cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+            Time.advanceTimeSecs(TIMEOUT_SECS - 1);
+            cache.timeoutOldHeartbeats(TOPO_ID, 2 * TIMEOUT_SECS);
+            Assert.assertEquals(executors, cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+            Time.advanceTimeSecs(1);
+            cache.timeoutOldHeartbeats(TOPO_ID, 2 * TIMEOUT_SECS);
+            Assert.assertEquals(Collections.emptySet(), cache.getAliveExecutors(TOPO_ID, executors, assignment, 0));
+        }
+    }
+}
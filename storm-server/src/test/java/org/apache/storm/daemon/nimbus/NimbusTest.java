@@ -18,27 +18,65 @@
 
 package org.apache.storm.daemon.nimbus;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.curator.test.TestingServer;
 import org.apache.storm.Config;
 import org.apache.storm.DaemonConfig;
+import org.apache.storm.LocalCluster;
+import org.apache.storm.blobstore.BlobStore;
+import org.apache.storm.cluster.IStormClusterState;
 import org.apache.storm.generated.InvalidTopologyException;
+import org.apache.storm.generated.NodeInfo;
+import org.apache.storm.generated.RebalanceOptions;
 import org.apache.storm.generated.StormTopology;
+import org.apache.storm.generated.SupervisorInfo;
+import org.apache.storm.generated.SupervisorWorkerHeartbeat;
+import org.apache.storm.generated.SupervisorWorkerHeartbeats;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.nimbus.ILeaderElector;
+import org.apache.storm.nimbus.IWorkerHeartbeatsRecoveryStrategy;
+import org.apache.storm.nimbus.NimbusInfo;
+import org.apache.storm.nimbus.ITopologyAutoscaler;
+import org.apache.storm.nimbus.TopologyScalingInfo;
+import org.apache.storm.scheduler.INimbus;
+import org.apache.storm.scheduler.IScheduler;
+import org.apache.storm.scheduler.SupervisorDetails;
+import org.apache.storm.scheduler.Topologies;
+import org.apache.storm.scheduler.WorkerSlot;
 import org.apache.storm.scheduler.resource.strategies.priority.DefaultSchedulingPriorityStrategy;
 import org.apache.storm.scheduler.resource.strategies.scheduling.DefaultResourceAwareStrategy;
+import org.apache.storm.testing.TestWordCounter;
 import org.apache.storm.testing.TestWordSpout;
+import org.apache.storm.testing.TmpPath;
 import org.apache.storm.topology.TopologyBuilder;
 import org.apache.storm.utils.ServerUtils;
 import org.apache.storm.utils.Time;
+import org.apache.storm.utils.Utils;
+import org.json.simple.JSONValue;
 import org.junit.Assert;
 import org.junit.Test;
 
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class NimbusTest {
+    private static final AtomicInteger SUPERVISOR_READS = new AtomicInteger();
+    private static final AtomicInteger AUTOSCALE_CALLS = new AtomicInteger();
+    private static final BlockingQueue<String> REPORTED_NODES = new LinkedBlockingQueue<>();
+
     protected Class getDefaultResourceAwareStrategyClass() {
         return DefaultResourceAwareStrategy.class;
     }
@@ -88,4 +126,242 @@ public class NimbusTest {
 
         }
     }
+
+    @Test
+    public void testSupervisorSummaryIgnoresHeartbeats() {
+        SupervisorInfo info = new SupervisorInfo(0L, "host");
+        info.set_meta(Arrays.asList(6700L, 6701L));
+        info.set_resources_map(Collections.singletonMap(Config.SUPERVISOR_CPU_CAPACITY, 400.0));
+        Map<String, List<Object>> summary = Nimbus.summarizeSupervisors(Collections.singletonMap("sup", info), Collections.emptyMap());
+
+        SupervisorInfo beat = info.deepCopy();
+        beat.set_time_secs(10L);
+        beat.set_uptime_secs(10L);
+        Assert.assertEquals(summary, Nimbus.summarizeSupervisors(Collections.singletonMap("sup", beat), Collections.emptyMap()));
+
+        Assert.assertNotEquals(summary, Nimbus.summarizeSupervisors(Collections.singletonMap("sup", info),
+                                                                    Collections.singletonMap("sup", Collections.singleton(6700L))));
+        SupervisorInfo resized = info.deepCopy();
+        resized.set_resources_map(Collections.singletonMap(Config.SUPERVISOR_CPU_CAPACITY, 200.0));
+        Assert.assertNotEquals(summary, Nimbus.summarizeSupervisors(Collections.singletonMap("sup", resized), Collections.emptyMap()));
+    }
+
+    @Test
+    public void testIncrementalAssignmentsSkipUnchangedRounds() throws Exception {
+        SUPERVISOR_READS.set(0);
+        AUTOSCALE_CALLS.set(0);
+        try (LocalCluster cluster = new LocalCluster.Builder()
+            .withSimulatedTime()
+            .withINimbus(new CountingINimbus())
+            .withDaemonConf(DaemonConfig.NIMBUS_INCREMENTAL_ASSIGNMENTS_ENABLE, true)
+            .withDaemonConf(DaemonConfig.NIMBUS_INCREMENTAL_ASSIGNMENTS_FULL_ROUND_SECS, 3600)
+            .withDaemonConf(DaemonConfig.NIMBUS_TOPOLOGY_AUTOSCALER_PLUGIN, NoopAutoscaler.class.getName())
+            .withDaemonConf(DaemonConfig.NIMBUS_TOPOLOGY_AUTOSCALER_FREQ_SECS, 10)
+            .build()) {
+            TopologyBuilder builder = new TopologyBuilder();
+            builder.setSpout("spout", new TestWordSpout(), 1);
+            builder.setBolt("count", new TestWordCounter(), 2).shuffleGrouping("spout");
+            Config topoConf = new Config();
+            topoConf.put(Config.TOPOLOGY_AUTOSCALE_ENABLE, true);
+            cluster.submitTopology("test", topoConf, builder.createTopology());
+            cluster.advanceClusterTime(30);
+
+            // nothing changes, so the monitor rounds neither schedule nor ask the INimbus for slots, while the autoscaler keeps running
+            int reads = SUPERVISOR_READS.get();
+            int autoscaleCalls = AUTOSCALE_CALLS.get();
+            cluster.advanceClusterTime(60);
+            Assert.assertEquals(reads, SUPERVISOR_READS.get());
+            Assert.assertTrue(AUTOSCALE_CALLS.get() > autoscaleCalls);
+
+            RebalanceOptions options = new RebalanceOptions();
+            options.set_wait_secs(0);
+            options.set_num_workers(2);
+            cluster.rebalance("test", options);
+            cluster.advanceClusterTime(20);
+            Assert.assertTrue(SUPERVISOR_READS.get() > reads);
+        }
+    }
+
+    @Test
+    public void testRebalanceInPlaceOverrideIsNotKept() {
+        RebalanceOptions options = new RebalanceOptions();
+        Assert.assertNull(Nimbus.takeRebalanceInPlaceOverride(options));
+
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put(Config.TOPOLOGY_REBALANCE_IN_PLACE, true);
+        overrides.put(Config.TOPOLOGY_DEBUG, true);
+        options.set_topology_conf_overrides(JSONValue.toJSONString(overrides));
+        Assert.assertTrue(Nimbus.takeRebalanceInPlaceOverride(options));
+        Assert.assertEquals(Collections.singletonMap(Config.TOPOLOGY_DEBUG, true), Utils.parseJson(options.get_topology_conf_overrides()));
+        Assert.assertNull(Nimbus.takeRebalanceInPlaceOverride(options));
+
+        options.set_topology_conf_overrides(JSONValue.toJSONString(Collections.singletonMap(Config.TOPOLOGY_REBALANCE_IN_PLACE, false)));
+        Assert.assertFalse(Nimbus.takeRebalanceInPlaceOverride(options));
+        Assert.assertFalse(options.is_set_topology_conf_overrides());
+    }
+
+    @Test
+    public void testOnlyExecutorChangesRebalanceInPlace() {
+        RebalanceOptions options = new RebalanceOptions();
+        options.set_num_executors(Collections.singletonMap("count", 2));
+        Assert.assertTrue(Nimbus.canRebalanceInPlace(options));
+
+        RebalanceOptions fewerWorkers = new RebalanceOptions(options);
+        fewerWorkers.set_num_workers(1);
+        Assert.assertFalse(Nimbus.canRebalanceInPlace(fewerWorkers));
+
+        RebalanceOptions newResources = new RebalanceOptions(options);
+        newResources.set_topology_resources_overrides(
+            Collections.singletonMap("count", Collections.singletonMap(Config.TOPOLOGY_COMPONENT_RESOURCES_ONHEAP_MEMORY_MB, 512.0)));
+        Assert.assertFalse(Nimbus.canRebalanceInPlace(newResources));
+
+        RebalanceOptions newConf = new RebalanceOptions(options);
+        newConf.set_topology_conf_overrides(JSONValue.toJSONString(Collections.singletonMap(Config.TOPOLOGY_DEBUG, true)));
+        Assert.assertFalse(Nimbus.canRebalanceInPlace(newConf));
+    }
+
+    @Test
+    public void testRebalanceInPlaceKeepsUnchangedWorkers() throws Exception {
+        try (LocalCluster cluster = new LocalCluster.Builder()
+            .withSimulatedTime()
+            .withSupervisors(2)
+            .withPortsPerSupervisor(4)
+            .build()) {
+            TopologyBuilder builder = new TopologyBuilder();
+            builder.setSpout("spout", new TestWordSpout(), 2);
+            builder.setBolt("count", new TestWordCounter(), 4).shuffleGrouping("spout");
+            Config topoConf = new Config();
+            topoConf.setNumWorkers(3);
+            topoConf.setNumAckers(0);
+            cluster.submitTopology("test", topoConf, builder.createTopology());
+            cluster.advanceClusterTime(10);
+            String topoId = cluster.getTopologySummaryByName("test").get_id();
+            Map<List<Long>, NodeInfo> before = cluster.getClusterState().assignmentInfo(topoId, null).get_executor_node_port();
+
+            RebalanceOptions options = new RebalanceOptions();
+            options.set_wait_secs(0);
+            options.set_num_executors(Collections.singletonMap("count", 2));
+            options.set_topology_conf_overrides(JSONValue.toJSONString(Collections.singletonMap(Config.TOPOLOGY_REBALANCE_IN_PLACE, true)));
+            cluster.rebalance("test", options);
+            cluster.advanceClusterTime(10);
+            Map<List<Long>, NodeInfo> after = cluster.getClusterState().assignmentInfo(topoId, null).get_executor_node_port();
+
+            // the executors of the spout did not change, so they stay where they were
+            Assert.assertNotEquals(before.keySet(), after.keySet());
+            int kept = 0;
+            for (Map.Entry<List<Long>, NodeInfo> entry : after.entrySet()) {
+                if (before.containsKey(entry.getKey())) {
+                    Assert.assertEquals(before.get(entry.getKey()), entry.getValue());
+                    kept++;
+                }
+            }
+            Assert.assertEquals(2, kept);
+            Assert.assertFalse(cluster.getTopologyConf(topoId).contains(Config.TOPOLOGY_REBALANCE_IN_PLACE));
+
+            // fewer workers can't keep the current slots, so that rebalance is done from scratch
+            options.set_num_workers(2);
+            cluster.rebalance("test", options);
+            cluster.advanceClusterTime(10);
+            after = cluster.getClusterState().assignmentInfo(topoId, null).get_executor_node_port();
+            Assert.assertEquals(2, new HashSet<>(after.values()).size());
+        }
+    }
+
+    @Test
+    public void testSupervisorHeartbeatsAreIngestedByThePool() throws Exception {
+        REPORTED_NODES.clear();
+        try (TestingServer zk = new TestingServer();
+             TmpPath stormLocal = new TmpPath()) {
+            Map<String, Object> conf = Utils.readStormConfig();
+            conf.put(Config.STORM_ZOOKEEPER_SERVERS, Collections.singletonList("127.0.0.1"));
+            conf.put(Config.STORM_ZOOKEEPER_PORT, zk.getPort());
+            conf.put(Config.STORM_LOCAL_DIR, stormLocal.getPath());
+            conf.put(DaemonConfig.NIMBUS_SUPERVISOR_HEARTBEATS_THREADS, 2);
+            conf.put(DaemonConfig.NIMBUS_WORKER_HEARTBEATS_RECOVERY_STRATEGY_CLASS, RecordingRecoveryStrategy.class.getName());
+            ILeaderElector leaderElector = mock(ILeaderElector.class);
+            when(leaderElector.isLeader()).thenReturn(true);
+            Nimbus nimbus = new Nimbus(conf, null, mock(IStormClusterState.class), new NimbusInfo("localhost", 6627, true),
+                                       mock(BlobStore.class), leaderElector, null, new StormMetricsRegistry());
+            try {
+                SupervisorWorkerHeartbeat hb = new SupervisorWorkerHeartbeat("topo-1", Collections.emptyList(), 10);
+                nimbus.sendSupervisorWorkerHeartbeats(new SupervisorWorkerHeartbeats("sup-1", Collections.singletonList(hb)));
+                // a supervisor whose workers did not write anything new still reports, so the heartbeats recovery hears of it
+                nimbus.sendSupervisorWorkerHeartbeats(new SupervisorWorkerHeartbeats("sup-2", Collections.emptyList()));
+
+                Set<String> reported = new HashSet<>();
+                for (int i = 0; i < 2; i++) {
+                    String report = REPORTED_NODES.poll(30, TimeUnit.SECONDS);
+                    Assert.assertNotNull("the reports were not ingested", report);
+                    Assert.assertTrue(report, report.contains("@nimbus-supervisor-heartbeats-"));
+                    reported.add(report.substring(0, report.indexOf('@')));
+                }
+                Assert.assertEquals(new HashSet<>(Arrays.asList("sup-1", "sup-2")), reported);
+            } finally {
+                nimbus.shutdown();
+            }
+        }
+    }
+
+    private static class CountingINimbus implements INimbus {
+        private final INimbus delegate = new Nimbus.StandaloneINimbus();
+
+        @Override
+        public void prepare(Map<String, Object> topoConf, String schedulerLocalDir) {
+            delegate.prepare(topoConf, schedulerLocalDir);
+        }
+
+        @Override
+        public Collection<WorkerSlot> allSlotsAvailableForScheduling(Collection<SupervisorDetails> existingSupervisors,
+                                                                     Topologies topologies, Set<String> topologiesMissingAssignments) {
+            SUPERVISOR_READS.incrementAndGet();
+            return delegate.allSlotsAvailableForScheduling(existingSupervisors, topologies, topologiesMissingAssignments);
+        }
+
+        @Override
+        public void assignSlots(Topologies topologies, Map<String, Collection<WorkerSlot>> newSlotsByTopologyId) {
+            delegate.assignSlots(topologies, newSlotsByTopologyId);
+        }
+
+        @Override
+        public String getHostName(Map<String, SupervisorDetails> existingSupervisors, String nodeId) {
+            return delegate.getHostName(existingSupervisors, nodeId);
+        }
+
+        @Override
+        public IScheduler getForcedScheduler() {
+            return delegate.getForcedScheduler();
+        }
+    }
+
+    public static class NoopAutoscaler implements ITopologyAutoscaler {
+        @Override
+        public void prepare(Map<String, Object> conf) {
+        }
+
+        @Override
+        public Map<String, Integer> autoscale(TopologyScalingInfo info) {
+            AUTOSCALE_CALLS.incrementAndGet();
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public void cleanup() {
+        }
+    }
+
+    public static class RecordingRecoveryStrategy implements IWorkerHeartbeatsRecoveryStrategy {
+        @Override
+        public void prepare(Map conf) {
+        }
+
+        @Override
+        public boolean isReady(Set<String> nodeIds) {
+            return false;
+        }
+
+        @Override
+        public void reportNodeId(String nodeId) {
+            REPORTED_NODES.add(nodeId + "@" + Thread.currentThread().getName());
+        }
+    }
 }
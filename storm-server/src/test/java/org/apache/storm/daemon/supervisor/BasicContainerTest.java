@@ -14,6 +14,7 @@ package org.apache.storm.daemon.supervisor;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -30,14 +31,20 @@ import org.apache.storm.generated.ProfileAction;
 import org.apache.storm.generated.ProfileRequest;
 import org.apache.storm.generated.StormTopology;
 import org.apache.storm.utils.LocalState;
+import org.apache.storm.testing.TmpPath;
 import org.apache.storm.utils.SimpleVersion;
 import org.apache.storm.utils.Utils;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -401,6 +408,146 @@ public class BasicContainerTest {
                    "storm.log.dir", stormLogDir);
     }
 
+    @Test
+    public void testStandbyWorker() throws Exception {
+        final String topoId = "test_topology_standby";
+        final int supervisorPort = 6628;
+        final int port = 8080;
+        final String workerId = "worker-id";
+        final String stormLocal = ContainerTest.asAbsPath("tmp", "storm-local");
+        final String distRoot = ContainerTest.asAbsPath(stormLocal, "supervisor", "stormdist", topoId);
+        final File stormcode = new File(distRoot, "stormcode.ser");
+
+        final StormTopology st = new StormTopology();
+        st.set_spouts(new HashMap<>());
+        st.set_bolts(new HashMap<>());
+        st.set_state_spouts(new HashMap<>());
+        byte[] serializedState = Utils.gzip(Utils.thriftSerialize(st));
+
+        final Map<String, Object> superConf = new HashMap<>();
+        superConf.put(Config.STORM_LOCAL_DIR, stormLocal);
+        superConf.put(Config.STORM_WORKERS_ARTIFACTS_DIR, stormLocal);
+        superConf.put(DaemonConfig.SUPERVISOR_WORKER_STANDBY_ENABLE, true);
+
+        LocalAssignment la = new LocalAssignment();
+        la.set_topology_id(topoId);
+        la.set_owner("user");
+
+        AdvancedFSOps ops = mock(AdvancedFSOps.class);
+        when(ops.doRequiredTopoFilesExist(superConf, topoId)).thenReturn(true);
+        when(ops.slurp(stormcode)).thenReturn(serializedState);
+        when(ops.getWriter(any(File.class))).thenReturn(new StringWriter());
+
+        LocalState ls = mock(LocalState.class);
+        Map<String, Integer> standbyState = new HashMap<>();
+        when(ls.getStandbyWorkers()).thenAnswer(invocation -> new HashMap<>(standbyState));
+        doAnswer(invocation -> {
+            standbyState.clear();
+            standbyState.putAll(invocation.getArgument(0));
+            return null;
+        }).when(ls).setStandbyWorkers(any());
+
+        MockResourceIsolationManager iso = new MockResourceIsolationManager() {
+            @Override
+            public boolean areAllProcessesDead(String user, String workerId) {
+                return false;
+            }
+        };
+
+        MockBasicContainer mc = new MockBasicContainer(ContainerType.LAUNCH, superConf,
+            "SUPERVISOR", supervisorPort, port, la, iso, ls, workerId, new StormMetricsRegistry(),
+            new HashMap<>(), ops, "profile");
+        mc.launch();
+
+        assertEquals(2, iso.workerCmds.size());
+        assertFalse(iso.workerCmds.get(0).cmd.contains("-Dworker.standby=true"));
+        List<String> standbyCmd = iso.workerCmds.get(1).cmd;
+        assertTrue(standbyCmd.contains("-Dworker.standby=true"));
+        String standbyId = standbyCmd.get(standbyCmd.size() - 1);
+        assertNotEquals(workerId, standbyId);
+        //Kept in the local state, so the supervisor kills it if it restarts
+        assertEquals(Collections.singletonMap(standbyId, port), standbyState);
+
+        //The worker died, the standby takes its place
+        mc.relaunch();
+        assertEquals(standbyId, mc.getWorkerId());
+        verify(ops).dump(new File(ConfigUtils.workerStandbyActivationPath(superConf, standbyId)), "");
+        Map<String, Integer> expectedNewState = new HashMap<>();
+        expectedNewState.put(standbyId, port);
+        verify(ls).setApprovedWorkers(expectedNewState);
+
+        //and gets a standby of its own
+        assertEquals(3, iso.workerCmds.size());
+        List<String> nextStandbyCmd = iso.workerCmds.get(2).cmd;
+        assertTrue(nextStandbyCmd.contains("-Dworker.standby=true"));
+        String nextStandbyId = nextStandbyCmd.get(nextStandbyCmd.size() - 1);
+        assertEquals(Collections.singletonMap(nextStandbyId, port), standbyState);
+
+        mc.cleanUp();
+        assertEquals(Collections.singletonList(nextStandbyId), iso.forceKilledWorkerIds);
+        assertTrue(standbyState.isEmpty());
+    }
+
+    @Test
+    public void testClassDataSharingParams() throws Exception {
+        final String topoId = "test_topology_cds";
+        final int port = 8080;
+        final String workerId = "worker-id";
+        final String stormLocal = ContainerTest.asAbsPath("tmp", "storm-local");
+        final String distRoot = ContainerTest.asAbsPath(stormLocal, "supervisor", "stormdist", topoId);
+        final File stormcode = new File(distRoot, "stormcode.ser");
+
+        final StormTopology st = new StormTopology();
+        st.set_spouts(new HashMap<>());
+        st.set_bolts(new HashMap<>());
+        st.set_state_spouts(new HashMap<>());
+        byte[] serializedState = Utils.gzip(Utils.thriftSerialize(st));
+
+        try (TmpPath artifacts = new TmpPath()) {
+            final Map<String, Object> superConf = new HashMap<>();
+            superConf.put(Config.STORM_LOCAL_DIR, stormLocal);
+            superConf.put(Config.STORM_WORKERS_ARTIFACTS_DIR, artifacts.getPath());
+            superConf.put(DaemonConfig.SUPERVISOR_WORKER_CLASS_DATA_SHARING_ENABLE, true);
+
+            LocalAssignment la = new LocalAssignment();
+            la.set_topology_id(topoId);
+
+            AdvancedFSOps ops = mock(AdvancedFSOps.class);
+            when(ops.doRequiredTopoFilesExist(superConf, topoId)).thenReturn(true);
+            when(ops.slurp(stormcode)).thenReturn(serializedState);
+
+            MockResourceIsolationManager iso = new MockResourceIsolationManager();
+            MockBasicContainer mc = new MockBasicContainer(ContainerType.LAUNCH, superConf,
+                "SUPERVISOR", 6628, port, la, iso, mock(LocalState.class), workerId, new StormMetricsRegistry(),
+                new HashMap<>(), ops, "profile");
+
+            //There is no archive yet, the worker writes one when it exits. The jar does not exist, so it was written at 0.
+            File dir = new File(ConfigUtils.workerArtifactsRoot(superConf, topoId));
+            File archive = new File(dir, "worker-0.jsa");
+            mc.launch();
+            assertTrue(iso.workerCmds.get(0).cmd.contains("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath() + "." + workerId));
+
+            //An archive a worker wrote a while ago is used, an archive of a replaced jar is deleted
+            assertTrue(dir.mkdirs());
+            File written = new File(dir, "worker-0.jsa.other-worker");
+            File replaced = new File(dir, "worker-1f.jsa");
+            assertTrue(written.createNewFile());
+            assertTrue(written.setLastModified(System.currentTimeMillis() - 120_000));
+            assertTrue(replaced.createNewFile());
+            iso.workerCmds.clear();
+            mc.launch();
+            verify(ops).moveFile(written, archive);
+            verify(ops).deleteIfExists(replaced);
+
+            assertTrue(archive.createNewFile());
+            iso.workerCmds.clear();
+            mc.launch();
+            List<String> cmd = iso.workerCmds.get(0).cmd;
+            assertTrue(cmd.contains("-Xshare:auto"));
+            assertTrue(cmd.contains("-XX:SharedArchiveFile=" + archive.getAbsolutePath()));
+        }
+    }
+
     @Test
     public void testLaunchStorm1version() throws Exception {
         final String topoId = "test_topology_storm_1.x";
@@ -693,6 +840,12 @@ public class BasicContainerTest {
             super.createNewWorkerId();
         }
 
+        @Override
+        protected BasicContainer newStandbyContainer(String workerId) throws IOException {
+            return new MockBasicContainer(ContainerType.LAUNCH, conf, supervisorId, supervisorPort, port, assignment,
+                resourceIsolationManager, localState, workerId, new StormMetricsRegistry(), topoConf, ops, "profile");
+        }
+
         @Override
         public List<String> substituteChildopts(Object value, int memOnheap, int memOffHeap) {
             return super.substituteChildopts(value, memOnheap, memOffHeap);
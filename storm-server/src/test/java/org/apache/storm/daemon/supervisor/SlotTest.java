@@ -25,6 +25,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.storm.Config;
+import org.apache.storm.DaemonConfig;
 import org.apache.storm.daemon.supervisor.Slot.DynamicState;
 import org.apache.storm.daemon.supervisor.Slot.MachineState;
 import org.apache.storm.daemon.supervisor.Slot.StaticState;
@@ -768,4 +772,64 @@ public class SlotTest {
             assertTrue(Time.currentTimeMillis() > 4000);
         }
     }
+
+    @Test(timeout = 60_000)
+    public void testNewAssignmentWakesTheSlot() throws Exception {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.SUPERVISOR_WORKER_TIMEOUT_SECS, 30);
+        conf.put(DaemonConfig.SUPERVISOR_WORKER_START_TIMEOUT_SECS, 120);
+        conf.put(Config.SUPERVISOR_WORKER_SHUTDOWN_SLEEP_SECS, 3);
+        conf.put(DaemonConfig.SUPERVISOR_MONITOR_FREQUENCY_SECS, 3);
+        Slot slot = new Slot(mock(AsyncLocalizer.class), conf, mock(ContainerLauncher.class), "localhost", 8080, mock(LocalState.class),
+                             null, mock(ISupervisor.class), new AtomicReference<>(new HashMap<>()), null, null,
+                             new SlotMetrics(new StormMetricsRegistry()));
+        StaticState staticState = slot.getStaticState();
+
+        // nothing happened, so the slot waits for as long as it was told to
+        long start = System.nanoTime();
+        staticState.waitForEvent(200);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), greaterThan(150L));
+
+        Thread assigner = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            slot.setNewAssignment(mkLocalAssignment("topology1", mkExecutorInfoList(1, 2, 3), null));
+        });
+        assigner.start();
+        start = System.nanoTime();
+        staticState.waitForEvent(30_000);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(10_000L));
+        assigner.join();
+    }
+
+    @Test(timeout = 60_000)
+    public void testKillWaitEndsWhenProcessesDie() throws Exception {
+        SlotMetrics slotMetrics = new SlotMetrics(new StormMetricsRegistry());
+        StaticState staticState = new StaticState(mock(AsyncLocalizer.class), 5000, 120000, 30_000, 1000,
+            mock(ContainerLauncher.class), "localhost", 8080, mock(ISupervisor.class), mock(LocalState.class),
+            mock(BlobChangingCallback.class), null, null, slotMetrics);
+        AtomicBoolean dead = new AtomicBoolean(false);
+        Container container = mock(Container.class);
+        when(container.areAllProcessesDead()).thenAnswer((invocation) -> dead.get());
+
+        Thread killer = new Thread(() -> {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            dead.set(true);
+        });
+        killer.start();
+        long start = System.nanoTime();
+        staticState.waitForProcessesToDie(container, staticState.killSleepMs);
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(dead.get());
+        // the processes are checked every so often, so the wait ends soon after they died instead of after the kill sleep
+        assertThat(waitedMs, lessThan(10_000L));
+        killer.join();
+    }
 }
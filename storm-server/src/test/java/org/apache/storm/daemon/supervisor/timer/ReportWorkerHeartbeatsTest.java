@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.daemon.supervisor.timer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.storm.Config;
+import org.apache.storm.cluster.IStormClusterState;
+import org.apache.storm.daemon.supervisor.Supervisor;
+import org.apache.storm.daemon.supervisor.SupervisorUtils;
+import org.apache.storm.generated.LSWorkerHeartbeat;
+import org.apache.storm.generated.Nimbus;
+import org.apache.storm.generated.SupervisorWorkerHeartbeat;
+import org.apache.storm.generated.SupervisorWorkerHeartbeats;
+import org.apache.storm.thrift.TException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReportWorkerHeartbeatsTest {
+    private final Map<String, LSWorkerHeartbeat> localHeartbeats = new HashMap<>();
+    private final List<SupervisorWorkerHeartbeats> reports = new ArrayList<>();
+    private boolean failNextSend;
+    private ReportWorkerHeartbeats reporter;
+
+    private static LSWorkerHeartbeat beat(String topoId, int timeSecs) {
+        return new LSWorkerHeartbeat(timeSecs, topoId, Collections.emptyList(), 6700);
+    }
+
+    private Set<Integer> reportedTimes(int report) {
+        Set<Integer> ret = new HashSet<>();
+        for (SupervisorWorkerHeartbeat hb : reports.get(report).get_worker_heartbeats()) {
+            ret.add(hb.get_time_secs());
+        }
+        return ret;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        SupervisorUtils.setInstance(new SupervisorUtils() {
+            @Override
+            public Map<String, LSWorkerHeartbeat> readWorkerHeartbeatsImpl(Map<String, Object> conf) {
+                return new HashMap<>(localHeartbeats);
+            }
+        });
+        Nimbus.Iface nimbus = mock(Nimbus.Iface.class);
+        doAnswer((invocation) -> {
+            reports.add(invocation.getArgument(0));
+            if (failNextSend) {
+                failNextSend = false;
+                throw new TException("not the leader");
+            }
+            return null;
+        }).when(nimbus).sendSupervisorWorkerHeartbeats(any());
+        Supervisor supervisor = mock(Supervisor.class);
+        when(supervisor.getId()).thenReturn("sup-1");
+        when(supervisor.getStormClusterState()).thenReturn(mock(IStormClusterState.class));
+        when(supervisor.getLocalNimbus()).thenReturn(nimbus);
+
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.STORM_CLUSTER_MODE, "local");
+        reporter = new ReportWorkerHeartbeats(conf, supervisor);
+    }
+
+    @After
+    public void tearDown() {
+        SupervisorUtils.resetInstance();
+    }
+
+    @Test
+    public void testUnchangedHeartbeatsAreLeftOut() {
+        localHeartbeats.put("worker-1", beat("topo-1", 10));
+        localHeartbeats.put("worker-2", beat("topo-1", 10));
+        reporter.run();
+        assertEquals(Collections.singleton(10), reportedTimes(0));
+        assertEquals(2, reports.get(0).get_worker_heartbeats_size());
+
+        // only worker-2 wrote a new heartbeat since the master got the last report
+        localHeartbeats.put("worker-2", beat("topo-1", 13));
+        reporter.run();
+        assertEquals(Collections.singleton(13), reportedTimes(1));
+    }
+
+    @Test
+    public void testFailedReportIsSentAgain() {
+        localHeartbeats.put("worker-1", beat("topo-1", 10));
+        failNextSend = true;
+        reporter.run();
+        assertEquals(Collections.singleton(10), reportedTimes(0));
+
+        // the master never got the heartbeat, so it is sent again even though it did not change
+        reporter.run();
+        assertEquals(Collections.singleton(10), reportedTimes(1));
+        reporter.run();
+        assertTrue(reportedTimes(2).isEmpty());
+    }
+
+    @Test
+    public void testEmptyReportIsStillSent() {
+        reporter.run();
+        localHeartbeats.put("worker-1", beat("topo-1", 10));
+        reporter.run();
+        reporter.run();
+
+        // nothing to report still tells the master this node is up for the heartbeats recovery
+        assertEquals(3, reports.size());
+        assertTrue(reports.get(0).get_worker_heartbeats().isEmpty());
+        assertTrue(reports.get(2).get_worker_heartbeats().isEmpty());
+        for (SupervisorWorkerHeartbeats report : reports) {
+            assertEquals("sup-1", report.get_supervisor_id());
+        }
+    }
+}
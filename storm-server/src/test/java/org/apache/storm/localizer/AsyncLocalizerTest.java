@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -36,11 +37,13 @@ import java.util.concurrent.TimeUnit;
 import org.apache.commons.io.IOUtils;
 import org.apache.storm.Config;
 import org.apache.storm.DaemonConfig;
+import org.apache.storm.blobstore.BlobChunkManifest;
 import org.apache.storm.blobstore.BlobStoreAclHandler;
 import org.apache.storm.blobstore.ClientBlobStore;
 import org.apache.storm.blobstore.InputStreamWithMeta;
 import org.apache.storm.blobstore.LocalFsBlobStore;
 import org.apache.storm.daemon.supervisor.AdvancedFSOps;
+import org.apache.storm.dependency.DependencyBlobStoreUtils;
 import org.apache.storm.generated.AccessControl;
 import org.apache.storm.generated.AccessControlType;
 import org.apache.storm.generated.AuthorizationException;
@@ -70,6 +73,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -587,6 +591,43 @@ public class AsyncLocalizerTest {
         }
     }
 
+    @Test
+    public void testContentAddressedKeyIsChecked() throws Exception {
+        try (TmpPath tmp = new TmpPath()) {
+            Map<String, Object> conf = new HashMap();
+            conf.put(DaemonConfig.SUPERVISOR_LOCALIZER_CACHE_CLEANUP_INTERVAL_MS, 60 * 60 * 1000);
+            byte[] data = "some test data for my input stream".getBytes(StandardCharsets.UTF_8);
+            String hash = BlobChunkManifest.sha256Hex(data, 0, data.length);
+            String goodKey = DependencyBlobStoreUtils.generateDependencyBlobKey("dep-sha256-" + hash + ".jar");
+            String badKey = DependencyBlobStoreUtils.generateDependencyBlobKey("dep-sha256-" + hash.replace('a', 'b') + ".jar");
+            assertEquals(hash, DependencyBlobStoreUtils.getContentHash(goodKey));
+            assertNull(DependencyBlobStoreUtils.getContentHash(DependencyBlobStoreUtils.generateDependencyBlobKey("dep.jar")));
+
+            TestLocalizer localizer = new TestLocalizer(conf, tmp.getPath());
+            ReadableBlobMeta rbm = new ReadableBlobMeta();
+            rbm.set_settable(new SettableBlobMeta(WORLD_EVERYTHING));
+            when(mockBlobStore.getBlobMeta(any())).thenReturn(rbm);
+            when(mockBlobStore.getBlob(goodKey)).thenReturn(new TestInputStreamWithMeta(1));
+            when(mockBlobStore.getBlob(badKey)).thenAnswer(invocation -> new TestInputStreamWithMeta(1));
+
+            LocalAssignment topo1Assignment = constructLocalAssignment("topo1", user1, Collections.emptyList());
+            PortAndAssignment topo1Pna = new PortAndAssignmentImpl(1, topo1Assignment);
+            LocalizedResource lrsrc = localizer.getBlob(new LocalResource(goodKey, false, false), topo1Pna, null);
+            assertEquals(goodKey, lrsrc.getKey());
+
+            try {
+                localizer.getBlob(new LocalResource(badKey, false, false), topo1Pna, null);
+                fail("a blob that does not match the hash in its key must not be localized");
+            } catch (IOException e) {
+                Throwable cause = e;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                assertTrue(cause.getMessage(), cause.getMessage().contains("SHA-256"));
+            }
+        }
+    }
+
     @Test
     public void testBasic() throws Exception {
         try (Time.SimulatedTime st = new Time.SimulatedTime(); TmpPath tmp = new TmpPath()) {
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.localizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import org.apache.storm.blobstore.BlobChunkManifest;
+import org.apache.storm.daemon.supervisor.AdvancedFSOps;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.testing.TmpPath;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlobChunkCacheTest {
+    private static final String TOPO_ID = "topo-1";
+
+    private static BlobChunkCache cache(Path dir) throws Exception {
+        return new BlobChunkCache(dir, AdvancedFSOps.make(new HashMap<>()), new StormMetricsRegistry());
+    }
+
+    @Test
+    public void testReuseChunks() throws Exception {
+        byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+        byte[] changed = data.clone();
+        changed[50_000]++;
+        BlobChunkManifest before = BlobChunkManifest.compute(new ByteArrayInputStream(data), 1, 4096);
+        BlobChunkManifest after = BlobChunkManifest.compute(new ByteArrayInputStream(changed), 2, 4096);
+
+        try (TmpPath tmp = new TmpPath()) {
+            Path dir = Files.createDirectories(tmp.getFile().toPath());
+            Path jar = dir.resolve("before.jar");
+            Files.write(jar, data);
+            BlobChunkCache cache = cache(dir.resolve("chunks"));
+            assertEquals(before.getChunkHashes().size(), cache.missing(before).size());
+            cache.storeAll(before, jar);
+            cache.use(TOPO_ID, before);
+            assertTrue(cache.missing(before).isEmpty());
+
+            List<Integer> missing = cache.missing(after);
+            assertTrue(missing.size() >= 1 && missing.size() <= 3);
+            Path dest = dir.resolve("after.jar");
+            cache.copyTo(after, dest, missing, null);
+            try (RandomAccessFile out = new RandomAccessFile(dest.toFile(), "rw")) {
+                for (int i : missing) {
+                    out.seek(after.getChunkOffset(i));
+                    out.write(changed, (int) after.getChunkOffset(i), after.getChunkLength(i));
+                }
+            }
+            assertArrayEquals(changed, Files.readAllBytes(dest));
+
+            // The chunks only the old jar had are not used anymore
+            cache.use(TOPO_ID, after);
+            long unused = cache.getChunks().values().stream().filter((chunk) -> !chunk.isUsed()).count();
+            assertTrue(unused >= 1 && unused <= 3);
+
+            // Chunks are found again after a restart
+            assertTrue(cache(dir.resolve("chunks")).missing(before).isEmpty());
+        }
+    }
+
+    @Test
+    public void testChangedJarIsNotStored() throws Exception {
+        byte[] data = new byte[20_000];
+        new Random(42).nextBytes(data);
+        BlobChunkManifest manifest = BlobChunkManifest.compute(new ByteArrayInputStream(data), 1, 4096);
+        data[0]++;
+        try (TmpPath tmp = new TmpPath()) {
+            Path dir = Files.createDirectories(tmp.getFile().toPath());
+            Path jar = dir.resolve("changed.jar");
+            Files.write(jar, data);
+            BlobChunkCache cache = cache(dir.resolve("chunks"));
+            cache.storeAll(manifest, jar);
+            assertEquals(manifest.getChunkHashes().size(), cache.missing(manifest).size());
+            assertFalse(cache.getChunks().values().stream().anyMatch(LocallyCachedChunk::isFullyDownloaded));
+        }
+    }
+}
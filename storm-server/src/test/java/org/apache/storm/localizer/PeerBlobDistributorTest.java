@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.localizer;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.storm.DaemonConfig;
+import org.apache.storm.blobstore.BlobChunkManifest;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.testing.TmpPath;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PeerBlobDistributorTest {
+    private static final String TOPO_ID = "topo-1";
+
+    private static byte[] jar() {
+        byte[] data = new byte[10_000];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static PeerBlobDistributor distributor(int timeoutSecs) throws Exception {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(DaemonConfig.SUPERVISOR_BLOB_PEER_PORT, 0);
+        conf.put(DaemonConfig.SUPERVISOR_BLOB_PEER_TIMEOUT_SECS, timeoutSecs);
+        return new PeerBlobDistributor(conf, new StormMetricsRegistry());
+    }
+
+    private static void setPeers(PeerBlobDistributor distributor, Map<String, Integer> nodePorts) {
+        Map<String, String> nodeHosts = new HashMap<>();
+        for (String node : nodePorts.keySet()) {
+            nodeHosts.put(node, "localhost");
+        }
+        // the supervisors run on the same host, every one of them on its own port
+        distributor.setPeers(TOPO_ID, nodeHosts, nodePorts::get);
+    }
+
+    @Test
+    public void testFetchFromPeers() throws Exception {
+        byte[] data = jar();
+        BlobChunkManifest manifest = BlobChunkManifest.compute(new ByteArrayInputStream(data), 1, 4096);
+        try (TmpPath tmp = new TmpPath();
+             PeerBlobDistributor seeder = distributor(30);
+             PeerBlobDistributor first = distributor(30);
+             PeerBlobDistributor second = distributor(30)) {
+            Path dir = Files.createDirectories(tmp.getFile().toPath());
+            Path seeded = dir.resolve("seeded.jar");
+            try (OutputStream out = seeder.publishing(new FileOutputStream(seeded.toFile()), seeded, manifest)) {
+                out.write(data);
+            }
+
+            Path fetched = dir.resolve("first.jar");
+            setPeers(first, Collections.singletonMap("seeder", seeder.getPort()));
+            assertTrue(first.fetchFromPeers(TOPO_ID, manifest, fetched));
+            assertArrayEquals(data, Files.readAllBytes(fetched));
+
+            // The first peer serves what it fetched
+            Path fetchedAgain = dir.resolve("second.jar");
+            setPeers(second, Collections.singletonMap("first", first.getPort()));
+            assertTrue(second.fetchFromPeers(TOPO_ID, manifest, fetchedAgain));
+            assertArrayEquals(data, Files.readAllBytes(fetchedAgain));
+        }
+    }
+
+    @Test
+    public void testChangedChunksAreNotServed() throws Exception {
+        byte[] data = jar();
+        BlobChunkManifest manifest = BlobChunkManifest.compute(new ByteArrayInputStream(data), 1, 4096);
+        try (TmpPath tmp = new TmpPath();
+             PeerBlobDistributor seeder = distributor(1);
+             PeerBlobDistributor peer = distributor(1)) {
+            Path dir = Files.createDirectories(tmp.getFile().toPath());
+            Path seeded = dir.resolve("seeded.jar");
+            try (OutputStream out = seeder.publishing(new FileOutputStream(seeded.toFile()), seeded, manifest)) {
+                out.write(data);
+            }
+            try (RandomAccessFile file = new RandomAccessFile(seeded.toFile(), "rw")) {
+                file.seek(5000);
+                file.write(data[5000] + 1);
+            }
+
+            setPeers(peer, Collections.singletonMap("seeder", seeder.getPort()));
+            assertFalse(peer.fetchFromPeers(TOPO_ID, manifest, dir.resolve("peer.jar")));
+            // the chunks that were fetched are not served once the jar is downloaded again from the blob store
+            String unchanged = manifest.getChunkOffset(0) + manifest.getChunkLength(0) > 5000
+                ? manifest.getChunkHashes().get(manifest.getChunkHashes().size() - 1) : manifest.getChunkHashes().get(0);
+            assertTrue(seeder.isServing(unchanged));
+            assertFalse(peer.isServing(unchanged));
+        }
+    }
+
+    @Test
+    public void testPeersWithoutChunksAreAskedLess() throws Exception {
+        byte[] data = jar();
+        BlobChunkManifest manifest = BlobChunkManifest.compute(new ByteArrayInputStream(data), 1, 256);
+        AtomicInteger emptyPeerRequests = new AtomicInteger();
+        HttpServer emptyPeer = HttpServer.create(new InetSocketAddress(0), 0);
+        emptyPeer.createContext(PeerBlobServer.CHUNK_PATH, (exchange) -> {
+            emptyPeerRequests.incrementAndGet();
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+            exchange.close();
+        });
+        emptyPeer.start();
+        try (TmpPath tmp = new TmpPath();
+             PeerBlobDistributor seeder = distributor(30);
+             PeerBlobDistributor peer = distributor(30)) {
+            Path dir = Files.createDirectories(tmp.getFile().toPath());
+            Path seeded = dir.resolve("seeded.jar");
+            try (OutputStream out = seeder.publishing(new FileOutputStream(seeded.toFile()), seeded, manifest)) {
+                out.write(data);
+            }
+
+            Map<String, Integer> nodePorts = new HashMap<>();
+            nodePorts.put("seeder", seeder.getPort());
+            nodePorts.put("empty", emptyPeer.getAddress().getPort());
+            setPeers(peer, nodePorts);
+            Path fetched = dir.resolve("peer.jar");
+            assertTrue(peer.fetchFromPeers(TOPO_ID, manifest, fetched));
+            assertArrayEquals(data, Files.readAllBytes(fetched));
+            assertTrue(manifest.getChunkHashes().size() > 10);
+            // the peer without chunks is left alone after a few misses, instead of being asked for every chunk
+            assertTrue("requests " + emptyPeerRequests.get(), emptyPeerRequests.get() <= 4);
+        } finally {
+            emptyPeer.stop(0);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.storm.nimbus;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.storm.Config;
+import org.apache.storm.DaemonConfig;
+import org.apache.storm.daemon.supervisor.Supervisor;
+import org.apache.storm.generated.Assignment;
+import org.apache.storm.generated.SupervisorAssignments;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.scheduler.INodeAssignmentSentCallBack;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AssignmentDistributionServiceTest {
+
+    private static Assignment assignment(String node) {
+        Assignment assignment = new Assignment("/tmp/storm");
+        assignment.set_node_host(Collections.singletonMap(node, "host"));
+        return assignment;
+    }
+
+    @Test
+    public void testNodeStateDeltas() {
+        AtomicLong nextVersion = new AtomicLong(100);
+        AssignmentDistributionService.NodeState state = new AssignmentDistributionService.NodeState();
+        Map<String, Assignment> first = new HashMap<>();
+        first.put("topo-1", assignment("node-1"));
+        first.put("topo-2", assignment("node-1"));
+
+        SupervisorAssignments full = state.nextAssignments(first, nextVersion);
+        Assert.assertFalse(full.is_set_base_version());
+        Assert.assertEquals(101, full.get_version());
+        Assert.assertEquals(first, full.get_storm_assignment());
+        state.sent(full, first);
+
+        Assert.assertNull(state.nextAssignments(new HashMap<>(first), nextVersion));
+
+        Map<String, Assignment> second = new HashMap<>();
+        second.put("topo-2", assignment("node-2"));
+        second.put("topo-3", assignment("node-1"));
+        SupervisorAssignments delta = state.nextAssignments(second, nextVersion);
+        Assert.assertEquals(101, delta.get_base_version());
+        Assert.assertEquals(102, delta.get_version());
+        Assert.assertEquals(second, delta.get_storm_assignment());
+        Assert.assertEquals(Collections.singletonList("topo-1"), delta.get_removed_storm_ids());
+        state.sent(delta, second);
+
+        // after a failure the node gets everything again
+        state.reset();
+        SupervisorAssignments resync = state.nextAssignments(second, nextVersion);
+        Assert.assertFalse(resync.is_set_base_version());
+        Assert.assertEquals(second, resync.get_storm_assignment());
+    }
+
+    @Test
+    public void testRejectedDeltaIsResentInFull() throws Exception {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.STORM_CLUSTER_MODE, "local");
+        conf.put(DaemonConfig.NIMBUS_ASSIGNMENTS_SERVICE_THREADS, 1);
+        conf.put(DaemonConfig.NIMBUS_ASSIGNMENTS_DELTA_ENABLE, true);
+        INodeAssignmentSentCallBack callback = mock(INodeAssignmentSentCallBack.class);
+        Supervisor supervisor = mock(Supervisor.class);
+        when(supervisor.getId()).thenReturn("node-1");
+        List<SupervisorAssignments> received = new CopyOnWriteArrayList<>();
+        // the supervisor lost its assignments, so it takes no delta
+        when(supervisor.sendSupervisorAssignments(any())).thenAnswer((invocation) -> {
+            SupervisorAssignments assignments = invocation.getArgument(0);
+            received.add(assignments);
+            return !assignments.is_set_base_version();
+        });
+        StormMetricsRegistry metricsRegistry = new StormMetricsRegistry();
+
+        try (AssignmentDistributionService service = AssignmentDistributionService.getInstance(conf, callback)) {
+            service.addLocalSupervisor(supervisor);
+            service.addAssignmentsForNode("node-1", "host", 6627, assignmentsOf("topo-1"), metricsRegistry);
+            verify(callback, timeout(10_000).times(1)).nodeAssignmentSent("node-1", true);
+
+            service.addAssignmentsForNode("node-1", "host", 6627, assignmentsOf("topo-1", "topo-2"), metricsRegistry);
+            verify(callback, timeout(10_000).times(2)).nodeAssignmentSent("node-1", true);
+            Assert.assertEquals(3, received.size());
+            Assert.assertTrue(received.get(1).is_set_base_version());
+            Assert.assertFalse(received.get(2).is_set_base_version());
+            Assert.assertEquals(2, received.get(2).get_storm_assignment_size());
+
+            // a node that left the cluster is sent all of its assignments when it comes back
+            service.retainNodes(Collections.emptySet());
+            service.addAssignmentsForNode("node-1", "host", 6627, assignmentsOf("topo-1", "topo-2", "topo-3"), metricsRegistry);
+            verify(callback, timeout(10_000).times(3)).nodeAssignmentSent("node-1", true);
+            Assert.assertEquals(4, received.size());
+            Assert.assertFalse(received.get(3).is_set_base_version());
+            verify(callback, never()).nodeAssignmentSent("node-1", false);
+        }
+    }
+
+    private static SupervisorAssignments assignmentsOf(String... topoIds) {
+        Map<String, Assignment> assignments = new HashMap<>();
+        for (String topoId : topoIds) {
+            assignments.put(topoId, assignment("node-1"));
+        }
+        SupervisorAssignments ret = new SupervisorAssignments();
+        ret.set_storm_assignment(assignments);
+        return ret;
+    }
+}
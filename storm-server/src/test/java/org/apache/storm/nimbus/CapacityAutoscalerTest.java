@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.storm.nimbus;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.storm.Config;
+import org.apache.storm.utils.Time;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CapacityAutoscalerTest {
+
+    private static TopologyScalingInfo info(int executors, double capacity, double availableCpu) {
+        return info(executors, capacity, availableCpu, Collections.emptyMap());
+    }
+
+    private static TopologyScalingInfo info(int executors, double capacity, double availableCpu,
+                                            Map<String, Map<String, Object>> componentConfs) {
+        Map<String, Object> topoConf = new HashMap<>();
+        topoConf.put(Config.TOPOLOGY_AUTOSCALE_EVALUATIONS, 2);
+        topoConf.put(Config.TOPOLOGY_AUTOSCALE_COOLDOWN_SECS, 60);
+        return new TopologyScalingInfo("topo-1", "topo", topoConf, componentConfs,
+                                       Collections.singletonMap("bolt", executors), Collections.singletonMap("bolt", 16),
+                                       Collections.singletonMap("bolt", capacity), Collections.singletonMap("bolt", 10.0),
+                                       Collections.singletonMap("bolt", 128.0), availableCpu, 100_000.0);
+    }
+
+    @Test
+    public void testScaleUpAfterEvaluationsAndCooldown() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            CapacityAutoscaler autoscaler = new CapacityAutoscaler();
+            autoscaler.prepare(new HashMap<>());
+            Assert.assertTrue(autoscaler.autoscale(info(2, 1.0, 1000.0)).isEmpty());
+            // aims for a capacity of 0.55, the middle of 0.3 and 0.8
+            Assert.assertEquals(Collections.singletonMap("bolt", 4), autoscaler.autoscale(info(2, 1.0, 1000.0)));
+
+            Assert.assertTrue(autoscaler.autoscale(info(4, 1.0, 1000.0)).isEmpty());
+            Assert.assertTrue("still cooling down", autoscaler.autoscale(info(4, 1.0, 1000.0)).isEmpty());
+            Time.advanceTimeSecs(61);
+            Assert.assertEquals(Collections.singletonMap("bolt", 8), autoscaler.autoscale(info(4, 1.0, 1000.0)));
+        }
+    }
+
+    @Test
+    public void testCooldownPerComponent() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            Map<String, Map<String, Object>> componentConfs =
+                Collections.singletonMap("bolt", Collections.singletonMap(Config.TOPOLOGY_AUTOSCALE_COOLDOWN_SECS, 10));
+            CapacityAutoscaler autoscaler = new CapacityAutoscaler();
+            autoscaler.autoscale(info(2, 1.0, 1000.0, componentConfs));
+            Assert.assertEquals(Collections.singletonMap("bolt", 4), autoscaler.autoscale(info(2, 1.0, 1000.0, componentConfs)));
+
+            autoscaler.autoscale(info(4, 1.0, 1000.0, componentConfs));
+            Assert.assertTrue("still cooling down", autoscaler.autoscale(info(4, 1.0, 1000.0, componentConfs)).isEmpty());
+            // the component overrides the cooldown of 60 seconds of the topology
+            Time.advanceTimeSecs(11);
+            Assert.assertEquals(Collections.singletonMap("bolt", 8), autoscaler.autoscale(info(4, 1.0, 1000.0, componentConfs)));
+        }
+    }
+
+    @Test
+    public void testScaleUpLimitedByResources() {
+        CapacityAutoscaler autoscaler = new CapacityAutoscaler();
+        autoscaler.autoscale(info(2, 2.0, 15.0));
+        Assert.assertEquals(Collections.singletonMap("bolt", 3), autoscaler.autoscale(info(2, 2.0, 15.0)));
+
+        autoscaler = new CapacityAutoscaler();
+        autoscaler.autoscale(info(2, 2.0, 5.0));
+        Assert.assertTrue(autoscaler.autoscale(info(2, 2.0, 5.0)).isEmpty());
+    }
+
+    @Test
+    public void testScaleDownNeedsConsecutiveEvaluations() {
+        CapacityAutoscaler autoscaler = new CapacityAutoscaler();
+        Assert.assertTrue(autoscaler.autoscale(info(8, 0.1, 0.0)).isEmpty());
+        Assert.assertTrue(autoscaler.autoscale(info(8, 0.5, 0.0)).isEmpty());
+        Assert.assertTrue(autoscaler.autoscale(info(8, 0.1, 0.0)).isEmpty());
+        Assert.assertEquals(Collections.singletonMap("bolt", 2), autoscaler.autoscale(info(8, 0.1, 0.0)));
+    }
+}
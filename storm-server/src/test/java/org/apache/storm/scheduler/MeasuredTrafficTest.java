@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.scheduler;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.storm.generated.StormTopology;
+import org.apache.storm.testing.TestWordCounter;
+import org.apache.storm.testing.TestWordSpout;
+import org.apache.storm.topology.TopologyBuilder;
+import org.apache.storm.utils.Utils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link MeasuredTraffic}.
+ */
+public class MeasuredTrafficTest {
+
+    private static MeasuredTraffic makeTraffic() {
+        TopologyBuilder builder = new TopologyBuilder();
+        builder.setSpout("spout", new TestWordSpout(), 2);
+        builder.setBolt("a", new TestWordCounter(), 2).shuffleGrouping("spout");
+        builder.setBolt("b", new TestWordCounter(), 1).shuffleGrouping("a");
+        builder.setBolt("c", new TestWordCounter(), 1).shuffleGrouping("a");
+        StormTopology topology = builder.createTopology();
+
+        Map<String, Map<String, Double>> streamRates = new HashMap<>();
+        streamRates.put("spout", Collections.singletonMap(Utils.DEFAULT_STREAM_ID, 100.0));
+        streamRates.put("a", Collections.singletonMap(Utils.DEFAULT_STREAM_ID, 40.0));
+        // nobody subscribes to this stream
+        streamRates.put("b", Collections.singletonMap("__metrics", 10.0));
+        return MeasuredTraffic.fromStreamRates(topology, streamRates);
+    }
+
+    @Test
+    public void testFromStreamRates() {
+        MeasuredTraffic traffic = makeTraffic();
+        Assert.assertEquals(100.0, traffic.getRate("spout", "a"), 0.001);
+        // split between the two subscribers
+        Assert.assertEquals(20.0, traffic.getRate("a", "b"), 0.001);
+        Assert.assertEquals(20.0, traffic.getRate("a", "c"), 0.001);
+        Assert.assertEquals(0.0, traffic.getRate("b", "a"), 0.001);
+        Assert.assertEquals(20.0, traffic.getRateBetween("b", "a"), 0.001);
+        Assert.assertEquals(140.0, traffic.getTotalRate("a"), 0.001);
+        Assert.assertEquals(140.0, traffic.getTotalRate(), 0.001);
+        Assert.assertEquals(Collections.singleton("a"), traffic.getNeighbors("b"));
+    }
+
+    @Test
+    public void testRemoteRates() {
+        MeasuredTraffic traffic = makeTraffic();
+        Map<ExecutorDetails, String> execToComp = new HashMap<>();
+        Map<ExecutorDetails, WorkerSlot> execToSlot = new HashMap<>();
+        WorkerSlot slot1 = new WorkerSlot("node-1", 6700);
+        WorkerSlot slot2 = new WorkerSlot("node-1", 6701);
+        WorkerSlot slot3 = new WorkerSlot("node-2", 6700);
+        addExec(execToComp, execToSlot, 1, "spout", slot1);
+        addExec(execToComp, execToSlot, 2, "spout", slot2);
+        addExec(execToComp, execToSlot, 3, "a", slot1);
+        addExec(execToComp, execToSlot, 4, "a", slot2);
+        addExec(execToComp, execToSlot, 5, "b", slot3);
+
+        // half of spout -> a stays in a worker, all of a -> b goes to another node, c is not assigned
+        Assert.assertEquals(50.0 + 20.0, traffic.getCrossWorkerRate(execToComp, execToSlot), 0.001);
+        Assert.assertEquals(20.0, traffic.getCrossNodeRate(execToComp, execToSlot), 0.001);
+    }
+
+    private static void addExec(Map<ExecutorDetails, String> execToComp, Map<ExecutorDetails, WorkerSlot> execToSlot,
+                                int task, String comp, WorkerSlot slot) {
+        ExecutorDetails exec = new ExecutorDetails(task, task);
+        execToComp.put(exec, comp);
+        execToSlot.put(exec, slot);
+    }
+}
@@ -864,6 +864,57 @@ public class TestResourceAwareScheduler {
         assertTopologiesNotScheduled(cluster, "topo-2");
     }
 
+    @Test
+    public void testParallelScheduling() {
+        INimbus iNimbus = new INimbusTest();
+        Map<String, SupervisorDetails> supMap = genSupervisors(20, 4, 1000, 1024 * 10);
+        Config config = createClusterConfig(10, 128, 0, null);
+        config.put(DaemonConfig.RESOURCE_AWARE_SCHEDULER_PARALLEL_SCHEDULING_THREADS, 4);
+
+        List<TopologyDetails> topos = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            topos.add(genTopology("topo-" + i, config, 5, 15, 1, 1, currentTime - 2 * i, 20, "jerry"));
+        }
+        Topologies topologies = new Topologies(topos.toArray(new TopologyDetails[0]));
+        Cluster cluster = new Cluster(iNimbus, new ResourceMetrics(new StormMetricsRegistry()), supMap, new HashMap<>(), topologies, config);
+
+        StormMetricsRegistry metricsRegistry = new StormMetricsRegistry();
+        scheduler = new ResourceAwareScheduler();
+        scheduler.prepare(config, metricsRegistry);
+        scheduler.schedule(topologies, cluster);
+        for (TopologyDetails td : topologies) {
+            assertTopologiesFullyScheduled(cluster, td.getName());
+        }
+        long hits = metricsRegistry.getMeter("nimbus:num-speculative-scheduling-hits").getCount();
+        long conflicts = metricsRegistry.getMeter("nimbus:num-speculative-scheduling-conflicts").getCount();
+        assertEquals(10, hits + conflicts);
+        assertTrue("at least the highest priority topology is a hit", hits > 0);
+    }
+
+    @Test
+    public void testParallelSchedulingKeepsPriorityOrder() {
+        INimbus iNimbus = new INimbusTest();
+        Map<String, SupervisorDetails> supMap = genSupervisors(1, 4, 200, 1024 * 10);
+        Config config = createClusterConfig(10, 128, 0, null);
+        config.put(DaemonConfig.RESOURCE_AWARE_SCHEDULER_PARALLEL_SCHEDULING_THREADS, 2);
+
+        // each topology fits on its own, but not both of them
+        Topologies topologies = new Topologies(
+            genTopology("topo-1", config, 5, 10, 1, 1, currentTime - 2, 20, "jerry"),
+            genTopology("topo-2", config, 5, 10, 1, 1, currentTime - 8, 29, "jerry"));
+        Cluster cluster = new Cluster(iNimbus, new ResourceMetrics(new StormMetricsRegistry()), supMap, new HashMap<>(), topologies, config);
+
+        StormMetricsRegistry metricsRegistry = new StormMetricsRegistry();
+        scheduler = new ResourceAwareScheduler();
+        scheduler.prepare(config, metricsRegistry);
+        scheduler.schedule(topologies, cluster);
+
+        assertTopologiesFullyScheduled(cluster, "topo-1");
+        assertTopologiesNotScheduled(cluster, "topo-2");
+        assertEquals(1, metricsRegistry.getMeter("nimbus:num-speculative-scheduling-hits").getCount());
+        assertEquals(1, metricsRegistry.getMeter("nimbus:num-speculative-scheduling-conflicts").getCount());
+    }
+
     /**
      * Test correct behavior when a supervisor dies.  Check if the scheduler handles it correctly and evicts the correct
      * topology when rescheduling the executors from the died supervisor
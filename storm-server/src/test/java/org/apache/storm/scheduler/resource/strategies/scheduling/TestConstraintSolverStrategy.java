@@ -382,6 +382,55 @@ public class TestConstraintSolverStrategy {
         basicUnitTestWithKillAndRecover(new ConstraintSolverStrategy(), NORMAL_BOLT_PARALLEL, CO_LOCATION_CNT);
     }
 
+    @Test
+    public void testConstraintSolverInParallel() {
+        Map<String, Object> config = makeTestTopoConf();
+        config.put(Config.TOPOLOGY_RAS_CONSTRAINT_SEARCH_THREADS, 3);
+        ConstraintSolverStrategy cs = new ConstraintSolverStrategy();
+        cs.prepare(config);
+
+        TopologyDetails topo = makeTopology(config, NORMAL_BOLT_PARALLEL);
+        Topologies topologies = new Topologies(topo);
+        Cluster cluster = makeCluster(topologies);
+
+        SchedulingResult result = cs.schedule(cluster, topo);
+        LOG.info("Done scheduling {}...", result);
+
+        Assert.assertTrue("Assert scheduling topology success " + result, result.isSuccess());
+        Assert.assertEquals("topo all executors scheduled?", 0, cluster.getUnassignedExecutors(topo).size());
+        Assert.assertTrue("Valid Scheduling?", ConstraintSolverStrategy.validateSolution(cluster, topo));
+        SchedulingResult.SearchStats searchStats = result.getSearchStats();
+        Assert.assertNotNull("Search stats reported", searchStats);
+        // the first two branches try one node each, the last one the other two nodes
+        Assert.assertEquals("One branch per thread", 3, searchStats.getBranches());
+        Assert.assertTrue("At least one branch searched", searchStats.getBranchesSearched() >= 1);
+        Assert.assertTrue("States searched", searchStats.getStatesSearched() > 0);
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            Assert.assertFalse("Search thread still running " + thread.getName(),
+                thread.getName().startsWith("ConstraintSolverStrategy-search-"));
+        }
+    }
+
+    @Test
+    public void testParallelSearchSharesStateLimit() {
+        Map<String, Object> config = makeTestTopoConf();
+        config.put(Config.TOPOLOGY_RAS_CONSTRAINT_SEARCH_THREADS, 2);
+        config.put(Config.TOPOLOGY_RAS_CONSTRAINT_MAX_STATE_SEARCH, 1_000);
+        ConstraintSolverStrategy cs = new ConstraintSolverStrategy();
+        cs.prepare(config);
+
+        TopologyDetails topo = makeTopology(config, NORMAL_BOLT_PARALLEL);
+        // the nodes have memory for all the executors but one, so no branch finds a solution
+        Cluster cluster = makeCluster(new Topologies(topo), genSupervisors(4, 2, 10_000, 1_199));
+
+        SchedulingResult result = cs.schedule(cluster, topo);
+        Assert.assertFalse("Assert scheduling topology failure " + result, result.isSuccess());
+        SchedulingResult.SearchStats searchStats = result.getSearchStats();
+        Assert.assertEquals(2, searchStats.getBranches());
+        // every branch may go one state over the limit before it sees it was reached
+        Assert.assertTrue("States searched " + searchStats, searchStats.getStatesSearched() <= 1_000 + 2);
+    }
+
     public void basicFailureTest(String confKey, Object confValue, ConstraintSolverStrategy cs) {
         Map<String, Object> config = makeTestTopoConf();
         config.put(confKey, confValue);
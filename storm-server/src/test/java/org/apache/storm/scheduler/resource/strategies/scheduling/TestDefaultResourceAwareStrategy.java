@@ -831,6 +831,57 @@ public class TestDefaultResourceAwareStrategy {
         Assert.assertEquals("All executors in topo-2 scheduled", 0, cluster.getUnassignedExecutors(topo2).size());
     }
 
+    /**
+     * Test that sorted racks are reused until the resources of a node change
+     */
+    @Test
+    public void testSortRacksAfterNodeResourcesChange() {
+        final Map<String, SupervisorDetails> supMap = new HashMap<>();
+        final Map<String, SupervisorDetails> supMapRack0 = genSupervisors(2, 4, 0, 400, 8000);
+        final Map<String, SupervisorDetails> supMapRack1 = genSupervisors(2, 4, 2, 300, 6000);
+        supMap.putAll(supMapRack0);
+        supMap.putAll(supMapRack1);
+
+        Config config = createClusterConfig(100, 500, 500, null);
+        config.put(Config.TOPOLOGY_WORKER_MAX_HEAP_SIZE_MB, Double.MAX_VALUE);
+        INimbus iNimbus = new INimbusTest();
+
+        TopologyDetails topo1 = genTopology("topo-1", config, 4, 0, 2, 0, CURRENT_TIME - 2, 10, "user");
+        TopologyDetails topo2 = genTopology("topo-2", config, 4, 0, 2, 0, CURRENT_TIME - 2, 10, "user");
+        Topologies topologies = new Topologies(topo1, topo2);
+        Cluster cluster = new Cluster(iNimbus, new ResourceMetrics(new StormMetricsRegistry()), supMap, new HashMap<>(), topologies, config);
+
+        DNSToSwitchMapping testNetworkTopographyPlugin = new TestDNSToSwitchMapping(supMapRack0, supMapRack1);
+        Map<String, List<String>> rackToNodes = new HashMap<>();
+        for (SupervisorDetails sup : supMap.values()) {
+            String rack = testNetworkTopographyPlugin.resolve(Collections.singletonList(sup.getHost())).get(sup.getHost());
+            rackToNodes.computeIfAbsent(rack, (r) -> new ArrayList<>()).add(sup.getHost());
+        }
+        cluster.setNetworkTopography(rackToNodes);
+
+        DefaultResourceAwareStrategyOld rs = new DefaultResourceAwareStrategyOld();
+        rs.prepareForScheduling(cluster, topo1);
+        INodeSorter nodeSorter = new NodeSorter(cluster, topo1, BaseResourceAwareStrategy.NodeSortType.DEFAULT_RAS);
+        TreeSet<ObjectResourcesItem> sortedRacks = nodeSorter.sortRacks(null);
+        Assert.assertEquals("rack-0 should be ordered first", "rack-0", sortedRacks.first().id);
+        Assert.assertSame("racks should not be sorted again", sortedRacks, nodeSorter.sortRacks(null));
+
+        // use up most of rack-0 with another topology, so that rack-1 has more available resources
+        Iterator<ExecutorDetails> executorIterator = topo2.getExecutors().iterator();
+        for (String nodeHostname : rackToNodes.get("rack-0")) {
+            RasNode node = rs.hostnameToNodes(nodeHostname).get(0);
+            long version = cluster.getNodeResourcesVersion(node.getId());
+            for (int i = 0; i < 3; i++) {
+                node.assign(node.getFreeSlots().iterator().next(), topo2, Arrays.asList(executorIterator.next()));
+            }
+            Assert.assertNotEquals("node resources version should change", version, cluster.getNodeResourcesVersion(node.getId()));
+        }
+
+        TreeSet<ObjectResourcesItem> resortedRacks = nodeSorter.sortRacks(null);
+        Assert.assertNotSame("racks should be sorted again", sortedRacks, resortedRacks);
+        Assert.assertEquals("rack-1 should be ordered first", "rack-1", resortedRacks.first().id);
+    }
+
     /**
      * Test whether strategy will choose correct rack
      */
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.scheduler.resource.strategies.scheduling.sorter;
+
+import static org.apache.storm.scheduler.resource.TestUtilsForResourceAwareScheduler.createClusterConfig;
+import static org.apache.storm.scheduler.resource.TestUtilsForResourceAwareScheduler.genSupervisors;
+import static org.apache.storm.scheduler.resource.TestUtilsForResourceAwareScheduler.topoToTopologyDetails;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.apache.storm.Config;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.scheduler.Cluster;
+import org.apache.storm.scheduler.ExecutorDetails;
+import org.apache.storm.scheduler.MeasuredTraffic;
+import org.apache.storm.scheduler.SupervisorDetails;
+import org.apache.storm.scheduler.Topologies;
+import org.apache.storm.scheduler.TopologyDetails;
+import org.apache.storm.scheduler.WorkerSlot;
+import org.apache.storm.scheduler.resource.TestUtilsForResourceAwareScheduler.INimbusTest;
+import org.apache.storm.scheduler.resource.normalization.ResourceMetrics;
+import org.apache.storm.scheduler.resource.strategies.scheduling.ObjectResourcesItem;
+import org.apache.storm.testing.TestWordCounter;
+import org.apache.storm.testing.TestWordSpout;
+import org.apache.storm.topology.TopologyBuilder;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ordering tests for {@link ExecSorterByTraffic} and {@link NodeSorterByTraffic}.
+ */
+public class TestTrafficSorters {
+
+    private static TopologyDetails makeTopology(Config config) {
+        TopologyBuilder builder = new TopologyBuilder();
+        builder.setSpout("spout", new TestWordSpout(), 2);
+        builder.setBolt("a", new TestWordCounter(), 2).shuffleGrouping("spout");
+        builder.setBolt("b", new TestWordCounter(), 1).shuffleGrouping("a");
+        builder.setBolt("c", new TestWordCounter(), 1).shuffleGrouping("a");
+        builder.setBolt("d", new TestWordCounter(), 1).shuffleGrouping("c");
+        return topoToTopologyDetails("topo", config, builder.createTopology(), 0, 0, "user", Double.MAX_VALUE);
+    }
+
+    private static MeasuredTraffic makeTraffic() {
+        Map<String, Map<String, Double>> rates = new HashMap<>();
+        rates.put("spout", Collections.singletonMap("a", 100.0));
+        Map<String, Double> fromA = new HashMap<>();
+        fromA.put("b", 40.0);
+        fromA.put("c", 5.0);
+        rates.put("a", fromA);
+        // c -> d has no measured traffic
+        return new MeasuredTraffic(rates);
+    }
+
+    private static ExecutorDetails getExec(TopologyDetails td, String comp, int index) {
+        List<ExecutorDetails> execs = new ArrayList<>(td.getComponentToExecutors().get(comp));
+        execs.sort((e1, e2) -> Integer.compare(e1.getStartTask(), e2.getStartTask()));
+        return execs.get(index);
+    }
+
+    @Test
+    public void testExecSorterByTraffic() {
+        TopologyDetails td = makeTopology(createClusterConfig(10, 128, 0, null));
+        IExecSorter sorter = new ExecSorterByTraffic(td, makeTraffic());
+
+        List<ExecutorDetails> sorted = sorter.sortExecutors(new HashSet<>(td.getExecutors()));
+        Map<ExecutorDetails, String> execToComp = td.getExecutorToComponent();
+        List<String> sortedComps = new ArrayList<>();
+        for (ExecutorDetails exec : sorted) {
+            sortedComps.add(execToComp.get(exec));
+        }
+        // a exchanges the most tuples, its neighbors follow each of its executors busiest first and spread over them,
+        // d has no measured traffic and comes last
+        assertEquals(Arrays.asList("a", "spout", "b", "c", "a", "spout", "d"), sortedComps);
+        assertEquals(new HashSet<>(td.getExecutors()), new HashSet<>(sorted));
+    }
+
+    @Test
+    public void testNodeSorterByTraffic() {
+        Config config = createClusterConfig(10, 128, 0, null);
+        TopologyDetails td = makeTopology(config);
+        Map<String, SupervisorDetails> supMap = genSupervisors(3, 4, 400, 10_000);
+        Cluster cluster = new Cluster(new INimbusTest(), new ResourceMetrics(new StormMetricsRegistry()), supMap, new HashMap<>(),
+                                      new Topologies(td), config);
+        List<String> nodeIds = new ArrayList<>(new TreeSet<>(supMap.keySet()));
+        String spoutNode = nodeIds.get(0);
+        String bNode = nodeIds.get(1);
+        String freeNode = nodeIds.get(2);
+        cluster.assign(new WorkerSlot(spoutNode, 0), td.getId(),
+                       Arrays.asList(getExec(td, "spout", 0), getExec(td, "spout", 1)));
+        cluster.assign(new WorkerSlot(bNode, 0), td.getId(), Collections.singletonList(getExec(td, "b", 0)));
+
+        // the delegate prefers the nodes in the reverse order
+        List<String> delegateOrder = Arrays.asList(freeNode, bNode, spoutNode);
+        INodeSorter delegate = new INodeSorter() {
+            @Override
+            public TreeSet<ObjectResourcesItem> sortRacks(ExecutorDetails exec) {
+                return new TreeSet<>();
+            }
+
+            @Override
+            public Iterable<String> sortAllNodes(ExecutorDetails exec) {
+                return delegateOrder;
+            }
+        };
+        INodeSorter sorter = new NodeSorterByTraffic(cluster, td, delegate, makeTraffic());
+
+        // a exchanges 100 tuples per second with the spouts and 40 with b
+        assertEquals(Arrays.asList(spoutNode, bNode, freeNode), toList(sorter.sortAllNodes(getExec(td, "a", 0))));
+        // d has no measured traffic, so the delegate decides
+        assertEquals(delegateOrder, toList(sorter.sortAllNodes(getExec(td, "d", 0))));
+
+        // grey listed nodes are never moved to the front
+        cluster.setGreyListedSupervisors(Collections.singleton(spoutNode));
+        assertEquals(Arrays.asList(bNode, freeNode, spoutNode), toList(sorter.sortAllNodes(getExec(td, "a", 0))));
+    }
+
+    private static List<String> toList(Iterable<String> nodeIds) {
+        List<String> ret = new ArrayList<>();
+        nodeIds.forEach(ret::add);
+        return ret;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.scheduler.simulator;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.storm.Config;
+import org.apache.storm.DaemonConfig;
+import org.apache.storm.metric.StormMetricsRegistry;
+import org.apache.storm.scheduler.Cluster;
+import org.apache.storm.scheduler.INimbus;
+import org.apache.storm.scheduler.SupervisorDetails;
+import org.apache.storm.scheduler.Topologies;
+import org.apache.storm.scheduler.TopologyDetails;
+import org.apache.storm.scheduler.resource.ResourceAwareScheduler;
+import org.apache.storm.scheduler.resource.normalization.ResourceMetrics;
+import org.apache.storm.scheduler.resource.strategies.scheduling.GenericResourceAwareStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.storm.scheduler.resource.TestUtilsForResourceAwareScheduler.*;
+import static org.junit.Assert.assertEquals;
+
+public class TestSchedulingSimulator {
+
+    @Test
+    public void testReplaySnapshot() throws Exception {
+        Config config = createClusterConfig(100, 500, 500, null);
+        config.put(DaemonConfig.STORM_SCHEDULER, ResourceAwareScheduler.class.getName());
+        INimbus iNimbus = new INimbusTest();
+        Map<String, SupervisorDetails> supMap = genSupervisors(4, 4, 400, 4000);
+        TopologyDetails topo1 = genTopology("topo-1", config, 1, 1, 2, 2, 0, 0, "user");
+        TopologyDetails topo2 = genTopology("topo-2", config, 1, 1, 2, 2, 0, 0, "user");
+        Topologies topologies = new Topologies(topo1, topo2);
+        Cluster cluster = new Cluster(iNimbus, new ResourceMetrics(new StormMetricsRegistry()), supMap, new HashMap<>(), topologies, config);
+        ResourceAwareScheduler rs = new ResourceAwareScheduler();
+        rs.prepare(config, new StormMetricsRegistry());
+        try {
+            rs.schedule(topologies, cluster);
+        } finally {
+            rs.cleanup();
+        }
+        assertTopologiesFullyScheduled(cluster, "topo-1", "topo-2");
+
+        File file = Files.createTempFile("cluster", ".snapshot").toFile();
+        try {
+            ClusterSnapshot.fromCluster(cluster).write(file);
+            ClusterSnapshot snapshot = ClusterSnapshot.read(file);
+            assertEquals(4, snapshot.getNumSupervisors());
+            assertEquals(2, snapshot.getNumTopologies());
+
+            // Nothing needs scheduling, so nothing moves
+            SimulationReport report = new SchedulingSimulator(config, snapshot, new HashMap<>()).run(2, false);
+            assertEquals(2, report.getRounds().size());
+            for (SimulationReport.Round round : report.getRounds()) {
+                assertEquals(2, round.getScheduledTopologies());
+                assertEquals(0, round.getUnscheduledTopologies());
+                assertEquals(0, round.getEvictedTopologies());
+                assertEquals(0, round.getMovedExecutors());
+            }
+
+            Map<String, Object> topoConfOverrides = new HashMap<>();
+            topoConfOverrides.put(Config.TOPOLOGY_SCHEDULER_STRATEGY, GenericResourceAwareStrategy.class.getName());
+            report = new SchedulingSimulator(config, snapshot, topoConfOverrides).run(1, true);
+            SimulationReport.Round round = report.getRounds().get(0);
+            assertEquals(2, round.getScheduledTopologies());
+            assertEquals(0, round.getEvictedTopologies());
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.storm.Config;
+import org.apache.storm.LocalCluster;
+import org.apache.storm.task.IMetricsContext;
+import org.apache.storm.trident.operation.builtin.Count;
+import org.apache.storm.trident.state.OpaqueValue;
+import org.apache.storm.trident.state.State;
+import org.apache.storm.trident.state.StateFactory;
+import org.apache.storm.trident.state.map.IBackingMap;
+import org.apache.storm.trident.state.map.OpaqueMap;
+import org.apache.storm.trident.state.map.PrefetchingBackingMap;
+import org.apache.storm.trident.testing.FixedBatchSpout;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Values;
+import org.junit.Test;
+
+public class TridentStatePrefetchTest {
+    private static final Map<List<Object>, OpaqueValue> DB = new ConcurrentHashMap<>();
+    private static final List<String> READ_THREADS = Collections.synchronizedList(new ArrayList<>());
+    private static final List<List<List<Object>>> WRITES = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testPersistentAggregateReadsEachBatchOnce() throws Exception {
+        FixedBatchSpout spout = new FixedBatchSpout(new Fields("word"), 3,
+                                                    new Values("a"), new Values("b"), new Values("a"),
+                                                    new Values("c"), new Values("b"), new Values("a"));
+        TridentTopology topology = new TridentTopology();
+        topology.newStream("words", spout)
+                .groupBy(new Fields("word"))
+                .persistentAggregate(new CountingStateFactory(), new Count(), new Fields("count"));
+
+        Config conf = new Config();
+        conf.put(Config.TOPOLOGY_TRIDENT_STATE_PREFETCH, true);
+        conf.put(Config.TOPOLOGY_MAX_SPOUT_PENDING, 1);
+        try (LocalCluster cluster = new LocalCluster.Builder().withSupervisors(1).build()) {
+            cluster.submitTopology("prefetch", conf, topology.build());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+            while (WRITES.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+            cluster.killTopology("prefetch");
+        }
+
+        assertEquals(2, WRITES.size());
+        // one read per batch, made by the prefetch while the batch waited for its commit, none when it committed
+        assertEquals(READ_THREADS.toString(), 2, READ_THREADS.size());
+        for (String thread : READ_THREADS) {
+            assertTrue(thread, thread.startsWith("trident-prefetch-"));
+        }
+        assertEquals(3L, DB.get(Collections.singletonList("a")).getCurr());
+        assertEquals(2L, DB.get(Collections.singletonList("b")).getCurr());
+        assertEquals(1L, DB.get(Collections.singletonList("c")).getCurr());
+    }
+
+    private static class CountingStateFactory implements StateFactory {
+        @Override
+        public State makeState(Map<String, Object> conf, IMetricsContext metrics, int partitionIndex, int numPartitions) {
+            return OpaqueMap.build(PrefetchingBackingMap.wrapIfEnabled(conf, new CountingBackingMap()));
+        }
+    }
+
+    private static class CountingBackingMap implements IBackingMap<OpaqueValue> {
+        @Override
+        public List<OpaqueValue> multiGet(List<List<Object>> keys) {
+            if (!keys.isEmpty()) {
+                READ_THREADS.add(Thread.currentThread().getName());
+            }
+            List<OpaqueValue> ret = new ArrayList<>(keys.size());
+            for (List<Object> key : keys) {
+                ret.add(DB.get(key));
+            }
+            return ret;
+        }
+
+        @Override
+        public void multiPut(List<List<Object>> keys, List<OpaqueValue> vals) {
+            if (!keys.isEmpty()) {
+                WRITES.add(keys);
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                DB.put(new ArrayList<>(keys.get(i)), vals.get(i));
+            }
+        }
+    }
+}